@@ -0,0 +1,149 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep.simple.jmh;
+
+import java.util.Locale;
+
+import org.jxmpp.stringprep.XmppStringprep;
+import org.jxmpp.stringprep.XmppStringprepException;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the single-scan {@link SimpleXmppStringprep} with its previous implementation, which lowercased the input,
+ * and then scanned it twice. The GC profiler, which is enabled by the build, reports the allocation rate of both.
+ */
+@State(Scope.Thread)
+public class SimpleXmppStringprepBenchmark {
+
+    private static final String[] LOCALPARTS = {
+        "juliet", "romeo", "benvolio", "mercutio", "nurse", "tybalt", "friar.laurence", "paris",
+    };
+
+    private static final String[] DOMAINPARTS = {
+        "example.org", "capulet.lit", "montague.lit", "conference.example.org", "pubsub.shakespeare.lit",
+        "upload.example.net", "xmpp.verona.it", "im.example.com",
+    };
+
+    private static final String[] RESOURCEPARTS = {
+        "balcony", "orchard", "Gajim.1a2b3c", "Conversations.xYz9", "mobile", "desktop", "Dino.4d5e", "tablet",
+    };
+
+    @Param({"baseline", "single-pass"})
+    public String implementation;
+
+    /**
+     * The shape of the input: already lowercase ASCII, ASCII with uppercase letters, or non-ASCII.
+     */
+    @Param({"lowercase", "mixedcase", "nonascii"})
+    public String input;
+
+    private XmppStringprep xmppStringprep;
+
+    private String[] localparts;
+
+    private String[] domainparts;
+
+    private String[] resourceparts;
+
+    private int position;
+
+    /**
+     * Setup the implementation and the input.
+     */
+    @Setup
+    public void setup() {
+        switch (implementation) {
+        case "baseline":
+            xmppStringprep = BaselineSimpleXmppStringprep.INSTANCE;
+            break;
+        case "single-pass":
+            xmppStringprep = SimpleXmppStringprep.getInstance();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+
+        localparts = shape(LOCALPARTS);
+        domainparts = shape(DOMAINPARTS);
+        resourceparts = shape(RESOURCEPARTS);
+    }
+
+    private String[] shape(String[] strings) {
+        String[] res = new String[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            String string = strings[i];
+            switch (input) {
+            case "lowercase":
+                break;
+            case "mixedcase":
+                string = string.substring(0, 1).toUpperCase(Locale.US) + string.substring(1);
+                break;
+            case "nonascii":
+                string = string + "-été";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown input: " + input);
+            }
+            // Ensure that the benchmarks do not operate on constants of the constant pool.
+            res[i] = new String(string.toCharArray());
+        }
+        return res;
+    }
+
+    private int next() {
+        position = (position + 1) & 7;
+        return position;
+    }
+
+    /**
+     * Measures localprep.
+     *
+     * @return the prepared localpart.
+     * @throws XmppStringprepException if the localpart is invalid.
+     */
+    @Benchmark
+    public String localprep() throws XmppStringprepException {
+        return xmppStringprep.localprep(localparts[next()]);
+    }
+
+    /**
+     * Measures domainprep.
+     *
+     * @return the prepared domainpart.
+     * @throws XmppStringprepException if the domainpart is invalid.
+     */
+    @Benchmark
+    public String domainprep() throws XmppStringprepException {
+        return xmppStringprep.domainprep(domainparts[next()]);
+    }
+
+    /**
+     * Measures resourceprep.
+     *
+     * @return the prepared resourcepart.
+     * @throws XmppStringprepException if the resourcepart is invalid.
+     */
+    @Benchmark
+    public String resourceprep() throws XmppStringprepException {
+        return xmppStringprep.resourceprep(resourceparts[next()]);
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.EntryVisitor;
+
+/**
+ * Snapshots of the caches of a {@link JxmppContext}. A snapshot can be written, e.g. before a node is shut down, and
+ * preloaded once the node starts again, so that the caches are warm right away, instead of having to perform the
+ * stringprep of the whole working set again.
+ * <p>
+ * A snapshot is a compressed binary file containing the keys and the String representations of the values of the
+ * caches. Every cache of the snapshot is tagged with the {@link org.jxmpp.stringprep.XmppStringprep} backend of its
+ * context. When preloading, the caches tagged with a different backend than the one of the context which is
+ * preloaded are skipped, as the cached results of the other backend may differ.
+ * </p>
+ * <p>
+ * The cache sets are preloaded in the given order. Since the JID caches rely on the stringprep caches, the stringprep
+ * caches should be preloaded first, for example by using the cache sets returned by JidCreate.getCacheSets().
+ * </p>
+ */
+public final class CacheSnapshot {
+
+	private static final int MAGIC = 0x4a584353;
+
+	private static final int VERSION = 1;
+
+	/**
+	 * The maximum length of the Strings in a snapshot. Every character takes at most three bytes in modified UTF-8,
+	 * and the encoded String must not exceed 65535 bytes.
+	 */
+	private static final int MAX_STRING_LENGTH = 65535 / 3;
+
+	private CacheSnapshot() {
+	}
+
+	/**
+	 * Write a snapshot of the given cache sets to the given output stream. The stream is not closed.
+	 *
+	 * @param out the output stream.
+	 * @param cacheSets the cache sets.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void write(OutputStream out, List<? extends JxmppContext.CacheSet> cacheSets) throws IOException {
+		List<Section> sections = new ArrayList<>();
+		for (JxmppContext.CacheSet cacheSet : cacheSets) {
+			String backendName = getBackendName(cacheSet.context);
+			for (Map.Entry<String, Cache<?, ?>> entry : cacheSet.getCaches().entrySet()) {
+				Section section = new Section(entry.getKey(), backendName);
+				entry.getValue().forEachEntry(section);
+				sections.add(section);
+			}
+		}
+
+		GZIPOutputStream gzipOutputStream = new GZIPOutputStream(out);
+		DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(gzipOutputStream));
+		dataOutputStream.writeInt(MAGIC);
+		dataOutputStream.writeByte(VERSION);
+		dataOutputStream.writeInt(sections.size());
+		for (Section section : sections) {
+			dataOutputStream.writeUTF(section.cacheName);
+			dataOutputStream.writeUTF(section.backendName);
+			dataOutputStream.writeInt(section.entries.size());
+			for (Map.Entry<String, String> entry : section.entries.entrySet()) {
+				dataOutputStream.writeUTF(entry.getKey());
+				dataOutputStream.writeUTF(entry.getValue());
+			}
+		}
+		dataOutputStream.flush();
+		gzipOutputStream.finish();
+	}
+
+	/**
+	 * Preload the entries of the snapshot read from the given input stream into the given cache sets. The stream is
+	 * not closed.
+	 *
+	 * @param in the input stream.
+	 * @param cacheSets the cache sets, in the order they should be preloaded.
+	 * @return the number of preloaded entries.
+	 * @throws IOException if an I/O error occurs or if the stream does not contain a snapshot.
+	 */
+	public static int preload(InputStream in, List<? extends JxmppContext.CacheSet> cacheSets) throws IOException {
+		DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+		if (dataInputStream.readInt() != MAGIC) {
+			throw new IOException("Not a cache snapshot");
+		}
+		int version = dataInputStream.readUnsignedByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported cache snapshot version " + version);
+		}
+
+		// The counts are not trusted, hence no collection is presized by them. A count exceeding the actual content of
+		// a truncated or corrupt snapshot fails with an EOFException once the end of the stream is reached.
+		int sectionCount = readCount(dataInputStream, "section");
+		List<Section> sections = new ArrayList<>();
+		for (int i = 0; i < sectionCount; i++) {
+			Section section = new Section(dataInputStream.readUTF(), dataInputStream.readUTF());
+			int entryCount = readCount(dataInputStream, "entry");
+			for (int j = 0; j < entryCount; j++) {
+				String key = dataInputStream.readUTF();
+				String value = dataInputStream.readUTF();
+				section.entries.put(key, value);
+			}
+			sections.add(section);
+		}
+
+		int preloaded = 0;
+		for (JxmppContext.CacheSet cacheSet : cacheSets) {
+			String backendName = getBackendName(cacheSet.context);
+			Map<String, Cache<?, ?>> caches = cacheSet.getCaches();
+			for (Section section : sections) {
+				if (!caches.containsKey(section.cacheName) || !section.backendName.equals(backendName)) {
+					continue;
+				}
+				for (Map.Entry<String, String> entry : section.entries.entrySet()) {
+					if (cacheSet.preload(section.cacheName, entry.getKey(), entry.getValue())) {
+						preloaded++;
+					}
+				}
+			}
+		}
+		return preloaded;
+	}
+
+	/**
+	 * Preload the entries of the snapshot in the given file into the given cache sets, using the given executor. This
+	 * allows to start up while the caches are preloaded in the background.
+	 *
+	 * @param file the snapshot file.
+	 * @param cacheSets the cache sets, in the order they should be preloaded.
+	 * @param executor the executor used to preload the caches.
+	 * @return a future of the number of preloaded entries.
+	 * @see #preload(InputStream, List)
+	 */
+	public static Future<Integer> preload(final File file, final List<? extends JxmppContext.CacheSet> cacheSets,
+			Executor executor) {
+		FutureTask<Integer> future = new FutureTask<>(new Callable<Integer>() {
+			@Override
+			public Integer call() throws IOException {
+				InputStream in = new FileInputStream(file);
+				try {
+					return preload(in, cacheSets);
+				} finally {
+					in.close();
+				}
+			}
+		});
+		executor.execute(future);
+		return future;
+	}
+
+	private static int readCount(DataInputStream dataInputStream, String what) throws IOException {
+		int count = dataInputStream.readInt();
+		if (count < 0) {
+			throw new IOException("Corrupt cache snapshot, negative " + what + " count " + count);
+		}
+		return count;
+	}
+
+	private static String getBackendName(JxmppContext context) {
+		return context.xmppStringprep.getClass().getName();
+	}
+
+	private static final class Section implements EntryVisitor<Object, Object> {
+		private final String cacheName;
+		private final String backendName;
+		/**
+		 * The entries by their key. Caches may visit an entry more than once, e.g. a TieredCache visits the entries
+		 * which are in both of its tiers twice, but every key is only written once.
+		 */
+		private final Map<String, String> entries = new LinkedHashMap<>();
+
+		private Section(String cacheName, String backendName) {
+			this.cacheName = cacheName;
+			this.backendName = backendName;
+		}
+
+		@Override
+		public void visit(Object key, Object value) {
+			if (!(key instanceof String) || !(value instanceof CharSequence)) {
+				return;
+			}
+			String keyString = (String) key;
+			String valueString = value.toString();
+			if (keyString.length() > MAX_STRING_LENGTH || valueString.length() > MAX_STRING_LENGTH) {
+				return;
+			}
+			entries.put(keyString, valueString);
+		}
+	}
+}
@@ -16,12 +16,32 @@
  */
 package org.jxmpp;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.jxmpp.stringprep.XmppStringprep;
 import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
 import org.jxmpp.util.Objects;
+import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.CacheFactory;
+import org.jxmpp.util.cache.CacheRegistry;
+import org.jxmpp.util.cache.CacheStats;
+import org.jxmpp.util.cache.FailureCache;
+import org.jxmpp.util.cache.LruCache;
 
 /**
  * A context with describes the configuration used by JXMPP.
+ * <p>
+ * Every context owns its caches, like the stringprep caches of {@link org.jxmpp.stringprep.XmppStringPrepUtil} and
+ * the JID caches of JidCreate. Hence the caches of contexts using different {@link XmppStringprep} implementations
+ * never collide, and the caches of every context can be sized independently. The caches are created lazily, once a
+ * context is first used, by the {@link CacheFactory} of the context. The caches of the default context are also
+ * registered with the {@link CacheRegistry}.
+ * </p>
  */
 public final class JxmppContext {
 
@@ -52,20 +72,47 @@ public final class JxmppContext {
 		updateDefaultContext();
 	}
 
-	private static void updateDefaultContext() {
+	private static synchronized void updateDefaultContext() {
+		JxmppContext previousDefaultContext = defaultContext;
 		defaultContext = builder()
 				.enableCaching()
 				.withXmppStringprep(defaultXmppStringprep)
 				.build();
+		if (previousDefaultContext == null) {
+			return;
+		}
+		// Create the cache sets used by the previous default context right away, so that their caches replace the
+		// ones of the previous default context in the CacheRegistry. The cache sets apply the configuration of the
+		// caches of the default context, like the one set by JidCreate.setCacheFactory(CacheFactory).
+		for (CacheSetFactory<?> cacheSetFactory : previousDefaultContext.cacheSets.keySet()) {
+			defaultContext.getCacheSet(cacheSetFactory);
+		}
 	}
 
 	private final boolean cachingEnabled;
 
+	private final boolean asciiFastPathEnabled;
+
 	public final XmppStringprep xmppStringprep;
 
+	private final CacheFactory cacheFactory;
+
+	private final int maxCacheSize;
+
+	private final int failureCacheMaxSize;
+
+	private final long failureCacheExpirationTime;
+
+	private final ConcurrentMap<CacheSetFactory<?>, CacheSet> cacheSets = new ConcurrentHashMap<>();
+
 	private JxmppContext(Builder builder) {
 		cachingEnabled = builder.cachingEnabled;
+		asciiFastPathEnabled = builder.asciiFastPathEnabled;
 		xmppStringprep = Objects.requireNonNull(builder.xmppStringprep, "xmppStringprep");
+		cacheFactory = builder.cacheFactory;
+		maxCacheSize = builder.maxCacheSize;
+		failureCacheMaxSize = builder.failureCacheMaxSize;
+		failureCacheExpirationTime = builder.failureCacheExpirationTime;
 	}
 
 	/**
@@ -77,6 +124,83 @@ public final class JxmppContext {
 		return cachingEnabled;
 	}
 
+	/**
+	 * Returns true if plain ASCII input is prepared by {@link org.jxmpp.stringprep.XmppStringPrepUtil} itself,
+	 * instead of by the {@link XmppStringprep} of this context.
+	 *
+	 * @return true if the ASCII fast path is enabled.
+	 */
+	public boolean isAsciiFastPathEnabled() {
+		return asciiFastPathEnabled;
+	}
+
+	/**
+	 * Get the factory used to create the caches of this context.
+	 *
+	 * @return the cache factory.
+	 */
+	public CacheFactory getCacheFactory() {
+		return cacheFactory;
+	}
+
+	/**
+	 * Get the maximum size of the caches of this context.
+	 *
+	 * @return the maximum cache size.
+	 */
+	public int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	/**
+	 * Returns true if the failures to prepare Strings and to create JIDs are cached, so that input which is known to
+	 * be invalid is rejected without preparing it again. Failure caching requires caching to be enabled.
+	 *
+	 * @return true if failure caching is enabled.
+	 * @see Builder#withFailureCaching(int, long)
+	 */
+	public boolean isFailureCachingEnabled() {
+		return cachingEnabled && failureCacheMaxSize > 0;
+	}
+
+	/**
+	 * Get the cache set of this context which is created by the given factory. The cache set is created on the first
+	 * invocation, all following invocations with the same factory return the same cache set.
+	 *
+	 * @param cacheSetFactory the factory of the cache set.
+	 * @param <S> the type of the cache set.
+	 * @return the cache set.
+	 */
+	public <S extends CacheSet> S getCacheSet(CacheSetFactory<S> cacheSetFactory) {
+		CacheSet cacheSet = cacheSets.get(cacheSetFactory);
+		if (cacheSet == null) {
+			CacheSet newCacheSet = cacheSetFactory.newCacheSet(this);
+			cacheSet = cacheSets.putIfAbsent(cacheSetFactory, newCacheSet);
+			if (cacheSet == null) {
+				cacheSet = newCacheSet;
+				cacheSet.registerCaches();
+			}
+		}
+		@SuppressWarnings("unchecked")
+		S s = (S) cacheSet;
+		return s;
+	}
+
+	/**
+	 * Get the statistics of all caches of this context which were created so far, sorted by the name of the cache.
+	 *
+	 * @return an unmodifiable snapshot of the statistics.
+	 */
+	public SortedMap<String, CacheStats> getCacheStats() {
+		SortedMap<String, CacheStats> stats = new TreeMap<>();
+		for (CacheSet cacheSet : cacheSets.values()) {
+			for (Map.Entry<String, Cache<?, ?>> entry : cacheSet.getCaches().entrySet()) {
+				stats.put(entry.getKey(), entry.getValue().getCacheStats());
+			}
+		}
+		return Collections.unmodifiableSortedMap(stats);
+	}
+
 	/**
 	 * Construct and retrieve a new builder.
 	 *
@@ -89,8 +213,18 @@ public final class JxmppContext {
 	public static class Builder {
 		private boolean cachingEnabled;
 
+		private boolean asciiFastPathEnabled = true;
+
 		private XmppStringprep xmppStringprep;
 
+		private CacheFactory cacheFactory = LruCache.FACTORY;
+
+		private int maxCacheSize = 100;
+
+		private int failureCacheMaxSize = 100;
+
+		private long failureCacheExpirationTime = 10000;
+
 		/**
 		 * Enable String, Part and Jid caching.
 		 *
@@ -101,6 +235,19 @@ public final class JxmppContext {
 			return this;
 		}
 
+		/**
+		 * Disable the ASCII fast path of {@link org.jxmpp.stringprep.XmppStringPrepUtil}, which is enabled by default.
+		 * The fast path prepares plain ASCII input equivalent to the XmppStringprep implementations of jXMPP, so
+		 * that only non-ASCII input is handed to the XmppStringprep. It should be disabled if the used XmppStringprep
+		 * prepares ASCII input differently.
+		 *
+		 * @return a reference to this builder.
+		 */
+		public Builder disableAsciiFastPath() {
+			asciiFastPathEnabled = false;
+			return this;
+		}
+
 		/**
 		 * Set the used XmppStringprep.
 		 *
@@ -112,6 +259,65 @@ public final class JxmppContext {
 			return this;
 		}
 
+		/**
+		 * Set the factory used to create the caches of the context. Defaults to {@link LruCache#FACTORY}. Use an
+		 * {@link org.jxmpp.util.cache.AdaptiveCacheSizer} to size the caches of the context based on their hit ratio.
+		 *
+		 * @param cacheFactory the cache factory to use.
+		 * @return a reference to this builder.
+		 */
+		public Builder withCacheFactory(CacheFactory cacheFactory) {
+			this.cacheFactory = Objects.requireNonNull(cacheFactory, "cacheFactory");
+			return this;
+		}
+
+		/**
+		 * Set the maximum size of every cache of the context. Defaults to 100.
+		 *
+		 * @param maxCacheSize the maximum cache size, -1 means the caches have no max size.
+		 * @return a reference to this builder.
+		 */
+		public Builder withMaxCacheSize(int maxCacheSize) {
+			if (maxCacheSize == 0) {
+				throw new IllegalArgumentException("Max cache size cannot be 0.");
+			}
+			this.maxCacheSize = maxCacheSize;
+			return this;
+		}
+
+		/**
+		 * Set the maximum size and the expiration time of every failure cache of the context. Defaults to 100 failures
+		 * which expire after 10 seconds. The failure caches remember for a short time the exceptions thrown for
+		 * invalid input, so that e.g. a malformed JID which is received over and over again is rejected at the cost
+		 * of a single cache lookup.
+		 *
+		 * @param maxSize the maximum number of failures of every failure cache.
+		 * @param expirationTime the time in milliseconds after which a failure is no longer cached.
+		 * @return a reference to this builder.
+		 * @see JxmppContext#isFailureCachingEnabled()
+		 */
+		public Builder withFailureCaching(int maxSize, long expirationTime) {
+			if (maxSize <= 0) {
+				throw new IllegalArgumentException("Max failure cache size must be positive.");
+			}
+			if (expirationTime <= 0) {
+				throw new IllegalArgumentException("Failure cache expiration time must be positive.");
+			}
+			failureCacheMaxSize = maxSize;
+			failureCacheExpirationTime = expirationTime;
+			return this;
+		}
+
+		/**
+		 * Disable the caching of failures, which is enabled by default if caching is enabled.
+		 *
+		 * @return a reference to this builder.
+		 */
+		public Builder disableFailureCaching() {
+			failureCacheMaxSize = 0;
+			return this;
+		}
+
 		/**
 		 * Build a JxmppContext.
 		 *
@@ -121,4 +327,95 @@ public final class JxmppContext {
 			return new JxmppContext(this);
 		}
 	}
+
+	/**
+	 * A set of caches owned by a context. Components maintaining caches, like JidCreate, define their own cache set,
+	 * whose caches are keyed directly by the input String. The loaders of the caches are bound to the context of the
+	 * cache set.
+	 */
+	public abstract static class CacheSet {
+
+		protected final JxmppContext context;
+
+		protected CacheSet(JxmppContext context) {
+			this.context = Objects.requireNonNull(context, "context");
+		}
+
+		/**
+		 * Create a new cache using the cache factory and the maximum cache size of the context.
+		 *
+		 * @param <K> the type of the keys of the cache.
+		 * @param <V> the type of the values of the cache.
+		 * @return a new cache.
+		 */
+		protected final <K, V> Cache<K, V> newCache() {
+			return context.cacheFactory.newCache(context.maxCacheSize);
+		}
+
+		/**
+		 * Create a new failure cache using the maximum size and the expiration time of the failure caches of the
+		 * context.
+		 *
+		 * @param <K> the type of the keys of the failure cache.
+		 * @param <E> the type of the failures.
+		 * @return a new failure cache, or {@code null} if failure caching is disabled.
+		 */
+		protected final <K, E extends Exception> FailureCache<K, E> newFailureCache() {
+			if (!context.isFailureCachingEnabled()) {
+				return null;
+			}
+			return new FailureCache<>(context.failureCacheMaxSize, context.failureCacheExpirationTime);
+		}
+
+		/**
+		 * Register the caches of this set with the {@link CacheRegistry}, if this set belongs to the default context.
+		 * Must be invoked again after caches of the set were replaced. Does nothing while the set is constructed, as
+		 * the set may lose the race to become the set of the context.
+		 */
+		protected final void registerCaches() {
+			if (context != defaultContext || !context.cacheSets.containsValue(this)) {
+				return;
+			}
+			for (Map.Entry<String, Cache<?, ?>> entry : getCaches().entrySet()) {
+				CacheRegistry.register(entry.getKey(), entry.getValue());
+			}
+		}
+
+		/**
+		 * Get the caches of this set by their name.
+		 *
+		 * @return the caches of this set.
+		 */
+		public abstract Map<String, Cache<?, ?>> getCaches();
+
+		/**
+		 * Preload an entry of a {@link CacheSnapshot} into the cache with the given name. Implementations should
+		 * validate the entry, e.g. by checking that the value is the one the cache would load for the key, and
+		 * should only put valid entries into the cache. The default implementation preloads nothing.
+		 *
+		 * @param cacheName the name of the cache.
+		 * @param key the key of the entry.
+		 * @param value the String representation of the value of the entry.
+		 * @return true if the entry was preloaded.
+		 */
+		protected boolean preload(String cacheName, String key, String value) {
+			return false;
+		}
+	}
+
+	/**
+	 * A factory for cache sets.
+	 *
+	 * @param <S> the type of the cache set.
+	 */
+	public interface CacheSetFactory<S extends CacheSet> {
+
+		/**
+		 * Create a new cache set for the given context.
+		 *
+		 * @param context the context.
+		 * @return a new cache set.
+		 */
+		S newCacheSet(JxmppContext context);
+	}
 }
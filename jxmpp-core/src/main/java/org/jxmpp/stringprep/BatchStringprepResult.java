@@ -0,0 +1,112 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep;
+
+/**
+ * The result of preparing a batch of Strings. For every index of the input batch, the result holds either the
+ * prepared String, or the exception which occurred while preparing the input String at this index.
+ */
+public final class BatchStringprepResult {
+
+	private final String[] results;
+
+	private final XmppStringprepException[] errors;
+
+	private final int errorCount;
+
+	/**
+	 * Construct a new batch result. Both arrays must have the length of the input batch, and for every index exactly
+	 * one of them must hold a non-null element. The arrays are not copied, hence they must not be modified afterwards.
+	 *
+	 * @param results the prepared Strings.
+	 * @param errors the exceptions.
+	 */
+	public BatchStringprepResult(String[] results, XmppStringprepException[] errors) {
+		if (results.length != errors.length) {
+			throw new IllegalArgumentException("The results and errors must have the same length");
+		}
+		int errorCount = 0;
+		for (int i = 0; i < errors.length; i++) {
+			if ((results[i] == null) == (errors[i] == null)) {
+				throw new IllegalArgumentException("Either the result or the error at index " + i + " must be set");
+			}
+			if (errors[i] != null) {
+				errorCount++;
+			}
+		}
+		this.results = results;
+		this.errors = errors;
+		this.errorCount = errorCount;
+	}
+
+	/**
+	 * Get the size of the batch.
+	 *
+	 * @return the number of input Strings.
+	 */
+	public int size() {
+		return results.length;
+	}
+
+	/**
+	 * Check if the input String at the given index was prepared successfully.
+	 *
+	 * @param index the index of the input String.
+	 * @return true if the input String was prepared successfully.
+	 */
+	public boolean isSuccess(int index) {
+		return results[index] != null;
+	}
+
+	/**
+	 * Get the prepared String of the input String at the given index.
+	 *
+	 * @param index the index of the input String.
+	 * @return the prepared String, or {@code null} if the input String could not be prepared.
+	 */
+	public String getResult(int index) {
+		return results[index];
+	}
+
+	/**
+	 * Get the exception which occurred while preparing the input String at the given index.
+	 *
+	 * @param index the index of the input String.
+	 * @return the exception, or {@code null} if the input String was prepared successfully.
+	 */
+	public XmppStringprepException getError(int index) {
+		return errors[index];
+	}
+
+	/**
+	 * Check if any of the input Strings could not be prepared.
+	 *
+	 * @return true if there is at least one error.
+	 */
+	public boolean hasErrors() {
+		return errorCount > 0;
+	}
+
+	/**
+	 * Get the number of input Strings which could not be prepared.
+	 *
+	 * @return the number of errors.
+	 */
+	public int getErrorCount() {
+		return errorCount;
+	}
+}
@@ -0,0 +1,281 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep;
+
+import org.jxmpp.util.Objects;
+
+/**
+ * The result of preparing and validating an input String, e.g. when creating a part or a JID from it. The result is
+ * either valid and holds the created value, or invalid and holds the error why the input is invalid.
+ * <p>
+ * The methods returning validation results, like {@link XmppStringPrepUtil#tryLocalprep(String, org.jxmpp.JxmppContext)},
+ * do not throw for invalid input. The {@link XmppStringprepException} describing an invalid result is only created
+ * once {@link #getOrThrow()} or {@link #toException()} is invoked, and it is {@link XmppStringprepException.Stackless
+ * stackless}, unless the input was rejected by the {@link XmppStringprep} implementation, which reports errors by
+ * throwing. Hence checking input with the methods returning validation results, e.g. if it is received from an
+ * untrusted source, does not require to create, throw and catch exceptions.
+ * </p>
+ *
+ * @param <T> the type of the value.
+ */
+public final class ValidationResult<T> {
+
+	/**
+	 * The error codes of invalid results.
+	 */
+	public enum ErrorCode {
+		/**
+		 * The input is {@code null}.
+		 */
+		NULL,
+
+		/**
+		 * The input is, or was prepared to, the empty String.
+		 */
+		EMPTY,
+
+		/**
+		 * The prepared input is longer than 1023 bytes.
+		 */
+		TOO_LONG,
+
+		/**
+		 * The input contains a prohibited character.
+		 */
+		PROHIBITED_CHARACTER,
+
+		/**
+		 * The input does not contain a required localpart.
+		 */
+		MISSING_LOCALPART,
+
+		/**
+		 * The input does not contain a domainpart.
+		 */
+		MISSING_DOMAINPART,
+
+		/**
+		 * The input was rejected by the {@link XmppStringprep} implementation.
+		 */
+		STRINGPREP,
+	}
+
+	private final T value;
+
+	private final ErrorCode errorCode;
+
+	private final String causingString;
+
+	private final String message;
+
+	private final ValidationResult<?> cause;
+
+	/**
+	 * The exception of an invalid result, which is created lazily. Racing threads may create distinct, but equivalent,
+	 * exceptions.
+	 */
+	private XmppStringprepException exception;
+
+	private ValidationResult(T value, ErrorCode errorCode, String causingString, String message, ValidationResult<?> cause,
+			XmppStringprepException exception) {
+		this.value = value;
+		this.errorCode = errorCode;
+		this.causingString = causingString;
+		this.message = message;
+		this.cause = cause;
+		this.exception = exception;
+	}
+
+	/**
+	 * Create a valid result holding the given value.
+	 *
+	 * @param value the value.
+	 * @param <T> the type of the value.
+	 * @return a valid result.
+	 */
+	public static <T> ValidationResult<T> valid(T value) {
+		Objects.requireNonNull(value, "value");
+		return new ValidationResult<>(value, null, null, null, null, null);
+	}
+
+	/**
+	 * Create an invalid result.
+	 *
+	 * @param errorCode the error code.
+	 * @param causingString the input String causing the error.
+	 * @param message the message describing the error.
+	 * @param <T> the type of the value.
+	 * @return an invalid result.
+	 */
+	public static <T> ValidationResult<T> invalid(ErrorCode errorCode, String causingString, String message) {
+		Objects.requireNonNull(errorCode, "errorCode");
+		return new ValidationResult<>(null, errorCode, causingString, message, null, null);
+	}
+
+	/**
+	 * Create an invalid result from the given exception, e.g. the one thrown by the {@link XmppStringprep}
+	 * implementation.
+	 *
+	 * @param exception the exception.
+	 * @param <T> the type of the value.
+	 * @return an invalid result, whose exception is the given exception.
+	 */
+	public static <T> ValidationResult<T> invalid(XmppStringprepException exception) {
+		return new ValidationResult<>(null, ErrorCode.STRINGPREP, exception.getCausingString(), exception.getMessage(),
+				null, exception);
+	}
+
+	/**
+	 * Create an invalid result of the given input String, which is invalid because of the given invalid result, e.g.
+	 * the one of a part of the input. The exception of the returned result is caused by the exception of the given
+	 * result.
+	 *
+	 * @param causingString the input String.
+	 * @param cause the invalid result causing the input String to be invalid.
+	 * @param <T> the type of the value.
+	 * @return an invalid result with the same error code as the given result.
+	 */
+	public static <T> ValidationResult<T> invalid(String causingString, ValidationResult<?> cause) {
+		if (cause.isValid()) {
+			throw new IllegalArgumentException("The cause must be an invalid result");
+		}
+		return new ValidationResult<>(null, cause.errorCode, causingString, null, cause, null);
+	}
+
+	/**
+	 * Check if this result is valid.
+	 *
+	 * @return true if this result is valid.
+	 */
+	public boolean isValid() {
+		return errorCode == null;
+	}
+
+	/**
+	 * Get the value of this valid result.
+	 *
+	 * @return the value.
+	 * @throws IllegalStateException if this result is invalid.
+	 */
+	public T get() {
+		if (!isValid()) {
+			throw new IllegalStateException("Invalid result: " + getMessage());
+		}
+		return value;
+	}
+
+	/**
+	 * Get the value of this result, or {@code null} if this result is invalid.
+	 *
+	 * @return the value or {@code null}.
+	 */
+	public T getOrNull() {
+		return value;
+	}
+
+	/**
+	 * Get the value of this result, or throw the exception describing the error if this result is invalid.
+	 *
+	 * @return the value.
+	 * @throws XmppStringprepException if this result is invalid.
+	 */
+	public T getOrThrow() throws XmppStringprepException {
+		if (!isValid()) {
+			throw toException();
+		}
+		return value;
+	}
+
+	/**
+	 * Get the error code of this result.
+	 *
+	 * @return the error code, or {@code null} if this result is valid.
+	 */
+	public ErrorCode getErrorCode() {
+		return errorCode;
+	}
+
+	/**
+	 * Get the input String causing the error of this result.
+	 *
+	 * @return the causing String, or {@code null} if this result is valid.
+	 */
+	public String getCausingString() {
+		return causingString;
+	}
+
+	/**
+	 * Get the message describing the error of this result. This is the message of the exception of this result.
+	 *
+	 * @return the message, or {@code null} if this result is valid.
+	 */
+	public String getMessage() {
+		if (message != null || cause == null) {
+			return message;
+		}
+		return toException().getMessage();
+	}
+
+	/**
+	 * Get the exception describing the error of this invalid result. Invoking this method repeatedly returns the same
+	 * exception. The exception of a result with the error code {@link ErrorCode#MISSING_DOMAINPART} is a
+	 * {@link XmppStringprepException.MissingDomainpart}, or is caused by one.
+	 *
+	 * @return the exception.
+	 * @throws IllegalStateException if this result is valid.
+	 */
+	public XmppStringprepException toException() {
+		if (isValid()) {
+			throw new IllegalStateException("Valid results have no exception");
+		}
+		XmppStringprepException exception = this.exception;
+		if (exception == null) {
+			if (cause != null) {
+				exception = new XmppStringprepException.Stackless(causingString, cause.toException());
+			} else if (errorCode == ErrorCode.MISSING_DOMAINPART) {
+				exception = XmppStringprepException.MissingDomainpart.stackless(causingString);
+			} else {
+				exception = new XmppStringprepException.Stackless(causingString, message);
+			}
+			this.exception = exception;
+		}
+		return exception;
+	}
+
+	/**
+	 * Get this invalid result as a result of another type.
+	 *
+	 * @param <U> the other type.
+	 * @return this invalid result.
+	 * @throws IllegalStateException if this result is valid.
+	 */
+	@SuppressWarnings("unchecked")
+	public <U> ValidationResult<U> asInvalid() {
+		if (isValid()) {
+			throw new IllegalStateException("Only invalid results can be converted");
+		}
+		return (ValidationResult<U>) this;
+	}
+
+	@Override
+	public String toString() {
+		if (isValid()) {
+			return "ValidationResult[valid: " + value + ']';
+		}
+		return "ValidationResult[" + errorCode + ": " + getMessage() + ']';
+	}
+}
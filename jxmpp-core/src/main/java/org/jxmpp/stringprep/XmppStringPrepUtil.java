@@ -16,16 +16,120 @@
  */
 package org.jxmpp.stringprep;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.jxmpp.JxmppContext;
 import org.jxmpp.XmppAddressParttype;
+import org.jxmpp.util.Objects;
 import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.CacheFactory;
+import org.jxmpp.util.cache.CacheLoader;
+import org.jxmpp.util.cache.FailureCache;
 import org.jxmpp.util.cache.LruCache;
+import org.jxmpp.util.cache.OffHeapStringCache;
+import org.jxmpp.util.cache.TieredCache;
 
+/**
+ * Prepares the parts of XMPP addresses using the {@link XmppStringprep} of a {@link JxmppContext}, and caches the
+ * results. Plain ASCII input, which is prepared equivalently by all XmppStringprep implementations of jXMPP, is
+ * prepared by this class itself, unless the context disables the ASCII fast path. If failure caching is enabled, the
+ * exceptions thrown by the XmppStringprep for invalid input are cached for a short time, so that preparing the same
+ * invalid input again rethrows the cached exception. Input rejected by the ASCII fast path is cheaper to reject again
+ * than to look up in the failure cache, hence those failures are not cached.
+ * <p>
+ * The {@code try…prep} methods, e.g. {@link #tryLocalprep(String, JxmppContext)}, return a {@link ValidationResult}
+ * instead of throwing for invalid input.
+ * </p>
+ *
+ * @see JxmppContext#isAsciiFastPathEnabled()
+ */
 public class XmppStringPrepUtil {
 
-	private static final Cache<String, String> NODEPREP_CACHE = new LruCache<String, String>(100);
-	private static final Cache<String, String> DOMAINPREP_CACHE = new LruCache<String, String>(100);
-	private static final Cache<String, String> RESOURCEPREP_CACHE = new LruCache<String, String>(100);
+	/**
+	 * The ASCII character is prepared to itself.
+	 */
+	private static final byte ASCII_UNCHANGED = 0;
+
+	/**
+	 * The ASCII character is prepared to its lowercase equivalent.
+	 */
+	private static final byte ASCII_LOWERCASE = 1;
+
+	/**
+	 * The ASCII character is prohibited.
+	 */
+	private static final byte ASCII_PROHIBITED = 2;
+
+	/**
+	 * The XmppStringprep implementations of jXMPP prepare the ASCII character differently, hence the input must be
+	 * handed to the XmppStringprep of the context.
+	 */
+	private static final byte ASCII_UNDECIDED = 3;
+
+	private static final byte[] LOCALPART_ASCII_CLASSES = new byte[0x80];
+
+	private static final byte[] DOMAINPART_ASCII_CLASSES = new byte[0x80];
+
+	private static final byte[] RESOURCEPART_ASCII_CLASSES = new byte[0x80];
+
+	static {
+		for (char c = 0; c < 0x80; c++) {
+			byte resourcepartClass;
+			if (c == '\t' || c == '\n' || c == '\r' || c == 0x7f) {
+				// Allowed by the simple XmppStringprep, which only prohibits what XML prohibits.
+				resourcepartClass = ASCII_UNDECIDED;
+			} else if (c < 0x20) {
+				resourcepartClass = ASCII_PROHIBITED;
+			} else {
+				resourcepartClass = ASCII_UNCHANGED;
+			}
+			RESOURCEPART_ASCII_CLASSES[c] = resourcepartClass;
+
+			byte localpartClass = resourcepartClass;
+			if (c >= 'A' && c <= 'Z') {
+				localpartClass = ASCII_LOWERCASE;
+			} else if (" \"&'/:<>@".indexOf(c) >= 0) {
+				// See RFC 7622 § 3.3.1.
+				localpartClass = ASCII_PROHIBITED;
+			}
+			LOCALPART_ASCII_CLASSES[c] = localpartClass;
+
+			// Stringprep's nameprep allows nearly every ASCII character, while PRECIS' IDN profile only allows letters,
+			// digits and hyphens, hence only those are decided here. The dots are handled by asciiDomainprep().
+			byte domainpartClass;
+			if (c >= 'A' && c <= 'Z') {
+				domainpartClass = ASCII_LOWERCASE;
+			} else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-') {
+				domainpartClass = ASCII_UNCHANGED;
+			} else {
+				domainpartClass = ASCII_UNDECIDED;
+			}
+			DOMAINPART_ASCII_CLASSES[c] = domainpartClass;
+		}
+	}
+
+	private static final int MAX_ASCII_DOMAINPART_LENGTH = 253;
+
+	private static final int MAX_ASCII_LABEL_LENGTH = 63;
+
+	/**
+	 * The minimum number of Strings prepared by every thread of a parallel batch.
+	 */
+	private static final int MIN_PARALLEL_CHUNK_SIZE = 1024;
+
+	private static final JxmppContext.CacheSetFactory<StringprepCaches> STRINGPREP_CACHES = new JxmppContext.CacheSetFactory<StringprepCaches>() {
+		@Override
+		public StringprepCaches newCacheSet(JxmppContext context) {
+			return new StringprepCaches(context);
+		}
+	};
 
 	/**
 	 * Perform localprep on the input String.
@@ -48,20 +152,18 @@ public class XmppStringPrepUtil {
 	 */
 	public static String localprep(String string, JxmppContext context) throws XmppStringprepException {
 		throwIfNullOrEmpty(string, XmppAddressParttype.localpart);
-		String res;
-		if (context.isCachingEnabled()) {
-			res = NODEPREP_CACHE.lookup(string);
-			if (res != null) {
-				return res;
+		if (context.isAsciiFastPathEnabled()) {
+			String prepared = asciiPrep(string, LOCALPART_ASCII_CLASSES, XmppAddressParttype.localpart);
+			if (prepared != null) {
+				return prepared;
 			}
 		}
-
-		res = context.xmppStringprep.localprep(string);
-
-		if (context.isCachingEnabled()) {
-			NODEPREP_CACHE.put(string, res);
+		if (!context.isCachingEnabled()) {
+			return backendPrep(XmppAddressParttype.localpart, string, context);
 		}
-		return res;
+
+		StringprepCaches caches = context.getCacheSet(STRINGPREP_CACHES);
+		return caches.nodeprepCache.get(string, caches.localprepLoader);
 	}
 
 	/**
@@ -86,20 +188,18 @@ public class XmppStringPrepUtil {
 	 */
 	public static String domainprep(String string, JxmppContext context) throws XmppStringprepException {
 		throwIfNullOrEmpty(string, XmppAddressParttype.domainpart);
-		String res;
-		if (context.isCachingEnabled()) {
-			res = DOMAINPREP_CACHE.lookup(string);
-			if (res != null) {
-				return res;
+		if (context.isAsciiFastPathEnabled()) {
+			String prepared = asciiDomainprep(string);
+			if (prepared != null) {
+				return prepared;
 			}
 		}
-
-		res = context.xmppStringprep.domainprep(string);
-
-		if (context.isCachingEnabled()) {
-			DOMAINPREP_CACHE.put(string, res);
+		if (!context.isCachingEnabled()) {
+			return backendPrep(XmppAddressParttype.domainpart, string, context);
 		}
-		return res;
+
+		StringprepCaches caches = context.getCacheSet(STRINGPREP_CACHES);
+		return caches.domainprepCache.get(string, caches.domainprepLoader);
 	}
 
 	/**
@@ -123,31 +223,677 @@ public class XmppStringPrepUtil {
 	 */
 	public static String resourceprep(String string, JxmppContext context) throws XmppStringprepException {
 		throwIfNullOrEmpty(string, XmppAddressParttype.resourcepart);
-		String res;
-		if (context.isCachingEnabled()) {
-			res = RESOURCEPREP_CACHE.lookup(string);
-			if (res != null) {
-				return res;
+		if (context.isAsciiFastPathEnabled()) {
+			String prepared = asciiPrep(string, RESOURCEPART_ASCII_CLASSES, XmppAddressParttype.resourcepart);
+			if (prepared != null) {
+				return prepared;
 			}
 		}
+		if (!context.isCachingEnabled()) {
+			return backendPrep(XmppAddressParttype.resourcepart, string, context);
+		}
 
-		res = context.xmppStringprep.resourceprep(string);
+		StringprepCaches caches = context.getCacheSet(STRINGPREP_CACHES);
+		return caches.resourceprepCache.get(string, caches.resourceprepLoader);
+	}
 
-		if (context.isCachingEnabled()) {
-			RESOURCEPREP_CACHE.put(string, res);
-		}
-		return res;
+	/**
+	 * Perform localprep on the input String, without throwing if the input String can not be transformed.
+	 *
+	 * @param string the input String.
+	 * @return the result holding the localpreped String.
+	 */
+	public static ValidationResult<String> tryLocalprep(String string) {
+		return tryLocalprep(string, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Perform localprep on the input String, without throwing if the input String can not be transformed. Unless the
+	 * input String is rejected by the XmppStringprep of the context, no exception is created for invalid input.
+	 *
+	 * @param string the input String.
+	 * @param context the JXMPP JID context.
+	 * @return the result holding the localpreped String.
+	 */
+	public static ValidationResult<String> tryLocalprep(String string, JxmppContext context) {
+		return tryPrep(XmppAddressParttype.localpart, string, context);
+	}
+
+	/**
+	 * Perform domainprep on the input String, without throwing if the input String can not be transformed.
+	 *
+	 * @param string the input String.
+	 * @return the result holding the domainpreped String.
+	 */
+	public static ValidationResult<String> tryDomainprep(String string) {
+		return tryDomainprep(string, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Perform domainprep on the input String, without throwing if the input String can not be transformed.
+	 *
+	 * @param string the input String.
+	 * @param context the JXMPP JID context.
+	 * @return the result holding the domainpreped String.
+	 * @see #tryLocalprep(String, JxmppContext)
+	 */
+	public static ValidationResult<String> tryDomainprep(String string, JxmppContext context) {
+		return tryPrep(XmppAddressParttype.domainpart, string, context);
+	}
+
+	/**
+	 * Perform resourceprep on the input String, without throwing if the input String can not be transformed.
+	 *
+	 * @param string the input String.
+	 * @return the result holding the resourcepreped String.
+	 */
+	public static ValidationResult<String> tryResourceprep(String string) {
+		return tryResourceprep(string, JxmppContext.getDefaultContext());
 	}
 
 	/**
-	 * Set the maximum cache sizes.
+	 * Perform resourceprep on the input String, without throwing if the input String can not be transformed.
+	 *
+	 * @param string the input String.
+	 * @param context the JXMPP JID context.
+	 * @return the result holding the resourcepreped String.
+	 * @see #tryLocalprep(String, JxmppContext)
+	 */
+	public static ValidationResult<String> tryResourceprep(String string, JxmppContext context) {
+		return tryPrep(XmppAddressParttype.resourcepart, string, context);
+	}
+
+	/**
+	 * Perform localprep on every String of the given batch.
+	 *
+	 * @param strings the input Strings.
+	 * @return the localpreped Strings and the errors, by the index of the input String.
+	 */
+	public static BatchStringprepResult localprepBatch(List<String> strings) {
+		return localprepBatch(strings, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Perform localprep on every String of the given batch. Input Strings which are neither handled by the ASCII
+	 * fast path nor cached are prepared by a single batch invocation of the context's XmppStringprep.
+	 *
+	 * @param strings the input Strings.
+	 * @param context the JXMPP JID context.
+	 * @return the localpreped Strings and the errors, by the index of the input String.
+	 */
+	public static BatchStringprepResult localprepBatch(List<String> strings, JxmppContext context) {
+		return prepBatch(XmppAddressParttype.localpart, strings, context);
+	}
+
+	/**
+	 * Perform localprep on every String of the given batch, and split large batches across the threads of the given
+	 * executor. This method blocks until the whole batch is prepared. Chunks rejected by the executor are prepared by
+	 * the calling thread, and a failure of any chunk is rethrown by the calling thread.
+	 *
+	 * @param strings the input Strings.
+	 * @param context the JXMPP JID context.
+	 * @param executor the executor running the chunks of the batch, e.g. a ForkJoinPool.
+	 * @return the localpreped Strings and the errors, by the index of the input String.
+	 * @throws InterruptedException if the calling thread was interrupted while waiting for the chunks.
+	 */
+	public static BatchStringprepResult localprepBatch(List<String> strings, JxmppContext context, Executor executor)
+			throws InterruptedException {
+		return prepBatch(XmppAddressParttype.localpart, strings, context, executor);
+	}
+
+	/**
+	 * Perform domainprep on every String of the given batch.
+	 *
+	 * @param strings the input Strings.
+	 * @return the domainpreped Strings and the errors, by the index of the input String.
+	 */
+	public static BatchStringprepResult domainprepBatch(List<String> strings) {
+		return domainprepBatch(strings, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Perform domainprep on every String of the given batch.
+	 *
+	 * @param strings the input Strings.
+	 * @param context the JXMPP JID context.
+	 * @return the domainpreped Strings and the errors, by the index of the input String.
+	 * @see #localprepBatch(List, JxmppContext)
+	 */
+	public static BatchStringprepResult domainprepBatch(List<String> strings, JxmppContext context) {
+		return prepBatch(XmppAddressParttype.domainpart, strings, context);
+	}
+
+	/**
+	 * Perform domainprep on every String of the given batch, and split large batches across the threads of the given
+	 * executor. This method blocks until the whole batch is prepared. Chunks rejected by the executor are prepared by
+	 * the calling thread, and a failure of any chunk is rethrown by the calling thread.
+	 *
+	 * @param strings the input Strings.
+	 * @param context the JXMPP JID context.
+	 * @param executor the executor running the chunks of the batch, e.g. a ForkJoinPool.
+	 * @return the domainpreped Strings and the errors, by the index of the input String.
+	 * @throws InterruptedException if the calling thread was interrupted while waiting for the chunks.
+	 */
+	public static BatchStringprepResult domainprepBatch(List<String> strings, JxmppContext context, Executor executor)
+			throws InterruptedException {
+		return prepBatch(XmppAddressParttype.domainpart, strings, context, executor);
+	}
+
+	/**
+	 * Perform resourceprep on every String of the given batch.
+	 *
+	 * @param strings the input Strings.
+	 * @return the resourcepreped Strings and the errors, by the index of the input String.
+	 */
+	public static BatchStringprepResult resourceprepBatch(List<String> strings) {
+		return resourceprepBatch(strings, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Perform resourceprep on every String of the given batch.
+	 *
+	 * @param strings the input Strings.
+	 * @param context the JXMPP JID context.
+	 * @return the resourcepreped Strings and the errors, by the index of the input String.
+	 * @see #localprepBatch(List, JxmppContext)
+	 */
+	public static BatchStringprepResult resourceprepBatch(List<String> strings, JxmppContext context) {
+		return prepBatch(XmppAddressParttype.resourcepart, strings, context);
+	}
+
+	/**
+	 * Perform resourceprep on every String of the given batch, and split large batches across the threads of the
+	 * given executor. This method blocks until the whole batch is prepared. Chunks rejected by the executor are
+	 * prepared by the calling thread, and a failure of any chunk is rethrown by the calling thread.
+	 *
+	 * @param strings the input Strings.
+	 * @param context the JXMPP JID context.
+	 * @param executor the executor running the chunks of the batch, e.g. a ForkJoinPool.
+	 * @return the resourcepreped Strings and the errors, by the index of the input String.
+	 * @throws InterruptedException if the calling thread was interrupted while waiting for the chunks.
+	 */
+	public static BatchStringprepResult resourceprepBatch(List<String> strings, JxmppContext context,
+			Executor executor) throws InterruptedException {
+		return prepBatch(XmppAddressParttype.resourcepart, strings, context, executor);
+	}
+
+	/**
+	 * Get the stringprep caches of the given context, e.g. to write or preload a {@link org.jxmpp.CacheSnapshot}.
+	 *
+	 * @param context the JXMPP context.
+	 * @return the stringprep caches of the context.
+	 */
+	public static JxmppContext.CacheSet getCacheSet(JxmppContext context) {
+		return context.getCacheSet(STRINGPREP_CACHES);
+	}
+
+	/**
+	 * Set the maximum cache sizes of the stringprep caches of the default context.
 	 *
 	 * @param size the maximum cache size.
 	 */
 	public static void setMaxCacheSizes(int size) {
-		NODEPREP_CACHE.setMaxCacheSize(size);
-		DOMAINPREP_CACHE.setMaxCacheSize(size);
-		RESOURCEPREP_CACHE.setMaxCacheSize(size);
+		synchronized (StringprepCaches.class) {
+			StringprepCaches.defaultMaxCacheSize = size;
+			JxmppContext.getDefaultContext().getCacheSet(STRINGPREP_CACHES).setMaxCacheSizes(size);
+		}
+	}
+
+	/**
+	 * Set the factory used to create the stringprep caches of the default context. The current caches are replaced
+	 * by new, and hence empty, caches created by the given factory. The current maximum cache sizes are retained.
+	 * <p>
+	 * Use {@link JxmppContext.Builder#withCacheFactory(CacheFactory)} to configure the caches of other contexts.
+	 * </p>
+	 *
+	 * @param cacheFactory the cache factory to use.
+	 */
+	public static void setCacheFactory(CacheFactory cacheFactory) {
+		Objects.requireNonNull(cacheFactory, "cacheFactory");
+		synchronized (StringprepCaches.class) {
+			StringprepCaches.defaultCacheFactory = cacheFactory;
+			// The caches created by the factory replace the off-heap tiered caches.
+			StringprepCaches.defaultOffHeapMaxSize = 0;
+			JxmppContext.getDefaultContext().getCacheSet(STRINGPREP_CACHES).setCacheFactory(cacheFactory);
+		}
+	}
+
+	/**
+	 * Back the stringprep caches of the default context with a second tier which is stored off-heap. The current
+	 * caches are replaced by {@link TieredCache}s, whose first tier is a new, and hence empty, {@link LruCache} with
+	 * the current maximum cache size, and whose second tier is an {@link OffHeapStringCache}. This allows for very
+	 * large caches, which do not inflate the heap.
+	 *
+	 * @param maxSize the maximum number of entries of every off-heap cache.
+	 * @param arenaCapacity the capacity in bytes of the arena of every off-heap cache.
+	 */
+	public static void setOffHeapSecondTier(int maxSize, int arenaCapacity) {
+		synchronized (StringprepCaches.class) {
+			StringprepCaches.defaultOffHeapMaxSize = maxSize;
+			StringprepCaches.defaultOffHeapArenaCapacity = arenaCapacity;
+			JxmppContext.getDefaultContext().getCacheSet(STRINGPREP_CACHES).setOffHeapSecondTier(maxSize, arenaCapacity);
+		}
+	}
+
+	private static ValidationResult<String> tryPrep(XmppAddressParttype type, String string, JxmppContext context) {
+		ValidationResult<String> invalid = checkNullOrEmpty(string, type);
+		if (invalid != null) {
+			return invalid;
+		}
+		if (context.isAsciiFastPathEnabled()) {
+			if (type == XmppAddressParttype.domainpart) {
+				String prepared = asciiDomainprep(string);
+				if (prepared != null) {
+					return ValidationResult.valid(prepared);
+				}
+			} else {
+				byte[] asciiClasses = getAsciiClasses(type);
+				switch (asciiScan(string, asciiClasses)) {
+				case ASCII_UNCHANGED:
+					return ValidationResult.valid(string);
+				case ASCII_LOWERCASE:
+					return ValidationResult.valid(toLowerCaseAscii(string));
+				case ASCII_PROHIBITED:
+					return ValidationResult.invalid(ValidationResult.ErrorCode.PROHIBITED_CHARACTER, string,
+							prohibitedAsciiMessage(string, asciiClasses, type));
+				default:
+					break;
+				}
+			}
+		}
+
+		if (!context.isCachingEnabled()) {
+			try {
+				return ValidationResult.valid(backendPrep(type, string, context));
+			} catch (XmppStringprepException e) {
+				return ValidationResult.invalid(e);
+			}
+		}
+
+		StringprepCaches caches = context.getCacheSet(STRINGPREP_CACHES);
+		Cache<String, String> cache = caches.getCache(type);
+		String prepared = cache.lookup(string);
+		if (prepared != null) {
+			return ValidationResult.valid(prepared);
+		}
+		FailureCache<String, XmppStringprepException> failures = caches.getFailureCache(type);
+		if (failures != null) {
+			XmppStringprepException failure = failures.lookup(string);
+			if (failure != null) {
+				return ValidationResult.invalid(failure);
+			}
+		}
+		try {
+			return ValidationResult.valid(cache.get(string, caches.getLoader(type)));
+		} catch (XmppStringprepException e) {
+			return ValidationResult.invalid(e);
+		}
+	}
+
+	private static String backendPrep(XmppAddressParttype type, String string, JxmppContext context)
+			throws XmppStringprepException {
+		String prepared;
+		switch (type) {
+		case localpart:
+			prepared = context.xmppStringprep.localprep(string);
+			break;
+		case domainpart:
+			prepared = context.xmppStringprep.domainprep(string);
+			break;
+		case resourcepart:
+			prepared = context.xmppStringprep.resourceprep(string);
+			break;
+		default:
+			throw new AssertionError(type);
+		}
+		return preserveIdentity(string, prepared);
+	}
+
+	/**
+	 * Get the prepared String, or the input String if the prepared String is equal to it. This implements the
+	 * identity contract of {@link XmppStringprep} for implementations which allocate a new String even if preparing
+	 * did not change the input String. Hence the parts and JIDs do not hold a duplicate of the input String, and
+	 * comparing them with the input String is short-circuited by the identity check of {@link String#equals(Object)}.
+	 *
+	 * @param string the input String.
+	 * @param prepared the prepared String.
+	 * @return the input String if it is equal to the prepared String, otherwise the prepared String.
+	 */
+	public static String preserveIdentity(String string, String prepared) {
+		if (prepared != string && prepared.equals(string)) {
+			return string;
+		}
+		return prepared;
+	}
+
+	private static BatchStringprepResult prepBatch(XmppAddressParttype type, List<String> strings,
+			JxmppContext context) {
+		int size = strings.size();
+		String[] results = new String[size];
+		XmppStringprepException[] errors = new XmppStringprepException[size];
+		prepBatch(type, strings, context, 0, results, errors);
+		return new BatchStringprepResult(results, errors);
+	}
+
+	private static BatchStringprepResult prepBatch(final XmppAddressParttype type, final List<String> strings,
+			final JxmppContext context, Executor executor) throws InterruptedException {
+		final int size = strings.size();
+		int chunkCount = Math.min(Runtime.getRuntime().availableProcessors(),
+				(size + MIN_PARALLEL_CHUNK_SIZE - 1) / MIN_PARALLEL_CHUNK_SIZE);
+		if (chunkCount <= 1) {
+			return prepBatch(type, strings, context);
+		}
+
+		final String[] results = new String[size];
+		final XmppStringprepException[] errors = new XmppStringprepException[size];
+		final int chunkSize = (size + chunkCount - 1) / chunkCount;
+		final CountDownLatch chunksDone = new CountDownLatch(chunkCount);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Runnable firstChunk = null;
+		for (int chunk = 0; chunk < chunkCount; chunk++) {
+			final int from = Math.min(chunk * chunkSize, size);
+			final int to = Math.min(from + chunkSize, size);
+			Runnable chunkRunnable = new Runnable() {
+				@Override
+				public void run() {
+					try {
+						prepBatch(type, strings.subList(from, to), context, from, results, errors);
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						chunksDone.countDown();
+					}
+				}
+			};
+			if (chunk == 0) {
+				// The calling thread prepares the first chunk.
+				firstChunk = chunkRunnable;
+				continue;
+			}
+			try {
+				executor.execute(chunkRunnable);
+			} catch (RejectedExecutionException e) {
+				// The chunks which were already submitted are still running, hence the calling thread prepares the
+				// rejected chunk instead of giving up on the batch.
+				chunkRunnable.run();
+			}
+		}
+		firstChunk.run();
+		// Wait for all chunks, also if one failed, as they write into the result arrays.
+		chunksDone.await();
+
+		Throwable t = failure.get();
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		}
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+		if (t != null) {
+			throw new IllegalStateException(t);
+		}
+		return new BatchStringprepResult(results, errors);
+	}
+
+	/**
+	 * Prepare the given Strings and store the prepared Strings and the errors in the given arrays, starting at the
+	 * given offset. The Strings which are neither decided by the ASCII fast path nor cached are collected, and handed
+	 * to the XmppStringprep of the context as a single batch.
+	 */
+	private static void prepBatch(XmppAddressParttype type, List<String> strings, JxmppContext context, int offset,
+			String[] results, XmppStringprepException[] errors) {
+		Cache<String, String> cache = null;
+		FailureCache<String, XmppStringprepException> failures = null;
+		if (context.isCachingEnabled()) {
+			StringprepCaches caches = context.getCacheSet(STRINGPREP_CACHES);
+			cache = caches.getCache(type);
+			failures = caches.getFailureCache(type);
+		}
+
+		int size = strings.size();
+		List<String> misses = new ArrayList<>();
+		int[] missIndexes = new int[size];
+		for (int i = 0; i < size; i++) {
+			String string = strings.get(i);
+			String prepared;
+			try {
+				prepared = fastPrep(type, string, context);
+			} catch (XmppStringprepException e) {
+				errors[offset + i] = e;
+				continue;
+			}
+			if (prepared == null && cache != null) {
+				prepared = cache.lookup(string);
+			}
+			if (prepared != null) {
+				results[offset + i] = prepared;
+				continue;
+			}
+			if (failures != null) {
+				XmppStringprepException failure = failures.lookup(string);
+				if (failure != null) {
+					errors[offset + i] = failure;
+					continue;
+				}
+			}
+			missIndexes[misses.size()] = offset + i;
+			misses.add(string);
+		}
+		if (misses.isEmpty()) {
+			return;
+		}
+
+		BatchStringprepResult missResults;
+		switch (type) {
+		case localpart:
+			missResults = context.xmppStringprep.localprepBatch(misses);
+			break;
+		case domainpart:
+			missResults = context.xmppStringprep.domainprepBatch(misses);
+			break;
+		case resourcepart:
+			missResults = context.xmppStringprep.resourceprepBatch(misses);
+			break;
+		default:
+			throw new AssertionError(type);
+		}
+		for (int i = 0; i < misses.size(); i++) {
+			int index = missIndexes[i];
+			String prepared = missResults.getResult(i);
+			if (prepared == null) {
+				XmppStringprepException failure = missResults.getError(i);
+				errors[index] = failure;
+				if (failures != null) {
+					failures.put(misses.get(i), failure);
+				}
+				continue;
+			}
+			String string = misses.get(i);
+			prepared = preserveIdentity(string, prepared);
+			results[index] = prepared;
+			if (cache != null) {
+				cache.put(string, prepared);
+			}
+		}
+	}
+
+	/**
+	 * Prepare the given String without the XmppStringprep of the context, if possible.
+	 *
+	 * @return the prepared String, or {@code null} if the input String must be prepared by the XmppStringprep.
+	 * @throws XmppStringprepException if the input String is empty or contains a prohibited ASCII character.
+	 */
+	private static String fastPrep(XmppAddressParttype type, String string, JxmppContext context)
+			throws XmppStringprepException {
+		throwIfNullOrEmpty(string, type);
+		if (!context.isAsciiFastPathEnabled()) {
+			return null;
+		}
+		switch (type) {
+		case localpart:
+			return asciiPrep(string, LOCALPART_ASCII_CLASSES, type);
+		case domainpart:
+			return asciiDomainprep(string);
+		case resourcepart:
+			return asciiPrep(string, RESOURCEPART_ASCII_CLASSES, type);
+		default:
+			throw new AssertionError(type);
+		}
+	}
+
+	/**
+	 * Prepare the given String if it consists only of ASCII characters which are prepared equivalently by all
+	 * XmppStringprep implementations of jXMPP.
+	 *
+	 * @param string the input String.
+	 * @param asciiClasses the classes of the ASCII characters for the part type.
+	 * @param type the part type.
+	 * @return the prepared String, which is the input String if it is unchanged, or {@code null} if the input String
+	 *         must be prepared by the XmppStringprep.
+	 * @throws XmppStringprepException if the input String contains a prohibited ASCII character.
+	 */
+	private static String asciiPrep(String string, byte[] asciiClasses, XmppAddressParttype type)
+			throws XmppStringprepException {
+		switch (asciiScan(string, asciiClasses)) {
+		case ASCII_UNCHANGED:
+			return string;
+		case ASCII_LOWERCASE:
+			return toLowerCaseAscii(string);
+		case ASCII_PROHIBITED:
+			// Rejecting the input is cheaper than looking up and putting the failure in the failure cache.
+			throw new XmppStringprepException.Stackless(string, prohibitedAsciiMessage(string, asciiClasses, type));
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Scan the given String, and determine how it is prepared if it consists only of ASCII characters.
+	 *
+	 * @param string the input String.
+	 * @param asciiClasses the classes of the ASCII characters for the part type.
+	 * @return {@link #ASCII_UNCHANGED} or {@link #ASCII_LOWERCASE} if the input String is prepared to itself or to
+	 *         its lowercase equivalent, {@link #ASCII_PROHIBITED} if it contains a prohibited ASCII character, and
+	 *         {@link #ASCII_UNDECIDED} if it must be prepared by the XmppStringprep.
+	 */
+	private static byte asciiScan(String string, byte[] asciiClasses) {
+		boolean lowercase = false;
+		boolean prohibited = false;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c >= 0x80) {
+				// A non-ASCII character may, for example, combine with the previous ASCII character during
+				// normalization, hence not even a prohibited ASCII character is decided here.
+				return ASCII_UNDECIDED;
+			}
+			switch (asciiClasses[c]) {
+			case ASCII_UNCHANGED:
+				break;
+			case ASCII_LOWERCASE:
+				lowercase = true;
+				break;
+			case ASCII_PROHIBITED:
+				prohibited = true;
+				break;
+			default:
+				return ASCII_UNDECIDED;
+			}
+		}
+
+		if (prohibited) {
+			return ASCII_PROHIBITED;
+		}
+		return lowercase ? ASCII_LOWERCASE : ASCII_UNCHANGED;
+	}
+
+	private static byte[] getAsciiClasses(XmppAddressParttype type) {
+		switch (type) {
+		case localpart:
+			return LOCALPART_ASCII_CLASSES;
+		case resourcepart:
+			return RESOURCEPART_ASCII_CLASSES;
+		default:
+			throw new AssertionError(type);
+		}
+	}
+
+	private static String prohibitedAsciiMessage(String string, byte[] asciiClasses, XmppAddressParttype type) {
+		int pos = 0;
+		while (asciiClasses[string.charAt(pos)] != ASCII_PROHIBITED) {
+			pos++;
+		}
+		return type.getCapitalizedName() + " does contain prohibited ASCII character at pos " + pos;
+	}
+
+	/**
+	 * Prepare the given domainpart if it is an ASCII host name made of letters, digits and hyphens, whose labels are
+	 * no A-labels and no other labels with hyphens in the third and fourth position, which may be decoded by IDNA.
+	 *
+	 * @param string the input String.
+	 * @return the prepared domainpart, which is the input String if it is unchanged, or {@code null} if the input
+	 *         String must be prepared by the XmppStringprep.
+	 */
+	private static String asciiDomainprep(String string) {
+		int length = string.length();
+		if (length > MAX_ASCII_DOMAINPART_LENGTH) {
+			return null;
+		}
+
+		boolean lowercase = false;
+		int labelStart = 0;
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+			if (c == '.') {
+				if (!isAsciiLabel(string, labelStart, i)) {
+					return null;
+				}
+				labelStart = i + 1;
+				continue;
+			}
+			if (c >= 0x80) {
+				return null;
+			}
+			switch (DOMAINPART_ASCII_CLASSES[c]) {
+			case ASCII_UNCHANGED:
+				break;
+			case ASCII_LOWERCASE:
+				lowercase = true;
+				break;
+			default:
+				return null;
+			}
+		}
+		if (!isAsciiLabel(string, labelStart, length)) {
+			return null;
+		}
+
+		if (!lowercase) {
+			return string;
+		}
+		return toLowerCaseAscii(string);
+	}
+
+	private static boolean isAsciiLabel(String string, int start, int end) {
+		int length = end - start;
+		if (length == 0 || length > MAX_ASCII_LABEL_LENGTH) {
+			return false;
+		}
+		if (string.charAt(start) == '-' || string.charAt(end - 1) == '-') {
+			return false;
+		}
+		return length < 4 || string.charAt(start + 2) != '-' || string.charAt(start + 3) != '-';
+	}
+
+	private static String toLowerCaseAscii(String string) {
+		char[] chars = new char[string.length()];
+		for (int i = 0; i < chars.length; i++) {
+			char c = string.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				c = (char) (c + ('a' - 'A'));
+			}
+			chars[i] = c;
+		}
+		return new String(chars);
 	}
 
 	/**
@@ -157,11 +903,196 @@ public class XmppStringPrepUtil {
 	 * @throws XmppStringprepException exception telling that the argument was the empty string
 	 */
 	private static void throwIfNullOrEmpty(String string, XmppAddressParttype type) throws XmppStringprepException {
+		ValidationResult<String> invalid = checkNullOrEmpty(string, type);
+		if (invalid != null) {
+			throw invalid.toException();
+		}
+	}
+
+	private static ValidationResult<String> checkNullOrEmpty(String string, XmppAddressParttype type) {
 		if (string == null) {
-			throw new XmppStringprepException(string, type + " can't be null");
+			return ValidationResult.invalid(ValidationResult.ErrorCode.NULL, string, type + " can't be null");
 		}
 		if (string.isEmpty()) {
-			throw new XmppStringprepException(string, type + " can't be the empty string");
+			return ValidationResult.invalid(ValidationResult.ErrorCode.EMPTY, string,
+					type + " can't be the empty string");
+		}
+		return null;
+	}
+
+	/**
+	 * The stringprep caches of a context, keyed by the input String.
+	 */
+	private static final class StringprepCaches extends JxmppContext.CacheSet {
+
+		private static final String NODEPREP_CACHE_NAME = "XmppStringPrepUtil.NODEPREP_CACHE";
+		private static final String DOMAINPREP_CACHE_NAME = "XmppStringPrepUtil.DOMAINPREP_CACHE";
+		private static final String RESOURCEPREP_CACHE_NAME = "XmppStringPrepUtil.RESOURCEPREP_CACHE";
+
+		// The configuration of the caches of the default context set by XmppStringPrepUtil, which is applied again
+		// once the default context is replaced, e.g. because the default XmppStringprep is set. Guarded by the class.
+		private static int defaultMaxCacheSize;
+		private static CacheFactory defaultCacheFactory;
+		private static int defaultOffHeapMaxSize;
+		private static int defaultOffHeapArenaCapacity;
+
+		private volatile Cache<String, String> nodeprepCache = newCache();
+		private volatile Cache<String, String> domainprepCache = newCache();
+		private volatile Cache<String, String> resourceprepCache = newCache();
+
+		// The failure caches are null if failure caching is disabled.
+		private final FailureCache<String, XmppStringprepException> localprepFailures = newFailureCache();
+		private final FailureCache<String, XmppStringprepException> domainprepFailures = newFailureCache();
+		private final FailureCache<String, XmppStringprepException> resourceprepFailures = newFailureCache();
+
+		private final CacheLoader<String, String, XmppStringprepException> localprepLoader = withFailureCache(localprepFailures, new CacheLoader<String, String, XmppStringprepException>() {
+			@Override
+			public String load(String string) throws XmppStringprepException {
+				return backendPrep(XmppAddressParttype.localpart, string, context);
+			}
+		});
+
+		private final CacheLoader<String, String, XmppStringprepException> domainprepLoader = withFailureCache(domainprepFailures, new CacheLoader<String, String, XmppStringprepException>() {
+			@Override
+			public String load(String string) throws XmppStringprepException {
+				return backendPrep(XmppAddressParttype.domainpart, string, context);
+			}
+		});
+
+		private final CacheLoader<String, String, XmppStringprepException> resourceprepLoader = withFailureCache(resourceprepFailures, new CacheLoader<String, String, XmppStringprepException>() {
+			@Override
+			public String load(String string) throws XmppStringprepException {
+				return backendPrep(XmppAddressParttype.resourcepart, string, context);
+			}
+		});
+
+		private StringprepCaches(JxmppContext context) {
+			super(context);
+			if (context == JxmppContext.getDefaultContext()) {
+				applyDefaultConfiguration();
+			}
+		}
+
+		private void applyDefaultConfiguration() {
+			synchronized (StringprepCaches.class) {
+				if (defaultMaxCacheSize != 0) {
+					setMaxCacheSizes(defaultMaxCacheSize);
+				}
+				if (defaultCacheFactory != null) {
+					setCacheFactory(defaultCacheFactory);
+				}
+				if (defaultOffHeapMaxSize != 0) {
+					setOffHeapSecondTier(defaultOffHeapMaxSize, defaultOffHeapArenaCapacity);
+				}
+			}
+		}
+
+		private void setMaxCacheSizes(int size) {
+			nodeprepCache.setMaxCacheSize(size);
+			domainprepCache.setMaxCacheSize(size);
+			resourceprepCache.setMaxCacheSize(size);
+		}
+
+		private Cache<String, String> getCache(XmppAddressParttype type) {
+			switch (type) {
+			case localpart:
+				return nodeprepCache;
+			case domainpart:
+				return domainprepCache;
+			case resourcepart:
+				return resourceprepCache;
+			default:
+				throw new AssertionError(type);
+			}
+		}
+
+		private CacheLoader<String, String, XmppStringprepException> getLoader(XmppAddressParttype type) {
+			switch (type) {
+			case localpart:
+				return localprepLoader;
+			case domainpart:
+				return domainprepLoader;
+			case resourcepart:
+				return resourceprepLoader;
+			default:
+				throw new AssertionError(type);
+			}
+		}
+
+		private FailureCache<String, XmppStringprepException> getFailureCache(XmppAddressParttype type) {
+			switch (type) {
+			case localpart:
+				return localprepFailures;
+			case domainpart:
+				return domainprepFailures;
+			case resourcepart:
+				return resourceprepFailures;
+			default:
+				throw new AssertionError(type);
+			}
+		}
+
+		private static CacheLoader<String, String, XmppStringprepException> withFailureCache(
+				FailureCache<String, XmppStringprepException> failures,
+				CacheLoader<String, String, XmppStringprepException> loader) {
+			if (failures == null) {
+				return loader;
+			}
+			return failures.wrap(loader);
+		}
+
+		private void setCacheFactory(CacheFactory cacheFactory) {
+			nodeprepCache = cacheFactory.newCache(nodeprepCache.getMaxCacheSize());
+			domainprepCache = cacheFactory.newCache(domainprepCache.getMaxCacheSize());
+			resourceprepCache = cacheFactory.newCache(resourceprepCache.getMaxCacheSize());
+			registerCaches();
+		}
+
+		private void setOffHeapSecondTier(int maxSize, int arenaCapacity) {
+			nodeprepCache = newOffHeapTieredCache(nodeprepCache, maxSize, arenaCapacity);
+			domainprepCache = newOffHeapTieredCache(domainprepCache, maxSize, arenaCapacity);
+			resourceprepCache = newOffHeapTieredCache(resourceprepCache, maxSize, arenaCapacity);
+			registerCaches();
+		}
+
+		private static Cache<String, String> newOffHeapTieredCache(Cache<String, String> cache, int maxSize,
+				int arenaCapacity) {
+			Cache<String, String> firstTier = new LruCache<>(cache.getMaxCacheSize());
+			Cache<String, String> secondTier = new OffHeapStringCache(maxSize, arenaCapacity);
+			return new TieredCache<>(firstTier, secondTier);
+		}
+
+		@Override
+		public Map<String, Cache<?, ?>> getCaches() {
+			Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+			caches.put(NODEPREP_CACHE_NAME, nodeprepCache);
+			caches.put(DOMAINPREP_CACHE_NAME, domainprepCache);
+			caches.put(RESOURCEPREP_CACHE_NAME, resourceprepCache);
+			return caches;
+		}
+
+		@Override
+		protected boolean preload(String cacheName, String key, String value) {
+			// The snapshot was taken with the same stringprep backend, hence the prepared Strings are trusted.
+			Cache<String, String> cache;
+			switch (cacheName) {
+			case NODEPREP_CACHE_NAME:
+				cache = nodeprepCache;
+				break;
+			case DOMAINPREP_CACHE_NAME:
+				cache = domainprepCache;
+				break;
+			case RESOURCEPREP_CACHE_NAME:
+				cache = resourceprepCache;
+				break;
+			default:
+				return false;
+			}
+			if (key.isEmpty() || value.isEmpty()) {
+				return false;
+			}
+			cache.put(key, preserveIdentity(key, value));
+			return true;
 		}
 	}
 }
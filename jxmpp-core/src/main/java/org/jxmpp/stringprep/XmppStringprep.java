@@ -16,6 +16,8 @@
  */
 package org.jxmpp.stringprep;
 
+import java.util.List;
+
 /**
  * Interface for commonly used Stringprep operations used in XMPP.
  * <p>
@@ -24,6 +26,12 @@ package org.jxmpp.stringprep;
  * <li><a href="http://tools.ietf.org/html/rfc6122">RFC 6122</a></li>
  * <li><a href="https://tools.ietf.org/html/draft-ietf-xmpp-6122bis-14">draft-ietf-xmpp-6122bis-14</a></li>
  * </ul>
+ * <p>
+ * If preparing a String does not change it, implementations must return the given String instance, and not a new
+ * String which is equal to it. Use {@link XmppStringPrepUtil#preserveIdentity(String, String)} if the underlying
+ * library does not guarantee this. {@link XmppStringPrepUtil} enforces this contract for every implementation, so
+ * that the parts of JIDs do not hold duplicates of the input Strings.
+ * </p>
  *
  */
 public interface XmppStringprep {
@@ -33,7 +41,7 @@ public interface XmppStringprep {
 	 * <i>nodeprep</i> profile of Stringprep.
 	 * 
 	 * @param string the String to transform.
-	 * @return the prepared String.
+	 * @return the prepared String, which is the given String if it is unchanged.
 	 * @throws XmppStringprepException if there is an error.
 	 */
 	String localprep(String string) throws XmppStringprepException;
@@ -43,7 +51,7 @@ public interface XmppStringprep {
 	 * <i>nameprep</i> profile of Stringprep.
 	 * 
 	 * @param string the String to transform.
-	 * @return the prepared String.
+	 * @return the prepared String, which is the given String if it is unchanged.
 	 * @throws XmppStringprepException if there is an error.
 	 */
 	String domainprep(String string) throws XmppStringprepException;
@@ -51,8 +59,72 @@ public interface XmppStringprep {
 	/**
 	 * Performs String preparation on the resourcepart String of a JID. In RFC 6122 terms this means applying the <i>resourceprep</i> profile of Stringprep.
 	 * @param string the String to transform.
-	 * @return the prepared String.
+	 * @return the prepared String, which is the given String if it is unchanged.
 	 * @throws XmppStringprepException if there is an error.
 	 */
 	String resourceprep(String string) throws XmppStringprepException;
+
+	/**
+	 * Performs {@link #localprep(String)} on every String of the given batch. The default implementation prepares
+	 * the Strings one after another. Implementations may override it, for example, to reuse internal buffers across
+	 * the batch.
+	 *
+	 * @param strings the Strings to transform.
+	 * @return the prepared Strings and the errors, by the index of the input String.
+	 */
+	default BatchStringprepResult localprepBatch(List<String> strings) {
+		int size = strings.size();
+		String[] results = new String[size];
+		XmppStringprepException[] errors = new XmppStringprepException[size];
+		for (int i = 0; i < size; i++) {
+			try {
+				results[i] = localprep(strings.get(i));
+			} catch (XmppStringprepException e) {
+				errors[i] = e;
+			}
+		}
+		return new BatchStringprepResult(results, errors);
+	}
+
+	/**
+	 * Performs {@link #domainprep(String)} on every String of the given batch. The default implementation prepares
+	 * the Strings one after another.
+	 *
+	 * @param strings the Strings to transform.
+	 * @return the prepared Strings and the errors, by the index of the input String.
+	 */
+	default BatchStringprepResult domainprepBatch(List<String> strings) {
+		int size = strings.size();
+		String[] results = new String[size];
+		XmppStringprepException[] errors = new XmppStringprepException[size];
+		for (int i = 0; i < size; i++) {
+			try {
+				results[i] = domainprep(strings.get(i));
+			} catch (XmppStringprepException e) {
+				errors[i] = e;
+			}
+		}
+		return new BatchStringprepResult(results, errors);
+	}
+
+	/**
+	 * Performs {@link #resourceprep(String)} on every String of the given batch. The default implementation prepares
+	 * the Strings one after another.
+	 *
+	 * @param strings the Strings to transform.
+	 * @return the prepared Strings and the errors, by the index of the input String.
+	 */
+	default BatchStringprepResult resourceprepBatch(List<String> strings) {
+		int size = strings.size();
+		String[] results = new String[size];
+		XmppStringprepException[] errors = new XmppStringprepException[size];
+		for (int i = 0; i < size; i++) {
+			try {
+				results[i] = resourceprep(strings.get(i));
+			} catch (XmppStringprepException e) {
+				errors[i] = e;
+			}
+		}
+		return new BatchStringprepResult(results, errors);
+	}
 }
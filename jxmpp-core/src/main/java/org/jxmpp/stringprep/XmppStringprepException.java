@@ -63,6 +63,57 @@ public class XmppStringprepException extends IOException {
 		return causingString;
 	}
 
+	/**
+	 * A XMPP Stringprep exception without a stack trace. The exceptions created by jXMPP itself for invalid input, e.g.
+	 * by {@link ValidationResult#toException()}, are stackless, as filling in the stack trace dominates the cost of
+	 * rejecting invalid input, while the stack trace does not tell anything which is not already in the message. Like
+	 * a Throwable constructed with a non-writable stack trace, the stack trace of a stackless exception is never filled
+	 * in and can not be set, as instances may be shared between threads, e.g. by the failure caches.
+	 * <p>
+	 * Note that, as XMPP Stringprep exceptions are {@link IOException}s, which do not expose the constructor of
+	 * {@link Throwable} with the {@code writableStackTrace} and {@code enableSuppression} flags, suppression can not
+	 * be disabled. Exceptions returned by {@link ValidationResult#toException()} should not be passed to
+	 * {@link Throwable#addSuppressed(Throwable)}.
+	 * </p>
+	 */
+	public static class Stackless extends XmppStringprepException {
+
+		/**
+		 *
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Construct a new stackless XMPP Stringprep exception with the given causing String and exception.
+		 *
+		 * @param causingString the String causing the exception.
+		 * @param exception the exception.
+		 */
+		public Stackless(String causingString, Exception exception) {
+			super(causingString, exception);
+		}
+
+		/**
+		 * Construct a new stackless XMPP Stringprep exception with the given causing String and exception message.
+		 *
+		 * @param causingString the String causing the exception.
+		 * @param message the message of the exception.
+		 */
+		public Stackless(String causingString, String message) {
+			super(causingString, message);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+		@Override
+		public void setStackTrace(StackTraceElement[] stackTrace) {
+			// The stack trace is not writable.
+		}
+	}
+
 	/**
 	 * The input string does not contain a domainpart.
 	 */
@@ -76,6 +127,28 @@ public class XmppStringprepException extends IOException {
 			super(causingString, "The provided string does not have a domainpart");
 		}
 
+		/**
+		 * Create a new stackless "missing domainpart" exception, like {@link Stackless} exceptions.
+		 *
+		 * @param causingString the String causing the exception.
+		 * @return a new stackless "missing domainpart" exception.
+		 */
+		static MissingDomainpart stackless(String causingString) {
+			return new MissingDomainpart(causingString) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public synchronized Throwable fillInStackTrace() {
+					return this;
+				}
+
+				@Override
+				public void setStackTrace(StackTraceElement[] stackTrace) {
+					// The stack trace is not writable.
+				}
+			};
+		}
+
 		/**
 		 * Create a new "missing domainpart" exception from the give parts.
 		 *
@@ -90,14 +90,52 @@ public final class SimpleXmppStringprep implements XmppStringprep {
 		Arrays.sort(LOCALPART_EXCLUDED_CHARACTERS);
 	}
 
-	@Override
-	public String localprep(String string) throws XmppStringprepException {
-		string = simpleStringprep(string);
+	/**
+	 * The ASCII character is allowed and not changed.
+	 */
+	private static final byte ALLOWED = 0;
+
+	/**
+	 * The ASCII character is an uppercase letter, which is mapped to its lowercase equivalent.
+	 */
+	private static final byte UPPERCASE = 1;
+
+	/**
+	 * The ASCII character is excluded from the part.
+	 */
+	private static final byte EXCLUDED = 2;
 
-		ensurePartDoesNotContain(XmppAddressParttype.localpart, string, LOCALPART_EXCLUDED_CHARACTERS);
-		ensureValid(XmppAddressParttype.localpart, string);
+	/**
+	 * The ASCII character is disallowed by XML.
+	 */
+	private static final byte DISALLOWED = 3;
 
-		return string;
+	private static final byte[] LOCALPART_CHAR_CLASSES = new byte[0x80];
+
+	private static final byte[] DOMAINPART_CHAR_CLASSES = new byte[0x80];
+
+	private static final byte[] RESOURCEPART_CHAR_CLASSES = new byte[0x80];
+
+	static {
+		for (char c = 0; c < 0x80; c++) {
+			byte charClass = isDisallowedAsciiChar(c) ? DISALLOWED : ALLOWED;
+			RESOURCEPART_CHAR_CLASSES[c] = charClass;
+
+			if (c >= 'A' && c <= 'Z') {
+				charClass = UPPERCASE;
+			}
+			DOMAINPART_CHAR_CLASSES[c] = charClass;
+
+			if (Arrays.binarySearch(LOCALPART_EXCLUDED_CHARACTERS, c) >= 0) {
+				charClass = EXCLUDED;
+			}
+			LOCALPART_CHAR_CLASSES[c] = charClass;
+		}
+	}
+
+	@Override
+	public String localprep(String string) throws XmppStringprepException {
+		return prepare(XmppAddressParttype.localpart, string, LOCALPART_CHAR_CLASSES, true);
 	}
 
 	private static void ensurePartDoesNotContain(XmppAddressParttype parttype, String input, char[] excludedChars)
@@ -108,8 +146,7 @@ public final class SimpleXmppStringprep implements XmppStringprep {
 			char c = input.charAt(i);
 			int forbiddenCharPos = Arrays.binarySearch(excludedChars, c);
 			if (forbiddenCharPos >= 0) {
-				throw new XmppStringprepException(input, parttype.getCapitalizedName() + " must not contain '"
-						+ excludedChars[forbiddenCharPos] + "'");
+				throw newExcludedCharacterException(parttype, input, excludedChars[forbiddenCharPos]);
 			}
 		}
 	}
@@ -128,9 +165,7 @@ public final class SimpleXmppStringprep implements XmppStringprep {
 
 	@Override
 	public String domainprep(String string) throws XmppStringprepException {
-		string = simpleStringprep(string);
-		ensureValid(XmppAddressParttype.localpart, string);
-		return string;
+		return prepare(XmppAddressParttype.domainpart, string, DOMAINPART_CHAR_CLASSES, true);
 	}
 
 	@Override
@@ -141,14 +176,74 @@ public final class SimpleXmppStringprep implements XmppStringprep {
 		// TODO apply Unicode Normalization Form C (NFC) with help of java.text.Normalize
 		// but unfortunately this is API is only available on Android API 9 or higher and Smack is currently API 8
 
-		ensureValid(XmppAddressParttype.resourcepart, string);
+		return prepare(XmppAddressParttype.resourcepart, string, RESOURCEPART_CHAR_CLASSES, false);
+	}
+
+	/**
+	 * Prepare the input string in a single scan, which looks up the class of every ASCII character in the given
+	 * table. A new string is only allocated if the input string contains uppercase characters.
+	 *
+	 * @param parttype the part type.
+	 * @param string the input string.
+	 * @param charClasses the classes of the ASCII characters.
+	 * @param lowercase true if the characters of the input string are mapped to their lowercase equivalents.
+	 * @return the prepared string, which is the input string if it is unchanged.
+	 * @throws XmppStringprepException if the input string contains an excluded or disallowed character.
+	 */
+	private static String prepare(XmppAddressParttype parttype, String string, byte[] charClasses, boolean lowercase)
+			throws XmppStringprepException {
+		boolean uppercase = false;
+		int excludedPos = -1;
+		int disallowedPos = -1;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c >= 0x80) {
+				if (lowercase) {
+					// Non-ASCII characters are mapped using the rules of Locale.US, which may change the length of the
+					// string. Hence start over with the lowercase string.
+					return prepare(parttype, string.toLowerCase(Locale.US), charClasses, false);
+				}
+				continue;
+			}
+
+			switch (charClasses[c]) {
+			case UPPERCASE:
+				uppercase = true;
+				break;
+			case EXCLUDED:
+				if (excludedPos < 0) {
+					excludedPos = i;
+				}
+				break;
+			case DISALLOWED:
+				if (disallowedPos < 0) {
+					disallowedPos = i;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		if (excludedPos >= 0) {
+			throw newExcludedCharacterException(parttype, string, string.charAt(excludedPos));
+		}
+		if (disallowedPos >= 0) {
+			throw new XmppStringprepException(string,
+					parttype.getCapitalizedName() + " does contain disallowed ASCII character at pos " + disallowedPos);
+		}
 
-		return string;
+		if (!uppercase) {
+			return string;
+		}
+		// Only reached for ASCII strings, as non-ASCII strings were already lowercased.
+		return string.toLowerCase(Locale.US);
 	}
 
-	private static String simpleStringprep(String string) {
-		String res = string.toLowerCase(Locale.US);
-		return res;
+	private static XmppStringprepException newExcludedCharacterException(XmppAddressParttype parttype, String input,
+			char excludedChar) {
+		return new XmppStringprepException(input,
+				parttype.getCapitalizedName() + " must not contain '" + excludedChar + "'");
 	}
 
 	private static boolean isSorted(char[] chars) {
@@ -160,17 +255,6 @@ public final class SimpleXmppStringprep implements XmppStringprep {
 		return true;
 	}
 
-	private static void ensureValid(XmppAddressParttype parttype, String input) throws XmppStringprepException {
-		for (int i = 0; i < input.length(); i++) {
-			char c = input.charAt(i);
-
-			boolean disallowedAsciiChar = isDisallowedAsciiChar(c);
-			if (disallowedAsciiChar)
-				throw new XmppStringprepException(input,
-						parttype.getCapitalizedName() + " does contain disallowed ASCII character at pos " + i);
-		}
-	}
-
 	/**
 	 * XML 1.0 disallows certain characters. Below 0x20 (SPACE) only 0x09 (\t), 0x0A (\n), and 0x0D (\r) are allowed. See XML 1.0 § 2.2 which has the following production rule:
 	 *  Char       ::=       #x9 | #xA | #xD | [#x20-#xD7FF] | [#xE000-#xFFFD] | [#x10000-#x10FFFF]
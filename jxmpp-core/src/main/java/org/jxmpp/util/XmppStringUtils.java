@@ -16,6 +16,10 @@
  */
 package org.jxmpp.util;
 
+import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.CacheFactory;
+import org.jxmpp.util.cache.CacheLoader;
+import org.jxmpp.util.cache.CacheRegistry;
 import org.jxmpp.util.cache.LruCache;
 
 /**
@@ -156,8 +160,30 @@ public class XmppStringUtils {
 				&& (resource == null || resource.length() == 0));
 	}
 
-	private static final LruCache<String, String> LOCALPART_ESCAPE_CACHE = new LruCache<String, String>(100);
-	private static final LruCache<String, String> LOCALPART_UNESCAPE_CACHE = new LruCache<String, String>(100);
+	private static volatile Cache<String, String> LOCALPART_ESCAPE_CACHE = new LruCache<String, String>(100);
+	private static volatile Cache<String, String> LOCALPART_UNESCAPE_CACHE = new LruCache<String, String>(100);
+
+	static {
+		registerCaches();
+	}
+
+	private static void registerCaches() {
+		CacheRegistry.register("XmppStringUtils.LOCALPART_ESCAPE_CACHE", LOCALPART_ESCAPE_CACHE);
+		CacheRegistry.register("XmppStringUtils.LOCALPART_UNESCAPE_CACHE", LOCALPART_UNESCAPE_CACHE);
+	}
+
+	/**
+	 * Set the factory used to create the localpart escape and unescape caches. The current caches are replaced by
+	 * new, and hence empty, caches created by the given factory. The current maximum cache sizes are retained.
+	 *
+	 * @param cacheFactory the cache factory to use.
+	 */
+	public static void setCacheFactory(CacheFactory cacheFactory) {
+		Objects.requireNonNull(cacheFactory, "cacheFactory");
+		LOCALPART_ESCAPE_CACHE = cacheFactory.newCache(LOCALPART_ESCAPE_CACHE.getMaxCacheSize());
+		LOCALPART_UNESCAPE_CACHE = cacheFactory.newCache(LOCALPART_UNESCAPE_CACHE.getMaxCacheSize());
+		registerCaches();
+	}
 
 	/**
 	 * Escapes the localpart of a JID according to "JID Escaping" (XEP-0106).
@@ -197,10 +223,17 @@ public class XmppStringUtils {
 		if (localpart == null) {
 			return null;
 		}
-		String res = LOCALPART_ESCAPE_CACHE.lookup(localpart);
-		if (res != null) {
-			return res;
+		return LOCALPART_ESCAPE_CACHE.get(localpart, LOCALPART_ESCAPE_LOADER);
+	}
+
+	private static final CacheLoader<String, String, RuntimeException> LOCALPART_ESCAPE_LOADER = new CacheLoader<String, String, RuntimeException>() {
+		@Override
+		public String load(String localpart) {
+			return escapeLocalpartUncached(localpart);
 		}
+	};
+
+	private static String escapeLocalpartUncached(String localpart) {
 		StringBuilder buf = new StringBuilder(localpart.length() + 8);
 		for (int i = 0, n = localpart.length(); i < n; i++) {
 			char c = localpart.charAt(i);
@@ -241,9 +274,7 @@ public class XmppStringUtils {
 			}
 			}
 		}
-		res = buf.toString();
-		LOCALPART_ESCAPE_CACHE.put(localpart, res);
-		return res;
+		return buf.toString();
 	}
 
 	/**
@@ -281,15 +312,22 @@ public class XmppStringUtils {
 	 * @return the un-escaped version of the localpart.
 	 * @see <a href="http://xmpp.org/extensions/xep-0106.html">XEP-106: JID Escaping</a>
 	 */
-	@SuppressWarnings("LabelledBreakTarget")
 	public static String unescapeLocalpart(String localpart) {
 		if (localpart == null) {
 			return null;
 		}
-		String res = LOCALPART_UNESCAPE_CACHE.lookup(localpart);
-		if (res != null) {
-			return res;
+		return LOCALPART_UNESCAPE_CACHE.get(localpart, LOCALPART_UNESCAPE_LOADER);
+	}
+
+	private static final CacheLoader<String, String, RuntimeException> LOCALPART_UNESCAPE_LOADER = new CacheLoader<String, String, RuntimeException>() {
+		@Override
+		public String load(String localpart) {
+			return unescapeLocalpartUncached(localpart);
 		}
+	};
+
+	@SuppressWarnings("LabelledBreakTarget")
+	private static String unescapeLocalpartUncached(String localpart) {
 		char[] localpartChars = localpart.toCharArray();
 		StringBuilder buf = new StringBuilder(localpartChars.length);
 		for (int i = 0, n = localpartChars.length; i < n; i++) {
@@ -358,9 +396,7 @@ public class XmppStringUtils {
 				buf.append(c);
 			}
 		}
-		res = buf.toString();
-		LOCALPART_UNESCAPE_CACHE.put(localpart, res);
-		return res;
+		return buf.toString();
 	}
 
 	/**
@@ -0,0 +1,140 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import org.jxmpp.stringprep.XmppStringPrepUtil;
+import org.jxmpp.stringprep.XmppStringprepException;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+import org.jxmpp.util.cache.LruCache;
+import org.jxmpp.util.cache.ReferenceCache;
+import org.jxmpp.util.cache.TieredCache;
+
+public class CacheSnapshotTest {
+
+	private static final int MAGIC = 0x4a584353;
+
+	private static final int VERSION = 1;
+
+	@Test
+	public void negativeSectionCountTest() {
+		assertCorrupt(-1, 0);
+	}
+
+	@Test
+	public void hugeSectionCountTest() {
+		assertCorrupt(Integer.MAX_VALUE, 0);
+	}
+
+	@Test
+	public void negativeEntryCountTest() {
+		assertCorrupt(1, -1);
+	}
+
+	@Test
+	public void hugeEntryCountTest() {
+		// Would overflow to a negative number if multiplied by two.
+		assertCorrupt(1, Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void tieredCacheEntriesAreWrittenOnceTest() throws XmppStringprepException, IOException {
+		JxmppContext context = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(SimpleXmppStringprep.getInstance())
+				.withCacheFactory(TieredCache.newSecondChanceFactory(LruCache.FACTORY, ReferenceCache.Strength.SOFT))
+				.build();
+		// Non-ASCII input is not handled by the ASCII fast path and hence ends up in both tiers of the cache.
+		XmppStringPrepUtil.localprep("snapshötentry", context);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CacheSnapshot.write(out, Collections.singletonList(XmppStringPrepUtil.getCacheSet(context)));
+
+		DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+		assertEquals(MAGIC, in.readInt());
+		assertEquals(VERSION, in.readUnsignedByte());
+		int sectionCount = in.readInt();
+		int nodeprepEntryCount = -1;
+		for (int i = 0; i < sectionCount; i++) {
+			String cacheName = in.readUTF();
+			in.readUTF();
+			int entryCount = in.readInt();
+			for (int j = 0; j < entryCount * 2; j++) {
+				in.readUTF();
+			}
+			if (cacheName.equals("XmppStringPrepUtil.NODEPREP_CACHE")) {
+				nodeprepEntryCount = entryCount;
+			}
+		}
+		assertEquals(1, nodeprepEntryCount);
+
+		JxmppContext warmContext = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(SimpleXmppStringprep.getInstance())
+				.build();
+		List<JxmppContext.CacheSet> warmCacheSets = Collections.singletonList(
+				XmppStringPrepUtil.getCacheSet(warmContext));
+		assertEquals(1, CacheSnapshot.preload(new ByteArrayInputStream(out.toByteArray()), warmCacheSets));
+	}
+
+	private static void assertCorrupt(int sectionCount, int entryCount) {
+		byte[] snapshot;
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			GZIPOutputStream gzipOutputStream = new GZIPOutputStream(out);
+			DataOutputStream dataOutputStream = new DataOutputStream(gzipOutputStream);
+			dataOutputStream.writeInt(MAGIC);
+			dataOutputStream.writeByte(VERSION);
+			dataOutputStream.writeInt(sectionCount);
+			dataOutputStream.writeUTF("XmppStringPrepUtil.NODEPREP_CACHE");
+			dataOutputStream.writeUTF(SimpleXmppStringprep.NAME);
+			dataOutputStream.writeInt(entryCount);
+			dataOutputStream.writeUTF("foo");
+			dataOutputStream.writeUTF("foo");
+			dataOutputStream.flush();
+			gzipOutputStream.finish();
+			snapshot = out.toByteArray();
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+
+		JxmppContext context = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(SimpleXmppStringprep.getInstance())
+				.build();
+		try {
+			CacheSnapshot.preload(new ByteArrayInputStream(snapshot),
+					Collections.singletonList(XmppStringPrepUtil.getCacheSet(context)));
+			fail("Expected IOException for section count " + sectionCount + " and entry count " + entryCount);
+		} catch (IOException e) {
+			// Expected.
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.jxmpp.JxmppContext;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+
+public class ValidationResultTest {
+
+	@Test
+	public void testValidResult() throws XmppStringprepException {
+		ValidationResult<String> result = XmppStringPrepUtil.tryLocalprep("Juliet");
+		assertTrue(result.isValid());
+		assertEquals("juliet", result.get());
+		assertEquals("juliet", result.getOrThrow());
+		assertNull(result.getErrorCode());
+	}
+
+	@Test
+	public void testInvalidResults() {
+		assertEquals(ValidationResult.ErrorCode.NULL, XmppStringPrepUtil.tryResourceprep(null).getErrorCode());
+		assertEquals(ValidationResult.ErrorCode.EMPTY, XmppStringPrepUtil.tryDomainprep("").getErrorCode());
+
+		ValidationResult<String> result = XmppStringPrepUtil.tryLocalprep("foo bar");
+		assertFalse(result.isValid());
+		assertNull(result.getOrNull());
+		assertEquals(ValidationResult.ErrorCode.PROHIBITED_CHARACTER, result.getErrorCode());
+		assertEquals("foo bar", result.getCausingString());
+		try {
+			result.get();
+			fail();
+		} catch (IllegalStateException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void testExceptionIsStackless() {
+		ValidationResult<String> result = XmppStringPrepUtil.tryLocalprep("foo@bar");
+		XmppStringprepException exception = result.toException();
+		assertTrue(exception instanceof XmppStringprepException.Stackless);
+		assertEquals(0, exception.getStackTrace().length);
+		assertSame(exception, result.toException());
+		assertEquals(result.getMessage(), exception.getMessage());
+		try {
+			result.getOrThrow();
+			fail();
+		} catch (XmppStringprepException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void testStringprepFailure() {
+		JxmppContext context = JxmppContext.builder()
+				.withXmppStringprep(SimpleXmppStringprep.getInstance())
+				.disableAsciiFastPath()
+				.build();
+		ValidationResult<String> result = XmppStringPrepUtil.tryLocalprep("foo@bar", context);
+		assertEquals(ValidationResult.ErrorCode.STRINGPREP, result.getErrorCode());
+		assertEquals("foo@bar", result.getCausingString());
+	}
+
+	@Test
+	public void testWrappedResult() {
+		ValidationResult<String> cause = ValidationResult.invalid(ValidationResult.ErrorCode.TOO_LONG, "foo", "Too long");
+		ValidationResult<Object> result = ValidationResult.invalid("foo@example.org", cause);
+		assertEquals(ValidationResult.ErrorCode.TOO_LONG, result.getErrorCode());
+		assertEquals("foo@example.org", result.getCausingString());
+		assertSame(cause.toException(), result.toException().getCause());
+	}
+}
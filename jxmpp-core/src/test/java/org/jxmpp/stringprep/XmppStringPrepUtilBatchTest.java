@@ -0,0 +1,151 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+import org.jxmpp.JxmppContext;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+
+public class XmppStringPrepUtilBatchTest {
+
+	@Test
+	public void testLocalprepBatch() {
+		BatchStringprepResult result = XmppStringPrepUtil.localprepBatch(Arrays.asList("Juliet", "", "ro@meo", "ÉTÉ"));
+		assertEquals(4, result.size());
+		assertEquals("juliet", result.getResult(0));
+		assertFalse(result.isSuccess(1));
+		assertFalse(result.isSuccess(2));
+		assertNull(result.getResult(2));
+		assertEquals("été", result.getResult(3));
+		assertEquals(2, result.getErrorCount());
+	}
+
+	@Test
+	public void testBatchWithoutCachingAndFastPath() {
+		JxmppContext context = JxmppContext.builder()
+				.withXmppStringprep(SimpleXmppStringprep.getInstance())
+				.disableAsciiFastPath()
+				.build();
+		BatchStringprepResult result = XmppStringPrepUtil.domainprepBatch(Arrays.asList("Example.ORG", null), context);
+		assertEquals("example.org", result.getResult(0));
+		assertNotNull(result.getError(1));
+		assertTrue(result.hasErrors());
+	}
+
+	@Test
+	public void testParallelResourceprepBatch() throws InterruptedException {
+		List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			strings.add(i % 100 == 0 ? "bad\u0001" + i : "Résource" + i);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		BatchStringprepResult result;
+		try {
+			result = XmppStringPrepUtil.resourceprepBatch(strings, JxmppContext.getDefaultContext(), executor);
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(strings.size(), result.size());
+		assertEquals(100, result.getErrorCount());
+		for (int i = 0; i < strings.size(); i++) {
+			if (i % 100 == 0) {
+				assertFalse(result.isSuccess(i));
+			} else {
+				assertEquals("Résource" + i, result.getResult(i));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelBatchWithRejectingExecutor() throws InterruptedException {
+		List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			strings.add("Résource" + i);
+		}
+
+		BatchStringprepResult result = XmppStringPrepUtil.resourceprepBatch(strings, JxmppContext.getDefaultContext(),
+				runnable -> {
+					throw new RejectedExecutionException();
+				});
+
+		assertEquals(strings.size(), result.size());
+		assertFalse(result.hasErrors());
+		for (int i = 0; i < strings.size(); i++) {
+			assertEquals("Résource" + i, result.getResult(i));
+		}
+	}
+
+	@Test
+	public void testParallelBatchRethrowsError() {
+		final XmppStringprep failingStringprep = new XmppStringprep() {
+			@Override
+			public String localprep(String string) {
+				return string;
+			}
+
+			@Override
+			public String domainprep(String string) {
+				return string;
+			}
+
+			@Override
+			public String resourceprep(String string) {
+				if (string.equals("fail")) {
+					throw new TestError();
+				}
+				return string;
+			}
+		};
+		JxmppContext context = JxmppContext.builder()
+				.withXmppStringprep(failingStringprep)
+				.disableAsciiFastPath()
+				.build();
+		final List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			strings.add("resource" + i);
+		}
+		// The last String is prepared by one of the threads of the executor.
+		strings.add("fail");
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			assertThrows(TestError.class, () -> XmppStringPrepUtil.resourceprepBatch(strings, context, executor));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static final class TestError extends Error {
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.CacheRegistry;
+
+public class XmppStringPrepUtilCacheConfigurationTest {
+
+	@Test
+	public void maxCacheSizesSurviveDefaultXmppStringprepChangeTest() throws XmppStringprepException {
+		int previousMaxCacheSize = CacheRegistry.getCache("XmppStringPrepUtil.NODEPREP_CACHE").getMaxCacheSize();
+		XmppStringPrepUtil.setMaxCacheSizes(42);
+		try {
+			SimpleXmppStringprep.setup();
+			XmppStringPrepUtil.localprep("maxcachesizessürvive");
+
+			Cache<?, ?> nodeprepCache = CacheRegistry.getCache("XmppStringPrepUtil.NODEPREP_CACHE");
+			assertEquals(42, nodeprepCache.getMaxCacheSize());
+			assertEquals(1, nodeprepCache.getCacheStats().getSize());
+		} finally {
+			XmppStringPrepUtil.setMaxCacheSizes(previousMaxCacheSize);
+		}
+	}
+}
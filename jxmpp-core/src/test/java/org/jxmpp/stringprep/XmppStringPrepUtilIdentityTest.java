@@ -0,0 +1,86 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.Test;
+import org.jxmpp.JxmppContext;
+
+public class XmppStringPrepUtilIdentityTest {
+
+	/**
+	 * A XmppStringprep which always returns a new String, like many stringprep libraries do.
+	 */
+	private static final XmppStringprep COPYING_STRINGPREP = new XmppStringprep() {
+		@Override
+		public String localprep(String string) {
+			return new String(string.toLowerCase(Locale.ROOT).toCharArray());
+		}
+
+		@Override
+		public String domainprep(String string) {
+			return new String(string.toLowerCase(Locale.ROOT).toCharArray());
+		}
+
+		@Override
+		public String resourceprep(String string) {
+			return new String(string.toCharArray());
+		}
+	};
+
+	@Test
+	public void testUnchangedInputIsReturned() throws XmppStringprepException {
+		JxmppContext context = JxmppContext.builder()
+				.withXmppStringprep(COPYING_STRINGPREP)
+				.disableAsciiFastPath()
+				.build();
+		String localpart = "juliet";
+		assertSame(localpart, XmppStringPrepUtil.localprep(localpart, context));
+		String domainpart = "example.org";
+		assertSame(domainpart, XmppStringPrepUtil.tryDomainprep(domainpart, context).get());
+		assertEquals("juliet", XmppStringPrepUtil.localprep("Juliet", context));
+	}
+
+	@Test
+	public void testUnchangedInputIsCached() throws XmppStringprepException {
+		JxmppContext context = JxmppContext.builder()
+				.withXmppStringprep(COPYING_STRINGPREP)
+				.disableAsciiFastPath()
+				.enableCaching()
+				.build();
+		String resourcepart = "Balcony";
+		assertSame(resourcepart, XmppStringPrepUtil.resourceprep(resourcepart, context));
+		assertSame(resourcepart, XmppStringPrepUtil.resourceprep(new String(resourcepart.toCharArray()), context));
+
+		String localpart = "romeo";
+		BatchStringprepResult result = XmppStringPrepUtil.localprepBatch(Arrays.asList(localpart), context);
+		assertSame(localpart, result.getResult(0));
+	}
+
+	@Test
+	public void testPreserveIdentity() {
+		String string = "foo";
+		assertSame(string, XmppStringPrepUtil.preserveIdentity(string, new String(string.toCharArray())));
+		String prepared = "bar";
+		assertSame(prepared, XmppStringPrepUtil.preserveIdentity(string, prepared));
+	}
+}
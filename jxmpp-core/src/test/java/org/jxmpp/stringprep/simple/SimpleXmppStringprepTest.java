@@ -0,0 +1,67 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.jxmpp.stringprep.XmppStringprepException;
+
+public class SimpleXmppStringprepTest {
+
+	private static final SimpleXmppStringprep SIMPLE = SimpleXmppStringprep.getInstance();
+
+	@Test
+	public void testUnchangedInputIsReturned() throws XmppStringprepException {
+		String localpart = "juliet";
+		assertSame(localpart, SIMPLE.localprep(localpart));
+		String domainpart = "example.org";
+		assertSame(domainpart, SIMPLE.domainprep(domainpart));
+		String resourcepart = "Balcony";
+		assertSame(resourcepart, SIMPLE.resourceprep(resourcepart));
+	}
+
+	@Test
+	public void testLowercase() throws XmppStringprepException {
+		assertEquals("juliet", SIMPLE.localprep("JuLiEt"));
+		assertEquals("example.org", SIMPLE.domainprep("Example.ORG"));
+		assertEquals("été", SIMPLE.localprep("ÉTÉ"));
+		assertEquals("i̇", SIMPLE.localprep("İ"));
+	}
+
+	@Test
+	public void testExcludedCharacterIsReportedFirst() {
+		try {
+			SIMPLE.localprep("\u0001Ju@liet");
+			fail();
+		} catch (XmppStringprepException e) {
+			assertEquals("Localpart must not contain '@'", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testDisallowedCharacter() {
+		try {
+			SIMPLE.domainprep("Exa\u0001mple.org");
+			fail();
+		} catch (XmppStringprepException e) {
+			assertEquals("Domainpart does contain disallowed ASCII character at pos 3", e.getMessage());
+		}
+	}
+}
@@ -18,6 +18,14 @@ package org.jxmpp.jid.impl;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.jxmpp.JxmppContext;
 import org.jxmpp.jid.BareJid;
@@ -31,9 +39,15 @@ import org.jxmpp.jid.Jid;
 import org.jxmpp.jid.parts.Domainpart;
 import org.jxmpp.jid.parts.Localpart;
 import org.jxmpp.jid.parts.Resourcepart;
-import org.jxmpp.stringprep.XmppStringprep;
+import org.jxmpp.stringprep.ValidationResult;
+import org.jxmpp.stringprep.XmppStringPrepUtil;
 import org.jxmpp.stringprep.XmppStringprepException;
+import org.jxmpp.util.Objects;
 import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.CacheFactory;
+import org.jxmpp.util.cache.CacheLoader;
+import org.jxmpp.util.cache.CharSequenceWeigher;
+import org.jxmpp.util.cache.FailureCache;
 import org.jxmpp.util.cache.LruCache;
 import org.jxmpp.util.XmppStringUtils;
 
@@ -55,54 +69,78 @@ import org.jxmpp.util.XmppStringUtils;
  * JidCreate uses caches for efficient Jid construction, But it's not guaranteed
  * that the same String or CharSequence will yield the same Jid instance.
  * </p>
+ * <p>
+ * If failure caching is enabled, see {@link JxmppContext.Builder#withFailureCaching(int, long)}, the exceptions thrown
+ * for invalid input are also cached for a short time, so that e.g. a malformed JID which is received over and over
+ * again is rejected by rethrowing the cached exception.
+ * </p>
  *
  * @see Jid
  */
 public class JidCreate {
 
-	private static class JidStringAndStringprep {
-		private final String jidString;
-		private final XmppStringprep stringprep;
-		private final int hashCode;
-
-		private JidStringAndStringprep(String jidString, JxmppContext context) {
-			this(jidString, context.xmppStringprep);
+	private static final JxmppContext.CacheSetFactory<JidCaches> JID_CACHES = new JxmppContext.CacheSetFactory<JidCaches>() {
+		@Override
+		public JidCaches newCacheSet(JxmppContext context) {
+			return new JidCaches(context);
 		}
+	};
 
-		private JidStringAndStringprep(String jidString, XmppStringprep stringprep) {
-			this.jidString = jidString;
-			this.stringprep = stringprep;
-
-			int result = 17;
-			result = 31 * result + jidString.hashCode();
-			result = 31 * result + stringprep.hashCode();
-			hashCode = result;
+	/**
+	 * Set the factory used to create the JID caches of the default context. The current caches are replaced by new,
+	 * and hence empty, caches created by the given factory. The current maximum cache sizes are retained. Use
+	 * {@link JxmppContext.Builder#withCacheFactory(CacheFactory)} to configure the caches of other contexts.
+	 * <p>
+	 * For example, use {@link org.jxmpp.util.cache.StripedLruCache#FACTORY} if JIDs are created by many threads
+	 * concurrently, or {@link org.jxmpp.util.cache.TinyLfuCache#FACTORY} if bursts of JIDs which are only seen once
+	 * should not displace the frequently used JIDs from the caches.
+	 * </p>
+	 * <p>
+	 * In order to let the caches grow into spare heap, while not risking an out of memory error, use a factory
+	 * created by {@link org.jxmpp.util.cache.TieredCache#newSecondChanceFactory(CacheFactory,
+	 * org.jxmpp.util.cache.ReferenceCache.Strength)}. The JIDs evicted from the caches are then kept in a softly or
+	 * weakly referencing second tier, until they are reclaimed by the garbage collector.
+	 * </p>
+	 *
+	 * @param cacheFactory the cache factory to use.
+	 */
+	public static void setCacheFactory(CacheFactory cacheFactory) {
+		Objects.requireNonNull(cacheFactory, "cacheFactory");
+		synchronized (JidCaches.class) {
+			JidCaches.defaultCacheFactory = cacheFactory;
+			// The caches created by the factory replace the weighted caches.
+			JidCaches.defaultMaxCacheWeight = 0;
+			JxmppContext.getDefaultContext().getCacheSet(JID_CACHES).setCacheFactory(cacheFactory);
 		}
+	}
 
-		@Override
-		public boolean equals(Object other) {
-			if (!(other instanceof JidStringAndStringprep))
-				return false;
-
-			JidStringAndStringprep otherJidStringAndStringprep = (JidStringAndStringprep) other;
-			return jidString.equals(otherJidStringAndStringprep.jidString) && stringprep.equals(otherJidStringAndStringprep.stringprep);
-		}
+	/**
+	 * Get the caches used by JidCreate within the given context, that is, the stringprep caches followed by the JID
+	 * caches. Use the returned cache sets to write a {@link org.jxmpp.CacheSnapshot} before shutting down, and to
+	 * preload it when starting up again.
+	 *
+	 * @param context the JXMPP context.
+	 * @return the cache sets used by JidCreate, in the order they should be preloaded.
+	 */
+	public static List<JxmppContext.CacheSet> getCacheSets(JxmppContext context) {
+		return Arrays.asList(XmppStringPrepUtil.getCacheSet(context), context.getCacheSet(JID_CACHES));
+	}
 
-		@Override
-		public int hashCode() {
-			return hashCode;
+	/**
+	 * Bound every JID cache of the default context by the given total weight, which is the estimated heap size of
+	 * the cached JIDs in bytes as calculated by {@link CharSequenceWeigher}. The current caches are replaced by new,
+	 * and hence empty, {@link LruCache}s which are bounded by the given weight and by the current maximum cache sizes.
+	 * Use {@link #setCacheFactory(CacheFactory)} to revert to caches which are only bounded by their size.
+	 *
+	 * @param maxWeight the maximum weight, i.e. the approximate byte budget, of every JID cache.
+	 */
+	public static void setMaxCacheWeights(long maxWeight) {
+		synchronized (JidCaches.class) {
+			JidCaches.defaultMaxCacheWeight = maxWeight;
+			JxmppContext.getDefaultContext().getCacheSet(JID_CACHES).setMaxCacheWeights(maxWeight);
 		}
 	}
 
-	private static final Cache<JidStringAndStringprep, Jid> JID_CACHE = new LruCache<>(100);
-	private static final Cache<JidStringAndStringprep, BareJid> BAREJID_CACHE = new LruCache<>(100);
-	private static final Cache<JidStringAndStringprep, EntityJid> ENTITYJID_CACHE = new LruCache<>(100);
-	private static final Cache<JidStringAndStringprep, FullJid> FULLJID_CACHE = new LruCache<>(100);
-	private static final Cache<JidStringAndStringprep, EntityBareJid> ENTITY_BAREJID_CACHE = new LruCache<>(100);
-	private static final Cache<JidStringAndStringprep, EntityFullJid> ENTITY_FULLJID_CACHE = new LruCache<>(100);
-	private static final Cache<JidStringAndStringprep, DomainBareJid> DOMAINJID_CACHE = new LruCache<>(100);
-	private static final Cache<JidStringAndStringprep, DomainFullJid> DOMAINRESOURCEJID_CACHE = new LruCache<>(100);
-
 	/**
 	 * Get a {@link Jid} from the given parts.
 	 * <p>
@@ -166,7 +204,7 @@ public class JidCreate {
 	 * @return a JID which consists of the given parts.
 	 * @throws XmppStringprepException if an error occurs.
 	 */
-	private static Jid from(String localpart, String domainpart, String resource, String jidString, JxmppContext context) throws XmppStringprepException {
+	private static Jid from(final String localpart, final String domainpart, final String resource, String jidString, final JxmppContext context) throws XmppStringprepException {
 		// Every JID must come with an domainpart.
 		if (domainpart.isEmpty()) {
 			throw XmppStringprepException.MissingDomainpart.from(localpart, resource);
@@ -175,33 +213,211 @@ public class JidCreate {
 		// The provided jidString must be equal to the assembled parts.
 		assert jidString.equals(XmppStringUtils.completeJidFrom(localpart, domainpart, resource));
 
-		Jid jid;
+		if (!context.isCachingEnabled()) {
+			return createJid(localpart, domainpart, resource, context);
+		}
+		return context.getCacheSet(JID_CACHES).getFromParts(localpart, domainpart, resource, jidString);
+	}
+
+	private static Jid createJid(String localpart, String domainpart, String resource, JxmppContext context)
+			throws XmppStringprepException {
+		return tryCreateJid(localpart, domainpart, resource, context).getOrThrow();
+	}
 
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(jidString, context);
-			jid = JID_CACHE.lookup(jidStringAndStringprep);
-			if (jid != null) {
-				return jid;
+	private static ValidationResult<Jid> tryCreateJid(String localpart, String domainpart, String resource,
+			JxmppContext context) {
+		if (domainpart.isEmpty()) {
+			return missingDomainpart(localpart, resource);
+		}
+		ValidationResult<Domainpart> domainpartResult = Domainpart.tryFrom(domainpart, context);
+		if (!domainpartResult.isValid()) {
+			return domainpartResult.asInvalid();
+		}
+		DomainpartJid domainBareJid = new DomainpartJid(domainpartResult.get());
+		BareJid bareJid = domainBareJid;
+		if (localpart != null) {
+			ValidationResult<Localpart> localpartResult = Localpart.tryFrom(localpart, context);
+			if (!localpartResult.isValid()) {
+				return localpartResult.asInvalid();
 			}
+			bareJid = new LocalAndDomainpartJid(localpartResult.get(), domainBareJid.getDomain());
+		}
+		if (resource == null) {
+			return ValidationResult.<Jid>valid(bareJid);
+		}
+		ValidationResult<Resourcepart> resourcepartResult = Resourcepart.tryFrom(resource, context);
+		if (!resourcepartResult.isValid()) {
+			return resourcepartResult.asInvalid();
+		}
+		return ValidationResult.valid(fullFrom(bareJid, resourcepartResult.get()));
+	}
+
+	private static <J extends Jid> ValidationResult<J> missingDomainpart(String localpart, String resourcepart) {
+		// Same causing String as XmppStringprepException.MissingDomainpart.
+		StringBuilder causingString = new StringBuilder();
+		if (localpart != null) {
+			causingString.append(localpart).append('@');
+		}
+		if (resourcepart != null) {
+			causingString.append('/').append(resourcepart);
+		}
+		return ValidationResult.invalid(ValidationResult.ErrorCode.MISSING_DOMAINPART, causingString.toString(),
+				"The provided string does not have a domainpart");
+	}
+
+	private static ValidationResult<DomainBareJid> tryDomainBareJid(String domainpart, JxmppContext context) {
+		ValidationResult<Domainpart> domainpartResult = Domainpart.tryFrom(domainpart, context);
+		if (!domainpartResult.isValid()) {
+			return domainpartResult.asInvalid();
+		}
+		return ValidationResult.<DomainBareJid>valid(new DomainpartJid(domainpartResult.get()));
+	}
+
+	private static ValidationResult<EntityBareJid> tryEntityBareJid(String localpart, String domainpart,
+			JxmppContext context) {
+		// The domainpart is validated first, like by the constructors of the JIDs.
+		ValidationResult<Domainpart> domainpartResult = Domainpart.tryFrom(domainpart, context);
+		if (!domainpartResult.isValid()) {
+			return domainpartResult.asInvalid();
+		}
+		ValidationResult<Localpart> localpartResult = Localpart.tryFrom(localpart, context);
+		if (!localpartResult.isValid()) {
+			return localpartResult.asInvalid();
+		}
+		return ValidationResult.<EntityBareJid>valid(
+				new LocalAndDomainpartJid(localpartResult.get(), domainpartResult.get()));
+	}
+
+	private static ValidationResult<DomainFullJid> tryDomainFullJid(String domainpart, String resource,
+			JxmppContext context) {
+		ValidationResult<DomainBareJid> domainBareJid = tryDomainBareJid(domainpart, context);
+		if (!domainBareJid.isValid()) {
+			return domainBareJid.asInvalid();
+		}
+		ValidationResult<Resourcepart> resourcepartResult = Resourcepart.tryFrom(resource, context);
+		if (!resourcepartResult.isValid()) {
+			return resourcepartResult.asInvalid();
+		}
+		return ValidationResult.<DomainFullJid>valid(
+				new DomainAndResourcepartJid(domainBareJid.get(), resourcepartResult.get()));
+	}
+
+	private static ValidationResult<EntityFullJid> tryEntityFullJid(String localpart, String domainpart,
+			String resource, JxmppContext context) {
+		ValidationResult<EntityBareJid> entityBareJid = tryEntityBareJid(localpart, domainpart, context);
+		if (!entityBareJid.isValid()) {
+			return entityBareJid.asInvalid();
 		}
+		ValidationResult<Resourcepart> resourcepartResult = Resourcepart.tryFrom(resource, context);
+		if (!resourcepartResult.isValid()) {
+			return resourcepartResult.asInvalid();
+		}
+		return ValidationResult.<EntityFullJid>valid(
+				new LocalDomainAndResourcepartJid(entityBareJid.get(), resourcepartResult.get()));
+	}
 
-		jid = null;
-		if (localpart != null && resource != null) {
-			jid = new LocalDomainAndResourcepartJid(localpart, domainpart, resource, context);
-		} else if (localpart != null && resource == null) {
-			jid = new LocalAndDomainpartJid(localpart, domainpart, context);
-		} else if (localpart == null && resource == null) {
-			jid = new DomainpartJid(domainpart, context);
-		} else if (localpart == null && resource != null) {
-			jid = new DomainAndResourcepartJid(domainpart, resource, context);
+	/**
+	 * Wrap the given result of a JID into an invalid result of the given JID String, if it is invalid.
+	 */
+	private static <J extends Jid> ValidationResult<J> wrapInvalid(String jidString, ValidationResult<J> result) {
+		if (result.isValid()) {
+			return result;
+		}
+		return ValidationResult.invalid(jidString, result);
+	}
+
+	private static final JidFactory<Jid> JID_FACTORY = new JidFactory<Jid>() {
+		@Override
+		public ValidationResult<Jid> create(String jidString, JxmppContext context) {
+			String localpart = XmppStringUtils.parseLocalpart(jidString);
+			String domainpart = XmppStringUtils.parseDomain(jidString);
+			String resource = XmppStringUtils.parseResource(jidString);
+			return wrapInvalid(jidString, tryCreateJid(localpart, domainpart, resource, context));
+		}
+	};
+
+	/**
+	 * Get the {@link Jid}s of the given Strings and add them, in the same order, to the given output collection.
+	 * <p>
+	 * Unlike invoking {@link #from(CharSequence)} for every String, this looks up all JIDs in the cache with a single
+	 * bulk lookup, and puts all JIDs which were not cached with a single bulk put, which makes it efficient for
+	 * converting many JIDs at once, e.g. when loading a roster.
+	 * </p>
+	 * <p>
+	 * If the optional argument <code>exceptions</code> is given, then all {@link XmppStringprepException} thrown
+	 * while converting will be added to the list. Otherwise, the first thrown exception is rethrown.
+	 * </p>
+	 *
+	 * @param jidStrings the Strings that are going to get converted.
+	 * @param output the collection where the JIDs will be added to.
+	 * @param exceptions the optional list of exceptions thrown while converting.
+	 * @throws XmppStringprepException if a String could not be converted and <code>exceptions</code> is {@code null}.
+	 */
+	public static void fromAll(Collection<? extends CharSequence> jidStrings, Collection<? super Jid> output,
+			List<XmppStringprepException> exceptions) throws XmppStringprepException {
+		fromAll(jidStrings, output, exceptions, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get the {@link Jid}s of the given Strings and add them, in the same order, to the given output collection.
+	 *
+	 * @param jidStrings the Strings that are going to get converted.
+	 * @param output the collection where the JIDs will be added to.
+	 * @param exceptions the optional list of exceptions thrown while converting.
+	 * @param context the JXMPP context.
+	 * @throws XmppStringprepException if a String could not be converted and <code>exceptions</code> is {@code null}.
+	 * @see #fromAll(Collection, Collection, List)
+	 */
+	public static void fromAll(Collection<? extends CharSequence> jidStrings, Collection<? super Jid> output,
+			List<XmppStringprepException> exceptions, JxmppContext context) throws XmppStringprepException {
+		List<String> keys = new ArrayList<>(jidStrings.size());
+		for (CharSequence jidString : jidStrings) {
+			keys.add(jidString.toString());
+		}
+
+		Cache<String, Jid> cache = null;
+		CacheLoader<String, Jid, XmppStringprepException> loader = null;
+		Map<String, Jid> cached;
+		if (context.isCachingEnabled()) {
+			JidCaches caches = context.getCacheSet(JID_CACHES);
+			cache = caches.jidCache;
+			loader = caches.jidLoader;
+			cached = cache.lookupAll(keys);
+		} else {
+			cached = Collections.emptyMap();
 		}
-		assert jid != null;
 
-		if (jidStringAndStringprep != null) {
-			JID_CACHE.put(jidStringAndStringprep, jid);
+		Map<String, Jid> created = new HashMap<>();
+		try {
+			for (String key : keys) {
+				Jid jid = cached.get(key);
+				if (jid == null) {
+					// The same JID may occur multiple times in the input.
+					jid = created.get(key);
+				}
+				if (jid == null) {
+					try {
+						if (loader != null) {
+							jid = loader.load(key);
+						} else {
+							jid = JID_FACTORY.create(key, context).getOrThrow();
+						}
+					} catch (XmppStringprepException e) {
+						if (exceptions == null) {
+							throw e;
+						}
+						exceptions.add(e);
+						continue;
+					}
+					created.put(key, jid);
+				}
+				output.add(jid);
+			}
+		} finally {
+			if (cache != null && !created.isEmpty()) {
+				cache.putAll(created);
+			}
 		}
-		return jid;
 	}
 
 	/**
@@ -256,14 +472,11 @@ public class JidCreate {
 	 * @see #from(CharSequence)
 	 */
 	public static Jid from(String jidString, JxmppContext context) throws XmppStringprepException {
-		String localpart = XmppStringUtils.parseLocalpart(jidString);
-		String domainpart = XmppStringUtils.parseDomain(jidString);
-		String resource = XmppStringUtils.parseResource(jidString);
-		try {
-			return from(localpart, domainpart, resource, jidString, context);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jidString, e);
+		if (!context.isCachingEnabled()) {
+			return JID_FACTORY.create(jidString, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.jidCache.get(jidString, caches.jidLoader);
 	}
 
 	/**
@@ -273,11 +486,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static Jid fromOrNull(CharSequence cs) {
-		try {
-			return from(cs);
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryFrom(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link Jid} as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<Jid> tryFrom(CharSequence cs) {
+		return tryFrom(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link Jid} as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryFrom(CharSequence)
+	 */
+	public static ValidationResult<Jid> tryFrom(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return JID_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.jidLoader.tryGet(caches.jidCache, jid);
 	}
 
 	/**
@@ -406,33 +645,30 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static BareJid bareFrom(String jid, JxmppContext context) throws XmppStringprepException {
-		BareJid bareJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(jid, context);
-			bareJid = BAREJID_CACHE.lookup(jidStringAndStringprep);
-			if (bareJid != null) {
-				return bareJid;
-			}
+		if (!context.isCachingEnabled()) {
+			return BAREJID_FACTORY.create(jid, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.bareJidCache.get(jid, caches.bareJidLoader);
+	}
 
-		String localpart = XmppStringUtils.parseLocalpart(jid);
-		String domainpart = XmppStringUtils.parseDomain(jid);
-		try {
+	private static final JidFactory<BareJid> BAREJID_FACTORY = new JidFactory<BareJid>() {
+		@Override
+		public ValidationResult<BareJid> create(String jid, JxmppContext context) {
+			ValidationResult<? extends BareJid> bareJid;
+			String localpart = XmppStringUtils.parseLocalpart(jid);
+			String domainpart = XmppStringUtils.parseDomain(jid);
 			if (localpart == null || localpart.length() == 0) {
-				bareJid = new DomainpartJid(domainpart, context);
+				bareJid = tryDomainBareJid(domainpart, context);
 			} else {
-				bareJid = new LocalAndDomainpartJid(localpart, domainpart, context);
+				bareJid = tryEntityBareJid(localpart, domainpart, context);
 			}
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jid, e);
-		}
-
-		if (jidStringAndStringprep != null) {
-			BAREJID_CACHE.put(jidStringAndStringprep, bareJid);
+			if (!bareJid.isValid()) {
+				return ValidationResult.invalid(jid, bareJid);
+			}
+			return ValidationResult.<BareJid>valid(bareJid.get());
 		}
-		return bareJid;
-	}
+	};
 
 	/**
 	 * Get a {@link BareJid} constructed from the optionally given {@link Localpart} and {link DomainBareJid}.
@@ -467,11 +703,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static BareJid bareFromOrNull(CharSequence cs) {
-		try {
-			return bareFrom(cs);
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryBareFrom(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link BareJid} as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<BareJid> tryBareFrom(CharSequence cs) {
+		return tryBareFrom(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link BareJid} as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryBareFrom(CharSequence)
+	 */
+	public static ValidationResult<BareJid> tryBareFrom(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return BAREJID_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.bareJidLoader.tryGet(caches.bareJidCache, jid);
 	}
 
 	/**
@@ -536,31 +798,34 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static FullJid fullFrom(String jid, JxmppContext context) throws XmppStringprepException {
-		FullJid fullJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(jid, context);
-			fullJid = FULLJID_CACHE.lookup(jidStringAndStringprep);
-			if (fullJid != null) {
-				return fullJid;
-			}
-		}
-
-		String localpart = XmppStringUtils.parseLocalpart(jid);
-		String domainpart = XmppStringUtils.parseDomain(jid);
-		String resource = XmppStringUtils.parseResource(jid);
-		try {
-			fullJid = fullFrom(localpart, domainpart, resource);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jid, e);
+		if (!context.isCachingEnabled()) {
+			return FULLJID_FACTORY.create(jid, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.fullJidCache.get(jid, caches.fullJidLoader);
+	}
 
-		if (jidStringAndStringprep != null) {
-			FULLJID_CACHE.put(jidStringAndStringprep, fullJid);
+	private static final JidFactory<FullJid> FULLJID_FACTORY = new JidFactory<FullJid>() {
+		@Override
+		public ValidationResult<FullJid> create(String jid, JxmppContext context) {
+			ValidationResult<? extends FullJid> fullJid;
+			String localpart = XmppStringUtils.parseLocalpart(jid);
+			String domainpart = XmppStringUtils.parseDomain(jid);
+			String resource = XmppStringUtils.parseResource(jid);
+			if (localpart == null || localpart.length() == 0) {
+				fullJid = tryDomainFullJid(domainpart, resource, context);
+			} else {
+				fullJid = tryEntityFullJid(localpart, domainpart, resource, context);
+			}
+			if (!fullJid.isValid()) {
+				// Like fullFrom(String, String, String), which is wrapped as well.
+				ValidationResult<FullJid> partsResult = ValidationResult.invalid(
+						localpart + '@' + domainpart + '/' + resource, fullJid);
+				return ValidationResult.invalid(jid, partsResult);
+			}
+			return ValidationResult.<FullJid>valid(fullJid.get());
 		}
-
-		return fullJid;
-	}
+	};
 
 	/**
 	 * Get a {@link FullJid} constructed from the given parts.
@@ -647,11 +912,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static FullJid fullFromOrNull(CharSequence cs) {
-		try {
-			return fullFrom(cs);
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryFullFrom(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link FullJid} as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<FullJid> tryFullFrom(CharSequence cs) {
+		return tryFullFrom(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link FullJid} as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryFullFrom(CharSequence)
+	 */
+	public static ValidationResult<FullJid> tryFullFrom(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return FULLJID_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.fullJidLoader.tryGet(caches.fullJidCache, jid);
 	}
 
 	/**
@@ -818,11 +1109,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static EntityJid entityFromUnescapedOrNull(CharSequence cs) {
-		try {
-			return entityFromUnescaped(cs.toString());
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryEntityFromUnescaped(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link EntityJid} of the given unescaped input as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<EntityJid> tryEntityFromUnescaped(CharSequence cs) {
+		return tryEntityFromUnescaped(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link EntityJid} of the given unescaped input as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryEntityFromUnescaped(CharSequence)
+	 */
+	public static ValidationResult<EntityJid> tryEntityFromUnescaped(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return ENTITYJID_UNESCAPED_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityJidUnescapedLoader.tryGet(caches.entityJidCache, jid);
 	}
 
 	/**
@@ -834,55 +1151,60 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	private static EntityJid entityFrom(String jidString, boolean unescaped, JxmppContext context) throws XmppStringprepException {
-		EntityJid entityJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(jidString, context);
-			entityJid = ENTITYJID_CACHE.lookup(jidStringAndStringprep);
-			if (entityJid != null) {
-				return entityJid;
-			}
+		if (!context.isCachingEnabled()) {
+			JidFactory<EntityJid> factory = unescaped ? ENTITYJID_UNESCAPED_FACTORY : ENTITYJID_FACTORY;
+			return factory.create(jidString, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityJidCache.get(jidString, unescaped ? caches.entityJidUnescapedLoader : caches.entityJidLoader);
+	}
+
+	private static final JidFactory<EntityJid> ENTITYJID_FACTORY = newEntityJidFactory(false);
+
+	private static final JidFactory<EntityJid> ENTITYJID_UNESCAPED_FACTORY = newEntityJidFactory(true);
+
+	private static JidFactory<EntityJid> newEntityJidFactory(final boolean unescaped) {
+		return new JidFactory<EntityJid>() {
+			@Override
+			public ValidationResult<EntityJid> create(String jid, JxmppContext context) {
+				return tryCreateEntityJid(jid, unescaped, context);
+			}
+		};
+	}
+
+	private static ValidationResult<EntityJid> tryCreateEntityJid(String jidString, boolean unescaped,
+			JxmppContext context) {
 		String localpartString = XmppStringUtils.parseLocalpart(jidString);
 		if (localpartString == null) {
-			throw new XmppStringprepException("Does not contain a localpart", jidString);
+			return ValidationResult.invalid(ValidationResult.ErrorCode.MISSING_LOCALPART, jidString,
+					"Does not contain a localpart");
 		}
-		Localpart localpart;
-		try {
-			if (unescaped) {
-				localpart = Localpart.fromUnescaped(localpartString);
-			} else {
-				localpart = Localpart.from(localpartString);
-			}
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jidString, e);
+		ValidationResult<Localpart> localpart;
+		if (unescaped) {
+			localpart = Localpart.tryFromUnescaped(localpartString, context);
+		} else {
+			localpart = Localpart.tryFrom(localpartString, context);
+		}
+		if (!localpart.isValid()) {
+			return ValidationResult.invalid(jidString, localpart);
 		}
 
 		String domainpartString = XmppStringUtils.parseDomain(jidString);
-		Domainpart domainpart;
-		try {
-			domainpart = Domainpart.from(domainpartString);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jidString, e);
+		ValidationResult<Domainpart> domainpart = Domainpart.tryFrom(domainpartString, context);
+		if (!domainpart.isValid()) {
+			return ValidationResult.invalid(jidString, domainpart);
 		}
 
+		EntityBareJid entityBareJid = entityBareFrom(localpart.get(), domainpart.get());
 		String resourceString = XmppStringUtils.parseResource(jidString);
-		if (resourceString != null) {
-			Resourcepart resourcepart;
-			try {
-				resourcepart = Resourcepart.from(resourceString);
-			} catch (XmppStringprepException e) {
-				throw new XmppStringprepException(jidString, e);
-			}
-			entityJid = entityFullFrom(localpart, domainpart, resourcepart);
-		} else {
-			entityJid = entityBareFrom(localpart, domainpart);
+		if (resourceString == null) {
+			return ValidationResult.<EntityJid>valid(entityBareJid);
 		}
-
-		if (jidStringAndStringprep != null) {
-			ENTITYJID_CACHE.put(jidStringAndStringprep, entityJid);
+		ValidationResult<Resourcepart> resourcepart = Resourcepart.tryFrom(resourceString, context);
+		if (!resourcepart.isValid()) {
+			return ValidationResult.invalid(jidString, resourcepart);
 		}
-		return entityJid;
+		return ValidationResult.<EntityJid>valid(entityFullFrom(entityBareJid, resourcepart.get()));
 	}
 
 	/**
@@ -892,11 +1214,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static EntityJid entityFromOrNull(CharSequence cs) {
-		try {
-			return entityFrom(cs);
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryEntityFrom(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link EntityJid} as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<EntityJid> tryEntityFrom(CharSequence cs) {
+		return tryEntityFrom(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link EntityJid} as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryEntityFrom(CharSequence)
+	 */
+	public static ValidationResult<EntityJid> tryEntityFrom(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return ENTITYJID_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityJidLoader.tryGet(caches.entityJidCache, jid);
 	}
 
 	/**
@@ -961,29 +1309,21 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static EntityBareJid entityBareFrom(String jid, JxmppContext context) throws XmppStringprepException {
-		EntityBareJid bareJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(jid, context);
-			bareJid = ENTITY_BAREJID_CACHE.lookup(jidStringAndStringprep);
-			if (bareJid != null) {
-				return bareJid;
-			}
-		}
-
-		String localpart = XmppStringUtils.parseLocalpart(jid);
-		String domainpart = XmppStringUtils.parseDomain(jid);
-		try {
-			bareJid = new LocalAndDomainpartJid(localpart, domainpart, context);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jid, e);
+		if (!context.isCachingEnabled()) {
+			return ENTITY_BAREJID_FACTORY.create(jid, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityBareJidCache.get(jid, caches.entityBareJidLoader);
+	}
 
-		if (jidStringAndStringprep != null) {
-			ENTITY_BAREJID_CACHE.put(jidStringAndStringprep, bareJid);
+	private static final JidFactory<EntityBareJid> ENTITY_BAREJID_FACTORY = new JidFactory<EntityBareJid>() {
+		@Override
+		public ValidationResult<EntityBareJid> create(String jid, JxmppContext context) {
+			String localpart = XmppStringUtils.parseLocalpart(jid);
+			String domainpart = XmppStringUtils.parseDomain(jid);
+			return wrapInvalid(jid, tryEntityBareJid(localpart, domainpart, context));
 		}
-		return bareJid;
-	}
+	};
 
 	/**
 	 * Like {@link #entityBareFromUnescaped(CharSequence)} but does throw an unchecked {@link IllegalArgumentException} instead of a
@@ -1034,33 +1374,24 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static EntityBareJid entityBareFromUnescaped(String unescapedJidString, JxmppContext context) throws XmppStringprepException {
-		EntityBareJid bareJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(unescapedJidString, context);
-			bareJid = ENTITY_BAREJID_CACHE.lookup(jidStringAndStringprep);
-			if (bareJid != null) {
-				return bareJid;
-			}
+		if (!context.isCachingEnabled()) {
+			return ENTITY_BAREJID_UNESCAPED_FACTORY.create(unescapedJidString, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityBareJidCache.get(unescapedJidString, caches.entityBareJidUnescapedLoader);
+	}
 
-		String localpart = XmppStringUtils.parseLocalpart(unescapedJidString);
-		// Some as from(String), but we escape the localpart
-		localpart = XmppStringUtils.escapeLocalpart(localpart);
-
-		String domainpart = XmppStringUtils.parseDomain(unescapedJidString);
-		try {
-			bareJid = new LocalAndDomainpartJid(localpart, domainpart, context);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(unescapedJidString, e);
-		}
+	private static final JidFactory<EntityBareJid> ENTITY_BAREJID_UNESCAPED_FACTORY = new JidFactory<EntityBareJid>() {
+		@Override
+		public ValidationResult<EntityBareJid> create(String unescapedJidString, JxmppContext context) {
+			String localpart = XmppStringUtils.parseLocalpart(unescapedJidString);
+			// Some as from(String), but we escape the localpart
+			localpart = XmppStringUtils.escapeLocalpart(localpart);
 
-		if (jidStringAndStringprep != null) {
-			ENTITY_BAREJID_CACHE.put(jidStringAndStringprep, bareJid);
+			String domainpart = XmppStringUtils.parseDomain(unescapedJidString);
+			return wrapInvalid(unescapedJidString, tryEntityBareJid(localpart, domainpart, context));
 		}
-
-		return bareJid;
-	}
+	};
 
 	/**
 	 * Get a {@link EntityBareJid} from a given {@link CharSequence} or {@code null} if the input does not represent a JID.
@@ -1069,11 +1400,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static EntityBareJid entityBareFromUnescapedOrNull(CharSequence cs) {
-		try {
-			return entityBareFromUnescaped(cs.toString());
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryEntityBareFromUnescaped(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link EntityBareJid} of the given unescaped input as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<EntityBareJid> tryEntityBareFromUnescaped(CharSequence cs) {
+		return tryEntityBareFromUnescaped(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link EntityBareJid} of the given unescaped input as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryEntityBareFromUnescaped(CharSequence)
+	 */
+	public static ValidationResult<EntityBareJid> tryEntityBareFromUnescaped(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return ENTITY_BAREJID_UNESCAPED_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityBareJidUnescapedLoader.tryGet(caches.entityBareJidCache, jid);
 	}
 
 	/**
@@ -1117,11 +1474,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static EntityBareJid entityBareFromOrNull(CharSequence cs) {
-		try {
-			return entityBareFrom(cs);
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryEntityBareFrom(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link EntityBareJid} as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<EntityBareJid> tryEntityBareFrom(CharSequence cs) {
+		return tryEntityBareFrom(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link EntityBareJid} as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryEntityBareFrom(CharSequence)
+	 */
+	public static ValidationResult<EntityBareJid> tryEntityBareFrom(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return ENTITY_BAREJID_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityBareJidLoader.tryGet(caches.entityBareJidCache, jid);
 	}
 
 	/**
@@ -1175,31 +1558,29 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static EntityFullJid entityFullFrom(String jid, JxmppContext context) throws XmppStringprepException {
-		EntityFullJid fullJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(jid, context);
-			fullJid = ENTITY_FULLJID_CACHE.lookup(jidStringAndStringprep);
-			if (fullJid != null) {
-				return fullJid;
-			}
-		}
-
-		String localpart = XmppStringUtils.parseLocalpart(jid);
-		String domainpart = XmppStringUtils.parseDomain(jid);
-		String resource = XmppStringUtils.parseResource(jid);
-		try {
-			fullJid = entityFullFrom(localpart, domainpart, resource);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jid, e);
+		if (!context.isCachingEnabled()) {
+			return ENTITY_FULLJID_FACTORY.create(jid, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityFullJidCache.get(jid, caches.entityFullJidLoader);
+	}
 
-		if (jidStringAndStringprep != null) {
-			ENTITY_FULLJID_CACHE.put(jidStringAndStringprep, fullJid);
+	private static final JidFactory<EntityFullJid> ENTITY_FULLJID_FACTORY = new JidFactory<EntityFullJid>() {
+		@Override
+		public ValidationResult<EntityFullJid> create(String jid, JxmppContext context) {
+			String localpart = XmppStringUtils.parseLocalpart(jid);
+			String domainpart = XmppStringUtils.parseDomain(jid);
+			String resource = XmppStringUtils.parseResource(jid);
+			ValidationResult<EntityFullJid> fullJid = tryEntityFullJid(localpart, domainpart, resource, context);
+			if (!fullJid.isValid()) {
+				// Like entityFullFrom(String, String, String), which is wrapped as well.
+				ValidationResult<EntityFullJid> partsResult = ValidationResult.invalid(
+						localpart + '@' + domainpart + '/' + resource, fullJid);
+				return ValidationResult.invalid(jid, partsResult);
+			}
+			return fullJid;
 		}
-
-		return fullJid;
-	}
+	};
 
 	/**
 	 * Get a {@link EntityFullJid} from a given {@link CharSequence} or {@code null} if the input does not represent a JID.
@@ -1208,11 +1589,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static EntityFullJid entityFullFromOrNull(CharSequence cs) {
-		try {
-			return entityFullFrom(cs);
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryEntityFullFrom(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link EntityFullJid} as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<EntityFullJid> tryEntityFullFrom(CharSequence cs) {
+		return tryEntityFullFrom(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link EntityFullJid} as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryEntityFullFrom(CharSequence)
+	 */
+	public static ValidationResult<EntityFullJid> tryEntityFullFrom(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return ENTITY_FULLJID_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityFullJidLoader.tryGet(caches.entityFullJidCache, jid);
 	}
 
 	/**
@@ -1264,34 +1671,25 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static EntityFullJid entityFullFromUnescaped(String unescapedJidString, JxmppContext context) throws XmppStringprepException {
-		EntityFullJid fullJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(unescapedJidString, context);
-			fullJid = ENTITY_FULLJID_CACHE.lookup(jidStringAndStringprep);
-			if (fullJid != null) {
-				return fullJid;
-			}
+		if (!context.isCachingEnabled()) {
+			return ENTITY_FULLJID_UNESCAPED_FACTORY.create(unescapedJidString, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityFullJidCache.get(unescapedJidString, caches.entityFullJidUnescapedLoader);
+	}
 
-		String localpart = XmppStringUtils.parseLocalpart(unescapedJidString);
-		// Some as from(String), but we escape the localpart
-		localpart = XmppStringUtils.escapeLocalpart(localpart);
-
-		String domainpart = XmppStringUtils.parseDomain(unescapedJidString);
-		String resource = XmppStringUtils.parseResource(unescapedJidString);
-		try {
-			fullJid = new LocalDomainAndResourcepartJid(localpart, domainpart, resource, context);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(unescapedJidString, e);
-		}
+	private static final JidFactory<EntityFullJid> ENTITY_FULLJID_UNESCAPED_FACTORY = new JidFactory<EntityFullJid>() {
+		@Override
+		public ValidationResult<EntityFullJid> create(String unescapedJidString, JxmppContext context) {
+			String localpart = XmppStringUtils.parseLocalpart(unescapedJidString);
+			// Some as from(String), but we escape the localpart
+			localpart = XmppStringUtils.escapeLocalpart(localpart);
 
-		if (jidStringAndStringprep != null) {
-			ENTITY_FULLJID_CACHE.put(jidStringAndStringprep, fullJid);
+			String domainpart = XmppStringUtils.parseDomain(unescapedJidString);
+			String resource = XmppStringUtils.parseResource(unescapedJidString);
+			return wrapInvalid(unescapedJidString, tryEntityFullJid(localpart, domainpart, resource, context));
 		}
-
-		return fullJid;
-	}
+	};
 
 	/**
 	 * Get a {@link EntityFullJid} from a given {@link CharSequence} or {@code null} if the input does not represent a JID.
@@ -1300,11 +1698,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static EntityFullJid entityFullFromUnescapedOrNull(CharSequence cs) {
-		try {
-			return entityFullFromUnescaped(cs.toString());
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryEntityFullFromUnescaped(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link EntityFullJid} of the given unescaped input as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<EntityFullJid> tryEntityFullFromUnescaped(CharSequence cs) {
+		return tryEntityFullFromUnescaped(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link EntityFullJid} of the given unescaped input as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryEntityFullFromUnescaped(CharSequence)
+	 */
+	public static ValidationResult<EntityFullJid> tryEntityFullFromUnescaped(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return ENTITY_FULLJID_UNESCAPED_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.entityFullJidUnescapedLoader.tryGet(caches.entityFullJidCache, jid);
 	}
 
 	/**
@@ -1449,28 +1873,20 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static DomainBareJid domainBareFrom(String jid, JxmppContext context) throws XmppStringprepException {
-		DomainBareJid domainJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(jid, context);
-			domainJid = DOMAINJID_CACHE.lookup(jidStringAndStringprep);
-			if (domainJid != null) {
-				return domainJid;
-			}
+		if (!context.isCachingEnabled()) {
+			return DOMAINJID_FACTORY.create(jid, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.domainJidCache.get(jid, caches.domainJidLoader);
+	}
 
-		String domain = XmppStringUtils.parseDomain(jid);
-		try {
-			domainJid = new DomainpartJid(domain, context);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jid, e);
+	private static final JidFactory<DomainBareJid> DOMAINJID_FACTORY = new JidFactory<DomainBareJid>() {
+		@Override
+		public ValidationResult<DomainBareJid> create(String jid, JxmppContext context) {
+			String domain = XmppStringUtils.parseDomain(jid);
+			return wrapInvalid(jid, tryDomainBareJid(domain, context));
 		}
-
-		if (context.isCachingEnabled()) {
-			DOMAINJID_CACHE.put(jidStringAndStringprep, domainJid);
-		}
-		return domainJid;
-	}
+	};
 
 	/**
 	 * Get a {@link DomainBareJid} consisting of the given {@link Domainpart}.
@@ -1489,11 +1905,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static DomainBareJid domainBareFromOrNull(CharSequence cs) {
-		try {
-			return domainBareFrom(cs);
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryDomainBareFrom(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link DomainBareJid} as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<DomainBareJid> tryDomainBareFrom(CharSequence cs) {
+		return tryDomainBareFrom(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link DomainBareJid} as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryDomainBareFrom(CharSequence)
+	 */
+	public static ValidationResult<DomainBareJid> tryDomainBareFrom(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return DOMAINJID_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.domainJidLoader.tryGet(caches.domainJidCache, jid);
 	}
 
 	/**
@@ -1558,30 +2000,21 @@ public class JidCreate {
 	 * @throws XmppStringprepException if an error happens.
 	 */
 	public static DomainFullJid domainFullFrom(String jid, JxmppContext context) throws XmppStringprepException {
-		DomainFullJid domainResourceJid;
-		JidStringAndStringprep jidStringAndStringprep = null;
-		if (context.isCachingEnabled()) {
-			jidStringAndStringprep = new JidStringAndStringprep(jid, context);
-			domainResourceJid = DOMAINRESOURCEJID_CACHE.lookup(jidStringAndStringprep);
-			if (domainResourceJid != null) {
-				return domainResourceJid;
-			}
-		}
-
-		String domain = XmppStringUtils.parseDomain(jid);
-		String resource = XmppStringUtils.parseResource(jid);
-		try {
-			domainResourceJid = new DomainAndResourcepartJid(domain, resource, context);
-		} catch (XmppStringprepException e) {
-			throw new XmppStringprepException(jid, e);
+		if (!context.isCachingEnabled()) {
+			return DOMAINRESOURCEJID_FACTORY.create(jid, context).getOrThrow();
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.domainResourceJidCache.get(jid, caches.domainResourceJidLoader);
+	}
 
-		if (jidStringAndStringprep != null) {
-			DOMAINRESOURCEJID_CACHE.put(jidStringAndStringprep, domainResourceJid);
+	private static final JidFactory<DomainFullJid> DOMAINRESOURCEJID_FACTORY = new JidFactory<DomainFullJid>() {
+		@Override
+		public ValidationResult<DomainFullJid> create(String jid, JxmppContext context) {
+			String domain = XmppStringUtils.parseDomain(jid);
+			String resource = XmppStringUtils.parseResource(jid);
+			return wrapInvalid(jid, tryDomainFullJid(domain, resource, context));
 		}
-
-		return domainResourceJid;
-	}
+	};
 
 	/**
 	 * Get a domain full JID.
@@ -1612,11 +2045,37 @@ public class JidCreate {
 	 * @return a JID or {@code null}
 	 */
 	public static DomainFullJid domainFullFromOrNull(CharSequence cs) {
-		try {
-			return domainFullFrom(cs);
-		} catch (XmppStringprepException e) {
-			return null;
+		return tryDomainFullFrom(cs).getOrNull();
+	}
+
+	/**
+	 * Get a {@link DomainFullJid} as validation result, which is invalid if the input does not represent such a JID. Unlike
+	 * the methods throwing a {@link XmppStringprepException}, this method does not create an exception for invalid
+	 * input.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @return the validation result.
+	 */
+	public static ValidationResult<DomainFullJid> tryDomainFullFrom(CharSequence cs) {
+		return tryDomainFullFrom(cs, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get a {@link DomainFullJid} as validation result within the given context, which is invalid if the input does not
+	 * represent such a JID.
+	 *
+	 * @param cs the input {@link CharSequence}
+	 * @param context the JXMPP context.
+	 * @return the validation result.
+	 * @see #tryDomainFullFrom(CharSequence)
+	 */
+	public static ValidationResult<DomainFullJid> tryDomainFullFrom(CharSequence cs, JxmppContext context) {
+		String jid = cs.toString();
+		if (!context.isCachingEnabled()) {
+			return DOMAINRESOURCEJID_FACTORY.create(jid, context);
 		}
+		JidCaches caches = context.getCacheSet(JID_CACHES);
+		return caches.domainResourceJidLoader.tryGet(caches.domainResourceJidCache, jid);
 	}
 
 	/**
@@ -1639,4 +2098,252 @@ public class JidCreate {
 			throw new AssertionError(e);
 		}
 	}
+
+	/**
+	 * Creates a JID from its String within the given context, without throwing if the String is not a valid JID.
+	 *
+	 * @param <J> the type of the JID.
+	 */
+	private interface JidFactory<J extends Jid> {
+		ValidationResult<J> create(String jidString, JxmppContext context);
+	}
+
+	/**
+	 * A JID factory bound to a context. It is the loader of a JID cache, and caches the failures of the factory if
+	 * failure caching is enabled.
+	 *
+	 * @param <J> the type of the JID.
+	 */
+	private static final class BoundJidFactory<J extends Jid> implements CacheLoader<String, J, XmppStringprepException> {
+
+		private final JidFactory<J> factory;
+
+		private final JxmppContext context;
+
+		private final FailureCache<String, XmppStringprepException> failures;
+
+		private BoundJidFactory(JidFactory<J> factory, JxmppContext context,
+				FailureCache<String, XmppStringprepException> failures) {
+			this.factory = factory;
+			this.context = context;
+			this.failures = failures;
+		}
+
+		@Override
+		public J load(String jidString) throws XmppStringprepException {
+			return tryLoad(jidString).getOrThrow();
+		}
+
+		private ValidationResult<J> tryLoad(String jidString) {
+			if (failures != null) {
+				XmppStringprepException failure = failures.lookup(jidString);
+				if (failure != null) {
+					return ValidationResult.invalid(failure);
+				}
+			}
+			ValidationResult<J> result = factory.create(jidString, context);
+			if (!result.isValid() && failures != null) {
+				failures.put(jidString, result.toException());
+			}
+			return result;
+		}
+
+		/**
+		 * Get the JID of the given String from the given cache, or create it without throwing.
+		 */
+		private ValidationResult<J> tryGet(Cache<String, J> cache, String jidString) {
+			J jid = cache.lookup(jidString);
+			if (jid != null) {
+				return ValidationResult.valid(jid);
+			}
+			ValidationResult<J> result = tryLoad(jidString);
+			if (result.isValid()) {
+				cache.put(jidString, result.get());
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * The JID caches of a context, keyed by the JID String. The loaders of the caches are bound to the context.
+	 */
+	private static final class JidCaches extends JxmppContext.CacheSet {
+
+		private static final String JID_CACHE_NAME = "JidCreate.JID_CACHE";
+		private static final String BAREJID_CACHE_NAME = "JidCreate.BAREJID_CACHE";
+		private static final String ENTITYJID_CACHE_NAME = "JidCreate.ENTITYJID_CACHE";
+		private static final String FULLJID_CACHE_NAME = "JidCreate.FULLJID_CACHE";
+		private static final String ENTITY_BAREJID_CACHE_NAME = "JidCreate.ENTITY_BAREJID_CACHE";
+		private static final String ENTITY_FULLJID_CACHE_NAME = "JidCreate.ENTITY_FULLJID_CACHE";
+		private static final String DOMAINJID_CACHE_NAME = "JidCreate.DOMAINJID_CACHE";
+		private static final String DOMAINRESOURCEJID_CACHE_NAME = "JidCreate.DOMAINRESOURCEJID_CACHE";
+
+		// The configuration of the caches of the default context set by JidCreate, which is applied again once the
+		// default context is replaced, e.g. because the default XmppStringprep is set. Guarded by the class.
+		private static CacheFactory defaultCacheFactory;
+		private static long defaultMaxCacheWeight;
+
+		private volatile Cache<String, Jid> jidCache = newCache();
+		private volatile Cache<String, BareJid> bareJidCache = newCache();
+		private volatile Cache<String, EntityJid> entityJidCache = newCache();
+		private volatile Cache<String, FullJid> fullJidCache = newCache();
+		private volatile Cache<String, EntityBareJid> entityBareJidCache = newCache();
+		private volatile Cache<String, EntityFullJid> entityFullJidCache = newCache();
+		private volatile Cache<String, DomainBareJid> domainJidCache = newCache();
+		private volatile Cache<String, DomainFullJid> domainResourceJidCache = newCache();
+
+		private final BoundJidFactory<Jid> jidLoader = bind(JID_FACTORY);
+		private final BoundJidFactory<BareJid> bareJidLoader = bind(BAREJID_FACTORY);
+		private final BoundJidFactory<FullJid> fullJidLoader = bind(FULLJID_FACTORY);
+		private final BoundJidFactory<EntityJid> entityJidLoader = bind(ENTITYJID_FACTORY);
+		private final BoundJidFactory<EntityJid> entityJidUnescapedLoader = bind(ENTITYJID_UNESCAPED_FACTORY);
+		private final BoundJidFactory<EntityBareJid> entityBareJidLoader = bind(ENTITY_BAREJID_FACTORY);
+		private final BoundJidFactory<EntityBareJid> entityBareJidUnescapedLoader = bind(ENTITY_BAREJID_UNESCAPED_FACTORY);
+		private final BoundJidFactory<EntityFullJid> entityFullJidLoader = bind(ENTITY_FULLJID_FACTORY);
+		private final BoundJidFactory<EntityFullJid> entityFullJidUnescapedLoader = bind(ENTITY_FULLJID_UNESCAPED_FACTORY);
+		private final BoundJidFactory<DomainBareJid> domainJidLoader = bind(DOMAINJID_FACTORY);
+		private final BoundJidFactory<DomainFullJid> domainResourceJidLoader = bind(DOMAINRESOURCEJID_FACTORY);
+
+		// The failures of the JIDs created from their parts, which is null if failure caching is disabled.
+		private final FailureCache<String, XmppStringprepException> partsJidFailures = newFailureCache();
+
+		private JidCaches(JxmppContext context) {
+			super(context);
+			if (context == JxmppContext.getDefaultContext()) {
+				applyDefaultConfiguration();
+			}
+		}
+
+		private void applyDefaultConfiguration() {
+			synchronized (JidCaches.class) {
+				if (defaultCacheFactory != null) {
+					setCacheFactory(defaultCacheFactory);
+				}
+				if (defaultMaxCacheWeight != 0) {
+					setMaxCacheWeights(defaultMaxCacheWeight);
+				}
+			}
+		}
+
+		/**
+		 * Bind the given JID factory to the context. Every bound factory has its own failure cache, as the factories
+		 * sharing a cache, like the ones for escaped and unescaped JIDs, may fail differently for the same key.
+		 */
+		private <J extends Jid> BoundJidFactory<J> bind(JidFactory<J> factory) {
+			FailureCache<String, XmppStringprepException> failures = newFailureCache();
+			return new BoundJidFactory<>(factory, context, failures);
+		}
+
+		/**
+		 * Get the JID of the given parts from the JID cache, or create it. Unlike the other JID factories, the parts
+		 * can not be bound to a loader once, hence the cache is probed and filled without allocating a loader.
+		 */
+		private Jid getFromParts(String localpart, String domainpart, String resource, String jidString)
+				throws XmppStringprepException {
+			Jid jid = jidCache.lookup(jidString);
+			if (jid != null) {
+				return jid;
+			}
+			if (partsJidFailures != null) {
+				partsJidFailures.throwIfFailed(jidString);
+			}
+			ValidationResult<Jid> result = tryCreateJid(localpart, domainpart, resource, context);
+			if (!result.isValid() && partsJidFailures != null) {
+				partsJidFailures.put(jidString, result.toException());
+			}
+			jid = result.getOrThrow();
+			jidCache.put(jidString, jid);
+			return jid;
+		}
+
+		private void setCacheFactory(CacheFactory cacheFactory) {
+			jidCache = cacheFactory.newCache(jidCache.getMaxCacheSize());
+			bareJidCache = cacheFactory.newCache(bareJidCache.getMaxCacheSize());
+			entityJidCache = cacheFactory.newCache(entityJidCache.getMaxCacheSize());
+			fullJidCache = cacheFactory.newCache(fullJidCache.getMaxCacheSize());
+			entityBareJidCache = cacheFactory.newCache(entityBareJidCache.getMaxCacheSize());
+			entityFullJidCache = cacheFactory.newCache(entityFullJidCache.getMaxCacheSize());
+			domainJidCache = cacheFactory.newCache(domainJidCache.getMaxCacheSize());
+			domainResourceJidCache = cacheFactory.newCache(domainResourceJidCache.getMaxCacheSize());
+			registerCaches();
+		}
+
+		private void setMaxCacheWeights(long maxWeight) {
+			jidCache = newWeightedCache(jidCache, maxWeight);
+			bareJidCache = newWeightedCache(bareJidCache, maxWeight);
+			entityJidCache = newWeightedCache(entityJidCache, maxWeight);
+			fullJidCache = newWeightedCache(fullJidCache, maxWeight);
+			entityBareJidCache = newWeightedCache(entityBareJidCache, maxWeight);
+			entityFullJidCache = newWeightedCache(entityFullJidCache, maxWeight);
+			domainJidCache = newWeightedCache(domainJidCache, maxWeight);
+			domainResourceJidCache = newWeightedCache(domainResourceJidCache, maxWeight);
+			registerCaches();
+		}
+
+		private static <J extends Jid> Cache<String, J> newWeightedCache(Cache<String, J> cache, long maxWeight) {
+			return new LruCache<>(cache.getMaxCacheSize(), maxWeight, CharSequenceWeigher.INSTANCE);
+		}
+
+		@Override
+		public Map<String, Cache<?, ?>> getCaches() {
+			Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+			caches.put(JID_CACHE_NAME, jidCache);
+			caches.put(BAREJID_CACHE_NAME, bareJidCache);
+			caches.put(ENTITYJID_CACHE_NAME, entityJidCache);
+			caches.put(FULLJID_CACHE_NAME, fullJidCache);
+			caches.put(ENTITY_BAREJID_CACHE_NAME, entityBareJidCache);
+			caches.put(ENTITY_FULLJID_CACHE_NAME, entityFullJidCache);
+			caches.put(DOMAINJID_CACHE_NAME, domainJidCache);
+			caches.put(DOMAINRESOURCEJID_CACHE_NAME, domainResourceJidCache);
+			return caches;
+		}
+
+		@Override
+		protected boolean preload(String cacheName, String key, String value) {
+			switch (cacheName) {
+			case JID_CACHE_NAME:
+				return preload(jidCache, jidLoader, key, value);
+			case BAREJID_CACHE_NAME:
+				return preload(bareJidCache, bareJidLoader, key, value);
+			case ENTITYJID_CACHE_NAME:
+				return preload(entityJidCache, entityJidLoader, key, value)
+						|| preload(entityJidCache, entityJidUnescapedLoader, key, value);
+			case FULLJID_CACHE_NAME:
+				return preload(fullJidCache, fullJidLoader, key, value);
+			case ENTITY_BAREJID_CACHE_NAME:
+				return preload(entityBareJidCache, entityBareJidLoader, key, value)
+						|| preload(entityBareJidCache, entityBareJidUnescapedLoader, key, value);
+			case ENTITY_FULLJID_CACHE_NAME:
+				return preload(entityFullJidCache, entityFullJidLoader, key, value)
+						|| preload(entityFullJidCache, entityFullJidUnescapedLoader, key, value);
+			case DOMAINJID_CACHE_NAME:
+				return preload(domainJidCache, domainJidLoader, key, value);
+			case DOMAINRESOURCEJID_CACHE_NAME:
+				return preload(domainResourceJidCache, domainResourceJidLoader, key, value);
+			default:
+				return false;
+			}
+		}
+
+		/**
+		 * Create the JID of the given key and put it into the given cache, if it is the JID of the snapshot. The JID is
+		 * cheap to create, as the stringprep caches are preloaded before the JID caches.
+		 */
+		private static <J extends Jid> boolean preload(Cache<String, J> cache,
+				CacheLoader<String, J, XmppStringprepException> loader, String key, String value) {
+			J jid;
+			try {
+				jid = loader.load(key);
+			} catch (XmppStringprepException e) {
+				return false;
+			}
+			// The JID differs if it was created by another loader, e.g. one for unescaped JIDs, or if the key was
+			// created by another stringprep backend.
+			if (!jid.toString().equals(value)) {
+				return false;
+			}
+			cache.put(key, jid);
+			return true;
+		}
+	}
 }
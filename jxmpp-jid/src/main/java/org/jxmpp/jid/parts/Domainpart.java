@@ -17,6 +17,7 @@
 package org.jxmpp.jid.parts;
 
 import org.jxmpp.JxmppContext;
+import org.jxmpp.stringprep.ValidationResult;
 import org.jxmpp.stringprep.XmppStringPrepUtil;
 import org.jxmpp.stringprep.XmppStringprepException;
 
@@ -35,6 +36,13 @@ public class Domainpart extends Part {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	private static final PartFactory<Domainpart> FACTORY = new PartFactory<Domainpart>() {
+		@Override
+		public Domainpart create(String prepared) {
+			return new Domainpart(prepared);
+		}
+	};
+
 	private Domainpart(String domain) {
 		super(domain);
 	}
@@ -46,11 +54,7 @@ public class Domainpart extends Part {
 	 * @return a Domainpart or {@code null}
 	 */
 	public static Domainpart fromOrNull(CharSequence cs) {
-		try {
-			return from(cs.toString());
-		} catch (XmppStringprepException e) {
-			return null;
-		}
+		return tryFrom(cs.toString()).getOrNull();
 	}
 
 	/**
@@ -91,8 +95,32 @@ public class Domainpart extends Part {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static Domainpart from(String domain, JxmppContext context) throws XmppStringprepException {
+		return tryFrom(domain, context).getOrThrow();
+	}
+
+	/**
+	 * Get the {@link Domainpart} representing the input String, without throwing if the input String is not a valid
+	 * domainpart.
+	 *
+	 * @param domain the input String.
+	 * @return the result holding the domainpart.
+	 */
+	public static ValidationResult<Domainpart> tryFrom(String domain) {
+		return tryFrom(domain, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get the {@link Domainpart} representing the input String, without throwing if the input String is not a valid
+	 * domainpart.
+	 *
+	 * @param domain the input String.
+	 * @param context the JXMPP context.
+	 * @return the result holding the domainpart.
+	 * @see XmppStringPrepUtil#tryDomainprep(String, JxmppContext)
+	 */
+	public static ValidationResult<Domainpart> tryFrom(String domain, JxmppContext context) {
 		if (domain == null) {
-			throw new XmppStringprepException(domain, "Input 'domain' must not be null");
+			return ValidationResult.invalid(ValidationResult.ErrorCode.NULL, domain, "Input 'domain' must not be null");
 		}
 		// TODO cache
 		// RFC 6122 § 2.2 "If the domainpart includes a final character considered to be a label
@@ -100,9 +128,6 @@ public class Domainpart extends Part {
 		if (domain.length() > 0 && domain.charAt(domain.length() - 1) == '.') {
 			domain = domain.substring(0, domain.length() - 1);
 		}
-		domain = XmppStringPrepUtil.domainprep(domain, context);
-		// First prep the String, then assure the limits of the *result*
-		assertNotLongerThan1023BytesOrEmpty(domain);
-		return new Domainpart(domain);
+		return create(XmppStringPrepUtil.tryDomainprep(domain, context), FACTORY);
 	}
 }
@@ -17,6 +17,7 @@
 package org.jxmpp.jid.parts;
 
 import org.jxmpp.JxmppContext;
+import org.jxmpp.stringprep.ValidationResult;
 import org.jxmpp.stringprep.XmppStringPrepUtil;
 import org.jxmpp.stringprep.XmppStringprepException;
 import org.jxmpp.util.XmppStringUtils;
@@ -43,6 +44,13 @@ public class Localpart extends Part {
 
 	private transient String unescapedCache;
 
+	private static final PartFactory<Localpart> FACTORY = new PartFactory<Localpart>() {
+		@Override
+		public Localpart create(String prepared) {
+			return new Localpart(prepared);
+		}
+	};
+
 	private Localpart(String localpart) {
 		super(localpart);
 	}
@@ -109,11 +117,7 @@ public class Localpart extends Part {
 	 * @return a Localpart or {@code null}
 	 */
 	public static Localpart formUnescapedOrNull(CharSequence cs) {
-		try {
-			return fromUnescaped(cs);
-		} catch (XmppStringprepException e) {
-			return null;
-		}
+		return tryFromUnescaped(cs.toString(), JxmppContext.getDefaultContext()).getOrNull();
 	}
 
 	/**
@@ -125,8 +129,19 @@ public class Localpart extends Part {
 	 * @since 0.6.2
 	 */
 	public static Localpart fromUnescaped(String unescapedLocalpart) throws XmppStringprepException {
+		return tryFromUnescaped(unescapedLocalpart, JxmppContext.getDefaultContext()).getOrThrow();
+	}
+
+	/**
+	 * Get a {@link Localpart} from an unescaped String, without throwing if the String is not a valid localpart.
+	 *
+	 * @param unescapedLocalpart an unescaped String representing a Localpart.
+	 * @param context the JXMPP context.
+	 * @return the result holding the localpart.
+	 */
+	public static ValidationResult<Localpart> tryFromUnescaped(String unescapedLocalpart, JxmppContext context) {
 		String escapedLocalpartString = XmppStringUtils.escapeLocalpart(unescapedLocalpart);
-		return from(escapedLocalpartString);
+		return tryFrom(escapedLocalpartString, context);
 	}
 
 	/**
@@ -148,11 +163,7 @@ public class Localpart extends Part {
 	 * @return a Localpart or {@code null}
 	 */
 	public static Localpart fromOrNull(CharSequence cs) {
-		try {
-			return from(cs.toString());
-		} catch (XmppStringprepException e) {
-			return null;
-		}
+		return tryFrom(cs.toString()).getOrNull();
 	}
 
 	/**
@@ -175,9 +186,30 @@ public class Localpart extends Part {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static Localpart from(String localpart, JxmppContext context) throws XmppStringprepException {
-		localpart = XmppStringPrepUtil.localprep(localpart, context);
-		// First prep the String, then assure the limits of the *result*
-		assertNotLongerThan1023BytesOrEmpty(localpart);
-		return new Localpart(localpart);
+		return tryFrom(localpart, context).getOrThrow();
+	}
+
+	/**
+	 * Get the {@link Localpart} representing the input String, without throwing if the input String is not a valid
+	 * localpart.
+	 *
+	 * @param localpart the input String.
+	 * @return the result holding the localpart.
+	 */
+	public static ValidationResult<Localpart> tryFrom(String localpart) {
+		return tryFrom(localpart, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get the {@link Localpart} representing the input String, without throwing if the input String is not a valid
+	 * localpart.
+	 *
+	 * @param localpart the input String.
+	 * @param context the JXMPP context.
+	 * @return the result holding the localpart.
+	 * @see XmppStringPrepUtil#tryLocalprep(String, JxmppContext)
+	 */
+	public static ValidationResult<Localpart> tryFrom(String localpart, JxmppContext context) {
+		return create(XmppStringPrepUtil.tryLocalprep(localpart, context), FACTORY);
 	}
 }
@@ -17,8 +17,8 @@
 package org.jxmpp.jid.parts;
 
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
 
+import org.jxmpp.stringprep.ValidationResult;
 import org.jxmpp.stringprep.XmppStringprepException;
 
 public abstract class Part implements CharSequence, Serializable {
@@ -71,15 +71,83 @@ public abstract class Part implements CharSequence, Serializable {
 	}
 
 	protected static void assertNotLongerThan1023BytesOrEmpty(String string) throws XmppStringprepException {
-		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
-
 		// Better throw XmppStringprepException instead of IllegalArgumentException here, because users don't expect an
 		// IAE and it also makes the error handling for users easier.
-		if (bytes.length > 1023) {
-			throw new XmppStringprepException(string, "Given string is longer then 1023 bytes");
-		} else if (bytes.length == 0) {
-			throw new XmppStringprepException(string, "Argument can't be the empty string");
+		ValidationResult<Part> invalid = checkNotLongerThan1023BytesOrEmpty(string);
+		if (invalid != null) {
+			throw invalid.toException();
+		}
+	}
+
+	/**
+	 * Check that the given String is not longer than 1023 bytes when encoded in UTF-8, and not empty.
+	 *
+	 * @param string the String to check.
+	 * @param <P> the type of the part.
+	 * @return {@code null} if the String is valid, or the invalid result.
+	 */
+	protected static <P extends Part> ValidationResult<P> checkNotLongerThan1023BytesOrEmpty(String string) {
+		if (string.isEmpty()) {
+			return ValidationResult.invalid(ValidationResult.ErrorCode.EMPTY, string,
+					"Argument can't be the empty string");
+		}
+		// Every char is encoded in at most three bytes, hence only long Strings need to be measured.
+		if (string.length() > 1023 / 3 && utf8Length(string) > 1023) {
+			return ValidationResult.invalid(ValidationResult.ErrorCode.TOO_LONG, string,
+					"Given string is longer then 1023 bytes");
+		}
+		return null;
+	}
+
+	/**
+	 * Get the length of the given String encoded in UTF-8, like {@code string.getBytes(StandardCharsets.UTF_8).length}
+	 * but without encoding the String.
+	 */
+	private static int utf8Length(String string) {
+		int length = 0;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < string.length()
+					&& Character.isLowSurrogate(string.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				// Unpaired surrogates are encoded as '?'.
+				length++;
+			} else {
+				length += 3;
+			}
 		}
+		return length;
+	}
+
+	/**
+	 * Create the part of the given prepared String, after checking its length.
+	 *
+	 * @param prepared the result of preparing the input String.
+	 * @param factory the factory of the part.
+	 * @param <P> the type of the part.
+	 * @return the result holding the part.
+	 */
+	static <P extends Part> ValidationResult<P> create(ValidationResult<String> prepared, PartFactory<P> factory) {
+		if (!prepared.isValid()) {
+			return prepared.asInvalid();
+		}
+		String string = prepared.get();
+		// First prep the String, then assure the limits of the *result*
+		ValidationResult<P> invalid = checkNotLongerThan1023BytesOrEmpty(string);
+		if (invalid != null) {
+			return invalid;
+		}
+		return ValidationResult.valid(factory.create(string));
+	}
+
+	interface PartFactory<P extends Part> {
+		P create(String prepared);
 	}
 
 	/**
@@ -17,6 +17,7 @@
 package org.jxmpp.jid.parts;
 
 import org.jxmpp.JxmppContext;
+import org.jxmpp.stringprep.ValidationResult;
 import org.jxmpp.stringprep.XmppStringPrepUtil;
 import org.jxmpp.stringprep.XmppStringprepException;
 
@@ -45,6 +46,13 @@ public class Resourcepart extends Part {
 	 */
 	public static final Resourcepart EMPTY = new Resourcepart("");
 
+	private static final PartFactory<Resourcepart> FACTORY = new PartFactory<Resourcepart>() {
+		@Override
+		public Resourcepart create(String prepared) {
+			return new Resourcepart(prepared);
+		}
+	};
+
 	private Resourcepart(String resource) {
 		super(resource);
 	}
@@ -56,11 +64,7 @@ public class Resourcepart extends Part {
 	 * @return a Resourcepart or {@code null}
 	 */
 	public static Resourcepart fromOrNull(CharSequence cs) {
-		try {
-			return from(cs.toString());
-		} catch (XmppStringprepException e) {
-			return null;
-		}
+		return tryFrom(cs.toString()).getOrNull();
 	}
 
 	/**
@@ -112,8 +116,30 @@ public class Resourcepart extends Part {
 	 * @throws XmppStringprepException if an error occurs.
 	 */
 	public static Resourcepart from(String resource, JxmppContext context) throws XmppStringprepException {
-		resource = XmppStringPrepUtil.resourceprep(resource, context);
-		// First prep the String, then assure the limits of the *result*
-		assertNotLongerThan1023BytesOrEmpty(resource);
-		return new Resourcepart(resource);
-	}}
+		return tryFrom(resource, context).getOrThrow();
+	}
+
+	/**
+	 * Get the {@link Resourcepart} representing the input String, without throwing if the input String is not a valid
+	 * resourcepart.
+	 *
+	 * @param resource the input String.
+	 * @return the result holding the resourcepart.
+	 */
+	public static ValidationResult<Resourcepart> tryFrom(String resource) {
+		return tryFrom(resource, JxmppContext.getDefaultContext());
+	}
+
+	/**
+	 * Get the {@link Resourcepart} representing the input String, without throwing if the input String is not a valid
+	 * resourcepart.
+	 *
+	 * @param resource the input String.
+	 * @param context the JXMPP context.
+	 * @return the result holding the resourcepart.
+	 * @see XmppStringPrepUtil#tryResourceprep(String, JxmppContext)
+	 */
+	public static ValidationResult<Resourcepart> tryFrom(String resource, JxmppContext context) {
+		return create(XmppStringPrepUtil.tryResourceprep(resource, context), FACTORY);
+	}
+}
@@ -47,12 +47,8 @@ public class JidUtil {
 	 * @see EntityBareJid
 	 */
 	public static boolean isTypicalValidEntityBareJid(CharSequence jid) {
-		try {
-			validateTypicalEntityBareJid(jid);
-		} catch (NotAEntityBareJidStringException | XmppStringprepException e) {
-			return false;
-		}
-		return true;
+		EntityBareJid entityBareJid = tryEntityBareJid(jid);
+		return entityBareJid != null && entityBareJid.getDomain().toString().indexOf('.') != -1;
 	}
 
 	/**
@@ -95,12 +91,64 @@ public class JidUtil {
 	 * @see EntityBareJid
 	 */
 	public static boolean isValidEntityBareJid(CharSequence jid) {
-		try {
-			validateEntityBareJid(jid);
-		} catch (NotAEntityBareJidStringException | XmppStringprepException e) {
-			return false;
+		return tryEntityBareJid(jid) != null;
+	}
+
+	/**
+	 * Get the entity bare JID represented by the given CharSequence, or {@code null} if it is not a valid entity bare
+	 * JID, without creating an exception.
+	 */
+	private static EntityBareJid tryEntityBareJid(CharSequence jidcs) {
+		String jid = jidcs.toString();
+		if (checkEntityBareJidString(jid) != NotAEntityBareJidReason.NONE) {
+			return null;
+		}
+		return JidCreate.tryEntityBareFromUnescaped(jid).getOrNull();
+	}
+
+	/**
+	 * The reasons why a String is not an entity bare JID. The message is only created by the callers which throw.
+	 */
+	private enum NotAEntityBareJidReason {
+		NONE(null),
+		NO_AT_CHARACTER("does not contain a '@' character"),
+		MULTIPLE_AT_CHARACTERS("contains multiple '@' characters"),
+		EMPTY_LOCALPART("has empty localpart"),
+		EMPTY_DOMAINPART("has empty domainpart"),
+		;
+
+		private final String description;
+
+		NotAEntityBareJidReason(String description) {
+			this.description = description;
+		}
+
+		String getMessage(String jid) {
+			return "'" + jid + "' " + description;
+		}
+	}
+
+	/**
+	 * Check the structure of the given entity bare JID String.
+	 *
+	 * @return the reason why the String is not an entity bare JID, or {@link NotAEntityBareJidReason#NONE}.
+	 */
+	private static NotAEntityBareJidReason checkEntityBareJidString(String jid) {
+		final int atIndex = jid.indexOf('@');
+		if (atIndex == -1) {
+			return NotAEntityBareJidReason.NO_AT_CHARACTER;
+		} else if (jid.indexOf('@', atIndex + 1) != -1) {
+			return NotAEntityBareJidReason.MULTIPLE_AT_CHARACTERS;
+		}
+		final String localpart = XmppStringUtils.parseLocalpart(jid);
+		if (localpart == null || localpart.length() == 0) {
+			return NotAEntityBareJidReason.EMPTY_LOCALPART;
+		}
+		final String domainpart = XmppStringUtils.parseDomain(jid);
+		if (domainpart == null || domainpart.length() == 0) {
+			return NotAEntityBareJidReason.EMPTY_DOMAINPART;
 		}
-		return true;
+		return NotAEntityBareJidReason.NONE;
 	}
 
 	/**
@@ -123,19 +171,9 @@ public class JidUtil {
 	 */
 	public static EntityBareJid validateEntityBareJid(CharSequence jidcs) throws NotAEntityBareJidStringException, XmppStringprepException {
 		String jid = jidcs.toString();
-		final int atIndex = jid.indexOf('@');
-		if (atIndex == -1) {
-			throw new NotAEntityBareJidStringException("'" + jid + "' does not contain a '@' character");
-		} else if (jid.indexOf('@', atIndex + 1) != -1) {
-			throw new NotAEntityBareJidStringException("'" + jid + "' contains multiple '@' characters");
-		}
-		final String localpart = XmppStringUtils.parseLocalpart(jid);
-		if (localpart == null || localpart.length() == 0) {
-			throw new NotAEntityBareJidStringException("'" + jid + "' has empty localpart");
-		}
-		final String domainpart = XmppStringUtils.parseDomain(jid);
-		if (domainpart == null || domainpart.length() == 0) {
-			throw new NotAEntityBareJidStringException("'" + jid + "' has empty domainpart");
+		NotAEntityBareJidReason notAEntityBareJidReason = checkEntityBareJidString(jid);
+		if (notAEntityBareJidReason != NotAEntityBareJidReason.NONE) {
+			throw new NotAEntityBareJidStringException(notAEntityBareJidReason.getMessage(jid));
 		}
 		return JidCreate.entityBareFromUnescaped(jid);
 	}
@@ -356,17 +394,10 @@ public class JidUtil {
 	 */
 	public static void jidsFrom(Collection<? extends CharSequence> jidStrings, Collection<? super Jid> output,
 			List<XmppStringprepException> exceptions) {
-		for (CharSequence jidString : jidStrings) {
-			try {
-				Jid jid = JidCreate.from(jidString);
-				output.add(jid);
-			} catch (XmppStringprepException e) {
-				if (exceptions != null) {
-					exceptions.add(e);
-				} else {
-					throw new AssertionError(e);
-				}
-			}
+		try {
+			JidCreate.fromAll(jidStrings, output, exceptions);
+		} catch (XmppStringprepException e) {
+			throw new AssertionError(e);
 		}
 	}
 
@@ -17,11 +17,22 @@
 package org.jxmpp.jid.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
+import org.jxmpp.CacheSnapshot;
+import org.jxmpp.JxmppContext;
 import org.jxmpp.jid.BareJid;
 import org.jxmpp.jid.EntityBareJid;
 import org.jxmpp.jid.DomainBareJid;
@@ -32,7 +43,14 @@ import org.jxmpp.jid.Jid;
 import org.jxmpp.jid.parts.Domainpart;
 import org.jxmpp.jid.parts.Localpart;
 import org.jxmpp.jid.parts.Resourcepart;
+import org.jxmpp.stringprep.ValidationResult;
+import org.jxmpp.stringprep.XmppStringPrepUtil;
+import org.jxmpp.stringprep.XmppStringprep;
 import org.jxmpp.stringprep.XmppStringprepException;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+import org.jxmpp.util.cache.CacheRegistry;
+import org.jxmpp.util.cache.CacheStats;
+import org.jxmpp.util.cache.LruCache;
 
 public class JidCreateTest {
 
@@ -190,4 +208,215 @@ public class JidCreateTest {
 		String invalidJid2 = "  foo@leadingAndTrailingWhitespaceTest.org/bar  ";
 		assertThrows(XmppStringprepException.class, () -> JidCreate.from(invalidJid2) );
 	}
+
+	@Test
+	public void maxCacheWeightsTest() throws XmppStringprepException {
+		JidCreate.setMaxCacheWeights(16 * 1024);
+		try {
+			EntityBareJid jid = JidCreate.entityBareFrom("foo@maxCacheWeightsTest.org");
+			assertEquals(jid, JidCreate.entityBareFrom("foo@maxCacheWeightsTest.org"));
+			LruCache<?, ?> cache = (LruCache<?, ?>) CacheRegistry.getCache("JidCreate.ENTITY_BAREJID_CACHE");
+			assertEquals(16 * 1024, cache.getMaxCacheWeight());
+			assertTrue(cache.getCacheWeight() > 0);
+		} finally {
+			JidCreate.setCacheFactory(LruCache.FACTORY);
+		}
+	}
+
+	@Test
+	public void maxCacheWeightsSurviveDefaultXmppStringprepChangeTest() throws XmppStringprepException {
+		JidCreate.setMaxCacheWeights(16 * 1024);
+		try {
+			SimpleXmppStringprep.setup();
+			EntityBareJid jid = JidCreate.entityBareFrom("foo@maxCacheWeightsSurvive.org");
+			assertSame(jid, JidCreate.entityBareFrom("foo@maxCacheWeightsSurvive.org"));
+
+			LruCache<?, ?> cache = (LruCache<?, ?>) CacheRegistry.getCache("JidCreate.ENTITY_BAREJID_CACHE");
+			assertEquals(16 * 1024, cache.getMaxCacheWeight());
+			assertEquals(1, cache.getCacheStats().getHitCount());
+		} finally {
+			JidCreate.setCacheFactory(LruCache.FACTORY);
+		}
+	}
+
+	@Test
+	public void perContextCachesTest() throws XmppStringprepException {
+		JxmppContext context = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(JxmppContext.getDefaultContext().xmppStringprep)
+				.withCacheFactory(LruCache.FACTORY)
+				.withMaxCacheSize(10)
+				.build();
+
+		EntityBareJid jid = JidCreate.entityBareFrom("föö@perContextCachesTest.org", context);
+		assertSame(jid, JidCreate.entityBareFrom("föö@perContextCachesTest.org", context));
+
+		CacheStats stats = context.getCacheStats().get("JidCreate.ENTITY_BAREJID_CACHE");
+		assertEquals(1, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+		assertEquals(1, stats.getSize());
+
+		// Only the non-ASCII parts are prepared by the XmppStringprep, and hence cached.
+		assertEquals(1, context.getCacheStats().get("XmppStringPrepUtil.NODEPREP_CACHE").getSize());
+
+		// Every context owns its caches, which are created once the context is used.
+		JxmppContext otherContext = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(context.xmppStringprep)
+				.build();
+		assertTrue(otherContext.getCacheStats().isEmpty());
+		JidCreate.entityBareFrom("föö@perContextCachesTest.org", otherContext);
+		assertEquals(0, otherContext.getCacheStats().get("JidCreate.ENTITY_BAREJID_CACHE").getHitCount());
+	}
+
+	@Test
+	public void failureCachingTest() throws XmppStringprepException {
+		final XmppStringprep xmppStringprep = JxmppContext.getDefaultContext().xmppStringprep;
+		final AtomicInteger localpreps = new AtomicInteger();
+		JxmppContext context = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(new XmppStringprep() {
+					@Override
+					public String localprep(String string) throws XmppStringprepException {
+						localpreps.incrementAndGet();
+						return xmppStringprep.localprep(string);
+					}
+
+					@Override
+					public String domainprep(String string) throws XmppStringprepException {
+						return xmppStringprep.domainprep(string);
+					}
+
+					@Override
+					public String resourceprep(String string) throws XmppStringprepException {
+						return xmppStringprep.resourceprep(string);
+					}
+				})
+				.build();
+
+		XmppStringprepException first = assertThrows(XmppStringprepException.class,
+				() -> JidCreate.entityBareFrom("fö o@failureCachingTest.org", context));
+		assertEquals(1, localpreps.get());
+		XmppStringprepException second = assertThrows(XmppStringprepException.class,
+				() -> JidCreate.entityBareFrom("fö o@failureCachingTest.org", context));
+		assertSame(first, second);
+
+		// The failure of the localpart is cached, too.
+		assertThrows(XmppStringprepException.class, () -> XmppStringPrepUtil.localprep("fö o", context));
+		assertEquals(1, localpreps.get());
+
+		// Failures of the ASCII fast path are cheaper to recompute than to cache, hence they are not cached.
+		XmppStringprepException asciiFailure = assertThrows(XmppStringprepException.class,
+				() -> XmppStringPrepUtil.localprep("foo bar", context));
+		assertNotSame(asciiFailure, assertThrows(XmppStringprepException.class,
+				() -> XmppStringPrepUtil.localprep("foo bar", context)));
+		assertEquals(1, localpreps.get());
+
+		JxmppContext noFailureCachingContext = JxmppContext.builder()
+				.enableCaching()
+				.disableFailureCaching()
+				.withXmppStringprep(xmppStringprep)
+				.build();
+		assertNotSame(assertThrows(XmppStringprepException.class,
+				() -> JidCreate.entityBareFrom("fö o@failureCachingTest.org", noFailureCachingContext)),
+				assertThrows(XmppStringprepException.class,
+				() -> JidCreate.entityBareFrom("fö o@failureCachingTest.org", noFailureCachingContext)));
+	}
+
+	@Test
+	public void tryFromTest() throws XmppStringprepException {
+		ValidationResult<EntityBareJid> valid = JidCreate.tryEntityBareFrom("Foo@tryFromTest.org");
+		assertTrue(valid.isValid());
+		assertEquals(JidCreate.entityBareFrom("foo@tryfromtest.org"), valid.get());
+
+		ValidationResult<EntityBareJid> invalid = JidCreate.tryEntityBareFrom("foo bar@tryFromTest.org");
+		assertFalse(invalid.isValid());
+		assertNull(JidCreate.entityBareFromOrNull("foo bar@tryFromTest.org"));
+		assertEquals(ValidationResult.ErrorCode.PROHIBITED_CHARACTER, invalid.getErrorCode());
+		assertEquals("foo bar@tryFromTest.org", invalid.getCausingString());
+
+		assertEquals(ValidationResult.ErrorCode.MISSING_LOCALPART,
+				JidCreate.tryEntityFrom("tryFromTest.org").getErrorCode());
+		assertEquals(ValidationResult.ErrorCode.MISSING_DOMAINPART, JidCreate.tryFrom("foo@/bar").getErrorCode());
+		assertFalse(JidCreate.tryDomainFullFrom("tryFromTest.org").isValid());
+		assertTrue(JidCreate.tryFullFrom("foo@tryFromTest.org/bar").isValid());
+
+		// The throwing methods throw an equivalent exception.
+		XmppStringprepException exception = assertThrows(XmppStringprepException.class,
+				() -> JidCreate.entityBareFrom("foo bar@tryFromTest.org"));
+		assertEquals(invalid.getMessage(), exception.getMessage());
+	}
+
+	@Test
+	public void missingDomainpartCauseTest() {
+		XmppStringprepException exception = assertThrows(XmppStringprepException.class,
+				() -> JidCreate.from("@/missingDomainpartCauseTest"));
+		assertTrue(exception.getCause() instanceof XmppStringprepException.MissingDomainpart);
+		assertEquals(0, exception.getCause().getStackTrace().length);
+	}
+
+	@Test
+	public void tryFromWithoutCachingTest() {
+		// Caching is disabled by default in new contexts.
+		JxmppContext context = JxmppContext.builder()
+				.withXmppStringprep(JxmppContext.getDefaultContext().xmppStringprep)
+				.build();
+		ValidationResult<Jid> invalid = JidCreate.tryFrom("foo bar@example.org", context);
+		assertFalse(invalid.isValid());
+		XmppStringprepException exception = invalid.toException();
+		assertEquals(0, exception.getStackTrace().length);
+		assertEquals("foo bar@example.org", exception.getCausingString());
+
+		assertTrue(JidCreate.tryDomainBareFrom("example.org", context).isValid());
+	}
+
+	@Test
+	public void cacheSnapshotTest() throws XmppStringprepException, IOException {
+		final XmppStringprep xmppStringprep = JxmppContext.getDefaultContext().xmppStringprep;
+		JxmppContext context = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(xmppStringprep)
+				.build();
+		EntityFullJid jid = JidCreate.entityFullFrom("foo@cacheSnapshotTest.org/bar", context);
+		JidCreate.bareFrom("cacheSnapshotTest.org", context);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CacheSnapshot.write(out, JidCreate.getCacheSets(context));
+		byte[] snapshot = out.toByteArray();
+
+		JxmppContext warmContext = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(xmppStringprep)
+				.build();
+		int preloaded = CacheSnapshot.preload(new ByteArrayInputStream(snapshot), JidCreate.getCacheSets(warmContext));
+		assertTrue(preloaded > 0);
+
+		assertEquals(jid, JidCreate.entityFullFrom("foo@cacheSnapshotTest.org/bar", warmContext));
+		CacheStats stats = warmContext.getCacheStats().get("JidCreate.ENTITY_FULLJID_CACHE");
+		assertEquals(1, stats.getHitCount());
+		assertEquals(0, stats.getMissCount());
+
+		// A snapshot taken with another stringprep backend is not preloaded.
+		JxmppContext otherBackendContext = JxmppContext.builder()
+				.enableCaching()
+				.withXmppStringprep(new XmppStringprep() {
+					@Override
+					public String localprep(String string) throws XmppStringprepException {
+						return xmppStringprep.localprep(string);
+					}
+
+					@Override
+					public String domainprep(String string) throws XmppStringprepException {
+						return xmppStringprep.domainprep(string);
+					}
+
+					@Override
+					public String resourceprep(String string) throws XmppStringprepException {
+						return xmppStringprep.resourceprep(string);
+					}
+				})
+				.build();
+		assertEquals(0, CacheSnapshot.preload(new ByteArrayInputStream(snapshot),
+				JidCreate.getCacheSets(otherBackendContext)));
+	}
 }
@@ -16,11 +16,20 @@
  */
 package org.jxmpp.jid.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
+import org.jxmpp.jid.Jid;
 import org.jxmpp.jid.JidTestUtil;
+import org.jxmpp.jid.util.JidUtil.NotAEntityBareJidStringException;
+import org.jxmpp.stringprep.XmppStringprepException;
 
 public class JidUtilTest {
 
@@ -34,4 +43,46 @@ public class JidUtilTest {
 		assertTrue(JidUtil.equals(JidTestUtil.BARE_JID_1, JidTestUtil.BARE_JID_1));
 		assertFalse(JidUtil.equals(JidTestUtil.BARE_JID_1, JidTestUtil.BARE_JID_2));
 	}
+
+	@Test
+	public void testJidsFrom() {
+		List<String> jidStrings = Arrays.asList("foo@jidsfrom.example", "jidsfrom.example/bar", "@jidsfrom.example",
+				"foo@jidsfrom.example");
+		List<Jid> jids = new ArrayList<>();
+		List<XmppStringprepException> exceptions = new ArrayList<>();
+		JidUtil.jidsFrom(jidStrings, jids, exceptions);
+
+		assertEquals(3, jids.size());
+		assertEquals("foo@jidsfrom.example", jids.get(0).toString());
+		assertEquals("jidsfrom.example/bar", jids.get(1).toString());
+		assertEquals(jids.get(0), jids.get(2));
+		assertEquals(1, exceptions.size());
+
+		// The second time, all valid JIDs are served from the cache.
+		List<Jid> cachedJids = new ArrayList<>();
+		JidUtil.jidsFrom(jidStrings, cachedJids, new ArrayList<XmppStringprepException>());
+		assertEquals(jids, cachedJids);
+	}
+
+	@Test
+	public void testValidateEntityBareJid() throws XmppStringprepException {
+		assertTrue(JidUtil.isValidEntityBareJid("foo@validate.example"));
+		assertTrue(JidUtil.isTypicalValidEntityBareJid("foo@validate.example"));
+
+		assertNotAEntityBareJid("validate.example", "'validate.example' does not contain a '@' character");
+		assertNotAEntityBareJid("foo@bar@validate.example", "'foo@bar@validate.example' contains multiple '@' characters");
+		assertNotAEntityBareJid("@validate.example", "'@validate.example' has empty localpart");
+		assertNotAEntityBareJid("foo@", "'foo@' has empty domainpart");
+	}
+
+	private static void assertNotAEntityBareJid(String jid, String expectedMessage) throws XmppStringprepException {
+		assertFalse(JidUtil.isValidEntityBareJid(jid));
+		assertFalse(JidUtil.isTypicalValidEntityBareJid(jid));
+		try {
+			JidUtil.validateEntityBareJid(jid);
+			fail("Expected NotAEntityBareJidStringException for " + jid);
+		} catch (NotAEntityBareJidStringException e) {
+			assertEquals(expectedMessage, e.getMessage());
+		}
+	}
 }
@@ -17,6 +17,7 @@
 package org.jxmpp.stringprep.icu4j;
 
 import org.jxmpp.JxmppContext;
+import org.jxmpp.stringprep.XmppStringPrepUtil;
 import org.jxmpp.stringprep.XmppStringprep;
 import org.jxmpp.stringprep.XmppStringprepException;
 
@@ -63,7 +64,8 @@ public class Icu4jXmppStringprep implements XmppStringprep {
 	@Override
 	public String localprep(String string) throws XmppStringprepException {
 		try {
-			return NODEPREP.prepare(string, StringPrep.DEFAULT);
+			String prepared = NODEPREP.prepare(string, StringPrep.DEFAULT);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (StringPrepParseException e) {
 			throw new XmppStringprepException(string, e);
 		}
@@ -72,7 +74,8 @@ public class Icu4jXmppStringprep implements XmppStringprep {
 	@Override
 	public String domainprep(String string) throws XmppStringprepException {
 		try {
-			return DOMAINPREP.prepare(string, StringPrep.DEFAULT);
+			String prepared = DOMAINPREP.prepare(string, StringPrep.DEFAULT);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (StringPrepParseException e) {
 			throw new XmppStringprepException(string, e);
 		}
@@ -81,7 +84,8 @@ public class Icu4jXmppStringprep implements XmppStringprep {
 	@Override
 	public String resourceprep(String string) throws XmppStringprepException {
 		try {
-			return RESOURCEPREP.prepare(string, StringPrep.DEFAULT);
+			String prepared = RESOURCEPREP.prepare(string, StringPrep.DEFAULT);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (StringPrepParseException e) {
 			throw new XmppStringprepException(string, e);
 		}
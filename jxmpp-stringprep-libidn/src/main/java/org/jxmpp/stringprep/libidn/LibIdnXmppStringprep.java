@@ -17,6 +17,7 @@
 package org.jxmpp.stringprep.libidn;
 
 import org.jxmpp.JxmppContext;
+import org.jxmpp.stringprep.XmppStringPrepUtil;
 import org.jxmpp.stringprep.XmppStringprep;
 import org.jxmpp.stringprep.XmppStringprepException;
 
@@ -60,7 +61,8 @@ public class LibIdnXmppStringprep implements XmppStringprep {
 	public String localprep(String string) throws XmppStringprepException {
 		try {
 			// Allow unassigned codepoints as of RFC6122 A.2
-			return Stringprep.nodeprep(string, true);
+			String prepared = Stringprep.nodeprep(string, true);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (StringprepException e) {
 			throw new XmppStringprepException(string, e);
 		}
@@ -71,7 +73,8 @@ public class LibIdnXmppStringprep implements XmppStringprep {
 		try {
 			// Don't allow unassigned because this is a "stored string". See
 			// RFC3453 7, RFC3490 4 1) and RFC6122 2.2
-			return Stringprep.nameprep(string);
+			String prepared = Stringprep.nameprep(string);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (StringprepException e) {
 			throw new XmppStringprepException(string, e);
 		}
@@ -81,7 +84,8 @@ public class LibIdnXmppStringprep implements XmppStringprep {
 	public String resourceprep(String string) throws XmppStringprepException {
 		try {
 			// Allow unassigned codepoints as of RFC6122 B.2
-			return Stringprep.resourceprep(string, true);
+			String prepared = Stringprep.resourceprep(string, true);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (StringprepException e) {
 			throw new XmppStringprepException(string, e);
 		}
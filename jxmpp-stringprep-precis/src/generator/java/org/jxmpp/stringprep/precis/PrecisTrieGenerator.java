@@ -0,0 +1,425 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep.precis;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generates the {@link CodePointTrie} holding the {@link PrecisProperties} of every code point. The properties are
+ * derived, following the rules of RFC 8264 § 8 and RFC 5892 § 3, from the Unicode data of the JDK running the
+ * generator, hence the Unicode version of the generated trie is the one of the JDK used to build jXMPP.
+ */
+public final class PrecisTrieGenerator {
+
+	/**
+	 * The number of code points per block of the trie is {@code 2^SHIFT}.
+	 */
+	private static final int SHIFT = 6;
+
+	// RFC 5892 § 2.6 Exceptions (F).
+	private static final int[] EXCEPTIONS_PVALID = { 0x00df, 0x03c2, 0x06fd, 0x06fe, 0x0f0b, 0x3007 };
+	private static final int[] EXCEPTIONS_CONTEXTO = { 0x00b7, 0x0375, 0x05f3, 0x05f4, 0x30fb };
+	private static final int[] EXCEPTIONS_DISALLOWED = { 0x0640, 0x07fa, 0x302e, 0x302f, 0x3031, 0x3032, 0x3033,
+			0x3034, 0x3035, 0x303b };
+
+	// The Default_Ignorable_Code_Point ranges of DerivedCoreProperties.txt, which are not exposed by the JDK.
+	// @formatter:off
+	private static final int[][] DEFAULT_IGNORABLE_RANGES = {
+		{ 0x00ad, 0x00ad }, { 0x034f, 0x034f }, { 0x061c, 0x061c }, { 0x115f, 0x1160 }, { 0x17b4, 0x17b5 },
+		{ 0x180b, 0x180f }, { 0x200b, 0x200f }, { 0x202a, 0x202e }, { 0x2060, 0x206f }, { 0x3164, 0x3164 },
+		{ 0xfe00, 0xfe0f }, { 0xfeff, 0xfeff }, { 0xffa0, 0xffa0 }, { 0xfff0, 0xfff8 }, { 0x1bca0, 0x1bca3 },
+		{ 0x1d173, 0x1d17a }, { 0xe0000, 0xe0fff },
+	};
+	// @formatter:on
+
+	// RFC 5892 § 2.9 IgnorableBlocks (H).
+	// @formatter:off
+	private static final int[][] IDNA_IGNORABLE_BLOCKS = {
+		{ 0x20d0, 0x20ff }, { 0x1d100, 0x1d1ff }, { 0x1d200, 0x1d24f },
+	};
+	// @formatter:on
+
+	private static final String LOCALPART_EXCLUDED_CHARACTERS = "\"&'/:<>@";
+
+	private enum DerivedProperty {
+		PVALID,
+		FREE_PVAL,
+		CONTEXTJ,
+		CONTEXTO,
+		DISALLOWED,
+		UNASSIGNED,
+	}
+
+	private PrecisTrieGenerator() {
+	}
+
+	/**
+	 * Generate the trie.
+	 *
+	 * @param args the file the trie is written to.
+	 * @throws IOException if the trie could not be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Usage: PrecisTrieGenerator <output-file>");
+		}
+
+		CodePointTrie trie = buildTrie();
+
+		File outputFile = new File(args[0]);
+		File outputDirectory = outputFile.getParentFile();
+		if (outputDirectory != null && !outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+			throw new IOException("Could not create " + outputDirectory);
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile)))) {
+			trie.write(out);
+		}
+	}
+
+	static CodePointTrie buildTrie() {
+		int blockSize = 1 << SHIFT;
+		char[] index = new char[(Character.MAX_CODE_POINT >>> SHIFT) + 1];
+		List<Integer> values = new ArrayList<>();
+		Map<Integer, Integer> valuePositions = new HashMap<>();
+		Map<Block, Integer> blockNumbers = new HashMap<>();
+		StringBuilder data = new StringBuilder();
+
+		for (int blockNumber = 0; blockNumber < index.length; blockNumber++) {
+			char[] block = new char[blockSize];
+			for (int i = 0; i < blockSize; i++) {
+				int value = computeProperties((blockNumber << SHIFT) | i);
+				Integer position = valuePositions.get(value);
+				if (position == null) {
+					position = values.size();
+					if (position > Character.MAX_VALUE) {
+						throw new IllegalStateException("Too many distinct values");
+					}
+					values.add(value);
+					valuePositions.put(value, position);
+				}
+				block[i] = (char) position.intValue();
+			}
+
+			Block key = new Block(block);
+			Integer dataBlockNumber = blockNumbers.get(key);
+			if (dataBlockNumber == null) {
+				dataBlockNumber = blockNumbers.size();
+				if (dataBlockNumber > Character.MAX_VALUE) {
+					throw new IllegalStateException("Too many distinct blocks");
+				}
+				blockNumbers.put(key, dataBlockNumber);
+				data.append(block);
+			}
+			index[blockNumber] = (char) dataBlockNumber.intValue();
+		}
+
+		int[] valuesArray = new int[values.size()];
+		for (int i = 0; i < valuesArray.length; i++) {
+			valuesArray[i] = values.get(i);
+		}
+		return new CodePointTrie(SHIFT, index, data.toString().toCharArray(), valuesArray);
+	}
+
+	static int computeProperties(int codePoint) {
+		int type = Character.getType(codePoint);
+		String string = new String(Character.toChars(codePoint));
+		String nfkc = Normalizer.normalize(string, Normalizer.Form.NFKC);
+
+		int properties = 0;
+		DerivedProperty derivedProperty = derivedProperty(codePoint, type, nfkc);
+		switch (derivedProperty) {
+		case PVALID:
+			break;
+		case FREE_PVAL:
+			properties |= PrecisProperties.IDENTIFIER_DISALLOWED;
+			break;
+		case CONTEXTJ:
+		case CONTEXTO:
+			properties |= PrecisProperties.CONTEXTUAL;
+			break;
+		default:
+			properties |= PrecisProperties.IDENTIFIER_DISALLOWED | PrecisProperties.FREEFORM_DISALLOWED;
+			break;
+		}
+
+		if (!isIdnaValid(codePoint, string, nfkc, derivedProperty)) {
+			properties |= PrecisProperties.IDNA_DISALLOWED;
+		}
+		if (codePoint < 0x80 && LOCALPART_EXCLUDED_CHARACTERS.indexOf(codePoint) >= 0) {
+			properties |= PrecisProperties.LOCALPART_EXCLUDED;
+		}
+		if (!isNfcStable(codePoint, type, string)) {
+			properties |= PrecisProperties.NFC_MAYBE;
+		}
+		if (type == Character.SPACE_SEPARATOR && codePoint != ' ') {
+			properties |= PrecisProperties.NON_ASCII_SPACE;
+		}
+		switch (Character.getDirectionality(codePoint)) {
+		case Character.DIRECTIONALITY_RIGHT_TO_LEFT:
+		case Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC:
+		case Character.DIRECTIONALITY_ARABIC_NUMBER:
+			properties |= PrecisProperties.RTL;
+			break;
+		default:
+			break;
+		}
+		if (isMark(type)) {
+			properties |= PrecisProperties.COMBINING_MARK;
+			if (isVirama(codePoint, string)) {
+				properties |= PrecisProperties.VIRAMA;
+			}
+		}
+
+		// RFC 8265 § 3.3: Map fullwidth and halfwidth code points to their decomposition mappings. The JDK does not
+		// expose the decomposition type, but the <wide> and <narrow> decompositions are the ones of the Halfwidth and
+		// Fullwidth Forms block, and of the ideographic space.
+		int widthMapped = codePoint;
+		if (((codePoint >= 0xff01 && codePoint <= 0xffee) || codePoint == 0x3000)
+				&& nfkc.codePointCount(0, nfkc.length()) == 1 && !nfkc.equals(string)) {
+			widthMapped = nfkc.codePointAt(0);
+			properties |= PrecisProperties.WIDTH;
+		}
+		int lowercase = Character.toLowerCase(widthMapped);
+		String widthMappedString = new String(Character.toChars(widthMapped));
+		if (!widthMappedString.toLowerCase(Locale.ROOT).equals(new String(Character.toChars(lowercase)))
+				// The lowercase mapping of the capital sigma depends on whether it is the final letter of a word.
+				|| widthMapped == 0x03a3) {
+			properties |= PrecisProperties.SPECIAL_CASING;
+		}
+
+		int delta = lowercase - codePoint;
+		int shiftedDelta = delta << PrecisProperties.MAPPING_DELTA_SHIFT;
+		if (shiftedDelta >> PrecisProperties.MAPPING_DELTA_SHIFT != delta) {
+			throw new IllegalStateException("Mapping delta of U+" + Integer.toHexString(codePoint) + " too large");
+		}
+		return properties | shiftedDelta;
+	}
+
+	/**
+	 * Derive the PRECIS property of the code point following RFC 8264 § 8.
+	 */
+	private static DerivedProperty derivedProperty(int codePoint, int type, String nfkc) {
+		DerivedProperty exception = exception(codePoint);
+		if (exception != null) {
+			return exception;
+		}
+		if (type == Character.UNASSIGNED && !isNoncharacter(codePoint)) {
+			return DerivedProperty.UNASSIGNED;
+		}
+		if (codePoint >= 0x21 && codePoint <= 0x7e) {
+			return DerivedProperty.PVALID;
+		}
+		if (codePoint == 0x200c || codePoint == 0x200d) {
+			return DerivedProperty.CONTEXTJ;
+		}
+		if (isOldHangulJamo(codePoint) || isDefaultIgnorable(codePoint) || isNoncharacter(codePoint)
+				|| type == Character.CONTROL) {
+			return DerivedProperty.DISALLOWED;
+		}
+		if (!nfkc.equals(new String(Character.toChars(codePoint)))) {
+			return DerivedProperty.FREE_PVAL;
+		}
+
+		switch (type) {
+		// LetterDigits (A)
+		case Character.LOWERCASE_LETTER:
+		case Character.UPPERCASE_LETTER:
+		case Character.OTHER_LETTER:
+		case Character.DECIMAL_DIGIT_NUMBER:
+		case Character.MODIFIER_LETTER:
+		case Character.NON_SPACING_MARK:
+		case Character.COMBINING_SPACING_MARK:
+			return DerivedProperty.PVALID;
+		// OtherLetterDigits (R)
+		case Character.TITLECASE_LETTER:
+		case Character.LETTER_NUMBER:
+		case Character.OTHER_NUMBER:
+		case Character.ENCLOSING_MARK:
+		// Spaces (S)
+		case Character.SPACE_SEPARATOR:
+		// Symbols (T)
+		case Character.MATH_SYMBOL:
+		case Character.CURRENCY_SYMBOL:
+		case Character.MODIFIER_SYMBOL:
+		case Character.OTHER_SYMBOL:
+		// Punctuation (P)
+		case Character.CONNECTOR_PUNCTUATION:
+		case Character.DASH_PUNCTUATION:
+		case Character.START_PUNCTUATION:
+		case Character.END_PUNCTUATION:
+		case Character.INITIAL_QUOTE_PUNCTUATION:
+		case Character.FINAL_QUOTE_PUNCTUATION:
+		case Character.OTHER_PUNCTUATION:
+			return DerivedProperty.FREE_PVAL;
+		default:
+			return DerivedProperty.DISALLOWED;
+		}
+	}
+
+	private static DerivedProperty exception(int codePoint) {
+		if (contains(EXCEPTIONS_PVALID, codePoint)) {
+			return DerivedProperty.PVALID;
+		}
+		if (contains(EXCEPTIONS_CONTEXTO, codePoint) || (codePoint >= 0x0660 && codePoint <= 0x0669)
+				|| (codePoint >= 0x06f0 && codePoint <= 0x06f9)) {
+			return DerivedProperty.CONTEXTO;
+		}
+		if (contains(EXCEPTIONS_DISALLOWED, codePoint)) {
+			return DerivedProperty.DISALLOWED;
+		}
+		return null;
+	}
+
+	/**
+	 * Check if the code point is PVALID, CONTEXTJ or CONTEXTO in IDNA2008, which, other than the PRECIS
+	 * IdentifierClass, only allows letters, digits and hyphens of ASCII, and disallows unstable code points.
+	 */
+	private static boolean isIdnaValid(int codePoint, String string, String nfkc, DerivedProperty derivedProperty) {
+		if (exception(codePoint) != null) {
+			return derivedProperty != DerivedProperty.DISALLOWED;
+		}
+		if (codePoint < 0x80) {
+			// The full stop separates the labels, and is hence never part of a label.
+			return codePoint == '.' || (codePoint >= 'a' && codePoint <= 'z') || (codePoint >= '0' && codePoint <= '9')
+					|| codePoint == '-';
+		}
+		switch (derivedProperty) {
+		case PVALID:
+		case CONTEXTJ:
+		case CONTEXTO:
+			break;
+		default:
+			return false;
+		}
+		if (inRanges(IDNA_IGNORABLE_BLOCKS, codePoint)) {
+			return false;
+		}
+		// RFC 5892 § 2.2 Unstable (B), with the lowercase mapping in place of case folding.
+		String stable = Normalizer.normalize(nfkc.toLowerCase(Locale.ROOT), Normalizer.Form.NFKC);
+		return stable.equals(string);
+	}
+
+	/**
+	 * Check if every String consisting of code points for which this method returns true is in Unicode Normalization
+	 * Form C. This is the case if the code point is not changed by NFC itself, and if it does neither reorder nor
+	 * compose with a preceding code point. Only combining marks, which include all code points with a non-zero
+	 * canonical combining class, and the conjoining Hangul jamo do so. Hangul LV syllables may compose with a
+	 * following trailing jamo.
+	 */
+	private static boolean isNfcStable(int codePoint, int type, String string) {
+		if (!Normalizer.normalize(string, Normalizer.Form.NFC).equals(string)) {
+			return false;
+		}
+		if (isMark(type)) {
+			return false;
+		}
+		if ((codePoint >= 0x1160 && codePoint <= 0x11ff) || (codePoint >= 0xd7b0 && codePoint <= 0xd7ff)) {
+			return false;
+		}
+		if (codePoint >= 0xac00 && codePoint <= 0xd7a3 && (codePoint - 0xac00) % 28 == 0) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Check if the canonical combining class of the mark is Virama (9). The JDK does not expose the canonical
+	 * combining class, but it can be derived from the canonical reordering of marks: A mark is reordered before a
+	 * preceding mark with a greater, non-zero combining class.
+	 */
+	private static boolean isVirama(int codePoint, String string) {
+		if (!Normalizer.normalize(string, Normalizer.Form.NFD).equals(string)) {
+			return false;
+		}
+		// U+3099 COMBINING KATAKANA-HIRAGANA VOICED SOUND MARK has the combining class 8, and U+05B0 HEBREW POINT
+		// SHEVA the combining class 10.
+		return isReordered(codePoint, 0x3099) && isReordered(0x05b0, codePoint);
+	}
+
+	private static boolean isReordered(int first, int second) {
+		String string = new StringBuilder().append(' ').appendCodePoint(first).appendCodePoint(second).toString();
+		return !Normalizer.normalize(string, Normalizer.Form.NFD).equals(string);
+	}
+
+	private static boolean isMark(int type) {
+		return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+				|| type == Character.ENCLOSING_MARK;
+	}
+
+	// RFC 5892 § 2.5 OldHangulJamo (I): Hangul_Syllable_Type L, V or T.
+	private static boolean isOldHangulJamo(int codePoint) {
+		return (codePoint >= 0x1100 && codePoint <= 0x11ff) || (codePoint >= 0xa960 && codePoint <= 0xa97c)
+				|| (codePoint >= 0xd7b0 && codePoint <= 0xd7c6) || (codePoint >= 0xd7cb && codePoint <= 0xd7fb);
+	}
+
+	private static boolean isDefaultIgnorable(int codePoint) {
+		return inRanges(DEFAULT_IGNORABLE_RANGES, codePoint);
+	}
+
+	private static boolean isNoncharacter(int codePoint) {
+		return (codePoint >= 0xfdd0 && codePoint <= 0xfdef) || (codePoint & 0xfffe) == 0xfffe;
+	}
+
+	private static boolean contains(int[] codePoints, int codePoint) {
+		for (int c : codePoints) {
+			if (c == codePoint) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean inRanges(int[][] ranges, int codePoint) {
+		for (int[] range : ranges) {
+			if (codePoint >= range[0] && codePoint <= range[1]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static final class Block {
+		private final char[] positions;
+		private final int hashCode;
+
+		private Block(char[] positions) {
+			this.positions = positions;
+			this.hashCode = Arrays.hashCode(positions);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Block && Arrays.equals(positions, ((Block) other).positions);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
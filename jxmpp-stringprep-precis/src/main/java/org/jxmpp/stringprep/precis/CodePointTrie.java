@@ -0,0 +1,115 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep.precis;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A compact, immutable two-stage trie mapping every Unicode code point to an int value.
+ * <p>
+ * The code points are split into blocks of {@code 2^shift} code points. The first stage, the index, maps the
+ * number of the block of a code point to the offset of the block in the second stage, the data. Identical blocks,
+ * like the ones of the unassigned planes, are stored only once in the data. As the number of distinct values is
+ * small, the data does not hold the values themselves, but their position in the table of distinct values.
+ * </p>
+ */
+final class CodePointTrie {
+
+	private static final int MAGIC = 0x4a585054; // "JXPT"
+
+	private static final int MAX_CODE_POINT = 0x10ffff;
+
+	private final int shift;
+
+	private final int mask;
+
+	private final char[] index;
+
+	private final char[] data;
+
+	private final int[] values;
+
+	CodePointTrie(int shift, char[] index, char[] data, int[] values) {
+		if (index.length != (MAX_CODE_POINT >>> shift) + 1) {
+			throw new IllegalArgumentException("The index does not cover all code points");
+		}
+		this.shift = shift;
+		this.mask = (1 << shift) - 1;
+		this.index = index;
+		this.data = data;
+		this.values = values;
+	}
+
+	/**
+	 * Get the value of the given code point.
+	 *
+	 * @param codePoint the code point.
+	 * @return the value of the code point.
+	 */
+	int get(int codePoint) {
+		return values[data[(index[codePoint >>> shift] << shift) | (codePoint & mask)]];
+	}
+
+	/**
+	 * Get the size of the trie.
+	 *
+	 * @return the size of the trie in bytes, excluding the object headers.
+	 */
+	int getSizeInBytes() {
+		return index.length * 2 + data.length * 2 + values.length * 4;
+	}
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeByte(shift);
+		out.writeInt(index.length);
+		for (char c : index) {
+			out.writeChar(c);
+		}
+		out.writeInt(data.length);
+		for (char c : data) {
+			out.writeChar(c);
+		}
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	static CodePointTrie read(DataInputStream in) throws IOException {
+		int magic = in.readInt();
+		if (magic != MAGIC) {
+			throw new IOException("Not a code point trie, invalid magic: " + Integer.toHexString(magic));
+		}
+		int shift = in.readByte();
+		char[] index = new char[in.readInt()];
+		for (int i = 0; i < index.length; i++) {
+			index[i] = in.readChar();
+		}
+		char[] data = new char[in.readInt()];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = in.readChar();
+		}
+		int[] values = new int[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+		}
+		return new CodePointTrie(shift, index, data, values);
+	}
+}
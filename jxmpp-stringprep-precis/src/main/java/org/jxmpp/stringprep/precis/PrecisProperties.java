@@ -0,0 +1,110 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep.precis;
+
+/**
+ * The layout of the per code point properties stored in the {@link CodePointTrie} generated at build time. The low
+ * bits are flags, which are chosen so that the properties of all code points of a String can be combined with a
+ * bitwise OR, and the high bits hold the signed delta of the mapping of the code point.
+ */
+final class PrecisProperties {
+
+	/**
+	 * The name of the resource holding the trie.
+	 */
+	static final String TRIE_RESOURCE = "precis-properties.trie";
+
+	/**
+	 * The code point is not PVALID in the PRECIS IdentifierClass (RFC 8264 § 4.2).
+	 */
+	static final int IDENTIFIER_DISALLOWED = 1;
+
+	/**
+	 * The code point is neither PVALID nor FREE_PVAL in the PRECIS FreeformClass (RFC 8264 § 4.3).
+	 */
+	static final int FREEFORM_DISALLOWED = 1 << 1;
+
+	/**
+	 * The code point is not PVALID in IDNA2008 (RFC 5892).
+	 */
+	static final int IDNA_DISALLOWED = 1 << 2;
+
+	/**
+	 * The code point is CONTEXTJ or CONTEXTO, and hence only valid if its contextual rule (RFC 5892 Appendix A) is
+	 * satisfied.
+	 */
+	static final int CONTEXTUAL = 1 << 3;
+
+	/**
+	 * The code point is further excluded from localparts by RFC 7622 § 3.3.1.
+	 */
+	static final int LOCALPART_EXCLUDED = 1 << 4;
+
+	/**
+	 * A String containing the code point may not be in Unicode Normalization Form C.
+	 */
+	static final int NFC_MAYBE = 1 << 5;
+
+	/**
+	 * The code point is a fullwidth or halfwidth code point, which is mapped to its decomposition.
+	 */
+	static final int WIDTH = 1 << 6;
+
+	/**
+	 * The lowercase mapping of the code point is not a single code point, or depends on the context.
+	 */
+	static final int SPECIAL_CASING = 1 << 7;
+
+	/**
+	 * The code point is a non-ASCII space.
+	 */
+	static final int NON_ASCII_SPACE = 1 << 8;
+
+	/**
+	 * The bidirectional property of the code point is R, AL or AN.
+	 */
+	static final int RTL = 1 << 9;
+
+	/**
+	 * The canonical combining class of the code point is Virama.
+	 */
+	static final int VIRAMA = 1 << 10;
+
+	/**
+	 * The code point is a combining mark.
+	 */
+	static final int COMBINING_MARK = 1 << 11;
+
+	/**
+	 * The number of bits the signed delta of the width and lowercase mapping is shifted by.
+	 */
+	static final int MAPPING_DELTA_SHIFT = 12;
+
+	private PrecisProperties() {
+	}
+
+	/**
+	 * Get the code point which the given code point is mapped to by the width and the lowercase mapping.
+	 *
+	 * @param codePoint the code point.
+	 * @param properties the properties of the code point.
+	 * @return the mapped code point.
+	 */
+	static int map(int codePoint, int properties) {
+		return codePoint + (properties >> MAPPING_DELTA_SHIFT);
+	}
+}
@@ -0,0 +1,508 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep.precis;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.Normalizer;
+import java.util.Locale;
+
+import org.jxmpp.JxmppContext;
+import org.jxmpp.XmppAddressParttype;
+import org.jxmpp.stringprep.XmppStringprep;
+import org.jxmpp.stringprep.XmppStringprepException;
+
+/**
+ * XMPP string preparation using a pure-Java implementation of the PRECIS profiles required by RFC 7622: the
+ * UsernameCaseMapped profile for localparts, the OpaqueString profile for resourceparts, and IDNA2008 for
+ * domainparts.
+ * <p>
+ * All Unicode properties required by PRECIS are precomputed at build time and stored in a compact two-stage code point
+ * trie, hence preparing a String usually takes a single scan, in which every code point is mapped and validated with
+ * one trie lookup. A new String is only allocated if the mapping changes the input. Only Strings containing code
+ * points which may not be in Unicode Normalization Form C are normalized by {@link Normalizer}.
+ * </p>
+ * <p>
+ * The contextual rule of U+200C ZERO WIDTH NON-JOINER is only satisfied if the code point follows a virama, the
+ * alternative rule based on the Arabic joining types is not implemented. IDNA2008 A-labels are not decoded.
+ * </p>
+ */
+public final class PrecisXmppStringprep implements XmppStringprep {
+
+	/**
+	 * The ready to use instance of this.
+	 */
+	public static final PrecisXmppStringprep INSTANCE = new PrecisXmppStringprep();
+
+	/**
+	 * The name of the stringprep implementation.
+	 */
+	public static final String NAME = "jxmpp-precis";
+
+	private static final CodePointTrie PROPERTIES = loadProperties();
+
+	/**
+	 * Setup the PRECIS Stringprep implementation as active Stringprep implementation.
+	 */
+	public static void setup() {
+		JxmppContext.setDefaultXmppStringprep(INSTANCE);
+	}
+
+	private PrecisXmppStringprep() {
+	}
+
+	@Override
+	public String localprep(String string) throws XmppStringprepException {
+		int length = string.length();
+		StringBuilder sb = null;
+		int seen = 0;
+		for (int i = 0; i < length;) {
+			int codePoint = string.codePointAt(i);
+			int properties = PROPERTIES.get(codePoint);
+			if ((properties & PrecisProperties.SPECIAL_CASING) != 0) {
+				String mapped = mapSpecialCasing(string);
+				return enforceLocalpart(mapped, getProperties(mapped));
+			}
+
+			int mapped = PrecisProperties.map(codePoint, properties);
+			if (mapped != codePoint) {
+				if (sb == null) {
+					sb = new StringBuilder(length);
+					sb.append(string, 0, i);
+				}
+				properties = PROPERTIES.get(mapped);
+			}
+			if (sb != null) {
+				sb.appendCodePoint(mapped);
+			}
+			seen |= properties;
+			i += Character.charCount(codePoint);
+		}
+
+		String mapped = sb == null ? string : sb.toString();
+		return enforceLocalpart(mapped, seen);
+	}
+
+	@Override
+	public String domainprep(String string) throws XmppStringprepException {
+		if (string.startsWith("[")) {
+			return domainprepIpLiteral(string);
+		}
+
+		int length = string.length();
+		StringBuilder sb = null;
+		int seen = 0;
+		for (int i = 0; i < length;) {
+			int codePoint = string.codePointAt(i);
+			int properties = PROPERTIES.get(codePoint);
+			if ((properties & PrecisProperties.SPECIAL_CASING) != 0) {
+				String mapped = mapIdeographicFullStops(mapSpecialCasing(string));
+				return enforceDomainpart(mapped, getProperties(mapped));
+			}
+
+			int mapped = PrecisProperties.map(codePoint, properties);
+			if (mapped == 0x3002) {
+				// RFC 5895 § 2: Map the ideographic full stop, which the halfwidth one is mapped to, to the full stop.
+				mapped = '.';
+			}
+			if (mapped != codePoint) {
+				if (sb == null) {
+					sb = new StringBuilder(length);
+					sb.append(string, 0, i);
+				}
+				properties = PROPERTIES.get(mapped);
+			}
+			if (sb != null) {
+				sb.appendCodePoint(mapped);
+			}
+			seen |= properties;
+			i += Character.charCount(codePoint);
+		}
+
+		String mapped = sb == null ? string : sb.toString();
+		return enforceDomainpart(mapped, seen);
+	}
+
+	@Override
+	public String resourceprep(String string) throws XmppStringprepException {
+		int length = string.length();
+		StringBuilder sb = null;
+		int seen = 0;
+		for (int i = 0; i < length;) {
+			int codePoint = string.codePointAt(i);
+			int properties = PROPERTIES.get(codePoint);
+
+			// RFC 8265 § 4.2.1: Map non-ASCII spaces to the ASCII space.
+			int mapped = codePoint;
+			if ((properties & PrecisProperties.NON_ASCII_SPACE) != 0) {
+				mapped = ' ';
+				properties = PROPERTIES.get(mapped);
+				if (sb == null) {
+					sb = new StringBuilder(length);
+					sb.append(string, 0, i);
+				}
+			}
+			if (sb != null) {
+				sb.appendCodePoint(mapped);
+			}
+			seen |= properties;
+			i += Character.charCount(codePoint);
+		}
+
+		String mapped = sb == null ? string : sb.toString();
+		if ((seen & PrecisProperties.NFC_MAYBE) != 0) {
+			mapped = normalize(mapped);
+			seen = getProperties(mapped);
+		}
+		ensureNotEmpty(XmppAddressParttype.resourcepart, mapped);
+		ensureAllowed(XmppAddressParttype.resourcepart, mapped, seen, PrecisProperties.FREEFORM_DISALLOWED);
+		if ((seen & PrecisProperties.CONTEXTUAL) != 0) {
+			ensureContextualRules(XmppAddressParttype.resourcepart, mapped, 0, mapped.length());
+		}
+		return mapped;
+	}
+
+	private static String enforceLocalpart(String string, int seen) throws XmppStringprepException {
+		if ((seen & PrecisProperties.NFC_MAYBE) != 0) {
+			string = normalize(string);
+			seen = getProperties(string);
+		}
+		ensureNotEmpty(XmppAddressParttype.localpart, string);
+		if ((seen & PrecisProperties.LOCALPART_EXCLUDED) != 0) {
+			for (int i = 0; i < string.length(); i++) {
+				char c = string.charAt(i);
+				if (c < 0x80 && (PROPERTIES.get(c) & PrecisProperties.LOCALPART_EXCLUDED) != 0) {
+					throw new XmppStringprepException(string, "Localpart must not contain '" + c + "'");
+				}
+			}
+		}
+		ensureAllowed(XmppAddressParttype.localpart, string, seen, PrecisProperties.IDENTIFIER_DISALLOWED);
+		if ((seen & PrecisProperties.CONTEXTUAL) != 0) {
+			ensureContextualRules(XmppAddressParttype.localpart, string, 0, string.length());
+		}
+		if ((seen & PrecisProperties.RTL) != 0 && !satisfiesBidiRule(string, 0, string.length())) {
+			throw new XmppStringprepException(string, "Localpart does not satisfy the Bidi Rule of RFC 5893");
+		}
+		return string;
+	}
+
+	private static String enforceDomainpart(String string, int seen) throws XmppStringprepException {
+		if ((seen & PrecisProperties.NFC_MAYBE) != 0) {
+			string = normalize(string);
+			seen = getProperties(string);
+		}
+
+		// RFC 7622 § 3.2: A final label separator must be stripped.
+		int length = string.length();
+		if (length > 1 && string.charAt(length - 1) == '.') {
+			string = string.substring(0, length - 1);
+			length--;
+		}
+		ensureNotEmpty(XmppAddressParttype.domainpart, string);
+		ensureAllowed(XmppAddressParttype.domainpart, string, seen, PrecisProperties.IDNA_DISALLOWED);
+
+		int labelStart = 0;
+		while (labelStart <= length) {
+			int labelEnd = string.indexOf('.', labelStart);
+			if (labelEnd < 0) {
+				labelEnd = length;
+			}
+			ensureValidLabel(string, labelStart, labelEnd, seen);
+			labelStart = labelEnd + 1;
+		}
+		return string;
+	}
+
+	private static void ensureValidLabel(String string, int start, int end, int seen)
+			throws XmppStringprepException {
+		if (start == end) {
+			throw new XmppStringprepException(string, "Domainpart must not contain an empty label");
+		}
+		// RFC 5891 § 4.2.3.1.
+		if (string.charAt(start) == '-' || string.charAt(end - 1) == '-') {
+			throw new XmppStringprepException(string, "Domainpart label must not begin or end with a hyphen");
+		}
+		if (end - start >= 4 && string.charAt(start + 2) == '-' && string.charAt(start + 3) == '-'
+				&& !string.regionMatches(start, "xn", 0, 2)) {
+			throw new XmppStringprepException(string,
+					"Domainpart label must not contain hyphens in the third and fourth position");
+		}
+		// RFC 5891 § 4.2.3.2.
+		if ((PROPERTIES.get(string.codePointAt(start)) & PrecisProperties.COMBINING_MARK) != 0) {
+			throw new XmppStringprepException(string, "Domainpart label must not begin with a combining mark");
+		}
+		if ((seen & PrecisProperties.CONTEXTUAL) != 0) {
+			ensureContextualRules(XmppAddressParttype.domainpart, string, start, end);
+		}
+		// RFC 5893 § 2: Every label of a domain name containing right-to-left characters must satisfy the Bidi Rule.
+		if ((seen & PrecisProperties.RTL) != 0 && !satisfiesBidiRule(string, start, end)) {
+			throw new XmppStringprepException(string, "Domainpart label does not satisfy the Bidi Rule of RFC 5893");
+		}
+	}
+
+	/**
+	 * Validate an IP literal as domainpart, see RFC 7622 § 3.2. The IP literal may include a zone identifier.
+	 */
+	private static String domainprepIpLiteral(String string) throws XmppStringprepException {
+		int length = string.length();
+		if (length < 3 || string.charAt(length - 1) != ']') {
+			throw new XmppStringprepException(string, "Domainpart IP literal must end with ']'");
+		}
+		boolean zone = false;
+		for (int i = 1; i < length - 1; i++) {
+			char c = string.charAt(i);
+			boolean valid;
+			if (zone) {
+				// RFC 6874 § 2: The zone identifier consists of unreserved characters.
+				valid = isAsciiLetterOrDigit(c) || c == '-' || c == '.' || c == '_' || c == '~';
+			} else if (c == '%') {
+				valid = true;
+				zone = true;
+			} else {
+				valid = isHexDigit(c) || c == ':' || c == '.';
+			}
+			if (!valid) {
+				throw new XmppStringprepException(string,
+						"Domainpart IP literal does contain invalid character at pos " + i);
+			}
+		}
+		return string;
+	}
+
+	private static boolean isAsciiLetterOrDigit(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+	}
+
+	private static boolean isHexDigit(char c) {
+		return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+	}
+
+	/**
+	 * Apply the width mapping, and the lowercase mapping of String, which, other than the one of the trie, considers
+	 * the code points with special casing.
+	 */
+	private static String mapSpecialCasing(String string) {
+		StringBuilder sb = new StringBuilder(string.length());
+		for (int i = 0; i < string.length();) {
+			int codePoint = string.codePointAt(i);
+			int properties = PROPERTIES.get(codePoint);
+			if ((properties & PrecisProperties.WIDTH) != 0) {
+				sb.appendCodePoint(PrecisProperties.map(codePoint, properties));
+			} else {
+				sb.appendCodePoint(codePoint);
+			}
+			i += Character.charCount(codePoint);
+		}
+		return sb.toString().toLowerCase(Locale.ROOT);
+	}
+
+	private static String mapIdeographicFullStops(String string) {
+		return string.replace('\u3002', '.');
+	}
+
+	private static String normalize(String string) {
+		return Normalizer.normalize(string, Normalizer.Form.NFC);
+	}
+
+	private static int getProperties(String string) {
+		int seen = 0;
+		for (int i = 0; i < string.length();) {
+			int codePoint = string.codePointAt(i);
+			seen |= PROPERTIES.get(codePoint);
+			i += Character.charCount(codePoint);
+		}
+		return seen;
+	}
+
+	private static void ensureNotEmpty(XmppAddressParttype parttype, String string) throws XmppStringprepException {
+		if (string.isEmpty()) {
+			throw new XmppStringprepException(string, parttype.getCapitalizedName() + " must not be empty");
+		}
+	}
+
+	private static void ensureAllowed(XmppAddressParttype parttype, String string, int seen, int disallowed)
+			throws XmppStringprepException {
+		if ((seen & disallowed) == 0) {
+			return;
+		}
+
+		for (int i = 0; i < string.length();) {
+			int codePoint = string.codePointAt(i);
+			if ((PROPERTIES.get(codePoint) & disallowed) != 0) {
+				throw new XmppStringprepException(string, parttype.getCapitalizedName()
+						+ " does contain disallowed code point U+" + toHex(codePoint) + " at pos " + i);
+			}
+			i += Character.charCount(codePoint);
+		}
+		throw new AssertionError();
+	}
+
+	private static void ensureContextualRules(XmppAddressParttype parttype, String string, int start, int end)
+			throws XmppStringprepException {
+		for (int i = start; i < end;) {
+			int codePoint = string.codePointAt(i);
+			if ((PROPERTIES.get(codePoint) & PrecisProperties.CONTEXTUAL) != 0
+					&& !satisfiesContextualRule(string, start, end, i, codePoint)) {
+				throw new XmppStringprepException(string, parttype.getCapitalizedName()
+						+ " does not satisfy the contextual rule of U+" + toHex(codePoint) + " at pos " + i);
+			}
+			i += Character.charCount(codePoint);
+		}
+	}
+
+	/**
+	 * Check the contextual rule of the given code point, see RFC 5892 Appendix A.
+	 */
+	private static boolean satisfiesContextualRule(String string, int start, int end, int pos, int codePoint) {
+		int next = pos + Character.charCount(codePoint);
+		switch (codePoint) {
+		case 0x200c: // ZERO WIDTH NON-JOINER
+		case 0x200d: // ZERO WIDTH JOINER
+			return pos > start && (PROPERTIES.get(string.codePointBefore(pos)) & PrecisProperties.VIRAMA) != 0;
+		case 0x00b7: // MIDDLE DOT
+			return pos > start && string.charAt(pos - 1) == 'l' && next < end && string.charAt(next) == 'l';
+		case 0x0375: // GREEK LOWER NUMERAL SIGN (KERAIA)
+			return next < end && Character.UnicodeScript.of(string.codePointAt(next)) == Character.UnicodeScript.GREEK;
+		case 0x05f3: // HEBREW PUNCTUATION GERESH
+		case 0x05f4: // HEBREW PUNCTUATION GERSHAYIM
+			return pos > start
+					&& Character.UnicodeScript.of(string.codePointBefore(pos)) == Character.UnicodeScript.HEBREW;
+		case 0x30fb: // KATAKANA MIDDLE DOT
+			for (int i = start; i < end;) {
+				int c = string.codePointAt(i);
+				switch (Character.UnicodeScript.of(c)) {
+				case HIRAGANA:
+				case KATAKANA:
+				case HAN:
+					if (c != 0x30fb) {
+						return true;
+					}
+					break;
+				default:
+					break;
+				}
+				i += Character.charCount(c);
+			}
+			return false;
+		default:
+			// ARABIC-INDIC DIGITS must not be mixed with EXTENDED ARABIC-INDIC DIGITS, and vice versa.
+			int otherDigitsStart = codePoint <= 0x0669 ? 0x06f0 : 0x0660;
+			for (int i = start; i < end; i++) {
+				char c = string.charAt(i);
+				if (c >= otherDigitsStart && c <= otherDigitsStart + 9) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Check the Bidi Rule of RFC 5893 § 2.
+	 */
+	private static boolean satisfiesBidiRule(String string, int start, int end) {
+		byte first = Character.getDirectionality(string.codePointAt(start));
+		boolean rtl;
+		switch (first) {
+		case Character.DIRECTIONALITY_LEFT_TO_RIGHT:
+			rtl = false;
+			break;
+		case Character.DIRECTIONALITY_RIGHT_TO_LEFT:
+		case Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC:
+			rtl = true;
+			break;
+		default:
+			return false;
+		}
+
+		boolean europeanNumber = false;
+		boolean arabicNumber = false;
+		byte last = first;
+		for (int i = start; i < end;) {
+			int codePoint = string.codePointAt(i);
+			byte directionality = Character.getDirectionality(codePoint);
+			switch (directionality) {
+			case Character.DIRECTIONALITY_EUROPEAN_NUMBER:
+				europeanNumber = true;
+				break;
+			case Character.DIRECTIONALITY_EUROPEAN_NUMBER_SEPARATOR:
+			case Character.DIRECTIONALITY_COMMON_NUMBER_SEPARATOR:
+			case Character.DIRECTIONALITY_EUROPEAN_NUMBER_TERMINATOR:
+			case Character.DIRECTIONALITY_OTHER_NEUTRALS:
+			case Character.DIRECTIONALITY_BOUNDARY_NEUTRAL:
+			case Character.DIRECTIONALITY_NONSPACING_MARK:
+				break;
+			case Character.DIRECTIONALITY_LEFT_TO_RIGHT:
+				if (rtl) {
+					return false;
+				}
+				break;
+			case Character.DIRECTIONALITY_RIGHT_TO_LEFT:
+			case Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC:
+				if (!rtl) {
+					return false;
+				}
+				break;
+			case Character.DIRECTIONALITY_ARABIC_NUMBER:
+				if (!rtl) {
+					return false;
+				}
+				arabicNumber = true;
+				break;
+			default:
+				return false;
+			}
+			if (directionality != Character.DIRECTIONALITY_NONSPACING_MARK) {
+				last = directionality;
+			}
+			i += Character.charCount(codePoint);
+		}
+
+		if (rtl) {
+			if (europeanNumber && arabicNumber) {
+				return false;
+			}
+			return last == Character.DIRECTIONALITY_RIGHT_TO_LEFT
+					|| last == Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC
+					|| last == Character.DIRECTIONALITY_EUROPEAN_NUMBER
+					|| last == Character.DIRECTIONALITY_ARABIC_NUMBER;
+		}
+		return last == Character.DIRECTIONALITY_LEFT_TO_RIGHT || last == Character.DIRECTIONALITY_EUROPEAN_NUMBER;
+	}
+
+	private static String toHex(int codePoint) {
+		String hex = Integer.toHexString(codePoint).toUpperCase(Locale.US);
+		if (hex.length() >= 4) {
+			return hex;
+		}
+		return "0000".substring(hex.length()) + hex;
+	}
+
+	private static CodePointTrie loadProperties() {
+		InputStream in = PrecisXmppStringprep.class.getResourceAsStream(PrecisProperties.TRIE_RESOURCE);
+		if (in == null) {
+			throw new IllegalStateException("Could not find the resource " + PrecisProperties.TRIE_RESOURCE);
+		}
+		try (DataInputStream dataIn = new DataInputStream(new BufferedInputStream(in))) {
+			return CodePointTrie.read(dataIn);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read the resource " + PrecisProperties.TRIE_RESOURCE, e);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.stringprep.precis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.jxmpp.stringprep.XmppStringprepException;
+
+public class PrecisXmppStringprepTest {
+
+	private static final PrecisXmppStringprep stringprep = PrecisXmppStringprep.INSTANCE;
+
+	@Test
+	public void simpleTest() throws XmppStringprepException {
+		assertEquals("foo", stringprep.localprep("FOO"));
+	}
+
+	@Test
+	public void testUnchangedInputIsReturned() throws XmppStringprepException {
+		String localpart = "fußball";
+		assertSame(localpart, stringprep.localprep(localpart));
+		String domainpart = "bücher.example";
+		assertSame(domainpart, stringprep.domainprep(domainpart));
+		String resourcepart = "Balcony ♚";
+		assertSame(resourcepart, stringprep.resourceprep(resourcepart));
+	}
+
+	@Test
+	public void testLocalprepMapping() throws XmppStringprepException {
+		// Width mapping followed by the lowercase mapping.
+		assertEquals("juliet", stringprep.localprep("ＪＵＬＩＥＴ"));
+		assertEquals("i̇stanbul", stringprep.localprep("İstanbul"));
+		assertEquals("σας", stringprep.localprep("ΣΑΣ"));
+		// Normalization Form C.
+		assertEquals("é", stringprep.localprep("e\u0301"));
+	}
+
+	@Test
+	public void testLocalprepDisallowed() {
+		assertInvalidLocalpart("foo bar");
+		assertInvalidLocalpart("juliet@capulet");
+		assertInvalidLocalpart("ｊｕｌｉｅｔ＠");
+		assertInvalidLocalpart("henryⅣ");
+		assertInvalidLocalpart("♚");
+		assertInvalidLocalpart("a\u200db");
+	}
+
+	@Test
+	public void testContextualRules() throws XmppStringprepException {
+		// ZERO WIDTH JOINER after DEVANAGARI SIGN VIRAMA.
+		assertEquals("क्\u200dष", stringprep.localprep("क्\u200dष"));
+		assertEquals("l·l", stringprep.localprep("l·l"));
+		assertInvalidLocalpart("a·l");
+	}
+
+	@Test
+	public void testBidiRule() throws XmppStringprepException {
+		assertEquals("שלום", stringprep.localprep("שלום"));
+		assertInvalidLocalpart("שלוםabc");
+	}
+
+	@Test
+	public void testDomainprep() throws XmppStringprepException {
+		assertEquals("bücher.example", stringprep.domainprep("BÜCHER。EXAMPLE."));
+		assertEquals("xn--bcher-kva.example", stringprep.domainprep("xn--bcher-kva.example"));
+		assertEquals("[::1]", stringprep.domainprep("[::1]"));
+		assertInvalidDomainpart("a_b.example");
+		assertInvalidDomainpart("example..org");
+		assertInvalidDomainpart("-example.org");
+		assertInvalidDomainpart("ab--cd.example");
+		assertInvalidDomainpart("[::1");
+	}
+
+	@Test
+	public void testResourceprep() throws XmppStringprepException {
+		assertEquals("Foo Bar", stringprep.resourceprep("Foo Bar"));
+		assertEquals("ＦＯＯ", stringprep.resourceprep("ＦＯＯ"));
+		try {
+			stringprep.resourceprep("foo\u061cbar");
+			fail();
+		} catch (XmppStringprepException e) {
+			assertEquals("Resourcepart does contain disallowed code point U+061C at pos 3", e.getMessage());
+		}
+	}
+
+	private static void assertInvalidLocalpart(String localpart) {
+		try {
+			stringprep.localprep(localpart);
+			fail("Expected localpart '" + localpart + "' to be invalid");
+		} catch (XmppStringprepException e) {
+			// Expected.
+		}
+	}
+
+	private static void assertInvalidDomainpart(String domainpart) {
+		try {
+			stringprep.domainprep(domainpart);
+			fail("Expected domainpart '" + domainpart + "' to be invalid");
+		} catch (XmppStringprepException e) {
+			// Expected.
+		}
+	}
+}
@@ -16,6 +16,7 @@
  */
 package org.jxmpp.stringprep.rocksxmppprecis;
 
+import org.jxmpp.stringprep.XmppStringPrepUtil;
 import org.jxmpp.stringprep.XmppStringprep;
 import org.jxmpp.stringprep.XmppStringprepException;
 import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
@@ -46,7 +47,8 @@ public class RocksXmppPrecisStringprep implements XmppStringprep {
 		// Workaround until https://bitbucket.org/sco0ter/precis/pull-requests/3 is merged.
 		SimpleXmppStringprep.ensureLocalpartDoesNotIncludeFurtherExcludedCharacters(string);
 		try {
-			return PrecisProfiles.USERNAME_CASE_MAPPED.enforce(string);
+			String prepared = PrecisProfiles.USERNAME_CASE_MAPPED.enforce(string);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (InvalidCodePointException e) {
 			throw new XmppStringprepException(string, e);
 		}
@@ -55,7 +57,8 @@ public class RocksXmppPrecisStringprep implements XmppStringprep {
 	@Override
 	public String domainprep(String string) throws XmppStringprepException {
 		try {
-			return PrecisProfiles.IDN.enforce(string);
+			String prepared = PrecisProfiles.IDN.enforce(string);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (IllegalArgumentException e) {
 			throw new XmppStringprepException(string, e);
 		}
@@ -64,7 +67,8 @@ public class RocksXmppPrecisStringprep implements XmppStringprep {
 	@Override
 	public String resourceprep(String string) throws XmppStringprepException {
 		try {
-			return PrecisProfiles.OPAQUE_STRING.enforce(string);
+			String prepared = PrecisProfiles.OPAQUE_STRING.enforce(string);
+			return XmppStringPrepUtil.preserveIdentity(string, prepared);
 		} catch (InvalidCodePointException e) {
 			throw new XmppStringprepException(string, e);
 		}
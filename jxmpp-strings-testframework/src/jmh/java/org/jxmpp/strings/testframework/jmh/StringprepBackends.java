@@ -0,0 +1,57 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.strings.testframework.jmh;
+
+import org.jxmpp.stringprep.XmppStringprep;
+import org.jxmpp.stringprep.icu4j.Icu4jXmppStringprep;
+import org.jxmpp.stringprep.libidn.LibIdnXmppStringprep;
+import org.jxmpp.stringprep.precis.PrecisXmppStringprep;
+import org.jxmpp.stringprep.rocksxmppprecis.RocksXmppPrecisStringprep;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+
+/**
+ * The stringprep backends compared by the benchmarks.
+ */
+final class StringprepBackends {
+
+    private StringprepBackends() {
+    }
+
+    /**
+     * Get the backend with the given name. Only the class of the returned backend is loaded and initialized, so that
+     * the cold start of a backend can be measured in a fresh JVM.
+     *
+     * @param name the name of the backend.
+     * @return the backend.
+     */
+    static XmppStringprep forName(String name) {
+        switch (name) {
+        case SimpleXmppStringprep.NAME:
+            return SimpleXmppStringprep.getInstance();
+        case PrecisXmppStringprep.NAME:
+            return PrecisXmppStringprep.INSTANCE;
+        case Icu4jXmppStringprep.NAME:
+            return Icu4jXmppStringprep.getInstance();
+        case LibIdnXmppStringprep.NAME:
+            return LibIdnXmppStringprep.getInstance();
+        case RocksXmppPrecisStringprep.NAME:
+            return RocksXmppPrecisStringprep.INSTANCE;
+        default:
+            throw new IllegalArgumentException("Unknown backend: " + name);
+        }
+    }
+}
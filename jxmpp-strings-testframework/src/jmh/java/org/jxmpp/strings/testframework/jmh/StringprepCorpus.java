@@ -0,0 +1,244 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.strings.testframework.jmh;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jxmpp.XmppAddressParttype;
+import org.jxmpp.strings.testframework.InvalidJid;
+import org.jxmpp.strings.testframework.StringsTestframework;
+import org.jxmpp.strings.testframework.ValidJid;
+import org.jxmpp.util.XmppStringUtils;
+
+/**
+ * The inputs of the benchmarks, which are the parts of the JIDs of the XMPP strings corpus, grouped by their shape.
+ * <p>
+ * Every part of a valid JID is sorted into one of the categories {@link #ASCII}, {@link #LATIN}, {@link #CJK},
+ * {@link #OTHER_SCRIPT} and {@link #MIXED_CASE}. The parts of invalid JIDs which are not a part of a valid JID are
+ * the {@link #INVALID} inputs. As the corpus is made to test the edge cases of the backends, and not every category
+ * has inputs of every part type, the corpus is supplemented with a few typical JIDs.
+ * </p>
+ */
+final class StringprepCorpus {
+
+    /**
+     * Lowercase ASCII input, which most backends return unchanged.
+     */
+    static final String ASCII = "ascii";
+
+    /**
+     * Lowercase non-ASCII input of the Latin script.
+     */
+    static final String LATIN = "latin";
+
+    /**
+     * Input of the Chinese, Japanese or Korean scripts.
+     */
+    static final String CJK = "cjk";
+
+    /**
+     * Lowercase input of other scripts, like Greek, Cyrillic or Hebrew, or with symbols.
+     */
+    static final String OTHER_SCRIPT = "otherscript";
+
+    /**
+     * Input with uppercase letters, which are mapped to lowercase by localprep and domainprep.
+     */
+    static final String MIXED_CASE = "mixedcase";
+
+    /**
+     * Input of invalid JIDs, which is mostly rejected by the backends. As an invalid JID is often invalid because of
+     * a single part, this also includes the other parts of invalid JIDs, unless they are a part of a valid JID.
+     */
+    static final String INVALID = "invalid";
+
+    private static final String[] SUPPLEMENTARY_VALID_JIDS = {
+        "jürgen@bücher.example/Küche",
+        "élodie@café.example/téléphone",
+        "弗洛里安@例子.中国/電話",
+        "홍길동@도메인.한국/휴대폰",
+        "Juliet@Example.COM/Balcony",
+        "Romeo@Montague.LIT/Orchard",
+        "пётр@пример.рф/телефон",
+        "αχιλλεύς@παράδειγμα.example/🍺 bar",
+        "ｊｕｌｉｅｔ@ｅｘａｍｐｌｅ.org/balkon ♚",
+        "fußball@straße.example/ＪＵＬＩＥＴ",
+    };
+
+    private static final String[] SUPPLEMENTARY_INVALID_JIDS = {
+        "foo bar@exa mple.com/foo\u0007bar",
+        "<juliet>@example..com/\u061cx",
+    };
+
+    final String[] localparts;
+
+    final String[] domainparts;
+
+    final String[] resourceparts;
+
+    private StringprepCorpus(String category, Collection<String> localparts, Collection<String> domainparts,
+            Collection<String> resourceparts) {
+        this.localparts = toArray(category, XmppAddressParttype.localpart, localparts);
+        this.domainparts = toArray(category, XmppAddressParttype.domainpart, domainparts);
+        this.resourceparts = toArray(category, XmppAddressParttype.resourcepart, resourceparts);
+    }
+
+    private static String[] toArray(String category, XmppAddressParttype type, Collection<String> parts) {
+        if (parts.isEmpty()) {
+            throw new IllegalStateException("No " + type + " inputs of category " + category);
+        }
+        String[] res = new String[parts.size()];
+        int i = 0;
+        for (String part : parts) {
+            // Ensure that the benchmarks do not operate on constants of the constant pool.
+            res[i++] = new String(part.toCharArray());
+        }
+        return res;
+    }
+
+    /**
+     * Load the inputs of the given category from the corpus.
+     *
+     * @param category the category.
+     * @return the inputs.
+     */
+    static StringprepCorpus load(String category) {
+        List<String> validJids = new ArrayList<>();
+        for (ValidJid validJid : StringsTestframework.parseValidJids()) {
+            validJids.add(validJid.unnormalizedJid);
+        }
+        for (String validJid : SUPPLEMENTARY_VALID_JIDS) {
+            validJids.add(validJid);
+        }
+
+        Set<String> validLocalparts = new HashSet<>();
+        Set<String> validDomainparts = new HashSet<>();
+        Set<String> validResourceparts = new HashSet<>();
+        Set<String> localparts = new LinkedHashSet<>();
+        Set<String> domainparts = new LinkedHashSet<>();
+        Set<String> resourceparts = new LinkedHashSet<>();
+        for (String validJid : validJids) {
+            String localpart = XmppStringUtils.parseLocalpart(validJid);
+            String domainpart = XmppStringUtils.parseDomain(validJid);
+            String resourcepart = XmppStringUtils.parseResource(validJid);
+            add(localpart, validLocalparts);
+            add(domainpart, validDomainparts);
+            add(resourcepart, validResourceparts);
+            if (category.equals(categorize(localpart))) {
+                add(localpart, localparts);
+            }
+            if (category.equals(categorize(domainpart))) {
+                add(domainpart, domainparts);
+            }
+            if (category.equals(categorize(resourcepart))) {
+                add(resourcepart, resourceparts);
+            }
+        }
+
+        if (category.equals(INVALID)) {
+            List<String> invalidJids = new ArrayList<>();
+            for (InvalidJid invalidJid : StringsTestframework.parseInvalidJids()) {
+                invalidJids.add(invalidJid.invalidJid);
+            }
+            for (String invalidJid : SUPPLEMENTARY_INVALID_JIDS) {
+                invalidJids.add(invalidJid);
+            }
+
+            for (String invalidJid : invalidJids) {
+                addIfAbsent(XmppStringUtils.parseLocalpart(invalidJid), validLocalparts, localparts);
+                addIfAbsent(XmppStringUtils.parseDomain(invalidJid), validDomainparts, domainparts);
+                addIfAbsent(XmppStringUtils.parseResource(invalidJid), validResourceparts, resourceparts);
+            }
+        }
+
+        return new StringprepCorpus(category, localparts, domainparts, resourceparts);
+    }
+
+    private static void add(String part, Set<String> parts) {
+        if (part == null || part.isEmpty()) {
+            return;
+        }
+        parts.add(part);
+    }
+
+    private static void addIfAbsent(String part, Set<String> validParts, Set<String> parts) {
+        if (part == null || validParts.contains(part)) {
+            return;
+        }
+        add(part, parts);
+    }
+
+    /**
+     * Determine the category of the given part of a valid JID.
+     *
+     * @param part the part.
+     * @return the category, or {@code null} if the part is empty.
+     */
+    private static String categorize(String part) {
+        if (part == null || part.isEmpty()) {
+            return null;
+        }
+
+        boolean ascii = true;
+        boolean latin = true;
+        boolean cjk = false;
+        boolean uppercase = false;
+        for (int i = 0; i < part.length(); ) {
+            int codePoint = part.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isUpperCase(codePoint)) {
+                uppercase = true;
+            }
+            if (codePoint < 0x80) {
+                continue;
+            }
+            ascii = false;
+            switch (Character.UnicodeScript.of(codePoint)) {
+            case LATIN:
+                break;
+            case HAN:
+            case HIRAGANA:
+            case KATAKANA:
+            case HANGUL:
+                cjk = true;
+                break;
+            default:
+                latin = false;
+                break;
+            }
+        }
+
+        if (cjk) {
+            return CJK;
+        }
+        if (uppercase) {
+            return MIXED_CASE;
+        }
+        if (ascii) {
+            return ASCII;
+        }
+        if (latin) {
+            return LATIN;
+        }
+        return OTHER_SCRIPT;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.strings.testframework.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jxmpp.stringprep.XmppStringprep;
+import org.jxmpp.stringprep.XmppStringprepException;
+import org.jxmpp.stringprep.icu4j.Icu4jXmppStringprep;
+import org.jxmpp.stringprep.libidn.LibIdnXmppStringprep;
+import org.jxmpp.stringprep.precis.PrecisXmppStringprep;
+import org.jxmpp.stringprep.rocksxmppprecis.RocksXmppPrecisStringprep;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the throughput of localprep, domainprep and resourceprep of every stringprep backend over the inputs of
+ * the XMPP strings corpus. The backends are invoked directly, i.e. neither the caches nor the ASCII fast path of
+ * XmppStringPrepUtil are involved. The GC profiler, which is enabled by the build, reports the allocation per
+ * operation. The benchmarks return the exception of rejected input, so that the invalid inputs measure the cost of
+ * rejecting them, including the creation of the exception.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StringprepCorpusBenchmark {
+
+    @Param({SimpleXmppStringprep.NAME, PrecisXmppStringprep.NAME, Icu4jXmppStringprep.NAME,
+            LibIdnXmppStringprep.NAME, RocksXmppPrecisStringprep.NAME})
+    public String backend;
+
+    @Param({StringprepCorpus.ASCII, StringprepCorpus.LATIN, StringprepCorpus.CJK, StringprepCorpus.OTHER_SCRIPT,
+            StringprepCorpus.MIXED_CASE, StringprepCorpus.INVALID})
+    public String input;
+
+    private XmppStringprep xmppStringprep;
+
+    private StringprepCorpus corpus;
+
+    private int localpartPosition;
+
+    private int domainpartPosition;
+
+    private int resourcepartPosition;
+
+    /**
+     * Setup the backend and the input.
+     */
+    @Setup
+    public void setup() {
+        xmppStringprep = StringprepBackends.forName(backend);
+        corpus = StringprepCorpus.load(input);
+    }
+
+    private static int next(int position, String[] inputs) {
+        position++;
+        if (position == inputs.length) {
+            return 0;
+        }
+        return position;
+    }
+
+    /**
+     * Measures localprep.
+     *
+     * @return the prepared localpart, or the exception if the localpart is invalid.
+     */
+    @Benchmark
+    public Object localprep() {
+        localpartPosition = next(localpartPosition, corpus.localparts);
+        try {
+            return xmppStringprep.localprep(corpus.localparts[localpartPosition]);
+        } catch (XmppStringprepException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Measures domainprep.
+     *
+     * @return the prepared domainpart, or the exception if the domainpart is invalid.
+     */
+    @Benchmark
+    public Object domainprep() {
+        domainpartPosition = next(domainpartPosition, corpus.domainparts);
+        try {
+            return xmppStringprep.domainprep(corpus.domainparts[domainpartPosition]);
+        } catch (XmppStringprepException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Measures resourceprep.
+     *
+     * @return the prepared resourcepart, or the exception if the resourcepart is invalid.
+     */
+    @Benchmark
+    public Object resourceprep() {
+        resourcepartPosition = next(resourcepartPosition, corpus.resourceparts);
+        try {
+            return xmppStringprep.resourceprep(corpus.resourceparts[resourcepartPosition]);
+        } catch (XmppStringprepException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.strings.testframework.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jxmpp.stringprep.XmppStringprep;
+import org.jxmpp.stringprep.XmppStringprepException;
+import org.jxmpp.stringprep.icu4j.Icu4jXmppStringprep;
+import org.jxmpp.stringprep.libidn.LibIdnXmppStringprep;
+import org.jxmpp.stringprep.precis.PrecisXmppStringprep;
+import org.jxmpp.stringprep.rocksxmppprecis.RocksXmppPrecisStringprep;
+import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cold start of every stringprep backend, that is, the time to prepare all corpus inputs of a category
+ * once in a fresh JVM. This includes loading the classes and initializing the tables of the backend, and running its
+ * code in the interpreter. As every fork measures a single shot, the distribution of the shots over the forks shows
+ * the tail latency of the first requests after a start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StringprepCorpusColdStartBenchmark {
+
+    @Param({SimpleXmppStringprep.NAME, PrecisXmppStringprep.NAME, Icu4jXmppStringprep.NAME,
+            LibIdnXmppStringprep.NAME, RocksXmppPrecisStringprep.NAME})
+    public String backend;
+
+    @Param({StringprepCorpus.ASCII, StringprepCorpus.LATIN, StringprepCorpus.CJK, StringprepCorpus.OTHER_SCRIPT,
+            StringprepCorpus.MIXED_CASE, StringprepCorpus.INVALID})
+    public String input;
+
+    private StringprepCorpus corpus;
+
+    /**
+     * Load the input, which does not load any backend.
+     */
+    @Setup
+    public void setup() {
+        corpus = StringprepCorpus.load(input);
+    }
+
+    /**
+     * Measures the first use of the backend.
+     *
+     * @param blackhole the blackhole consuming the prepared parts.
+     */
+    @Benchmark
+    public void firstUse(Blackhole blackhole) {
+        XmppStringprep xmppStringprep = StringprepBackends.forName(backend);
+        for (String localpart : corpus.localparts) {
+            try {
+                blackhole.consume(xmppStringprep.localprep(localpart));
+            } catch (XmppStringprepException e) {
+                blackhole.consume(e);
+            }
+        }
+        for (String domainpart : corpus.domainparts) {
+            try {
+                blackhole.consume(xmppStringprep.domainprep(domainpart));
+            } catch (XmppStringprepException e) {
+                blackhole.consume(e);
+            }
+        }
+        for (String resourcepart : corpus.resourceparts) {
+            try {
+                blackhole.consume(xmppStringprep.resourceprep(resourcepart));
+            } catch (XmppStringprepException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -62,6 +62,9 @@ public class KnownFailures {
 		whitelistValidJid(XmppStringPrepper.ROCKS_XMPP_PRECIS, "user@averylongdomainpartisstillvalideventhoughitexceedsthesixtyfourbytelimitofdnslabels");
 
 
+		// PRECIS
+		whitelistValidJid(XmppStringPrepper.PRECIS, "ς@example.com");
+
 		// SIMPLE
 		whitelistValidJid(XmppStringPrepper.SIMPLE, "ς@example.com");
 
@@ -188,14 +188,24 @@ public class StringsTestframework {
 		xmppStringPrepperState.invalidJidFailedTestresults.add(failed);
 	}
 
-	static List<ValidJid> parseValidJids() {
+	/**
+	 * Parse the corpus of valid JIDs.
+	 *
+	 * @return the valid JIDs of the corpus.
+	 */
+	public static List<ValidJid> parseValidJids() {
 		String mainValidJids = FileUtils.readAllTextFromResource("xmpp-strings/jids/valid/main");
 		ValidJidCorpusParser parser = new ValidJidCorpusParser(mainValidJids);
 		List<ValidJid> validJids = parser.parse();
 		return validJids;
 	}
 
-	static List<InvalidJid> parseInvalidJids() {
+	/**
+	 * Parse the corpus of invalid JIDs.
+	 *
+	 * @return the invalid JIDs of the corpus.
+	 */
+	public static List<InvalidJid> parseInvalidJids() {
 		String mainInvalidJids = FileUtils.readAllTextFromResource("xmpp-strings/jids/invalid/main");
 		InvalidJidCorpusParser parser = new InvalidJidCorpusParser(mainInvalidJids);
 		List<InvalidJid> invalidJids = parser.parse();
@@ -26,6 +26,7 @@ import org.jxmpp.JxmppContext;
 import org.jxmpp.stringprep.XmppStringprep;
 import org.jxmpp.stringprep.icu4j.Icu4jXmppStringprep;
 import org.jxmpp.stringprep.libidn.LibIdnXmppStringprep;
+import org.jxmpp.stringprep.precis.PrecisXmppStringprep;
 import org.jxmpp.stringprep.rocksxmppprecis.RocksXmppPrecisStringprep;
 import org.jxmpp.stringprep.simple.SimpleXmppStringprep;
 
@@ -37,6 +38,7 @@ public class XmppStringPrepper {
 	public static final XmppStringPrepper LIBIDN = new XmppStringPrepper(LibIdnXmppStringprep.getInstance());
 	public static final XmppStringPrepper SIMPLE = new XmppStringPrepper(SimpleXmppStringprep.getInstance());
 	public static final XmppStringPrepper ROCKS_XMPP_PRECIS = new XmppStringPrepper(RocksXmppPrecisStringprep.INSTANCE);
+	public static final XmppStringPrepper PRECIS = new XmppStringPrepper(PrecisXmppStringprep.INSTANCE);
 
 	public final String name;
 	public final Class<? extends XmppStringprep> xmppStringprepClass;
@@ -0,0 +1,140 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.strings.testframework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.jxmpp.JxmppContext;
+import org.jxmpp.stringprep.XmppStringPrepUtil;
+import org.jxmpp.stringprep.XmppStringprepException;
+
+/**
+ * Verifies that the ASCII fast path of {@link XmppStringPrepUtil} prepares every input like the XmppStringprep
+ * implementations of jXMPP.
+ */
+public class AsciiFastPathConformanceTest {
+
+	private static final String[] PARTS = {
+			"foo",
+			"Foo.Bar",
+			"example.org",
+			"EXAMPLE.org",
+			"sub-domain.example.org",
+			"-example.org",
+			"example-.org",
+			"example..org",
+			".example.org",
+			"example.org.",
+			"xn--bcher-kva.example",
+			"XN--BCHER-KVA.example",
+			"ab--cd.example",
+			"1.2.3.4",
+			"[::1]",
+			"a_b.example",
+			"a..b",
+			"a b",
+			"≮",
+			"Ä",
+			"fooßbar",
+			"Foİ",
+	};
+
+	@Test
+	public void testAsciiFastPathIsEquivalent() {
+		List<String> inputs = new ArrayList<>();
+		for (String part : PARTS) {
+			inputs.add(part);
+		}
+		for (char c = 0; c < 0x80; c++) {
+			inputs.add(String.valueOf(c));
+			inputs.add("a" + c + "b");
+			inputs.add(c + "a");
+			inputs.add("a" + c);
+			inputs.add("A" + c + "ä");
+		}
+		inputs.add(repeat('a', 63) + ".example");
+		inputs.add(repeat('a', 64) + ".example");
+		inputs.add(repeat("a.", 126) + "a");
+		inputs.add(repeat("a.", 127) + "a");
+
+		for (XmppStringPrepper prepper : XmppStringPrepper.getKnownXmppStringpreppers()) {
+			JxmppContext fastPathContext = JxmppContext.builder()
+					.withXmppStringprep(prepper.context.xmppStringprep)
+					.build();
+			JxmppContext backendContext = JxmppContext.builder()
+					.withXmppStringprep(prepper.context.xmppStringprep)
+					.disableAsciiFastPath()
+					.build();
+
+			for (String input : inputs) {
+				for (Parttype parttype : Parttype.values()) {
+					String expected = prepare(parttype, input, backendContext);
+					String actual = prepare(parttype, input, fastPathContext);
+					assertEquals(expected, actual, prepper + " " + parttype + " of '" + input + "'");
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAsciiFastPathReturnsUnchangedInput() throws XmppStringprepException {
+		JxmppContext context = JxmppContext.builder()
+				.withXmppStringprep(XmppStringPrepper.ICU4J.context.xmppStringprep)
+				.build();
+
+		String localpart = "foo.bar";
+		assertSame(localpart, XmppStringPrepUtil.localprep(localpart, context));
+		String domainpart = "example.org";
+		assertSame(domainpart, XmppStringPrepUtil.domainprep(domainpart, context));
+		String resourcepart = "Foo Bar";
+		assertSame(resourcepart, XmppStringPrepUtil.resourceprep(resourcepart, context));
+	}
+
+	private enum Parttype {
+		localpart,
+		domainpart,
+		resourcepart,
+	}
+
+	private static String prepare(Parttype parttype, String input, JxmppContext context) {
+		try {
+			switch (parttype) {
+			case localpart:
+				return XmppStringPrepUtil.localprep(input, context);
+			case domainpart:
+				return XmppStringPrepUtil.domainprep(input, context);
+			default:
+				return XmppStringPrepUtil.resourceprep(input, context);
+			}
+		} catch (XmppStringprepException e) {
+			return "<prohibited>";
+		}
+	}
+
+	private static String repeat(Object string, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			sb.append(string);
+		}
+		return sb.toString();
+	}
+}
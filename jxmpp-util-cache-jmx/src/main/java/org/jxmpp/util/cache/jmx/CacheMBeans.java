@@ -0,0 +1,104 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache.jmx;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.jxmpp.util.cache.CacheRegistry;
+
+/**
+ * Registers MXBeans for the caches of the {@link CacheRegistry} with a MBean server. The object names are of the form
+ * {@code org.jxmpp:type=Cache,name=<cache name>}, for example {@code org.jxmpp:type=Cache,name=JidCreate.JID_CACHE}.
+ * <p>
+ * Note that the internal caches of jXMPP are registered with the cache registry lazily, once they are first used by
+ * the default JXMPP context. Hence {@link #registerMBeans()} must be invoked after the first JID was created or the
+ * first String was prepared, otherwise there are no caches to register MBeans for. Caches registered after
+ * {@link #registerMBeans(MBeanServer)} was invoked are picked up by invoking it again. The MBeans look up their cache
+ * by name, so they report the caches of the current default context, also after the default context changed.
+ * </p>
+ */
+public final class CacheMBeans {
+
+	/**
+	 * The domain of the object names of the cache MBeans.
+	 */
+	public static final String DOMAIN = "org.jxmpp";
+
+	private CacheMBeans() {
+	}
+
+	/**
+	 * Get the object name of the MBean of the cache with the given name.
+	 *
+	 * @param cacheName the name of the cache.
+	 * @return the object name.
+	 * @throws MalformedObjectNameException if the name of the cache is not a valid object name value.
+	 */
+	public static ObjectName getObjectName(String cacheName) throws MalformedObjectNameException {
+		return new ObjectName(DOMAIN + ":type=Cache,name=" + cacheName);
+	}
+
+	/**
+	 * Register MBeans for all caches of the cache registry with the platform MBean server.
+	 *
+	 * @throws JMException if registering a MBean failed.
+	 */
+	public static void registerMBeans() throws JMException {
+		registerMBeans(ManagementFactory.getPlatformMBeanServer());
+	}
+
+	/**
+	 * Register MBeans for all caches of the cache registry with the given MBean server. Caches which already have a
+	 * registered MBean are skipped.
+	 *
+	 * @param mbeanServer the MBean server.
+	 * @throws JMException if registering a MBean failed.
+	 */
+	public static void registerMBeans(MBeanServer mbeanServer) throws JMException {
+		for (String cacheName : CacheRegistry.getCaches().keySet()) {
+			ObjectName objectName = getObjectName(cacheName);
+			try {
+				mbeanServer.registerMBean(new CacheMXBeanImpl(cacheName), objectName);
+			} catch (InstanceAlreadyExistsException e) {
+				// Already registered, nothing to do.
+			}
+		}
+	}
+
+	/**
+	 * Unregister the MBeans of all caches of the cache registry from the given MBean server.
+	 *
+	 * @param mbeanServer the MBean server.
+	 * @throws JMException if unregistering a MBean failed.
+	 */
+	public static void unregisterMBeans(MBeanServer mbeanServer) throws JMException {
+		for (String cacheName : CacheRegistry.getCaches().keySet()) {
+			try {
+				mbeanServer.unregisterMBean(getObjectName(cacheName));
+			} catch (InstanceNotFoundException e) {
+				// Not registered, nothing to do.
+			}
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache.jmx;
+
+/**
+ * The management interface of a cache registered with {@link org.jxmpp.util.cache.CacheRegistry}.
+ */
+public interface CacheMXBean {
+
+	/**
+	 * Get the name under which the cache is registered.
+	 *
+	 * @return the name of the cache.
+	 */
+	String getName();
+
+	/**
+	 * Get the class name of the cache implementation.
+	 *
+	 * @return the class name of the cache.
+	 */
+	String getCacheType();
+
+	/**
+	 * Get the number of cache hits.
+	 *
+	 * @return the number of cache hits.
+	 */
+	long getHitCount();
+
+	/**
+	 * Get the number of cache misses.
+	 *
+	 * @return the number of cache misses.
+	 */
+	long getMissCount();
+
+	/**
+	 * Get the ratio of lookups which returned a cached value.
+	 *
+	 * @return the hit rate.
+	 */
+	double getHitRate();
+
+	/**
+	 * Get the number of evicted entries.
+	 *
+	 * @return the number of evictions.
+	 */
+	long getEvictionCount();
+
+	/**
+	 * Get the number of values loaded into the cache.
+	 *
+	 * @return the number of loads.
+	 */
+	long getLoadCount();
+
+	/**
+	 * Get the total time spent loading values into the cache.
+	 *
+	 * @return the total load time in nanoseconds.
+	 */
+	long getTotalLoadTime();
+
+	/**
+	 * Get the average time spent loading a value into the cache.
+	 *
+	 * @return the average load time in nanoseconds.
+	 */
+	double getAverageLoadPenalty();
+
+	/**
+	 * Get the current number of entries of the cache.
+	 *
+	 * @return the size of the cache, or -1 if unknown.
+	 */
+	int getSize();
+
+	/**
+	 * Get the maximum size of the cache.
+	 *
+	 * @return the maximum size of the cache.
+	 */
+	int getMaxCacheSize();
+
+	/**
+	 * Set the maximum size of the cache.
+	 *
+	 * @param maxCacheSize the new maximum size of the cache.
+	 */
+	void setMaxCacheSize(int maxCacheSize);
+}
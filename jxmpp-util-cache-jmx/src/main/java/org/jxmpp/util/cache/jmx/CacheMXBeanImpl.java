@@ -0,0 +1,106 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache.jmx;
+
+import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.CacheRegistry;
+import org.jxmpp.util.cache.CacheStats;
+
+/**
+ * A MXBean which looks up its cache by name on every access, so that it follows the cache if it is replaced in the
+ * registry, e.g. after a new cache factory was set.
+ */
+final class CacheMXBeanImpl implements CacheMXBean {
+
+	private final String name;
+
+	CacheMXBeanImpl(String name) {
+		this.name = name;
+	}
+
+	private Cache<?, ?> getCache() {
+		Cache<?, ?> cache = CacheRegistry.getCache(name);
+		if (cache == null) {
+			throw new IllegalStateException("No cache registered under the name " + name);
+		}
+		return cache;
+	}
+
+	private CacheStats getCacheStats() {
+		return getCache().getCacheStats();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getCacheType() {
+		return getCache().getClass().getName();
+	}
+
+	@Override
+	public long getHitCount() {
+		return getCacheStats().getHitCount();
+	}
+
+	@Override
+	public long getMissCount() {
+		return getCacheStats().getMissCount();
+	}
+
+	@Override
+	public double getHitRate() {
+		return getCacheStats().getHitRate();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return getCacheStats().getEvictionCount();
+	}
+
+	@Override
+	public long getLoadCount() {
+		return getCacheStats().getLoadCount();
+	}
+
+	@Override
+	public long getTotalLoadTime() {
+		return getCacheStats().getTotalLoadTime();
+	}
+
+	@Override
+	public double getAverageLoadPenalty() {
+		return getCacheStats().getAverageLoadPenalty();
+	}
+
+	@Override
+	public int getSize() {
+		return getCacheStats().getSize();
+	}
+
+	@Override
+	public int getMaxCacheSize() {
+		return getCache().getMaxCacheSize();
+	}
+
+	@Override
+	public void setMaxCacheSize(int maxCacheSize) {
+		getCache().setMaxCacheSize(maxCacheSize);
+	}
+}
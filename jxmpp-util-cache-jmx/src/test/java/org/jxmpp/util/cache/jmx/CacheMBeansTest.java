@@ -0,0 +1,59 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache.jmx;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import org.jxmpp.util.cache.CacheRegistry;
+import org.jxmpp.util.cache.LruCache;
+
+public class CacheMBeansTest {
+
+	@Test
+	public void testCacheMBean() throws JMException {
+		LruCache<String, String> cache = new LruCache<>(10);
+		CacheRegistry.register("CacheMBeansTest.cache", cache);
+		cache.put("foo", "bar");
+		cache.lookup("foo");
+		cache.lookup("baz");
+
+		MBeanServer mbeanServer = MBeanServerFactory.newMBeanServer();
+		CacheMBeans.registerMBeans(mbeanServer);
+		// Registering again must not fail.
+		CacheMBeans.registerMBeans(mbeanServer);
+
+		ObjectName objectName = CacheMBeans.getObjectName("CacheMBeansTest.cache");
+		assertEquals(1L, mbeanServer.getAttribute(objectName, "HitCount"));
+		assertEquals(1L, mbeanServer.getAttribute(objectName, "MissCount"));
+		assertEquals(1, mbeanServer.getAttribute(objectName, "Size"));
+		assertEquals(10, mbeanServer.getAttribute(objectName, "MaxCacheSize"));
+
+		mbeanServer.setAttribute(objectName, new Attribute("MaxCacheSize", 20));
+		assertEquals(20, cache.getMaxCacheSize());
+
+		CacheMBeans.unregisterMBeans(mbeanServer);
+		CacheRegistry.unregister("CacheMBeansTest.cache");
+	}
+}
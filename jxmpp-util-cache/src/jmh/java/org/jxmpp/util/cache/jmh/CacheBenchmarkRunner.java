@@ -0,0 +1,66 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@link CacheReadWriteBenchmark} with 1, 2, 4, … threads up to the number of available processors, and
+ * with the GC profiler enabled. The results of every thread count are written as JSON to
+ * {@code cache-benchmark-<threads>-threads.json}. Additional JMH command line options, e.g. {@code -p
+ * cacheType=LruCache}, are passed through.
+ */
+public final class CacheBenchmarkRunner {
+
+    private CacheBenchmarkRunner() {
+    }
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args the JMH command line options.
+     * @throws CommandLineOptionException if the command line options are invalid.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1;; threads = Math.min(threads * 2, processors)) {
+            Options options = new OptionsBuilder()
+                            .parent(commandLineOptions)
+                            .include(CacheReadWriteBenchmark.class.getName())
+                            .threads(threads)
+                            .addProfiler(GCProfiler.class)
+                            .resultFormat(ResultFormatType.JSON)
+                            .result("cache-benchmark-" + threads + "-threads.json")
+                            .build();
+            new Runner(options).run();
+
+            if (threads == processors) {
+                break;
+            }
+        }
+    }
+}
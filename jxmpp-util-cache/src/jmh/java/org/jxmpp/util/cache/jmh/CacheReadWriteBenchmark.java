@@ -0,0 +1,207 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache.jmh;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.ExpirationCache;
+import org.jxmpp.util.cache.LruCache;
+import org.jxmpp.util.cache.StripedLruCache;
+import org.jxmpp.util.cache.TinyLfuCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the throughput and the latency of mixed reads and writes of JID-shaped String keys. The number of threads
+ * is varied by {@link CacheBenchmarkRunner}, which also enables the GC profiler in order to report the allocation
+ * rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheReadWriteBenchmark {
+
+    private static final int CACHE_SIZE = 10000;
+
+    /**
+     * The number of distinct keys, of which only {@link #CACHE_SIZE} fit into the cache.
+     */
+    private static final int KEY_SPACE = 10 * CACHE_SIZE;
+
+    private static final int WORKLOAD_LENGTH = 1 << 20;
+
+    private static final int WORKLOAD_MASK = WORKLOAD_LENGTH - 1;
+
+    @Param({"LruCache", "ExpirationCache", "StripedLruCache", "TinyLfuCache"})
+    public String cacheType;
+
+    /**
+     * The percentage of the operations which are reads, the remaining operations are writes.
+     */
+    @Param({"90", "50"})
+    public int readPercentage;
+
+    @Param({"uniform", "zipfian"})
+    public String keyDistribution;
+
+    private Cache<String, String> cache;
+
+    private String[] keys;
+
+    /**
+     * The indices of the keys used by the operations.
+     */
+    private int[] workload;
+
+    /**
+     * Whether the operations are reads or writes.
+     */
+    private boolean[] reads;
+
+    private final Random initialSeedGenerator = new Random(10072015);
+
+    /**
+     * Setup the cache and the workload.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (cacheType) {
+        case "LruCache":
+            cache = new LruCache<>(CACHE_SIZE);
+            break;
+        case "ExpirationCache":
+            cache = new ExpirationCache<>(CACHE_SIZE, TimeUnit.HOURS.toMillis(1));
+            break;
+        case "StripedLruCache":
+            cache = new StripedLruCache<>(CACHE_SIZE);
+            break;
+        case "TinyLfuCache":
+            cache = new TinyLfuCache<>(CACHE_SIZE);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown cache type: " + cacheType);
+        }
+
+        Random random = new Random(20260101);
+        keys = createJidKeys(random);
+        switch (keyDistribution) {
+        case "uniform":
+            workload = createUniformWorkload(random);
+            break;
+        case "zipfian":
+            workload = createZipfianWorkload(random, 0.99);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown key distribution: " + keyDistribution);
+        }
+
+        reads = new boolean[WORKLOAD_LENGTH];
+        for (int i = 0; i < WORKLOAD_LENGTH; i++) {
+            reads[i] = random.nextInt(100) < readPercentage;
+        }
+
+        // Warm up the cache, so that the reads are not dominated by misses in the first iteration.
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            String key = keys[workload[i]];
+            cache.put(key, key);
+        }
+    }
+
+    /**
+     * Create keys shaped like the full JIDs of users spread over a number of domains.
+     */
+    private static String[] createJidKeys(Random random) {
+        String[] keys = new String[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            keys[i] = "user" + i + "@xmpp" + random.nextInt(100) + ".example.org/resource-"
+                            + Integer.toHexString(random.nextInt());
+        }
+        return keys;
+    }
+
+    private static int[] createUniformWorkload(Random random) {
+        int[] workload = new int[WORKLOAD_LENGTH];
+        for (int i = 0; i < WORKLOAD_LENGTH; i++) {
+            workload[i] = random.nextInt(KEY_SPACE);
+        }
+        return workload;
+    }
+
+    private static int[] createZipfianWorkload(Random random, double exponent) {
+        double[] cumulativeProbabilities = new double[KEY_SPACE];
+        double sum = 0;
+        for (int i = 0; i < KEY_SPACE; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulativeProbabilities[i] = sum;
+        }
+
+        int[] workload = new int[WORKLOAD_LENGTH];
+        for (int i = 0; i < WORKLOAD_LENGTH; i++) {
+            int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble() * sum);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            workload[i] = Math.min(index, KEY_SPACE - 1);
+        }
+        return workload;
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int position;
+
+        /**
+         * Setup the thread local state. Every thread starts at a different position of the workload.
+         *
+         * @param benchmark the current benchmark instance
+         */
+        @Setup(Level.Iteration)
+        public void setup(CacheReadWriteBenchmark benchmark) {
+            synchronized (benchmark.initialSeedGenerator) {
+                position = benchmark.initialSeedGenerator.nextInt(WORKLOAD_LENGTH);
+            }
+        }
+    }
+
+    /**
+     * Performs the next operation of the workload, which is either a lookup or a put of a JID-shaped key.
+     *
+     * @param threadState the current thread state
+     * @return the looked up or the previous value.
+     */
+    @Benchmark
+    public String readWrite(ThreadState threadState) {
+        int position = threadState.position;
+        threadState.position = (position + 1) & WORKLOAD_MASK;
+
+        String key = keys[workload[position]];
+        if (reads[position]) {
+            return cache.lookup(key);
+        }
+        return cache.put(key, key);
+    }
+}
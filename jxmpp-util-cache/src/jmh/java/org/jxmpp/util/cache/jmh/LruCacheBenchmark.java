@@ -16,11 +16,18 @@
  */
 package org.jxmpp.util.cache.jmh;
 
+import java.util.Arrays;
 import java.util.Random;
 
+import org.jxmpp.util.cache.Cache;
+import org.jxmpp.util.cache.CacheFactory;
 import org.jxmpp.util.cache.LruCache;
+import org.jxmpp.util.cache.StripedLruCache;
+import org.jxmpp.util.cache.TinyLfuCache;
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -32,10 +39,85 @@ public class LruCacheBenchmark {
 
     private static final int CACHE_SIZE = 10000;
 
-    private final LruCache<Integer, Integer> cache = new LruCache<>(CACHE_SIZE);
+    /**
+     * The number of distinct keys of the skewed workload, of which only {@link #CACHE_SIZE} fit into the cache.
+     */
+    private static final int SKEWED_KEY_SPACE = 100 * CACHE_SIZE;
+
+    private static final int SKEWED_WORKLOAD_LENGTH = 1 << 20;
+
+    @Param({"LruCache", "StripedLruCache", "TinyLfuCache"})
+    public String cacheType;
+
+    /**
+     * The exponent of the Zipf distribution of the skewed workload.
+     */
+    @Param({"0.9"})
+    public double zipfExponent;
+
+    /**
+     * The fraction of the skewed workload which are one-hit wonders, i.e. keys which are used exactly once.
+     */
+    @Param({"0.0", "0.5"})
+    public double oneHitWonderRatio;
+
+    private Cache<Integer, Integer> cache;
+
+    /**
+     * The keys of the skewed workload, following a Zipf distribution mixed with one-hit wonders.
+     */
+    private int[] skewedKeys;
 
     private final Random initialSeedGenerator = new Random(10072015);
 
+    /**
+     * Setup the cache and the skewed workload.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        CacheFactory cacheFactory;
+        switch (cacheType) {
+        case "LruCache":
+            cacheFactory = LruCache.FACTORY;
+            break;
+        case "StripedLruCache":
+            cacheFactory = StripedLruCache.FACTORY;
+            break;
+        case "TinyLfuCache":
+            cacheFactory = TinyLfuCache.FACTORY;
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown cache type: " + cacheType);
+        }
+        cache = cacheFactory.newCache(CACHE_SIZE);
+        skewedKeys = createSkewedKeys(new Random(20260101), zipfExponent, oneHitWonderRatio);
+    }
+
+    private static int[] createSkewedKeys(Random random, double zipfExponent, double oneHitWonderRatio) {
+        double[] cumulativeProbabilities = new double[SKEWED_KEY_SPACE];
+        double sum = 0;
+        for (int i = 0; i < SKEWED_KEY_SPACE; i++) {
+            sum += 1 / Math.pow(i + 1, zipfExponent);
+            cumulativeProbabilities[i] = sum;
+        }
+
+        int[] keys = new int[SKEWED_WORKLOAD_LENGTH];
+        // One-hit wonders use negative keys, so that they never collide with the keys of the Zipf distribution.
+        int nextOneHitWonder = -1;
+        for (int i = 0; i < keys.length; i++) {
+            if (random.nextDouble() < oneHitWonderRatio) {
+                keys[i] = nextOneHitWonder--;
+                continue;
+            }
+            int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble() * sum);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            keys[i] = Math.min(index, SKEWED_KEY_SPACE - 1);
+        }
+        return keys;
+    }
+
     @State(Scope.Thread)
     public static class ThreadState {
         Random random;
@@ -73,4 +155,52 @@ public class LruCacheBenchmark {
         Integer previous = cache.put(key, value);
         blackhole.consume(previous);
     }
+
+    /**
+     * The hit and miss counters of the skewed workload benchmark. JMH reports those per iteration, which allows to
+     * compare the hit ratios of the cache implementations.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitRatioCounters {
+        public long hits;
+        public long misses;
+
+        int position;
+
+        /**
+         * Reset the counters.
+         *
+         * @param benchmark the current benchmark instance
+         */
+        @Setup(Level.Iteration)
+        public void setup(LruCacheBenchmark benchmark) {
+            hits = 0;
+            misses = 0;
+            position = benchmark.initialSeedGenerator.nextInt(SKEWED_WORKLOAD_LENGTH);
+        }
+    }
+
+    /**
+     * Replays a skewed workload, where the cache is used like JidCreate uses its caches: look the key up and, on a
+     * miss, put the key into the cache. The hits and misses are reported as auxiliary counters.
+     *
+     * @param blackhole the JMH blackhole
+     * @param counters the hit ratio counters of the current thread
+     */
+    @Benchmark
+    public void measureSkewedWorkloadHitRatio(Blackhole blackhole, HitRatioCounters counters) {
+        Integer key = skewedKeys[counters.position];
+        counters.position = (counters.position + 1) & (SKEWED_WORKLOAD_LENGTH - 1);
+
+        Integer value = cache.lookup(key);
+        if (value == null) {
+            counters.misses++;
+            value = key;
+            cache.put(key, value);
+        } else {
+            counters.hits++;
+        }
+        blackhole.consume(value);
+    }
 }
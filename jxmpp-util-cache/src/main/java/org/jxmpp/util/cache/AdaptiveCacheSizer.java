@@ -0,0 +1,610 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache factory whose caches are sized adaptively, based on their observed hit ratio. Every cache created by this
+ * factory decorates a cache of the underlying factory. Whenever {@link #adjust()} is invoked, caches whose hit ratio
+ * would still climb noticeably if they were larger are grown, and caches which would lose hardly any hits if they
+ * were smaller are shrunk, always within the configured minimum and maximum cache size. If a memory budget is
+ * configured, then the caches which would lose the fewest hits per weight are shrunk in favor of the ones which would
+ * gain the most hits per weight.
+ * <p>
+ * The gain and the loss are estimated using ghost entries: every cache simulates an LRU cache one step, i.e. 25%,
+ * larger and one step smaller than its current size. The simulated caches only record the hashes of the keys, and
+ * only of a sample of the keys if the cache is large. Hence the overhead of every cache is bounded and independent of
+ * its size.
+ * </p>
+ * <p>
+ * Since different deployments, like a client-to-server heavy one and a server-to-server heavy one, result in very
+ * different access patterns, the caches of a {@link CacheFactory} consumer, like a JxmppContext, can be sized
+ * adaptively by using an instance of this class as its cache factory, and invoking {@link #adjust()} periodically,
+ * for example with {@link #schedule(ScheduledExecutorService, long, TimeUnit)}.
+ * </p>
+ */
+public final class AdaptiveCacheSizer implements CacheFactory {
+
+	/**
+	 * The size of a step by which the caches are grown or shrunk, as percentage of their current size.
+	 */
+	private static final int STEP_PERCENTAGE = 25;
+
+	/**
+	 * The minimum number of additional hits, in permille of the lookups, a cache must gain to be grown.
+	 */
+	private static final int GROW_THRESHOLD_PERMILLE = 10;
+
+	/**
+	 * The maximum number of hits, in permille of the lookups, a cache may lose to be shrunk.
+	 */
+	private static final int SHRINK_THRESHOLD_PERMILLE = 2;
+
+	/**
+	 * The minimum number of sampled lookups since the last adjustment required to grow or shrink a cache based on its
+	 * hit ratio.
+	 */
+	private static final int MIN_SAMPLED_LOOKUPS = 100;
+
+	/**
+	 * The maximum number of ghost entries recorded by the larger simulated cache.
+	 */
+	private static final int MAX_GHOST_ENTRIES = 512;
+
+	private final CacheFactory cacheFactory;
+
+	private final int minCacheSize;
+
+	private final int maxCacheSize;
+
+	private final long memoryBudget;
+
+	private final Weigher<Object, Object> weigher;
+
+	private final List<WeakReference<AdaptiveCache<?, ?>>> caches = new ArrayList<>();
+
+	private AdaptiveCacheSizer(Builder builder) {
+		cacheFactory = builder.cacheFactory;
+		minCacheSize = builder.minCacheSize;
+		maxCacheSize = builder.maxCacheSize;
+		memoryBudget = builder.memoryBudget;
+		weigher = builder.weigher;
+	}
+
+	/**
+	 * Create a new cache, whose initial size is the given maximum size within the bounds of this sizer.
+	 *
+	 * @param maxSize the initial maximum size of the cache, -1 means the maximum size of this sizer.
+	 * @param <K> the type of the keys of the cache.
+	 * @param <V> the type of the values of the cache.
+	 * @return a new adaptively sized cache.
+	 */
+	@Override
+	public <K, V> Cache<K, V> newCache(int maxSize) {
+		int size = clamp(maxSize);
+		AdaptiveCache<K, V> cache = new AdaptiveCache<>(cacheFactory.<K, V>newCache(size), size);
+		synchronized (caches) {
+			caches.add(new WeakReference<AdaptiveCache<?, ?>>(cache));
+		}
+		return cache;
+	}
+
+	/**
+	 * Adjust the sizes of the caches created by this sizer, based on the lookups since the last adjustment. Every
+	 * cache is grown or shrunk at most by one step.
+	 */
+	public synchronized void adjust() {
+		List<Sample> samples = new ArrayList<>();
+		synchronized (caches) {
+			for (Iterator<WeakReference<AdaptiveCache<?, ?>>> it = caches.iterator(); it.hasNext();) {
+				AdaptiveCache<?, ?> cache = it.next().get();
+				if (cache == null) {
+					it.remove();
+					continue;
+				}
+				samples.add(cache.takeSample());
+			}
+		}
+
+		double totalWeight = 0;
+		List<Sample> growCandidates = new ArrayList<>();
+		for (Sample sample : samples) {
+			totalWeight += sample.getWeight();
+			if (sample.lookups < MIN_SAMPLED_LOOKUPS) {
+				continue;
+			}
+			if (sample.getGainPermille() >= GROW_THRESHOLD_PERMILLE && sample.size < maxCacheSize) {
+				growCandidates.add(sample);
+			} else if (sample.getLossPermille() < SHRINK_THRESHOLD_PERMILLE && sample.size > minCacheSize) {
+				totalWeight += sample.resize(sample.size - sample.getStep());
+			}
+		}
+
+		if (memoryBudget < 0) {
+			for (Sample candidate : growCandidates) {
+				candidate.resize(candidate.size + candidate.getStep());
+			}
+			return;
+		}
+
+		// Enforce the budget, which may be exceeded by newly created caches.
+		while (totalWeight > memoryBudget) {
+			Sample victim = findVictim(samples, null, Double.MAX_VALUE);
+			if (victim == null) {
+				break;
+			}
+			totalWeight += victim.resize(victim.size - victim.getStep());
+		}
+
+		Collections.sort(growCandidates, new Comparator<Sample>() {
+			@Override
+			public int compare(Sample a, Sample b) {
+				return Double.compare(b.getGainPerWeight(), a.getGainPerWeight());
+			}
+		});
+		for (Sample candidate : growCandidates) {
+			if (candidate.resized) {
+				// The candidate was already shrunk in favor of a cache with a higher gain.
+				continue;
+			}
+			double growWeight = candidate.getStep() * candidate.averageWeight;
+			while (totalWeight + growWeight > memoryBudget) {
+				// Take the memory from the cache which would lose the fewest hits, if it is worth it.
+				Sample victim = findVictim(samples, candidate, candidate.getGainPerWeight());
+				if (victim == null) {
+					break;
+				}
+				totalWeight += victim.resize(victim.size - victim.getStep());
+			}
+			if (totalWeight + growWeight <= memoryBudget) {
+				totalWeight += candidate.resize(candidate.size + candidate.getStep());
+			}
+		}
+	}
+
+	private Sample findVictim(List<Sample> samples, Sample candidate, double maxLossPerWeight) {
+		Sample victim = null;
+		for (Sample sample : samples) {
+			if (sample == candidate || sample.resized || sample.size <= minCacheSize) {
+				continue;
+			}
+			double lossPerWeight = sample.getLossPerWeight();
+			if (lossPerWeight < maxLossPerWeight && (victim == null || lossPerWeight < victim.getLossPerWeight())) {
+				victim = sample;
+			}
+		}
+		return victim;
+	}
+
+	/**
+	 * Invoke {@link #adjust()} periodically with the given executor.
+	 *
+	 * @param executor the executor.
+	 * @param period the delay between two adjustments.
+	 * @param unit the time unit of the delay.
+	 * @return the future of the scheduled adjustments, which can be used to cancel them.
+	 */
+	public ScheduledFuture<?> schedule(ScheduledExecutorService executor, long period, TimeUnit unit) {
+		return executor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				adjust();
+			}
+		}, period, period, unit);
+	}
+
+	private int clamp(int size) {
+		if (size < 0) {
+			return maxCacheSize;
+		}
+		return Math.max(minCacheSize, Math.min(maxCacheSize, size));
+	}
+
+	private static int getStep(int size) {
+		return Math.max(1, (int) ((long) size * STEP_PERCENTAGE / 100));
+	}
+
+	/**
+	 * Create a new builder for an adaptive cache sizer.
+	 *
+	 * @return a new builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * A builder for {@link AdaptiveCacheSizer}.
+	 */
+	public static final class Builder {
+
+		private CacheFactory cacheFactory = LruCache.FACTORY;
+
+		private int minCacheSize = 10;
+
+		private int maxCacheSize = 100000;
+
+		private long memoryBudget = -1;
+
+		private Weigher<Object, Object> weigher;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the factory used to create the underlying caches. Defaults to {@link LruCache#FACTORY}.
+		 *
+		 * @param cacheFactory the cache factory.
+		 * @return a reference to this builder.
+		 */
+		public Builder withCacheFactory(CacheFactory cacheFactory) {
+			if (cacheFactory == null) {
+				throw new IllegalArgumentException("cacheFactory must not be null");
+			}
+			this.cacheFactory = cacheFactory;
+			return this;
+		}
+
+		/**
+		 * Set the bounds of the size of every cache. Defaults to 10 and 100000.
+		 *
+		 * @param minCacheSize the minimum size of every cache.
+		 * @param maxCacheSize the maximum size of every cache.
+		 * @return a reference to this builder.
+		 */
+		public Builder withCacheSizeBounds(int minCacheSize, int maxCacheSize) {
+			if (minCacheSize <= 0) {
+				throw new IllegalArgumentException("Min cache size must be positive.");
+			}
+			if (maxCacheSize < minCacheSize) {
+				throw new IllegalArgumentException("Max cache size must not be smaller than the min cache size.");
+			}
+			this.minCacheSize = minCacheSize;
+			this.maxCacheSize = maxCacheSize;
+			return this;
+		}
+
+		/**
+		 * Set the memory budget of all caches. Unless a weigher is set, the budget is the total number of entries of
+		 * all caches. Defaults to -1.
+		 *
+		 * @param memoryBudget the memory budget, -1 means that the caches have no memory budget.
+		 * @return a reference to this builder.
+		 * @see #withWeigher(Weigher)
+		 */
+		public Builder withMemoryBudget(long memoryBudget) {
+			if (memoryBudget < -1) {
+				throw new IllegalArgumentException("Memory budget must not be negative.");
+			}
+			this.memoryBudget = memoryBudget;
+			return this;
+		}
+
+		/**
+		 * Set the weigher used to estimate the memory of the caches. The memory of a cache is estimated as its size
+		 * times the average weight of a sample of the entries put into it. For example, using the
+		 * {@link CharSequenceWeigher}, the memory budget is in bytes.
+		 *
+		 * @param weigher the weigher.
+		 * @return a reference to this builder.
+		 */
+		public Builder withWeigher(Weigher<Object, Object> weigher) {
+			if (weigher == null) {
+				throw new IllegalArgumentException("weigher must not be null");
+			}
+			this.weigher = weigher;
+			return this;
+		}
+
+		/**
+		 * Build an adaptive cache sizer.
+		 *
+		 * @return a newly build adaptive cache sizer.
+		 */
+		public AdaptiveCacheSizer build() {
+			return new AdaptiveCacheSizer(this);
+		}
+	}
+
+	/**
+	 * The lookups of a cache since the last adjustment. Only the sampled keys are counted.
+	 */
+	private final class Sample {
+
+		private final AdaptiveCache<?, ?> cache;
+
+		private final int sampleShift;
+
+		private final long lookups;
+
+		private final long hits;
+
+		private final long largerHits;
+
+		private final long smallerHits;
+
+		private final double averageWeight;
+
+		private int size;
+
+		private boolean resized;
+
+		private Sample(AdaptiveCache<?, ?> cache, int size, int sampleShift, long lookups, long hits, long largerHits,
+				long smallerHits, double averageWeight) {
+			this.cache = cache;
+			this.size = size;
+			this.sampleShift = sampleShift;
+			this.lookups = lookups;
+			this.hits = hits;
+			this.largerHits = largerHits;
+			this.smallerHits = smallerHits;
+			this.averageWeight = averageWeight;
+		}
+
+		private int getStep() {
+			return AdaptiveCacheSizer.getStep(size);
+		}
+
+		private double getWeight() {
+			return size * averageWeight;
+		}
+
+		private long getGainPermille() {
+			return Math.max(0, largerHits - hits) * 1000 / lookups;
+		}
+
+		private long getLossPermille() {
+			return Math.max(0, hits - smallerHits) * 1000 / lookups;
+		}
+
+		private double getGainPerWeight() {
+			return (double) (Math.max(0, largerHits - hits) << sampleShift) / (getStep() * averageWeight);
+		}
+
+		private double getLossPerWeight() {
+			return (double) (Math.max(0, hits - smallerHits) << sampleShift) / (getStep() * averageWeight);
+		}
+
+		/**
+		 * Resize the cache to the given size within the bounds of the sizer.
+		 *
+		 * @return the change of the weight of the cache.
+		 */
+		private double resize(int newSize) {
+			int clampedSize = clamp(newSize);
+			double weightChange = (clampedSize - size) * averageWeight;
+			cache.resize(clampedSize);
+			size = clampedSize;
+			resized = true;
+			return weightChange;
+		}
+	}
+
+	/**
+	 * An adaptively sized cache, which records the lookups of its underlying cache.
+	 */
+	private final class AdaptiveCache<K, V> implements Cache<K, V> {
+
+		private final Cache<K, V> cache;
+
+		private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+		// Keys whose spread hash has none of the bits of the mask set are sampled.
+		private volatile int sampleMask;
+
+		// The following fields are guarded by the monitor of this cache.
+		private final GhostEntries largerCache = new GhostEntries();
+		private final GhostEntries smallerCache = new GhostEntries();
+		private int size;
+		private int sampleShift;
+		private long lookups;
+		private long hits;
+		private long largerHits;
+		private long smallerHits;
+		private long weightSum;
+		private long weighedEntries;
+
+		private AdaptiveCache(Cache<K, V> cache, int size) {
+			this.cache = cache;
+			configureGhostEntries(size);
+		}
+
+		@Override
+		public V put(K key, V value) {
+			V previous = cache.put(key, value);
+			recordPut(key, value);
+			return previous;
+		}
+
+		@Override
+		public V lookup(K key) {
+			V value = cache.lookup(key);
+			recordLookup(key, value != null);
+			return value;
+		}
+
+		@Override
+		public Map<K, V> lookupAll(Collection<? extends K> keys) {
+			Map<K, V> result = cache.lookupAll(keys);
+			for (K key : keys) {
+				recordLookup(key, result.containsKey(key));
+			}
+			return result;
+		}
+
+		@Override
+		public void putAll(Map<? extends K, ? extends V> entries) {
+			cache.putAll(entries);
+			for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+				recordPut(entry.getKey(), entry.getValue());
+			}
+		}
+
+		@Override
+		public <E extends Exception> V get(K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+			return singleFlight.get(this, key, loader);
+		}
+
+		@Override
+		public void forEachEntry(EntryVisitor<? super K, ? super V> visitor) {
+			cache.forEachEntry(visitor);
+		}
+
+		@Override
+		public int getMaxCacheSize() {
+			return cache.getMaxCacheSize();
+		}
+
+		/**
+		 * Set the maximum cache size within the bounds of the sizer. The size will be adjusted again by the sizer.
+		 *
+		 * @param size the new maximum cache size, -1 means the maximum size of the sizer.
+		 */
+		@Override
+		public void setMaxCacheSize(int size) {
+			resize(clamp(size));
+		}
+
+		@Override
+		public CacheStats getCacheStats() {
+			CacheStats stats = cache.getCacheStats();
+			return new CacheStats(stats.getHitCount(), stats.getMissCount(), stats.getEvictionCount(),
+					singleFlight.getLoadCount(), singleFlight.getTotalLoadTime(), stats.getSize());
+		}
+
+		private void resize(int size) {
+			cache.setMaxCacheSize(size);
+			synchronized (this) {
+				configureGhostEntries(size);
+			}
+		}
+
+		private void configureGhostEntries(int size) {
+			int step = getStep(size);
+			int largerSize = size + step;
+			int shift = 0;
+			while ((largerSize >>> shift) > MAX_GHOST_ENTRIES) {
+				shift++;
+			}
+			if (shift != sampleShift) {
+				// The recorded hashes were sampled differently.
+				largerCache.clear();
+				smallerCache.clear();
+				sampleShift = shift;
+				sampleMask = (1 << shift) - 1;
+			}
+			largerCache.setCapacity(largerSize >>> shift);
+			smallerCache.setCapacity((size - step) >>> shift);
+			this.size = size;
+		}
+
+		private void recordLookup(K key, boolean hit) {
+			int hash = FrequencySketch.spread(key.hashCode());
+			if ((hash & sampleMask) != 0) {
+				return;
+			}
+			synchronized (this) {
+				lookups++;
+				if (hit) {
+					hits++;
+				}
+				if (largerCache.access(hash)) {
+					largerHits++;
+				}
+				if (smallerCache.access(hash)) {
+					smallerHits++;
+				}
+			}
+		}
+
+		private void recordPut(K key, V value) {
+			if (weigher == null) {
+				return;
+			}
+			if ((FrequencySketch.spread(key.hashCode()) & sampleMask) != 0) {
+				return;
+			}
+			int weight = weigher.weigh(key, value);
+			synchronized (this) {
+				weightSum += weight;
+				weighedEntries++;
+			}
+		}
+
+		private synchronized Sample takeSample() {
+			double averageWeight = weighedEntries == 0 ? 1 : (double) weightSum / weighedEntries;
+			Sample sample = new Sample(this, size, sampleShift, lookups, hits, largerHits, smallerHits, averageWeight);
+			lookups = 0;
+			hits = 0;
+			largerHits = 0;
+			smallerHits = 0;
+			return sample;
+		}
+	}
+
+	/**
+	 * The ghost entries of a simulated LRU cache, which only records the hashes of the keys.
+	 */
+	private static final class GhostEntries extends LinkedHashMap<Integer, Boolean> {
+
+		private static final long serialVersionUID = 1L;
+
+		private int capacity;
+
+		private GhostEntries() {
+			super(16, 0.75f, true);
+		}
+
+		/**
+		 * Record an access of the key with the given hash.
+		 *
+		 * @return true if the simulated cache contained the key.
+		 */
+		private boolean access(int hash) {
+			if (capacity == 0) {
+				return false;
+			}
+			return put(hash, Boolean.TRUE) != null;
+		}
+
+		private void setCapacity(int capacity) {
+			this.capacity = capacity;
+			Iterator<Integer> it = keySet().iterator();
+			while (size() > capacity) {
+				it.next();
+				it.remove();
+			}
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+			return size() > capacity;
+		}
+	}
+}
@@ -16,6 +16,10 @@
  */
 package org.jxmpp.util.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * This is jXMPP's cache interface.
  *
@@ -41,6 +45,83 @@ public interface Cache<K, V> {
 	 */
 	V lookup(K key);
 
+	/**
+	 * Returns the values of the specified keys which are found in the cache.
+	 * <p>
+	 * The default implementation performs a {@link #lookup(Object)} for every key. The cache implementations of jXMPP
+	 * override this method to look up all keys while acquiring their lock only once.
+	 * </p>
+	 *
+	 * @param keys the keys.
+	 * @return a map of the keys found in the cache to their values.
+	 */
+	default Map<K, V> lookupAll(Collection<? extends K> keys) {
+		Map<K, V> result = new HashMap<>(keys.size());
+		for (K key : keys) {
+			V value = lookup(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Put all entries of the given map into the cache.
+	 * <p>
+	 * The default implementation performs a {@link #put(Object, Object)} for every entry. The cache implementations
+	 * of jXMPP override this method to put all entries while acquiring their lock only once.
+	 * </p>
+	 *
+	 * @param entries the entries to put into the cache.
+	 */
+	default void putAll(Map<? extends K, ? extends V> entries) {
+		for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Returns the value of the specified key, loading it with the given loader if it is not cached. A loaded value
+	 * which is not {@code null} is put into the cache.
+	 * <p>
+	 * The default implementation performs a {@link #lookup(Object)}, followed by a {@link #put(Object, Object)} after
+	 * a miss. The cache implementations of jXMPP override this method to provide single-flight semantics: if multiple
+	 * threads miss the same key concurrently, then only one of them invokes the loader, and the others wait for and
+	 * return its result.
+	 * </p>
+	 *
+	 * @param key the key.
+	 * @param loader the loader used to load the value if it is not cached.
+	 * @param <E> the type of the exception thrown by the loader.
+	 * @return the cached or loaded value, or {@code null} if the loader returned {@code null}.
+	 * @throws E if the value could not be loaded.
+	 */
+	default <E extends Exception> V get(K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+		V value = lookup(key);
+		if (value != null) {
+			return value;
+		}
+		value = loader.load(key);
+		if (value != null) {
+			put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Invoke the given visitor with every entry of this cache. The entries are visited while the cache is locked,
+	 * hence the visitor must not modify this cache. If the cache keeps its entries in the order they were used, then
+	 * the least recently used entries are visited first. The cache implementations of jXMPP support this operation,
+	 * the default implementation throws an {@link UnsupportedOperationException}.
+	 *
+	 * @param visitor the visitor.
+	 * @throws UnsupportedOperationException if this cache can not enumerate its entries.
+	 */
+	default void forEachEntry(EntryVisitor<? super K, ? super V> visitor) {
+		throw new UnsupportedOperationException(getClass().getName() + " can not enumerate its entries");
+	}
+
 	/**
 	 * Return the maximum cache Size.
 	 *
@@ -53,4 +134,14 @@ public interface Cache<K, V> {
 	 * @param size the new maximum cache size.
 	 */
 	void setMaxCacheSize(int size);
+
+	/**
+	 * Get a snapshot of the statistics of this cache. The default implementation returns
+	 * {@link CacheStats#UNAVAILABLE}.
+	 *
+	 * @return the statistics of this cache.
+	 */
+	default CacheStats getCacheStats() {
+		return CacheStats.UNAVAILABLE;
+	}
 }
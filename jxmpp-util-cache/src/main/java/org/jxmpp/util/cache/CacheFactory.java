@@ -0,0 +1,34 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * A factory for {@link Cache} instances. Used by the components of jXMPP which maintain internal caches, so that the
+ * actual cache implementation can be chosen by the user.
+ */
+public interface CacheFactory {
+
+	/**
+	 * Create a new cache with the given maximum size.
+	 *
+	 * @param maxSize the maximum size of the cache.
+	 * @param <K> the type of the keys of the cache.
+	 * @param <V> the type of the values of the cache.
+	 * @return a new cache.
+	 */
+	<K, V> Cache<K, V> newCache(int maxSize);
+}
@@ -0,0 +1,37 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * Loads the value of a key which is not cached.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @param <E> the type of the exception thrown when the value could not be loaded.
+ * @see Cache#get(Object, CacheLoader)
+ */
+public interface CacheLoader<K, V, E extends Exception> {
+
+	/**
+	 * Load the value of the given key.
+	 *
+	 * @param key the key.
+	 * @return the value, or {@code null} if the value should not be cached.
+	 * @throws E if the value could not be loaded.
+	 */
+	V load(K key) throws E;
+}
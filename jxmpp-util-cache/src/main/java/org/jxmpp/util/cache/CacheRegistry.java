@@ -0,0 +1,93 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of named caches, so that their statistics can be monitored and their sizes tuned. The internal caches of
+ * jXMPP, like the JID caches of JidCreate and the stringprep caches of XmppStringPrepUtil, are owned by a JXMPP
+ * context. Only the caches of the default context are registered here. They are registered lazily, once a component
+ * like JidCreate first uses its caches of the default context, and they replace the registered caches of the previous
+ * default context once the default context changes, e.g. because the default XmppStringprep is set.
+ */
+public final class CacheRegistry {
+
+	private static final Map<String, Cache<?, ?>> CACHES = new ConcurrentHashMap<>();
+
+	private CacheRegistry() {
+	}
+
+	/**
+	 * Register a cache under the given name. A cache previously registered under the same name is replaced.
+	 *
+	 * @param name the name of the cache.
+	 * @param cache the cache.
+	 */
+	public static void register(String name, Cache<?, ?> cache) {
+		if (name == null || cache == null) {
+			throw new IllegalArgumentException("name and cache must not be null");
+		}
+		CACHES.put(name, cache);
+	}
+
+	/**
+	 * Unregister the cache with the given name.
+	 *
+	 * @param name the name of the cache.
+	 * @return the unregistered cache, or {@code null}.
+	 */
+	public static Cache<?, ?> unregister(String name) {
+		return CACHES.remove(name);
+	}
+
+	/**
+	 * Get the cache registered under the given name.
+	 *
+	 * @param name the name of the cache.
+	 * @return the cache, or {@code null}.
+	 */
+	public static Cache<?, ?> getCache(String name) {
+		return CACHES.get(name);
+	}
+
+	/**
+	 * Get all registered caches, sorted by their name.
+	 *
+	 * @return an unmodifiable snapshot of the registered caches.
+	 */
+	public static SortedMap<String, Cache<?, ?>> getCaches() {
+		return Collections.unmodifiableSortedMap(new TreeMap<String, Cache<?, ?>>(CACHES));
+	}
+
+	/**
+	 * Get the statistics of all registered caches, sorted by the name of the cache.
+	 *
+	 * @return an unmodifiable snapshot of the statistics.
+	 */
+	public static SortedMap<String, CacheStats> getCacheStats() {
+		SortedMap<String, CacheStats> stats = new TreeMap<>();
+		for (Map.Entry<String, Cache<?, ?>> entry : CACHES.entrySet()) {
+			stats.put(entry.getKey(), entry.getValue().getCacheStats());
+		}
+		return Collections.unmodifiableSortedMap(stats);
+	}
+}
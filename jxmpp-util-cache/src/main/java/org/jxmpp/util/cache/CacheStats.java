@@ -0,0 +1,162 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * An immutable snapshot of the statistics of a {@link Cache}.
+ *
+ * @see Cache#getCacheStats()
+ * @see CacheRegistry
+ */
+public final class CacheStats {
+
+	/**
+	 * Statistics where all counters are zero and the size is unknown.
+	 */
+	public static final CacheStats UNAVAILABLE = new CacheStats(0, 0, 0, 0, 0, -1);
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long evictionCount;
+
+	private final long loadCount;
+
+	private final long totalLoadTime;
+
+	private final int size;
+
+	/**
+	 * Create a new cache statistics snapshot.
+	 *
+	 * @param hitCount the number of lookups which returned a cached value.
+	 * @param missCount the number of lookups which did not return a cached value.
+	 * @param evictionCount the number of entries which were evicted, i.e. removed by the cache itself.
+	 * @param loadCount the number of values which were loaded into the cache.
+	 * @param totalLoadTime the total time in nanoseconds spent loading values into the cache.
+	 * @param size the current number of entries of the cache, or -1 if unknown.
+	 */
+	public CacheStats(long hitCount, long missCount, long evictionCount, long loadCount, long totalLoadTime, int size) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.loadCount = loadCount;
+		this.totalLoadTime = totalLoadTime;
+		this.size = size;
+	}
+
+	/**
+	 * Get the number of lookups which returned a cached value.
+	 *
+	 * @return the number of cache hits.
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Get the number of lookups which did not return a cached value.
+	 *
+	 * @return the number of cache misses.
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Get the number of lookups.
+	 *
+	 * @return the number of cache hits plus the number of cache misses.
+	 */
+	public long getRequestCount() {
+		return hitCount + missCount;
+	}
+
+	/**
+	 * Get the ratio of lookups which returned a cached value. Returns 1 if there were no lookups.
+	 *
+	 * @return the hit rate.
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		if (requestCount == 0) {
+			return 1;
+		}
+		return (double) hitCount / requestCount;
+	}
+
+	/**
+	 * Get the number of entries which were evicted, either because the cache exceeded its maximum size or because
+	 * they expired.
+	 *
+	 * @return the number of evictions.
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Get the number of values which were loaded into the cache.
+	 *
+	 * @return the number of loads.
+	 */
+	public long getLoadCount() {
+		return loadCount;
+	}
+
+	/**
+	 * Get the total time spent loading values into the cache.
+	 *
+	 * @return the total load time in nanoseconds.
+	 */
+	public long getTotalLoadTime() {
+		return totalLoadTime;
+	}
+
+	/**
+	 * Get the average time spent loading a value into the cache.
+	 *
+	 * @return the average load time in nanoseconds, or 0 if no values were loaded.
+	 */
+	public double getAverageLoadPenalty() {
+		if (loadCount == 0) {
+			return 0;
+		}
+		return (double) totalLoadTime / loadCount;
+	}
+
+	/**
+	 * Get the number of entries of the cache at the time this snapshot was taken.
+	 *
+	 * @return the size of the cache, or -1 if unknown.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats[hitCount=" + hitCount
+				+ ", missCount=" + missCount
+				+ ", evictionCount=" + evictionCount
+				+ ", loadCount=" + loadCount
+				+ ", totalLoadTime=" + totalLoadTime
+				+ ", size=" + size
+				+ ']';
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A coarse ticker which returns a cached reading of another ticker. The cached reading is updated periodically by a
+ * background thread. Reading the time is hence just a volatile read, which makes this ticker suitable for very hot
+ * read paths that can tolerate the lower resolution.
+ * <p>
+ * The background thread is a daemon thread and runs until {@link #stop()} is invoked.
+ * </p>
+ */
+public final class CachedTicker implements Ticker {
+
+	private final Ticker source;
+
+	private final Thread updater;
+
+	private volatile long nanos;
+
+	private volatile boolean stopped;
+
+	/**
+	 * Create and start a new cached ticker based on {@link Ticker#SYSTEM_TICKER}.
+	 *
+	 * @param resolution the period in which the cached reading is updated.
+	 * @param unit the time unit of the resolution.
+	 */
+	public CachedTicker(long resolution, TimeUnit unit) {
+		this(SYSTEM_TICKER, resolution, unit);
+	}
+
+	/**
+	 * Create and start a new cached ticker based on the given ticker.
+	 *
+	 * @param source the ticker whose readings are cached.
+	 * @param resolution the period in which the cached reading is updated.
+	 * @param unit the time unit of the resolution.
+	 */
+	public CachedTicker(Ticker source, long resolution, TimeUnit unit) {
+		if (resolution <= 0) {
+			throw new IllegalArgumentException("Resolution must be positive.");
+		}
+		this.source = source;
+		nanos = source.read();
+
+		final long resolutionMillis = Math.max(1, unit.toMillis(resolution));
+		updater = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (!stopped) {
+					try {
+						Thread.sleep(resolutionMillis);
+					} catch (InterruptedException e) {
+						break;
+					}
+					update();
+				}
+			}
+		}, "jxmpp CachedTicker");
+		updater.setDaemon(true);
+		updater.start();
+	}
+
+	private void update() {
+		nanos = source.read();
+	}
+
+	@Override
+	public long read() {
+		return nanos;
+	}
+
+	/**
+	 * Stop the background thread updating the cached reading. Afterwards, the reading of this ticker does no longer
+	 * change.
+	 */
+	public void stop() {
+		stopped = true;
+		updater.interrupt();
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * A weigher estimating the heap size of entries in bytes, based on the character lengths of keys and values which
+ * are a {@link CharSequence}, like {@link String}s and JIDs. Every character is weighted with two bytes, and every
+ * entry is additionally weighted with a fixed overhead for the entry of the cache and the key and value objects.
+ * Keys and values which are not a {@link CharSequence} are only accounted for by this overhead.
+ */
+public final class CharSequenceWeigher implements Weigher<Object, Object> {
+
+	/**
+	 * The estimated overhead, in bytes, of a cache entry, including the headers of its key and value objects.
+	 */
+	public static final int ENTRY_OVERHEAD = 96;
+
+	/**
+	 * The instance of this weigher.
+	 */
+	public static final CharSequenceWeigher INSTANCE = new CharSequenceWeigher();
+
+	private CharSequenceWeigher() {
+	}
+
+	@Override
+	public int weigh(Object key, Object value) {
+		long weight = ENTRY_OVERHEAD + weighCharacters(key) + weighCharacters(value);
+		return (int) Math.min(weight, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Estimate the size, in bytes, of the characters of the given object.
+	 *
+	 * @param object the object.
+	 * @return twice the length of the object, if it is a {@link CharSequence}, zero otherwise.
+	 */
+	public static long weighCharacters(Object object) {
+		if (!(object instanceof CharSequence)) {
+			return 0;
+		}
+		return 2L * ((CharSequence) object).length();
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * Visits the entries of a cache.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @see Cache#forEachEntry(EntryVisitor)
+ */
+public interface EntryVisitor<K, V> {
+
+	/**
+	 * Visit an entry.
+	 *
+	 * @param key the key of the entry.
+	 * @param value the value of the entry.
+	 */
+	void visit(K key, V value);
+}
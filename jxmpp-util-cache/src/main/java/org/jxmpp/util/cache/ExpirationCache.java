@@ -16,23 +16,66 @@
  */
 package org.jxmpp.util.cache;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A cache which expires its values.
+ * <p>
+ * Expired entries are reclaimed proactively using a hierarchical timer wheel, so that they do not occupy the cache
+ * until they are looked up again. The wheel is advanced on every write to the cache, when {@link #purgeExpired()} is
+ * invoked, and, optionally, periodically by a scheduler passed to {@link #schedulePurgeExpired(ScheduledExecutorService,
+ * long, TimeUnit)}.
+ * </p>
+ * <p>
+ * The expiration is based on a {@link Ticker}, which defaults to the monotonic {@link Ticker#SYSTEM_TICKER}. Hence
+ * adjustments of the wall-clock time do not affect the expiration of entries.
+ * </p>
+ * <p>
+ * Optionally, entries which are read shortly before they expire can be reloaded asynchronously, see {@link
+ * #setRefreshAhead(double, CacheLoader, Executor)}. This avoids that readers of frequently used entries, whose values
+ * are expensive to compute, block on a reload once the entry expired.
+ * </p>
  *
  * @param <K> the type of the keys of this cache.
  * @param <V> the type of the values this cache caches.
  */
 public class ExpirationCache<K, V> implements Cache<K, V>, Map<K, V>{
 
-	private final LruCache<K, ExpireElement<V>> cache;
+	private final ExpireElementLruCache<K, V> cache;
+
+	private final TimerWheel<ExpireElement<K, V>> timerWheel;
+
+	private final Ticker ticker;
+
+	/**
+	 * The reading of the ticker when this cache was created. All times of this cache are relative to this origin, so
+	 * that they are non-negative.
+	 */
+	private final long origin;
 
 	private long defaultExpirationTime;
 
+	private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+	private volatile RefreshAhead<K, V> refreshAhead;
+
+	// The statistics of this cache, guarded by the monitor of the underlying LRU cache.
+	private long cacheHits, cacheMisses, cacheExpirations;
+
 	/**
 	 * Construct a new expiration cache.
 	 *
@@ -40,7 +83,66 @@ public class ExpirationCache<K, V> implements Cache<K, V>, Map<K, V>{
 	 * @param defaultExpirationTime the default expiration time in milliseconds.
 	 */
 	public ExpirationCache(int maxSize, long defaultExpirationTime) {
-		cache = new LruCache<K, ExpireElement<V>>(maxSize);
+		this(maxSize, defaultExpirationTime, Ticker.SYSTEM_TICKER);
+	}
+
+	/**
+	 * Construct a new expiration cache using the given ticker.
+	 *
+	 * @param maxSize the maximum size.
+	 * @param defaultExpirationTime the default expiration time in milliseconds.
+	 * @param ticker the ticker used to determine the expiration of entries.
+	 */
+	public ExpirationCache(int maxSize, long defaultExpirationTime, Ticker ticker) {
+		this(new ExpireElementLruCache<K, V>(maxSize), defaultExpirationTime, ticker);
+	}
+
+	/**
+	 * Construct a new expiration cache which is bounded by the number of its entries and by their total weight.
+	 *
+	 * @param maxSize the maximum size, -1 means the cache has no max size.
+	 * @param maxWeight the maximum total weight, -1 means the cache has no max weight.
+	 * @param weigher the weigher used to calculate the weight of the entries.
+	 * @param defaultExpirationTime the default expiration time in milliseconds.
+	 * @see LruCache#LruCache(int, long, Weigher)
+	 */
+	public ExpirationCache(int maxSize, long maxWeight, Weigher<? super K, ? super V> weigher,
+			long defaultExpirationTime) {
+		this(maxSize, maxWeight, weigher, defaultExpirationTime, Ticker.SYSTEM_TICKER);
+	}
+
+	/**
+	 * Construct a new expiration cache which is bounded by the number of its entries and by their total weight,
+	 * using the given ticker.
+	 *
+	 * @param maxSize the maximum size, -1 means the cache has no max size.
+	 * @param maxWeight the maximum total weight, -1 means the cache has no max weight.
+	 * @param weigher the weigher used to calculate the weight of the entries.
+	 * @param defaultExpirationTime the default expiration time in milliseconds.
+	 * @param ticker the ticker used to determine the expiration of entries.
+	 */
+	public ExpirationCache(int maxSize, long maxWeight, Weigher<? super K, ? super V> weigher,
+			long defaultExpirationTime, Ticker ticker) {
+		this(new ExpireElementLruCache<K, V>(maxSize, maxWeight, weigher), defaultExpirationTime, ticker);
+	}
+
+	private ExpirationCache(ExpireElementLruCache<K, V> cache, long defaultExpirationTime, Ticker ticker) {
+		if (ticker == null) {
+			throw new IllegalArgumentException("ticker must not be null");
+		}
+		this.ticker = ticker;
+		origin = ticker.read();
+		this.cache = cache;
+		timerWheel = new TimerWheel<>(0, new TimerWheel.ExpirationHandler<ExpireElement<K, V>>() {
+			@Override
+			public void expired(ExpireElement<K, V> expireElement) {
+				// Invoked while holding the monitor of the cache. Entries are unlinked from the timer wheel whenever
+				// they are replaced or removed, hence the mapping of the key is the expired element.
+				cache.remove(expireElement.key);
+				cacheExpirations++;
+				cache.notifier.enqueue(expireElement.key, expireElement.element, RemovalCause.EXPIRED);
+			}
+		});
 		setDefaultExpirationTime(defaultExpirationTime);
 	}
 
@@ -70,31 +172,221 @@ public class ExpirationCache<K, V> implements Cache<K, V>, Map<K, V>{
 	 * @return the previous value or {@code null}.
 	 */
 	public V put(K key, V value, long expirationTime) {
-		ExpireElement<V> eOld = cache.put(key, new ExpireElement<V>(value, expirationTime));
+		V previous;
+		synchronized (cache) {
+			previous = putLocked(key, value, expirationTime);
+		}
+		cache.notifier.dispatch();
+		return previous;
+	}
+
+	private V putLocked(K key, V value, long expirationTime) {
+		long now = now();
+		// Piggyback the reclamation of expired entries on writes.
+		timerWheel.advance(now);
+
+		long expirationTimestamp = now + TimeUnit.MILLISECONDS.toNanos(expirationTime);
+		if (expirationTimestamp < 0) {
+			// Overflow, the entry does effectively never expire.
+			expirationTimestamp = Long.MAX_VALUE;
+		}
+		ExpireElement<K, V> e = new ExpireElement<K, V>(key, value, expirationTimestamp, expirationTime);
+		ExpireElement<K, V> eOld = cache.put(key, e);
+		// A weight bounded cache may have evicted the new element already, which must then not be scheduled, as its
+		// expiration would remove a newer mapping of the key.
+		if (cache.peek(key) == e) {
+			timerWheel.schedule(e);
+		}
+
 		if (eOld == null) {
 			return null;
 		}
+		eOld.unlink();
+		cache.notifier.enqueue(key, eOld.element, RemovalCause.REPLACED);
 		return eOld.element;
 	}
 
+	/**
+	 * Remove all expired entries from the cache.
+	 */
+	public void purgeExpired() {
+		synchronized (cache) {
+			timerWheel.advance(now());
+		}
+		cache.notifier.dispatch();
+	}
+
+	private long now() {
+		return ticker.read() - origin;
+	}
+
+	/**
+	 * Periodically remove all expired entries from the cache using the given scheduler. The returned future must be
+	 * cancelled once the cache is no longer used, as the scheduled task references the cache.
+	 *
+	 * @param scheduler the scheduler used to run {@link #purgeExpired()}.
+	 * @param period the period between two runs.
+	 * @param unit the time unit of the period.
+	 * @return the future of the scheduled task.
+	 */
+	public ScheduledFuture<?> schedulePurgeExpired(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+		return scheduler.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				purgeExpired();
+			}
+		}, period, period, unit);
+	}
+
     @Override
     public V lookup(K key) {
         return get(key);
     }
 
+	@Override
+	public <E extends Exception> V get(K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+		return singleFlight.get(this, key, loader);
+	}
+
     @Override
 	public V get(Object key) {
-		ExpireElement<V> v = cache.get(key);
+		RefreshAhead<K, V> refreshAhead = this.refreshAhead;
+		ExpireElement<K, V> v;
+		boolean refresh = false;
+		synchronized (cache) {
+			long now = now();
+			v = getLocked(key, now);
+			if (v != null && refreshAhead != null) {
+				refresh = refreshAhead.startRefresh(v, now);
+			}
+		}
+		cache.notifier.dispatch();
 		if (v == null) {
 			return null;
 		}
-		if (v.isExpired()) {
-			remove(key);
-			return null;
+		if (refresh) {
+			refresh(v, refreshAhead);
 		}
 		return v.element;
 	}
 
+	private ExpireElement<K, V> getLocked(Object key, long now) {
+		ExpireElement<K, V> v = cache.get(key);
+		if (v == null) {
+			cacheMisses++;
+			return null;
+		}
+		if (v.isExpired(now)) {
+			cache.remove(key);
+			v.unlink();
+			cacheMisses++;
+			cacheExpirations++;
+			cache.notifier.enqueue(v.key, v.element, RemovalCause.EXPIRED);
+			return null;
+		}
+		cacheHits++;
+		return v;
+	}
+
+	@Override
+	public Map<K, V> lookupAll(Collection<? extends K> keys) {
+		RefreshAhead<K, V> refreshAhead = this.refreshAhead;
+		Map<K, V> result = new HashMap<>(keys.size());
+		List<ExpireElement<K, V>> refreshes = null;
+		synchronized (cache) {
+			long now = now();
+			for (K key : keys) {
+				ExpireElement<K, V> v = getLocked(key, now);
+				if (v == null) {
+					continue;
+				}
+				result.put(key, v.element);
+				if (refreshAhead != null && refreshAhead.startRefresh(v, now)) {
+					if (refreshes == null) {
+						refreshes = new ArrayList<>();
+					}
+					refreshes.add(v);
+				}
+			}
+		}
+		cache.notifier.dispatch();
+		if (refreshes != null) {
+			for (ExpireElement<K, V> v : refreshes) {
+				refresh(v, refreshAhead);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Enable refresh-ahead. If an entry is read, and the remaining time until it expires is less than the given
+	 * fraction of its expiration time, then the value of the entry is reloaded asynchronously, using the given loader
+	 * and executor. Readers keep getting the current value until the reload completes. Only one reload per entry is
+	 * in flight at a time.
+	 * <p>
+	 * The reloaded value replaces the current value with the expiration time of the current value, unless the entry
+	 * was removed or replaced in the meantime. If the reload fails, or the loader returns {@code null}, then the
+	 * current value is retained until it expires, and the next read of the entry triggers another reload.
+	 * </p>
+	 *
+	 * @param refreshAheadFraction the fraction of the expiration time, greater than 0 and less than 1.
+	 * @param loader the loader used to reload the values.
+	 * @param executor the executor running the reloads.
+	 */
+	public void setRefreshAhead(double refreshAheadFraction, CacheLoader<? super K, ? extends V, ?> loader,
+			Executor executor) {
+		if (!(refreshAheadFraction > 0 && refreshAheadFraction < 1)) {
+			throw new IllegalArgumentException("refreshAheadFraction must be greater than 0 and less than 1");
+		}
+		if (loader == null || executor == null) {
+			throw new IllegalArgumentException("loader and executor must not be null");
+		}
+		refreshAhead = new RefreshAhead<>(refreshAheadFraction, loader, executor);
+	}
+
+	/**
+	 * Disable refresh-ahead. Reloads which are already in flight still complete.
+	 */
+	public void disableRefreshAhead() {
+		refreshAhead = null;
+	}
+
+	private void refresh(final ExpireElement<K, V> expireElement, final RefreshAhead<K, V> refreshAhead) {
+		try {
+			refreshAhead.executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					reload(expireElement, refreshAhead.loader);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			synchronized (cache) {
+				expireElement.refreshing = false;
+			}
+		}
+	}
+
+	// The identity of the element tells if the entry was replaced, elements with equal values are not the same.
+	@SuppressWarnings("ReferenceEquality")
+	private void reload(ExpireElement<K, V> expireElement, CacheLoader<? super K, ? extends V, ?> loader) {
+		V value;
+		try {
+			value = loader.load(expireElement.key);
+		} catch (Exception e) {
+			// Retain the current value, the next read of the entry triggers another reload.
+			value = null;
+		}
+
+		synchronized (cache) {
+			expireElement.refreshing = false;
+			// Discard the reloaded value if the entry was removed or replaced in the meantime.
+			if (value != null && cache.peek(expireElement.key) == expireElement) {
+				putLocked(expireElement.key, value, expireElement.timeToLive);
+			}
+		}
+		cache.notifier.dispatch();
+	}
+
 	/**
 	 * Remove a entry with the given key from the cache.
 	 * 
@@ -103,10 +395,16 @@ public class ExpirationCache<K, V> implements Cache<K, V>, Map<K, V>{
 	 */
 	@Override
 	public V remove(Object key) {
-		ExpireElement<V> e = cache.remove(key);
-		if (e == null) {
-			return null;
+		ExpireElement<K, V> e;
+		synchronized (cache) {
+			e = cache.remove(key);
+			if (e == null) {
+				return null;
+			}
+			e.unlink();
+			cache.notifier.enqueue(e.key, e.element, RemovalCause.EXPLICIT);
 		}
+		cache.notifier.dispatch();
 		return e.element;
 	}
 
@@ -115,117 +413,493 @@ public class ExpirationCache<K, V> implements Cache<K, V>, Map<K, V>{
 		return cache.getMaxCacheSize();
 	}
 
+	/**
+	 * Get a snapshot of the statistics of this cache. The eviction count includes the entries which expired.
+	 *
+	 * @return the statistics of this cache.
+	 */
+	@Override
+	public CacheStats getCacheStats() {
+		synchronized (cache) {
+			long evictions = cache.getCacheEvictions() + cacheExpirations;
+			return new CacheStats(cacheHits, cacheMisses, evictions, singleFlight.getLoadCount(),
+					singleFlight.getTotalLoadTime(), cache.size());
+		}
+	}
+
 	@Override
 	public void setMaxCacheSize(int maxCacheSize) {
 		cache.setMaxCacheSize(maxCacheSize);
 	}
 
-	private static class ExpireElement<V> {
-		private final V element;
-		private final long expirationTimestamp;
+	/**
+	 * Get the maximum total weight of the entries of this cache.
+	 *
+	 * @return the maximum cache weight, or -1 if the cache is not bounded by weight.
+	 */
+	public long getMaxCacheWeight() {
+		return cache.getMaxCacheWeight();
+	}
 
-		private ExpireElement(V element, long expirationTime) {
+	/**
+	 * Set the maximum total weight of the entries of this cache.
+	 *
+	 * @param maxCacheWeight the new maximum cache weight, or -1 if the cache should not be bounded by weight.
+	 * @throws IllegalStateException if this cache was created without a {@link Weigher}.
+	 */
+	public void setMaxCacheWeight(long maxCacheWeight) {
+		cache.setMaxCacheWeight(maxCacheWeight);
+		cache.notifier.dispatch();
+	}
+
+	/**
+	 * Set the listener notified when entries are removed from this cache, including the entries which expired. The
+	 * listener is invoked by the thread which caused the removal, after the lock of this cache was released.
+	 *
+	 * @param removalListener the removal listener, or {@code null} to remove the listener.
+	 */
+	public void setRemovalListener(RemovalListener<? super K, ? super V> removalListener) {
+		setRemovalListener(removalListener, null);
+	}
+
+	/**
+	 * Set the listener notified when entries are removed from this cache, including the entries which expired. The
+	 * listener is invoked using the given executor. If no executor is given, then the listener is invoked by the
+	 * thread which caused the removal, after the lock of this cache was released.
+	 *
+	 * @param removalListener the removal listener, or {@code null} to remove the listener.
+	 * @param executor the executor used to invoke the listener, or {@code null}.
+	 */
+	public void setRemovalListener(RemovalListener<? super K, ? super V> removalListener, Executor executor) {
+		cache.notifier.setListener(removalListener, executor);
+	}
+
+	/**
+	 * Get the current total weight of the entries of this cache.
+	 *
+	 * @return the current cache weight, or 0 if this cache was created without a {@link Weigher}.
+	 */
+	public long getCacheWeight() {
+		return cache.getCacheWeight();
+	}
+
+	private static final class RefreshAhead<K, V> {
+		private final double refreshAheadFraction;
+		private final CacheLoader<? super K, ? extends V, ?> loader;
+		private final Executor executor;
+
+		private RefreshAhead(double refreshAheadFraction, CacheLoader<? super K, ? extends V, ?> loader,
+				Executor executor) {
+			this.refreshAheadFraction = refreshAheadFraction;
+			this.loader = loader;
+			this.executor = executor;
+		}
+
+		/**
+		 * Check if the given element, which was just read, needs to be reloaded, and if so, mark it as refreshing.
+		 * Must be invoked while holding the monitor of the underlying LRU cache.
+		 *
+		 * @param expireElement the element.
+		 * @param now the current time.
+		 * @return true if the element needs to be reloaded by the caller.
+		 */
+		private boolean startRefresh(ExpireElement<?, ?> expireElement, long now) {
+			if (expireElement.refreshing) {
+				return false;
+			}
+			long refreshAheadTime = (long) (TimeUnit.MILLISECONDS.toNanos(expireElement.timeToLive)
+					* refreshAheadFraction);
+			if (now < expireElement.expirationTime - refreshAheadTime) {
+				return false;
+			}
+			expireElement.refreshing = true;
+			return true;
+		}
+	}
+
+	private static final class ExpireElementLruCache<K, V> extends LruCache<K, ExpireElement<K, V>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RemovalNotifier<K, V> notifier = new RemovalNotifier<>();
+
+		private ExpireElementLruCache(int maxSize) {
+			super(maxSize);
+		}
+
+		private ExpireElementLruCache(int maxSize, long maxWeight, final Weigher<? super K, ? super V> weigher) {
+			super(maxSize, maxWeight, new Weigher<K, ExpireElement<K, V>>() {
+				@Override
+				public int weigh(K key, ExpireElement<K, V> expireElement) {
+					return weigher.weigh(key, expireElement.element);
+				}
+			});
+			if (weigher == null) {
+				throw new IllegalArgumentException("weigher must not be null");
+			}
+		}
+
+		@Override
+		void evicted(Map.Entry<K, ExpireElement<K, V>> eldest) {
+			ExpireElement<K, V> expireElement = eldest.getValue();
+			expireElement.unlink();
+			notifier.enqueue(expireElement.key, expireElement.element, RemovalCause.SIZE);
+		}
+	}
+
+	/**
+	 * An element of the cache, which is also the entry exposed by the {@link #entrySet()} view. The entries do not
+	 * support {@link #setValue(Object)}.
+	 */
+	private static final class ExpireElement<K, V> extends TimerWheel.Node implements Map.Entry<K, V> {
+		private final K key;
+		private final V element;
+		/**
+		 * The expiration time of this element in milliseconds.
+		 */
+		private final long timeToLive;
+		/**
+		 * True if a reload of this element is in flight, guarded by the monitor of the underlying LRU cache.
+		 */
+		private boolean refreshing;
+
+		private ExpireElement(K key, V element, long expirationTimestamp, long timeToLive) {
+			this.key = key;
 			this.element = element;
-			this.expirationTimestamp = System.currentTimeMillis() + expirationTime;
+			this.expirationTime = expirationTimestamp;
+			this.timeToLive = timeToLive;
+		}
+
+		private boolean isExpired(long now) {
+			return now > expirationTime;
 		}
 
-		private boolean isExpired() {
-			return System.currentTimeMillis() > expirationTimestamp;
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return element;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
 		}
 
 		@Override
 		public int hashCode() {
-			return element.hashCode();
+			return key.hashCode() ^ element.hashCode();
 		}
 
 		@Override
 		public boolean equals(Object other) {
-			if (!(other instanceof ExpireElement))
+			if (!(other instanceof Map.Entry))
 				return false;
-			ExpireElement<?> otherElement = (ExpireElement<?>) other;
-			return element.equals(otherElement.element);
+			Map.Entry<?, ?> otherEntry = (Map.Entry<?, ?>) other;
+			return key.equals(otherEntry.getKey()) && element.equals(otherEntry.getValue());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + element;
 		}
 	}
 
+	/**
+	 * Get the number of entries which are not expired. This method traverses all entries of the cache.
+	 *
+	 * @return the number of entries which are not expired.
+	 */
 	@Override
 	public int size() {
-		return cache.size();
+		synchronized (cache) {
+			long now = now();
+			int size = 0;
+			for (ExpireElement<K, V> expireElement : cache.values()) {
+				if (!expireElement.isExpired(now)) {
+					size++;
+				}
+			}
+			return size;
+		}
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return cache.isEmpty();
+		synchronized (cache) {
+			long now = now();
+			for (ExpireElement<K, V> expireElement : cache.values()) {
+				if (!expireElement.isExpired(now)) {
+					return false;
+				}
+			}
+			return true;
+		}
 	}
 
 	@Override
 	public boolean containsKey(Object key) {
-		return cache.containsKey(key);
+		synchronized (cache) {
+			ExpireElement<K, V> expireElement = cache.peek(key);
+			return expireElement != null && !expireElement.isExpired(now());
+		}
 	}
 
 	@Override
 	public boolean containsValue(Object value) {
-		return cache.containsValue(value);
+		synchronized (cache) {
+			long now = now();
+			for (ExpireElement<K, V> expireElement : cache.values()) {
+				if (!expireElement.isExpired(now) && expireElement.element.equals(value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Invoke the given visitor with every entry which is not expired. The visitor is invoked while holding the lock of
+	 * this cache, hence this is safe to use while the cache is modified concurrently, and no objects are allocated per
+	 * entry. The visitor must not modify this cache.
+	 *
+	 * @param visitor the visitor.
+	 */
+	@Override
+	public void forEachEntry(EntryVisitor<? super K, ? super V> visitor) {
+		synchronized (cache) {
+			long now = now();
+			for (ExpireElement<K, V> expireElement : cache.values()) {
+				if (!expireElement.isExpired(now)) {
+					visitor.visit(expireElement.key, expireElement.element);
+				}
+			}
+		}
 	}
 
 	@Override
 	public void putAll(Map<? extends K, ? extends V> m) {
-		for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
-			put(entry.getKey(), entry.getValue());
+		synchronized (cache) {
+			for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+				putLocked(entry.getKey(), entry.getValue(), defaultExpirationTime);
+			}
 		}
+		cache.notifier.dispatch();
 	}
 
 	@Override
 	public void clear() {
-		cache.clear();
+		synchronized (cache) {
+			if (cache.notifier.isActive()) {
+				for (ExpireElement<K, V> expireElement : cache.values()) {
+					cache.notifier.enqueue(expireElement.key, expireElement.element, RemovalCause.EXPLICIT);
+				}
+			}
+			cache.clear();
+			timerWheel.clear();
+			cacheHits = 0;
+			cacheMisses = 0;
+			cacheExpirations = 0;
+			singleFlight.reset();
+		}
+		cache.notifier.dispatch();
 	}
 
+	/**
+	 * Returns a live view of the keys of the entries which are not expired. Like the other views of this cache, the
+	 * iterators of the view do not copy the entries, and fail fast with a {@link java.util.ConcurrentModificationException}
+	 * if the cache is modified while iterating, except through the iterator itself. Use
+	 * {@link #forEachEntry(EntryVisitor)} to traverse a cache which is modified concurrently.
+	 *
+	 * @return a set view of the keys.
+	 */
 	@Override
 	public Set<K> keySet() {
-		return cache.keySet();
+		return new AbstractSet<K>() {
+			@Override
+			public Iterator<K> iterator() {
+				return new ExpirationFilteringIterator<K>() {
+					@Override
+					K map(ExpireElement<K, V> expireElement) {
+						return expireElement.key;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return ExpirationCache.this.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				return ExpirationCache.this.remove(o) != null;
+			}
+
+			@Override
+			public void clear() {
+				ExpirationCache.this.clear();
+			}
+		};
 	}
 
+	/**
+	 * Returns a live view of the values of the entries which are not expired.
+	 *
+	 * @return a collection view of the values.
+	 * @see #keySet()
+	 */
 	@Override
 	public Collection<V> values() {
-		Set<V> res = new HashSet<V>();
-		for (ExpireElement<V> value : cache.values()) {
-			res.add(value.element);
-		}
-		return res;
+		return new AbstractCollection<V>() {
+			@Override
+			public Iterator<V> iterator() {
+				return new ExpirationFilteringIterator<V>() {
+					@Override
+					V map(ExpireElement<K, V> expireElement) {
+						return expireElement.element;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return ExpirationCache.this.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return containsValue(o);
+			}
+
+			@Override
+			public void clear() {
+				ExpirationCache.this.clear();
+			}
+		};
 	}
 
+	/**
+	 * Returns a live view of the entries which are not expired. The entries of the view do not support
+	 * {@link java.util.Map.Entry#setValue(Object)}.
+	 *
+	 * @return a set view of the entries.
+	 * @see #keySet()
+	 */
 	@Override
-	public Set<java.util.Map.Entry<K, V>> entrySet() {
-		Set<Entry<K, V>> res = new HashSet<Entry<K, V>>();
-		for (Entry<K, ExpireElement<V>> entry : cache.entrySet()) {
-			res.add(new EntryImpl<K, V>(entry.getKey(), entry.getValue().element));
-		}
-		return res;
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new AbstractSet<Map.Entry<K, V>>() {
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator() {
+				return new ExpirationFilteringIterator<Map.Entry<K, V>>() {
+					@Override
+					Map.Entry<K, V> map(ExpireElement<K, V> expireElement) {
+						return expireElement;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return ExpirationCache.this.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof Map.Entry)) {
+					return false;
+				}
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				synchronized (cache) {
+					ExpireElement<K, V> expireElement = cache.peek(entry.getKey());
+					return expireElement != null && !expireElement.isExpired(now()) && expireElement.equals(entry);
+				}
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				if (!contains(o)) {
+					return false;
+				}
+				return ExpirationCache.this.remove(((Map.Entry<?, ?>) o).getKey()) != null;
+			}
+
+			@Override
+			public void clear() {
+				ExpirationCache.this.clear();
+			}
+		};
 	}
 
-	private static class EntryImpl<K, V> implements Entry<K, V> {
+	/**
+	 * An iterator over the entries which were not expired when the iterator was created.
+	 *
+	 * @param <T> the type of the elements of the iterator.
+	 */
+	private abstract class ExpirationFilteringIterator<T> implements Iterator<T> {
+
+		private final Iterator<ExpireElement<K, V>> iterator = cache.values().iterator();
 
-		private final K key;
-		private V value;
+		private final long now = now();
+
+		private ExpireElement<K, V> next;
+
+		private ExpireElement<K, V> last;
+
+		/**
+		 * Whether the underlying iterator advanced beyond the last returned element.
+		 */
+		private boolean advancedBeyondLast;
+
+		abstract T map(ExpireElement<K, V> expireElement);
 
-		EntryImpl(K key, V value) {
-			this.key = key;
-			this.value = value;
-		}
 		@Override
-		public K getKey() {
-			return key;
+		public boolean hasNext() {
+			while (next == null && iterator.hasNext()) {
+				advancedBeyondLast = true;
+				ExpireElement<K, V> expireElement = iterator.next();
+				if (!expireElement.isExpired(now)) {
+					next = expireElement;
+				}
+			}
+			return next != null;
 		}
 
 		@Override
-		public V getValue() {
-			return value;
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = null;
+			advancedBeyondLast = false;
+			return map(last);
 		}
 
 		@Override
-		public V setValue(V value) {
-			V oldValue = this.value;
-			this.value = value;
-			return oldValue;
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			if (advancedBeyondLast) {
+				throw new IllegalStateException("remove() must be invoked before hasNext()");
+			}
+			synchronized (cache) {
+				iterator.remove();
+				last.unlink();
+				cache.removed(last.key, last);
+				cache.notifier.enqueue(last.key, last.element, RemovalCause.EXPLICIT);
+			}
+			last = null;
+			cache.notifier.dispatch();
 		}
 	}
 }
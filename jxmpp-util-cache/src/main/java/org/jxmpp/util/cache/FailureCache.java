@@ -0,0 +1,172 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * A bounded cache of the exceptions thrown when loading the values of keys, i.e. a negative cache.
+ * <p>
+ * Caches only hold the values which were loaded successfully. Hence a key whose value can not be loaded, for example
+ * a malformed String which is received over and over again, is loaded on every lookup, which often includes creating
+ * a new exception with a stack trace. A failure cache remembers the exception for a short time instead, so that the
+ * failure of a known key is rethrown at the cost of a single lookup. See {@link #wrap(CacheLoader)} for how to combine
+ * a failure cache with a cache of the values.
+ * </p>
+ * <p>
+ * The cached exceptions are rethrown as they are, hence they are shared between all threads looking up the same key.
+ * The entries expire after the expiration time given on construction, so that a failure is not cached forever if the
+ * loader fails only temporarily.
+ * </p>
+ *
+ * @param <K> the type of the keys.
+ * @param <E> the type of the exceptions.
+ */
+public class FailureCache<K, E extends Exception> {
+
+	private final ExpirationCache<K, E> failures;
+
+	/**
+	 * Construct a new failure cache.
+	 *
+	 * @param maxSize the maximum number of cached failures.
+	 * @param expirationTime the time in milliseconds after which a failure is no longer cached.
+	 */
+	public FailureCache(int maxSize, long expirationTime) {
+		this(maxSize, expirationTime, Ticker.SYSTEM_TICKER);
+	}
+
+	/**
+	 * Construct a new failure cache using the given ticker.
+	 *
+	 * @param maxSize the maximum number of cached failures.
+	 * @param expirationTime the time in milliseconds after which a failure is no longer cached.
+	 * @param ticker the ticker used to determine the expiration of failures.
+	 */
+	public FailureCache(int maxSize, long expirationTime, Ticker ticker) {
+		failures = new ExpirationCache<>(maxSize, expirationTime, ticker);
+	}
+
+	/**
+	 * Get the cached failure of the given key.
+	 *
+	 * @param key the key.
+	 * @return the cached failure of the key, or {@code null}.
+	 */
+	public E lookup(K key) {
+		return failures.lookup(key);
+	}
+
+	/**
+	 * Rethrow the cached failure of the given key, if any.
+	 *
+	 * @param key the key.
+	 * @throws E the cached failure of the key.
+	 */
+	public void throwIfFailed(K key) throws E {
+		E failure = lookup(key);
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Cache the failure of the given key.
+	 *
+	 * @param key the key.
+	 * @param failure the exception thrown when loading the value of the key.
+	 */
+	public void put(K key, E failure) {
+		failures.put(key, failure);
+	}
+
+	/**
+	 * Remove the cached failure of the given key.
+	 *
+	 * @param key the key.
+	 * @return the removed failure, or {@code null}.
+	 */
+	public E remove(K key) {
+		return failures.remove(key);
+	}
+
+	/**
+	 * Remove all cached failures.
+	 */
+	public void clear() {
+		failures.clear();
+	}
+
+	/**
+	 * Get the number of cached failures which are not expired. This method traverses all cached failures.
+	 *
+	 * @return the number of cached failures.
+	 */
+	public int size() {
+		return failures.size();
+	}
+
+	/**
+	 * Get the statistics of this failure cache. A hit is a lookup of a key with a cached failure.
+	 *
+	 * @return the statistics.
+	 */
+	public CacheStats getCacheStats() {
+		return failures.getCacheStats();
+	}
+
+	/**
+	 * Wrap the given loader, so that it rethrows the cached failure of a key instead of loading its value, and caches
+	 * the failures it throws. As the wrapping loader is only invoked if the value of the key is not cached, passing it
+	 * to {@link Cache#get(Object, CacheLoader)} does not slow down the lookup of keys whose values are cached.
+	 *
+	 * @param loader the loader to wrap.
+	 * @param <V> the type of the values.
+	 * @return a loader consulting and filling this failure cache.
+	 */
+	public <V> CacheLoader<K, V, E> wrap(final CacheLoader<? super K, ? extends V, ? extends E> loader) {
+		return new CacheLoader<K, V, E>() {
+			@Override
+			public V load(K key) throws E {
+				return FailureCache.this.load(key, loader);
+			}
+		};
+	}
+
+	/**
+	 * Load the value of the given key with the given loader, unless a failure of the key is cached.
+	 *
+	 * @param key the key.
+	 * @param loader the loader.
+	 * @param <V> the type of the values.
+	 * @return the loaded value.
+	 * @throws E the cached failure of the key, or the failure thrown by the loader.
+	 */
+	public <V> V load(K key, CacheLoader<? super K, ? extends V, ? extends E> loader) throws E {
+		throwIfFailed(key);
+		try {
+			return loader.load(key);
+		} catch (Exception e) {
+			// The loader only throws unchecked exceptions or exceptions of type E.
+			if (e instanceof RuntimeException) {
+				throw (RuntimeException) e;
+			}
+			@SuppressWarnings("unchecked")
+			E failure = (E) e;
+			put(key, failure);
+			throw failure;
+		}
+	}
+}
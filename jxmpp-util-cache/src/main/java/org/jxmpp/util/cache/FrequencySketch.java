@@ -0,0 +1,147 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * A count-min sketch estimating the access frequency of elements with 4-bit counters. Every long of the table holds
+ * sixteen counters, and every element is mapped to four counters, each selected by a different hash function. The
+ * estimated frequency is the minimum of those four counters.
+ * <p>
+ * In order to let the sketch adapt to changing access patterns, all counters are halved once the number of
+ * increments reaches a sample size proportional to the maximum size of the cache. This also bounds the counters,
+ * which saturate at 15.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class FrequencySketch {
+
+	private static final long[] SEEDS = {
+			0xc3a5c85c97cb3127L,
+			0xb492b66fbe98f273L,
+			0x9ae16a3b2f90404fL,
+			0xcbf29ce484222325L,
+	};
+
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	private static final long ONE_MASK = 0x1111111111111111L;
+
+	private static final int MAX_TABLE_SIZE = 1 << 30;
+
+	private long[] table;
+
+	private int tableMask;
+
+	private int sampleSize;
+
+	private int size;
+
+	FrequencySketch(int maximumSize) {
+		ensureCapacity(maximumSize);
+	}
+
+	/**
+	 * Resize the sketch for the given maximum size of the cache. This discards all collected frequencies.
+	 *
+	 * @param maximumSize the maximum size of the cache.
+	 */
+	void ensureCapacity(int maximumSize) {
+		int maximum = Math.max(1, Math.min(maximumSize, MAX_TABLE_SIZE));
+		int tableSize = Integer.highestOneBit(maximum);
+		if (tableSize < maximum) {
+			tableSize <<= 1;
+		}
+		table = new long[tableSize];
+		tableMask = tableSize - 1;
+		sampleSize = maximum <= Integer.MAX_VALUE / 10 ? 10 * maximum : Integer.MAX_VALUE;
+		size = 0;
+	}
+
+	/**
+	 * Get the estimated number of occurrences of the given element, at most 15.
+	 *
+	 * @param element the element.
+	 * @return the estimated frequency of the element.
+	 */
+	int frequency(Object element) {
+		int hash = spread(element.hashCode());
+		int start = (hash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Increment the estimated frequency of the given element. If the sample size is reached, then all counters will
+	 * be halved.
+	 *
+	 * @param element the element.
+	 */
+	void increment(Object element) {
+		int hash = spread(element.hashCode());
+		int start = (hash & 3) << 2;
+
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			added |= incrementAt(index, start + i);
+		}
+
+		if (added && ++size == sampleSize) {
+			reset();
+		}
+	}
+
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long mask = 0xfL << offset;
+		if ((table[index] & mask) == mask) {
+			return false;
+		}
+		table[index] += 1L << offset;
+		return true;
+	}
+
+	private void reset() {
+		int oddCounters = 0;
+		for (int i = 0; i < table.length; i++) {
+			oddCounters += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		// Every element is mapped to four counters, hence roughly a quarter of the odd counters corresponds to the
+		// truncation error of the halving.
+		size = (size - (oddCounters >>> 2)) >>> 1;
+	}
+
+	private int indexOf(int hash, int i) {
+		long h = (hash + SEEDS[i]) * SEEDS[i];
+		h += h >>> 32;
+		return ((int) h) & tableMask;
+	}
+
+	static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+}
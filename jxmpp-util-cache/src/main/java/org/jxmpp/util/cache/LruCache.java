@@ -16,15 +16,26 @@
  */
 package org.jxmpp.util.cache;
 
+import java.util.AbstractMap;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A specialized Map that is size-limited (using an LRU algorithm). The Map is
  * thread-safe.
+ * <p>
+ * Optionally, the cache can also be bounded by the total weight of its
+ * entries, as calculated by a {@link Weigher}. For example, using the
+ * {@link CharSequenceWeigher}, the cache can be given a budget in bytes.
+ * The weight is only accounted for modifications via the methods of the
+ * cache, not via its collection views.
+ * </p>
  * 
  * @author Matt Tucker
  * @author Florian Schmaus
@@ -43,11 +54,30 @@ public class LruCache<K, V> extends LinkedHashMap<K, V> implements Cache<K, V> {
      */
     private static final int DEFAULT_INITIAL_SIZE = 50;
 
+	/**
+	 * A factory creating {@link LruCache} instances.
+	 */
+	public static final CacheFactory FACTORY = new CacheFactory() {
+		@Override
+		public <K, V> Cache<K, V> newCache(int maxSize) {
+			return new LruCache<>(maxSize);
+		}
+	};
+
     /**
      * Maximum number of items the cache will hold.
      */
     private int maxCacheSize;
 
+	/**
+	 * The weigher of the entries, or {@code null} if the cache is not bounded by weight.
+	 */
+	private final Weigher<? super K, ? super V> weigher;
+
+	// The maximum and the current total weight of the entries, guarded by the monitor of this cache.
+	private long maxCacheWeight = -1;
+	private long cacheWeight;
+
     /**
      * Maintain the number of cache hits and misses. A cache hit occurs every
      * time the get method is called and the cache contains the requested
@@ -58,6 +88,11 @@ public class LruCache<K, V> extends LinkedHashMap<K, V> implements Cache<K, V> {
      */
     private final AtomicLong cacheHits = new AtomicLong();
     private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong cacheEvictions = new AtomicLong();
+
+	private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+	private final RemovalNotifier<K, V> removalNotifier = new RemovalNotifier<>();
 
     /**
      * Create a new cache and specify the maximum size of for the cache in
@@ -67,29 +102,169 @@ public class LruCache<K, V> extends LinkedHashMap<K, V> implements Cache<K, V> {
      *      means the cache has no max size.
      */
 	public LruCache(int maxSize) {
-		super(maxSize < DEFAULT_INITIAL_SIZE ? maxSize : DEFAULT_INITIAL_SIZE,
-				0.75f, true);
+		super(initialCapacity(maxSize), 0.75f, true);
         if (maxSize == 0) {
             throw new IllegalArgumentException("Max cache size cannot be 0.");
         }
         this.maxCacheSize = maxSize;
+        this.weigher = null;
     }
 
+	/**
+	 * Create a new cache which is bounded by the number of its entries and by their total weight. Once either bound
+	 * is exceeded, the least recently used entries are evicted.
+	 *
+	 * @param maxSize the maximum number of objects the cache will hold. -1 means the cache has no max size.
+	 * @param maxWeight the maximum total weight of the objects the cache will hold. -1 means the cache has no max
+	 *      weight.
+	 * @param weigher the weigher used to calculate the weight of the entries.
+	 */
+	public LruCache(int maxSize, long maxWeight, Weigher<? super K, ? super V> weigher) {
+		super(initialCapacity(maxSize), 0.75f, true);
+		if (maxSize == 0) {
+			throw new IllegalArgumentException("Max cache size cannot be 0.");
+		}
+		if (weigher == null) {
+			throw new IllegalArgumentException("weigher must not be null");
+		}
+		this.maxCacheSize = maxSize;
+		this.weigher = weigher;
+		this.maxCacheWeight = maxWeight;
+	}
+
+	private static int initialCapacity(int maxSize) {
+		if (maxSize < 0 || maxSize > DEFAULT_INITIAL_SIZE) {
+			return DEFAULT_INITIAL_SIZE;
+		}
+		return maxSize;
+	}
+
 	@Override
 	protected final boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-		return size() > maxCacheSize;
+		if (maxCacheSize < 0 || size() <= maxCacheSize) {
+			return false;
+		}
+		if (weigher != null) {
+			cacheWeight -= weigh(eldest.getKey(), eldest.getValue());
+		}
+		cacheEvictions.incrementAndGet();
+		evicted(eldest);
+		return true;
+	}
+
+	/**
+	 * Evict the least recently used entries until the total weight does not exceed the maximum weight.
+	 */
+	private void evictExcessWeight() {
+		if (maxCacheWeight < 0) {
+			return;
+		}
+		Iterator<Map.Entry<K, V>> it = super.entrySet().iterator();
+		while (cacheWeight > maxCacheWeight && it.hasNext()) {
+			Map.Entry<K, V> eldest = it.next();
+			cacheWeight -= weigh(eldest.getKey(), eldest.getValue());
+			cacheEvictions.incrementAndGet();
+			evicted(eldest);
+			it.remove();
+		}
+	}
+
+	/**
+	 * Reject an entry which is heavier than the maximum weight on its own. Inserting it would evict every other entry
+	 * and then the entry itself, hence it is evicted right away, and the previous mapping of its key is removed, as
+	 * it would have been replaced.
+	 */
+	private V rejectOverweight(K key, V value) {
+		V previous = super.remove(key);
+		if (previous != null) {
+			cacheWeight -= weigh(key, previous);
+			removalNotifier.enqueue(key, previous, RemovalCause.REPLACED);
+		}
+		cacheEvictions.incrementAndGet();
+		evicted(new AbstractMap.SimpleImmutableEntry<>(key, value));
+		return previous;
+	}
+
+	private long weigh(K key, V value) {
+		int weight = weigher.weigh(key, value);
+		if (weight < 0) {
+			throw new IllegalStateException("Weigher returned negative weight " + weight + " for key " + key);
+		}
+		return weight;
+	}
+
+	/**
+	 * Get the value of the given key without recording a cache hit or miss. The caller must hold the cache's monitor.
+	 *
+	 * @param key the key.
+	 * @return the value, or {@code null}.
+	 */
+	final V peek(Object key) {
+		return super.get(key);
+	}
+
+	/**
+	 * Account for an entry which was removed by the iterator of a collection view. The caller must hold the cache's
+	 * monitor.
+	 *
+	 * @param key the key of the removed entry.
+	 * @param value the value of the removed entry.
+	 */
+	final void removed(K key, V value) {
+		if (weigher != null) {
+			cacheWeight -= weigh(key, value);
+		}
+	}
+
+	/**
+	 * Invoked, while holding the cache's monitor, with the entry which is about to be evicted because the cache
+	 * exceeded its maximum size or weight. The default implementation enqueues the notification of the removal
+	 * listener.
+	 *
+	 * @param eldest the evicted entry.
+	 */
+	void evicted(Map.Entry<K, V> eldest) {
+		removalNotifier.enqueue(eldest.getKey(), eldest.getValue(), RemovalCause.SIZE);
 	}
 
     @Override
-    public final synchronized V put(K key, V value) {
-        return super.put(key, value);
+    public final V put(K key, V value) {
+		V previous;
+		synchronized (this) {
+			previous = putLocked(key, value);
+		}
+		removalNotifier.dispatch();
+		return previous;
     }
 
+	private V putLocked(K key, V value) {
+		if (weigher != null && maxCacheWeight >= 0 && weigh(key, value) > maxCacheWeight) {
+			return rejectOverweight(key, value);
+		}
+		V previous = super.put(key, value);
+		if (previous != null) {
+			removalNotifier.enqueue(key, previous, RemovalCause.REPLACED);
+		}
+		if (weigher != null) {
+			if (previous != null) {
+				cacheWeight -= weigh(key, previous);
+			}
+			cacheWeight += weigh(key, value);
+			evictExcessWeight();
+		}
+		return previous;
+	}
+
     @Override
     public final V lookup(K key) {
         return get(key);
     }
 
+	@Override
+	public final <E extends Exception> V get(K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+		return singleFlight.get(this, key, loader);
+	}
+
     @Override
     public final V get(Object key) {
 		V cacheObject;
@@ -109,18 +284,55 @@ public class LruCache<K, V> extends LinkedHashMap<K, V> implements Cache<K, V> {
         return cacheObject;
     }
 
+	@Override
+	public final Map<K, V> lookupAll(Collection<? extends K> keys) {
+		Map<K, V> result = new HashMap<>(keys.size());
+		synchronized (this) {
+			for (K key : keys) {
+				V value = super.get(key);
+				if (value != null) {
+					result.put(key, value);
+				}
+			}
+		}
+		cacheHits.addAndGet(result.size());
+		cacheMisses.addAndGet(keys.size() - result.size());
+		return result;
+	}
+
+    @SuppressWarnings("unchecked")
     @Override
-    public final synchronized V remove(Object key) {
-        return super.remove(key);
+    public final V remove(Object key) {
+		V value;
+		synchronized (this) {
+			value = super.remove(key);
+			if (value != null) {
+				if (weigher != null) {
+					cacheWeight -= weigh((K) key, value);
+				}
+				removalNotifier.enqueue((K) key, value, RemovalCause.EXPLICIT);
+			}
+		}
+		removalNotifier.dispatch();
+		return value;
     }
 
     @Override
     public final void clear() {
 		synchronized (this) {
+			if (removalNotifier.isActive()) {
+				for (Map.Entry<K, V> entry : super.entrySet()) {
+					removalNotifier.enqueue(entry.getKey(), entry.getValue(), RemovalCause.EXPLICIT);
+				}
+			}
 			super.clear();
+			cacheWeight = 0;
 		}
         cacheHits.set(0);
         cacheMisses.set(0);
+        cacheEvictions.set(0);
+        singleFlight.reset();
+        removalNotifier.dispatch();
     }
 
     @Override
@@ -144,10 +356,22 @@ public class LruCache<K, V> extends LinkedHashMap<K, V> implements Cache<K, V> {
     }
 
     @Override
-    public final synchronized void putAll(Map<? extends K, ? extends V> m) {
-		super.putAll(m);
+    public final void putAll(Map<? extends K, ? extends V> m) {
+		synchronized (this) {
+			for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+				putLocked(entry.getKey(), entry.getValue());
+			}
+		}
+		removalNotifier.dispatch();
     }
 
+	@Override
+	public final synchronized void forEachEntry(EntryVisitor<? super K, ? super V> visitor) {
+		for (Map.Entry<K, V> entry : super.entrySet()) {
+			visitor.visit(entry.getKey(), entry.getValue());
+		}
+	}
+
     @Override
     public final synchronized boolean containsValue(Object value) {
         return super.containsValue(value);
@@ -181,6 +405,44 @@ public class LruCache<K, V> extends LinkedHashMap<K, V> implements Cache<K, V> {
         return cacheMisses.longValue();
     }
 
+	/**
+	 * Get the number of entries evicted because the cache exceeded its maximum size.
+	 *
+	 * @return the number of cache evictions.
+	 */
+	public final long getCacheEvictions() {
+		return cacheEvictions.longValue();
+	}
+
+	/**
+	 * Set the listener notified when entries are removed from this cache. The listener is invoked by the thread
+	 * which caused the removal, after the cache's monitor was released. Removals via the collection views of this
+	 * cache are not notified.
+	 *
+	 * @param removalListener the removal listener, or {@code null} to remove the listener.
+	 */
+	public final void setRemovalListener(RemovalListener<? super K, ? super V> removalListener) {
+		setRemovalListener(removalListener, null);
+	}
+
+	/**
+	 * Set the listener notified when entries are removed from this cache. The listener is invoked using the given
+	 * executor. If no executor is given, then the listener is invoked by the thread which caused the removal, after
+	 * the cache's monitor was released.
+	 *
+	 * @param removalListener the removal listener, or {@code null} to remove the listener.
+	 * @param executor the executor used to invoke the listener, or {@code null}.
+	 */
+	public final void setRemovalListener(RemovalListener<? super K, ? super V> removalListener, Executor executor) {
+		removalNotifier.setListener(removalListener, executor);
+	}
+
+	@Override
+	public final CacheStats getCacheStats() {
+		return new CacheStats(getCacheHits(), getCacheMisses(), getCacheEvictions(), singleFlight.getLoadCount(),
+				singleFlight.getTotalLoadTime(), size());
+	}
+
     @Override
     public final int getMaxCacheSize() {
         return maxCacheSize;
@@ -190,4 +452,40 @@ public class LruCache<K, V> extends LinkedHashMap<K, V> implements Cache<K, V> {
     public final void setMaxCacheSize(int maxCacheSize) {
 		this.maxCacheSize = maxCacheSize;
 	}
+
+	/**
+	 * Get the maximum total weight of the entries of this cache.
+	 *
+	 * @return the maximum cache weight, or -1 if the cache is not bounded by weight.
+	 */
+	public final synchronized long getMaxCacheWeight() {
+		return maxCacheWeight;
+	}
+
+	/**
+	 * Set the maximum total weight of the entries of this cache. If the current total weight exceeds the new
+	 * maximum, then the least recently used entries are evicted.
+	 *
+	 * @param maxCacheWeight the new maximum cache weight, or -1 if the cache should not be bounded by weight.
+	 * @throws IllegalStateException if this cache was created without a {@link Weigher}.
+	 */
+	public final void setMaxCacheWeight(long maxCacheWeight) {
+		synchronized (this) {
+			if (weigher == null) {
+				throw new IllegalStateException("Cache was created without a weigher");
+			}
+			this.maxCacheWeight = maxCacheWeight;
+			evictExcessWeight();
+		}
+		removalNotifier.dispatch();
+	}
+
+	/**
+	 * Get the current total weight of the entries of this cache.
+	 *
+	 * @return the current cache weight, or 0 if this cache was created without a {@link Weigher}.
+	 */
+	public final synchronized long getCacheWeight() {
+		return cacheWeight;
+	}
 }
@@ -0,0 +1,59 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ticker whose time only advances when {@link #advance(long, TimeUnit)} is invoked. Allows tests and benchmarks to
+ * drive the expiration of cache entries deterministically.
+ */
+public final class ManualTicker implements Ticker {
+
+	private volatile long nanos;
+
+	/**
+	 * Create a new manual ticker starting at zero.
+	 */
+	public ManualTicker() {
+		this(0);
+	}
+
+	/**
+	 * Create a new manual ticker starting at the given time.
+	 *
+	 * @param nanos the initial time in nanoseconds.
+	 */
+	public ManualTicker(long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Advance the time of this ticker.
+	 *
+	 * @param duration the duration to advance the time by.
+	 * @param unit the time unit of the duration.
+	 */
+	public synchronized void advance(long duration, TimeUnit unit) {
+		nanos += unit.toNanos(duration);
+	}
+
+	@Override
+	public long read() {
+		return nanos;
+	}
+}
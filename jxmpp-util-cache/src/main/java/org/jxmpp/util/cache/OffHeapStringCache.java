@@ -0,0 +1,436 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A thread-safe cache of Strings which stores its entries off-heap, in direct {@link ByteBuffer}s, so that even a
+ * large cache does not inflate the old generation of the heap and the GC pause times.
+ * <p>
+ * The keys and values are stored UTF-8 encoded in an arena, which is written like a circular log. Once the arena,
+ * or the maximum number of entries, is exhausted, the oldest entries are evicted. Hence entries are evicted in the
+ * order they were put into the cache. The entries are indexed by an open addressing hash table, which is also
+ * stored off-heap. A key may only be found within a small window of slots of the hash table. If all slots of the
+ * window are taken, then the oldest entry of the window is evicted.
+ * </p>
+ * <p>
+ * Every lookup decodes the cached value into a new String. This cache is therefore typically used as second tier of
+ * a {@link TieredCache} behind a small {@link LruCache}.
+ * </p>
+ */
+public class OffHeapStringCache implements Cache<String, String> {
+
+	/**
+	 * The default arena capacity per entry in bytes.
+	 */
+	public static final int DEFAULT_BYTES_PER_ENTRY = 128;
+
+	/**
+	 * The header of an entry consists of the key length, the value length and the hash of the key.
+	 */
+	private static final int ENTRY_HEADER_SIZE = 12;
+
+	/**
+	 * Marks the unused remainder of the arena, which is skipped as the entry following it did not fit.
+	 */
+	private static final int PADDING = -1;
+
+	/**
+	 * A slot of the hash table consists of the address of the entry plus one, zero marks an empty slot, and the hash
+	 * of the key.
+	 */
+	private static final int SLOT_SIZE = 16;
+
+	private static final int PROBE_WINDOW = 16;
+
+	private final int arenaCapacity;
+
+	private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+	private ByteBuffer arena;
+
+	private ByteBuffer table;
+
+	private int slotMask;
+
+	private int maxCacheSize;
+
+	/**
+	 * The logical address, i.e. the total number of bytes written to the arena, where the next entry is written.
+	 */
+	private long writeAddress;
+
+	/**
+	 * The logical address of the oldest entry in the arena.
+	 */
+	private long evictAddress;
+
+	private int size;
+
+	private long cacheHits, cacheMisses, cacheEvictions;
+
+	/**
+	 * Create a new off-heap cache with an arena of {@link #DEFAULT_BYTES_PER_ENTRY} bytes per entry.
+	 *
+	 * @param maxSize the maximum number of entries the cache will hold.
+	 */
+	public OffHeapStringCache(int maxSize) {
+		this(maxSize, (int) Math.min((long) maxSize * DEFAULT_BYTES_PER_ENTRY, Integer.MAX_VALUE - 8));
+	}
+
+	/**
+	 * Create a new off-heap cache.
+	 *
+	 * @param maxSize the maximum number of entries the cache will hold.
+	 * @param arenaCapacity the capacity in bytes of the arena holding the keys and values.
+	 */
+	public OffHeapStringCache(int maxSize, int arenaCapacity) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Max cache size must be positive");
+		}
+		if (arenaCapacity < ENTRY_HEADER_SIZE) {
+			throw new IllegalArgumentException("Arena capacity must be at least " + ENTRY_HEADER_SIZE + " bytes");
+		}
+		// Entries are aligned to four bytes.
+		this.arenaCapacity = arenaCapacity & ~3;
+		allocate(maxSize);
+	}
+
+	private void allocate(int maxSize) {
+		maxCacheSize = maxSize;
+		// Use at least twice as many slots as entries, so that the windows of the hash table are rarely exhausted.
+		int slots = Integer.highestOneBit(Math.max(PROBE_WINDOW, Math.min(maxSize, 1 << 25)) * 4 - 1);
+		slotMask = slots - 1;
+		table = ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+		arena = ByteBuffer.allocateDirect(arenaCapacity);
+		writeAddress = 0;
+		evictAddress = 0;
+		size = 0;
+	}
+
+	@Override
+	public final synchronized String put(String key, String value) {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+		int hash = hash(key);
+
+		int slot = findSlot(keyBytes, hash);
+		String previous = null;
+		if (slot >= 0) {
+			previous = readValue(slotAddress(slot));
+			// The previous entry becomes garbage in the arena, which is reclaimed once it is overwritten.
+			clearSlot(slot);
+			size--;
+		}
+
+		int entryLength = align(ENTRY_HEADER_SIZE + keyBytes.length + valueBytes.length);
+		if (entryLength > arenaCapacity) {
+			// The entry does not fit into the arena, hence it is not cached.
+			return previous;
+		}
+
+		int offset = physicalOffset(writeAddress);
+		if (offset + entryLength > arenaCapacity) {
+			// The entry does not fit into the remainder of the arena, skip to the start of the arena.
+			long nextLap = writeAddress + (arenaCapacity - offset);
+			evictUntil(nextLap);
+			arena.putInt(offset, PADDING);
+			writeAddress = nextLap;
+			offset = 0;
+		}
+		evictUntil(writeAddress + entryLength);
+
+		long address = writeAddress;
+		arena.putInt(offset, keyBytes.length);
+		arena.putInt(offset + 4, valueBytes.length);
+		arena.putInt(offset + 8, hash);
+		// Invoke Buffer.position(int), as the covariant ByteBuffer.position(int) is not available on Android.
+		((Buffer) arena).position(offset + ENTRY_HEADER_SIZE);
+		arena.put(keyBytes);
+		arena.put(valueBytes);
+		writeAddress += entryLength;
+
+		insertSlot(hash, address);
+		size++;
+		while (size > maxCacheSize) {
+			evictOldest();
+		}
+		return previous;
+	}
+
+	@Override
+	public final synchronized String lookup(String key) {
+		int slot = findSlot(key.getBytes(StandardCharsets.UTF_8), hash(key));
+		if (slot < 0) {
+			cacheMisses++;
+			return null;
+		}
+		cacheHits++;
+		return readValue(slotAddress(slot));
+	}
+
+	@Override
+	public final <E extends Exception> String get(String key, CacheLoader<? super String, ? extends String, E> loader)
+			throws E {
+		return singleFlight.get(this, key, loader);
+	}
+
+	/**
+	 * Invoke the given visitor with every entry of this cache, in the order the entries were put into the cache. The
+	 * keys and values are decoded into new Strings.
+	 *
+	 * @param visitor the visitor.
+	 */
+	@Override
+	public final synchronized void forEachEntry(EntryVisitor<? super String, ? super String> visitor) {
+		long address = evictAddress;
+		while (address < writeAddress) {
+			int offset = physicalOffset(address);
+			int keyLength = arena.getInt(offset);
+			if (keyLength == PADDING) {
+				address += arenaCapacity - offset;
+				continue;
+			}
+			int valueLength = arena.getInt(offset + 4);
+			int hash = arena.getInt(offset + 8);
+			// Skip the garbage of entries which were replaced, removed or evicted from the hash table.
+			if (findSlotOf(hash, address) >= 0) {
+				visitor.visit(readKey(address), readValue(address));
+			}
+			address += align(ENTRY_HEADER_SIZE + keyLength + valueLength);
+		}
+	}
+
+	/**
+	 * Remove the entry with the given key from the cache.
+	 *
+	 * @param key the key of the entry to remove.
+	 * @return the removed value, or {@code null}.
+	 */
+	public final synchronized String remove(String key) {
+		int slot = findSlot(key.getBytes(StandardCharsets.UTF_8), hash(key));
+		if (slot < 0) {
+			return null;
+		}
+		String value = readValue(slotAddress(slot));
+		clearSlot(slot);
+		size--;
+		return value;
+	}
+
+	/**
+	 * Remove all entries from the cache and reset the statistics of this cache.
+	 */
+	public final synchronized void clear() {
+		for (int i = 0; i <= slotMask; i++) {
+			clearSlot(i);
+		}
+		writeAddress = 0;
+		evictAddress = 0;
+		size = 0;
+		cacheHits = 0;
+		cacheMisses = 0;
+		cacheEvictions = 0;
+		singleFlight.reset();
+	}
+
+	/**
+	 * Get the number of entries in this cache.
+	 *
+	 * @return the number of entries.
+	 */
+	public final synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Get the capacity in bytes of the arena holding the keys and values.
+	 *
+	 * @return the arena capacity.
+	 */
+	public final int getArenaCapacity() {
+		return arenaCapacity;
+	}
+
+	@Override
+	public final synchronized CacheStats getCacheStats() {
+		return new CacheStats(cacheHits, cacheMisses, cacheEvictions, singleFlight.getLoadCount(),
+				singleFlight.getTotalLoadTime(), size);
+	}
+
+	@Override
+	public final synchronized int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	/**
+	 * Set the maximum number of entries of this cache. As the off-heap buffers are re-allocated, all entries are
+	 * removed from the cache.
+	 *
+	 * @param maxCacheSize the new maximum cache size.
+	 */
+	@Override
+	public final synchronized void setMaxCacheSize(int maxCacheSize) {
+		if (maxCacheSize <= 0) {
+			throw new IllegalArgumentException("Max cache size must be positive");
+		}
+		allocate(maxCacheSize);
+	}
+
+	private int findSlot(byte[] keyBytes, int hash) {
+		for (int i = 0; i < PROBE_WINDOW; i++) {
+			int slot = (hash + i) & slotMask;
+			long address = slotAddress(slot);
+			if (address < 0 || table.getInt(slot * SLOT_SIZE + 8) != hash) {
+				continue;
+			}
+			if (keyEquals(address, keyBytes)) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private void insertSlot(int hash, long address) {
+		int oldestSlot = -1;
+		long oldestAddress = Long.MAX_VALUE;
+		for (int i = 0; i < PROBE_WINDOW; i++) {
+			int slot = (hash + i) & slotMask;
+			long slotAddress = slotAddress(slot);
+			if (slotAddress < 0) {
+				setSlot(slot, hash, address);
+				return;
+			}
+			if (slotAddress < oldestAddress) {
+				oldestAddress = slotAddress;
+				oldestSlot = slot;
+			}
+		}
+
+		// All slots of the window are taken, evict the oldest entry of the window. Its bytes in the arena become
+		// garbage, which is reclaimed once it is overwritten.
+		setSlot(oldestSlot, hash, address);
+		size--;
+		cacheEvictions++;
+	}
+
+	/**
+	 * Evict the entries of the arena until the given logical address can be written without overwriting an entry.
+	 *
+	 * @param address the logical address.
+	 */
+	private void evictUntil(long address) {
+		while (address - evictAddress > arenaCapacity) {
+			evictOldest();
+		}
+	}
+
+	private void evictOldest() {
+		int offset = physicalOffset(evictAddress);
+		int keyLength = arena.getInt(offset);
+		if (keyLength == PADDING) {
+			evictAddress += arenaCapacity - offset;
+			return;
+		}
+		int valueLength = arena.getInt(offset + 4);
+		int hash = arena.getInt(offset + 8);
+
+		// The entry may have been replaced, removed or evicted from the hash table already.
+		int slot = findSlotOf(hash, evictAddress);
+		if (slot >= 0) {
+			clearSlot(slot);
+			size--;
+			cacheEvictions++;
+		}
+		evictAddress += align(ENTRY_HEADER_SIZE + keyLength + valueLength);
+	}
+
+	private int findSlotOf(int hash, long address) {
+		for (int i = 0; i < PROBE_WINDOW; i++) {
+			int slot = (hash + i) & slotMask;
+			if (slotAddress(slot) == address) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private boolean keyEquals(long address, byte[] keyBytes) {
+		int offset = physicalOffset(address);
+		if (arena.getInt(offset) != keyBytes.length) {
+			return false;
+		}
+		int keyOffset = offset + ENTRY_HEADER_SIZE;
+		for (int i = 0; i < keyBytes.length; i++) {
+			if (arena.get(keyOffset + i) != keyBytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String readKey(long address) {
+		int offset = physicalOffset(address);
+		int keyLength = arena.getInt(offset);
+		byte[] keyBytes = new byte[keyLength];
+		((Buffer) arena).position(offset + ENTRY_HEADER_SIZE);
+		arena.get(keyBytes);
+		return new String(keyBytes, StandardCharsets.UTF_8);
+	}
+
+	private String readValue(long address) {
+		int offset = physicalOffset(address);
+		int keyLength = arena.getInt(offset);
+		int valueLength = arena.getInt(offset + 4);
+		byte[] valueBytes = new byte[valueLength];
+		((Buffer) arena).position(offset + ENTRY_HEADER_SIZE + keyLength);
+		arena.get(valueBytes);
+		return new String(valueBytes, StandardCharsets.UTF_8);
+	}
+
+	private long slotAddress(int slot) {
+		return table.getLong(slot * SLOT_SIZE) - 1;
+	}
+
+	private void setSlot(int slot, int hash, long address) {
+		table.putLong(slot * SLOT_SIZE, address + 1);
+		table.putInt(slot * SLOT_SIZE + 8, hash);
+	}
+
+	private void clearSlot(int slot) {
+		table.putLong(slot * SLOT_SIZE, 0);
+	}
+
+	private int physicalOffset(long address) {
+		return (int) (address % arenaCapacity);
+	}
+
+	private static int align(int length) {
+		return (length + 3) & ~3;
+	}
+
+	private static int hash(String key) {
+		int h = key.hashCode();
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		return h;
+	}
+}
@@ -0,0 +1,314 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe cache which references its values softly or weakly, so that they can be reclaimed by the garbage
+ * collector. The cache is able to grow into spare heap, while it shrinks under memory pressure. Entries whose value
+ * was reclaimed are removed from the cache when a reference queue is drained, which happens on every write to the
+ * cache.
+ * <p>
+ * Optionally, the cache is also bounded by the number of its entries, in which case the entries are evicted in the
+ * order they were put into the cache.
+ * </p>
+ * <p>
+ * This cache is typically used as second tier of a {@link TieredCache} behind a strong {@link LruCache}.
+ * </p>
+ *
+ * @param <K> the type of the keys of this cache.
+ * @param <V> the type of the values this cache caches.
+ */
+public class ReferenceCache<K, V> implements Cache<K, V> {
+
+	/**
+	 * The strength of the references to the values of a {@link ReferenceCache}.
+	 */
+	public enum Strength {
+		/**
+		 * Values are softly referenced, and hence only reclaimed under memory pressure.
+		 */
+		SOFT,
+
+		/**
+		 * Values are weakly referenced, and hence reclaimed once they are no longer strongly reachable.
+		 */
+		WEAK,
+	}
+
+	// Uses the insertion order, so that looking up an entry does not modify the map.
+	private final Map<K, ValueReference<K, V>> map = new LinkedHashMap<>();
+
+	private final ReferenceQueue<V> referenceQueue = new ReferenceQueue<>();
+
+	private final Strength strength;
+
+	private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+	private int maxCacheSize;
+
+	// The statistics of this cache, guarded by the monitor of this cache.
+	private long cacheHits, cacheMisses, cacheEvictions;
+
+	/**
+	 * Create a new reference cache.
+	 *
+	 * @param maxSize the maximum number of objects the cache will hold. -1 means the cache has no max size.
+	 * @param strength the strength of the references to the values.
+	 */
+	public ReferenceCache(int maxSize, Strength strength) {
+		if (maxSize == 0) {
+			throw new IllegalArgumentException("Max cache size cannot be 0.");
+		}
+		if (strength == null) {
+			throw new IllegalArgumentException("strength must not be null");
+		}
+		this.maxCacheSize = maxSize;
+		this.strength = strength;
+	}
+
+	/**
+	 * Get the strength of the references to the values of this cache.
+	 *
+	 * @return the strength of the references.
+	 */
+	public final Strength getStrength() {
+		return strength;
+	}
+
+	@Override
+	public final synchronized V put(K key, V value) {
+		drainReferenceQueue();
+
+		ValueReference<K, V> reference;
+		switch (strength) {
+		case SOFT:
+			reference = new SoftValueReference<>(key, value, referenceQueue);
+			break;
+		case WEAK:
+			reference = new WeakValueReference<>(key, value, referenceQueue);
+			break;
+		default:
+			throw new AssertionError();
+		}
+
+		ValueReference<K, V> previous = map.put(key, reference);
+		evictExcessEntries();
+
+		if (previous == null) {
+			return null;
+		}
+		return previous.get();
+	}
+
+	@Override
+	public final synchronized V lookup(K key) {
+		ValueReference<K, V> reference = map.get(key);
+		V value = null;
+		if (reference != null) {
+			value = reference.get();
+			if (value == null) {
+				// The value was reclaimed, but the reference was not yet drained from the queue.
+				map.remove(key);
+				cacheEvictions++;
+			}
+		}
+
+		if (value == null) {
+			cacheMisses++;
+		} else {
+			cacheHits++;
+		}
+		return value;
+	}
+
+	@Override
+	public final <E extends Exception> V get(K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+		return singleFlight.get(this, key, loader);
+	}
+
+	@Override
+	public final synchronized Map<K, V> lookupAll(Collection<? extends K> keys) {
+		Map<K, V> result = new HashMap<>(keys.size());
+		for (K key : keys) {
+			V value = lookup(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public final synchronized void putAll(Map<? extends K, ? extends V> entries) {
+		for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Invoke the given visitor with every entry of this cache whose value was not reclaimed, in the order the entries
+	 * were put into the cache.
+	 *
+	 * @param visitor the visitor.
+	 */
+	@Override
+	public final synchronized void forEachEntry(EntryVisitor<? super K, ? super V> visitor) {
+		for (ValueReference<K, V> reference : map.values()) {
+			V value = reference.get();
+			if (value != null) {
+				visitor.visit(reference.getKey(), value);
+			}
+		}
+	}
+
+	/**
+	 * Remove the entry with the given key from the cache.
+	 *
+	 * @param key the key of the entry to remove.
+	 * @return the removed value, or {@code null}.
+	 */
+	public final synchronized V remove(K key) {
+		ValueReference<K, V> reference = map.remove(key);
+		if (reference == null) {
+			return null;
+		}
+		return reference.get();
+	}
+
+	/**
+	 * Remove all entries from the cache and reset the statistics of this cache.
+	 */
+	public final synchronized void clear() {
+		map.clear();
+		drainReferenceQueue();
+		cacheHits = 0;
+		cacheMisses = 0;
+		cacheEvictions = 0;
+		singleFlight.reset();
+	}
+
+	/**
+	 * Get the number of entries in this cache. This includes entries whose value was reclaimed, but which have not
+	 * yet been removed from the cache.
+	 *
+	 * @return the number of entries.
+	 */
+	public final synchronized int size() {
+		return map.size();
+	}
+
+	/**
+	 * Remove all entries whose value was reclaimed by the garbage collector from the cache.
+	 */
+	public final synchronized void cleanUp() {
+		drainReferenceQueue();
+	}
+
+	/**
+	 * Get a snapshot of the statistics of this cache. The eviction count includes the entries whose value was
+	 * reclaimed by the garbage collector.
+	 *
+	 * @return the statistics of this cache.
+	 */
+	@Override
+	public final synchronized CacheStats getCacheStats() {
+		drainReferenceQueue();
+		return new CacheStats(cacheHits, cacheMisses, cacheEvictions, singleFlight.getLoadCount(),
+				singleFlight.getTotalLoadTime(), map.size());
+	}
+
+	@Override
+	public final synchronized int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	@Override
+	public final synchronized void setMaxCacheSize(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+		evictExcessEntries();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void drainReferenceQueue() {
+		Reference<? extends V> reference;
+		while ((reference = referenceQueue.poll()) != null) {
+			ValueReference<K, V> valueReference = (ValueReference<K, V>) reference;
+			K key = valueReference.getKey();
+			// The key may have been mapped to a new value in the meantime.
+			if (map.get(key) == valueReference) {
+				map.remove(key);
+				cacheEvictions++;
+			}
+		}
+	}
+
+	private void evictExcessEntries() {
+		if (maxCacheSize < 0) {
+			return;
+		}
+		Iterator<ValueReference<K, V>> it = map.values().iterator();
+		while (map.size() > maxCacheSize) {
+			it.next();
+			it.remove();
+			cacheEvictions++;
+		}
+	}
+
+	private interface ValueReference<K, V> {
+		K getKey();
+
+		V get();
+	}
+
+	private static final class SoftValueReference<K, V> extends SoftReference<V> implements ValueReference<K, V> {
+		private final K key;
+
+		private SoftValueReference(K key, V value, ReferenceQueue<? super V> queue) {
+			super(value, queue);
+			this.key = key;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+	}
+
+	private static final class WeakValueReference<K, V> extends WeakReference<V> implements ValueReference<K, V> {
+		private final K key;
+
+		private WeakValueReference(K key, V value, ReferenceQueue<? super V> queue) {
+			super(value, queue);
+			this.key = key;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * The cause of the removal of an entry from a cache.
+ *
+ * @see RemovalListener
+ */
+public enum RemovalCause {
+
+	/**
+	 * The entry was removed explicitly, e.g. by {@code remove()} or {@code clear()}.
+	 */
+	EXPLICIT,
+
+	/**
+	 * The value of the entry was replaced by a new value.
+	 */
+	REPLACED,
+
+	/**
+	 * The entry expired.
+	 */
+	EXPIRED,
+
+	/**
+	 * The entry was evicted because the cache exceeded its maximum size or its maximum weight.
+	 */
+	SIZE,
+	;
+
+	/**
+	 * Check if the entry was removed automatically, i.e. neither explicitly nor by replacing its value.
+	 *
+	 * @return true if the entry was evicted.
+	 */
+	public boolean wasEvicted() {
+		return this == EXPIRED || this == SIZE;
+	}
+}
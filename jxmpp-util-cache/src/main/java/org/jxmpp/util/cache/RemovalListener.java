@@ -0,0 +1,41 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * A listener notified when an entry is removed from a cache.
+ * <p>
+ * Listeners are never invoked while the lock of the cache is held. Unless the cache was given an
+ * {@link java.util.concurrent.Executor} to notify the listener, the listener is invoked by the thread which caused
+ * the removal, after the operation on the cache completed. Exceptions thrown by the listener are propagated to that
+ * thread.
+ * </p>
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public interface RemovalListener<K, V> {
+
+	/**
+	 * Invoked when an entry was removed from the cache.
+	 *
+	 * @param key the key of the removed entry.
+	 * @param value the value of the removed entry.
+	 * @param cause the cause of the removal.
+	 */
+	void onRemoval(K key, V value, RemovalCause cause);
+}
@@ -0,0 +1,124 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Notifies the removal listener of a cache. Removals are enqueued while the lock of the cache is held, and are
+ * dispatched to the listener once the lock was released.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+final class RemovalNotifier<K, V> {
+
+	private final Queue<Notification<K, V>> pendingNotifications = new ConcurrentLinkedQueue<>();
+
+	private volatile RemovalListener<? super K, ? super V> listener;
+
+	private volatile Executor executor;
+
+	void setListener(RemovalListener<? super K, ? super V> listener, Executor executor) {
+		this.listener = listener;
+		this.executor = executor;
+	}
+
+	/**
+	 * Check if a listener is set, i.e. if removals need to be enqueued.
+	 *
+	 * @return true if a listener is set.
+	 */
+	boolean isActive() {
+		return listener != null;
+	}
+
+	/**
+	 * Enqueue the removal of the given entry. Does nothing if no listener is set.
+	 *
+	 * @param key the key of the removed entry.
+	 * @param value the value of the removed entry.
+	 * @param cause the cause of the removal.
+	 */
+	void enqueue(K key, V value, RemovalCause cause) {
+		if (listener == null) {
+			return;
+		}
+		pendingNotifications.add(new Notification<>(key, value, cause));
+	}
+
+	/**
+	 * Dispatch the pending notifications to the listener. Must not be invoked while holding the lock of the cache.
+	 */
+	void dispatch() {
+		if (pendingNotifications.isEmpty()) {
+			return;
+		}
+
+		final RemovalListener<? super K, ? super V> listener = this.listener;
+		Executor executor = this.executor;
+		if (listener == null) {
+			pendingNotifications.clear();
+			return;
+		}
+
+		if (executor == null) {
+			Notification<K, V> notification;
+			while ((notification = pendingNotifications.poll()) != null) {
+				notification.deliver(listener);
+			}
+			return;
+		}
+
+		final List<Notification<K, V>> notifications = new ArrayList<>();
+		Notification<K, V> notification;
+		while ((notification = pendingNotifications.poll()) != null) {
+			notifications.add(notification);
+		}
+		if (notifications.isEmpty()) {
+			return;
+		}
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				for (Notification<K, V> notification : notifications) {
+					notification.deliver(listener);
+				}
+			}
+		});
+	}
+
+	private static final class Notification<K, V> {
+		private final K key;
+		private final V value;
+		private final RemovalCause cause;
+
+		private Notification(K key, V value, RemovalCause cause) {
+			this.key = key;
+			this.value = value;
+			this.cause = cause;
+		}
+
+		private void deliver(RemovalListener<? super K, ? super V> listener) {
+			listener.onRemoval(key, value, cause);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Performs the loads of {@link Cache#get(Object, CacheLoader)} with single-flight semantics: if multiple threads miss
+ * the same key concurrently, only one of them invokes its loader while the others wait for its result. If the load
+ * fails, or the loader returns {@code null}, then every waiting thread invokes its own loader. Also records the
+ * number of loads and the time spent loading.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+final class SingleFlight<K, V> {
+
+	private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+	private final AtomicLong loadCount = new AtomicLong();
+
+	private final AtomicLong totalLoadTime = new AtomicLong();
+
+	/**
+	 * The number of completed flights, which is incremented after the value of a flight was put into the cache and
+	 * before the flight is removed.
+	 */
+	private final AtomicLong completedFlights = new AtomicLong();
+
+	<E extends Exception> V get(Cache<K, V> cache, K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+		long completedFlightsBeforeLookup = completedFlights.get();
+		V value = cache.lookup(key);
+		if (value != null) {
+			return value;
+		}
+
+		Flight<V> flight = new Flight<>();
+		Flight<V> existingFlight = flights.putIfAbsent(key, flight);
+		if (existingFlight != null) {
+			value = existingFlight.await();
+			if (value != null) {
+				return value;
+			}
+			// The load of the other thread failed, try our own loader.
+			return load(cache, key, loader);
+		}
+
+		try {
+			if (completedFlightsBeforeLookup != completedFlights.get()) {
+				// A flight, possibly of the same key, completed after the lookup missed, hence its value may be in the
+				// cache now. Look it up again instead of loading the value a second time.
+				value = cache.lookup(key);
+			}
+			if (value == null) {
+				value = load(cache, key, loader);
+			}
+		} finally {
+			completedFlights.incrementAndGet();
+			flights.remove(key, flight);
+			flight.complete(value);
+		}
+		return value;
+	}
+
+	private <E extends Exception> V load(Cache<K, V> cache, K key, CacheLoader<? super K, ? extends V, E> loader)
+			throws E {
+		long start = System.nanoTime();
+		V value = loader.load(key);
+		totalLoadTime.addAndGet(System.nanoTime() - start);
+		loadCount.incrementAndGet();
+
+		if (value != null) {
+			cache.put(key, value);
+		}
+		return value;
+	}
+
+	long getLoadCount() {
+		return loadCount.get();
+	}
+
+	long getTotalLoadTime() {
+		return totalLoadTime.get();
+	}
+
+	void reset() {
+		loadCount.set(0);
+		totalLoadTime.set(0);
+	}
+
+	private static final class Flight<V> {
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		private V value;
+
+		private void complete(V value) {
+			this.value = value;
+			latch.countDown();
+		}
+
+		private V await() {
+			boolean interrupted = false;
+			try {
+				while (true) {
+					try {
+						latch.await();
+						// The happens-before relation of countDown() and await() makes the value visible.
+						return value;
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			} finally {
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,407 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A size-limited and thread-safe cache which is split into multiple segments, where every segment is an independent
+ * LRU cache guarded by its own lock. Compared to {@link LruCache}, which uses a single monitor for the whole cache,
+ * this reduces lock contention if the cache is accessed by many threads concurrently.
+ * <p>
+ * The maximum cache size is evenly distributed over the segments and the LRU eviction is performed per segment. Hence
+ * the evicted entry is the least recently used entry of its segment, which is not necessarily the least recently used
+ * entry of the whole cache.
+ * </p>
+ *
+ * @param <K> the type of the keys of this cache.
+ * @param <V> the type of the values this cache caches.
+ */
+public class StripedLruCache<K, V> implements Cache<K, V> {
+
+	/**
+	 * The default number of segments.
+	 */
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	/**
+	 * A factory creating {@link StripedLruCache} instances with the default concurrency level.
+	 */
+	public static final CacheFactory FACTORY = new CacheFactory() {
+		@Override
+		public <K, V> Cache<K, V> newCache(int maxSize) {
+			return new StripedLruCache<>(maxSize);
+		}
+	};
+
+	private final Segment<K, V>[] segments;
+
+	private final int segmentShift;
+
+	private final int segmentMask;
+
+	private int maxCacheSize;
+
+	private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+	/**
+	 * Create a new striped LRU cache with the given maximum size and the default concurrency level.
+	 *
+	 * @param maxSize the maximum number of objects the cache will hold. -1 means the cache has no max size.
+	 */
+	public StripedLruCache(int maxSize) {
+		this(maxSize, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Create a new striped LRU cache with the given maximum size and concurrency level. The concurrency level is
+	 * rounded up to the next power of two, but will not exceed the maximum size of the cache.
+	 *
+	 * @param maxSize the maximum number of objects the cache will hold. -1 means the cache has no max size.
+	 * @param concurrencyLevel the number of segments of the cache.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public StripedLruCache(int maxSize, int concurrencyLevel) {
+		if (maxSize == 0) {
+			throw new IllegalArgumentException("Max cache size cannot be 0.");
+		}
+		if (concurrencyLevel <= 0) {
+			throw new IllegalArgumentException("Concurrency level must be positive.");
+		}
+
+		int segmentBits = 0;
+		while ((1 << segmentBits) < concurrencyLevel
+				&& (maxSize < 0 || (1 << (segmentBits + 1)) <= maxSize)
+				&& segmentBits < 16) {
+			segmentBits++;
+		}
+		int segmentCount = 1 << segmentBits;
+		segmentShift = 32 - segmentBits;
+		segmentMask = segmentCount - 1;
+
+		segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment<>();
+		}
+
+		setMaxCacheSize(maxSize);
+	}
+
+	private Segment<K, V> segmentFor(Object key) {
+		return segments[segmentIndex(key)];
+	}
+
+	private int segmentIndex(Object key) {
+		int h = key.hashCode();
+		// Spread the bits of the hash code, so that the high bits, which we use to select the segment, are also
+		// influenced by the low bits of the hash code.
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		return (h >>> segmentShift) & segmentMask;
+	}
+
+	/**
+	 * Group the given keys by the index of their segment.
+	 *
+	 * @param keys the keys.
+	 * @return a list with the keys of every segment, or {@code null} if there are no keys of a segment.
+	 */
+	private <T> List<List<T>> groupBySegment(Collection<? extends T> keys) {
+		List<List<T>> keysBySegment = new ArrayList<>(segments.length);
+		for (int i = 0; i < segments.length; i++) {
+			keysBySegment.add(null);
+		}
+		for (T key : keys) {
+			int index = segmentIndex(key);
+			List<T> segmentKeys = keysBySegment.get(index);
+			if (segmentKeys == null) {
+				segmentKeys = new ArrayList<>();
+				keysBySegment.set(index, segmentKeys);
+			}
+			segmentKeys.add(key);
+		}
+		return keysBySegment;
+	}
+
+	@Override
+	public final V put(K key, V value) {
+		Segment<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.put(key, value);
+		}
+	}
+
+	/**
+	 * Invoke the given visitor with every entry of this cache. The segments are locked one after another, hence the
+	 * visited entries are not a consistent snapshot if the cache is modified concurrently.
+	 *
+	 * @param visitor the visitor.
+	 */
+	@Override
+	public final void forEachEntry(EntryVisitor<? super K, ? super V> visitor) {
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				for (Map.Entry<K, V> entry : segment.entrySet()) {
+					visitor.visit(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	@Override
+	public final V lookup(K key) {
+		Segment<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			V value = segment.get(key);
+			if (value == null) {
+				segment.misses++;
+			} else {
+				segment.hits++;
+			}
+			return value;
+		}
+	}
+
+	@Override
+	public final <E extends Exception> V get(K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+		return singleFlight.get(this, key, loader);
+	}
+
+	/**
+	 * Look up the values of the given keys, acquiring the lock of every segment only once.
+	 *
+	 * @param keys the keys.
+	 * @return a map of the keys found in the cache to their values.
+	 */
+	@Override
+	public final Map<K, V> lookupAll(Collection<? extends K> keys) {
+		Map<K, V> result = new HashMap<>(keys.size());
+		List<List<K>> keysBySegment = groupBySegment(keys);
+		for (int i = 0; i < segments.length; i++) {
+			List<K> segmentKeys = keysBySegment.get(i);
+			if (segmentKeys == null) {
+				continue;
+			}
+			Segment<K, V> segment = segments[i];
+			synchronized (segment) {
+				for (K key : segmentKeys) {
+					V value = segment.get(key);
+					if (value == null) {
+						segment.misses++;
+					} else {
+						segment.hits++;
+						result.put(key, value);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Put all entries of the given map into the cache, acquiring the lock of every segment only once.
+	 *
+	 * @param entries the entries to put into the cache.
+	 */
+	@Override
+	public final void putAll(Map<? extends K, ? extends V> entries) {
+		List<List<K>> keysBySegment = groupBySegment(entries.keySet());
+		for (int i = 0; i < segments.length; i++) {
+			List<K> segmentKeys = keysBySegment.get(i);
+			if (segmentKeys == null) {
+				continue;
+			}
+			Segment<K, V> segment = segments[i];
+			synchronized (segment) {
+				for (K key : segmentKeys) {
+					segment.put(key, entries.get(key));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the entry with the given key from the cache.
+	 *
+	 * @param key the key of the entry to remove.
+	 * @return the removed value, or {@code null}.
+	 */
+	public final V remove(K key) {
+		Segment<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.remove(key);
+		}
+	}
+
+	/**
+	 * Remove all entries from the cache and reset the cache hits and misses counters.
+	 */
+	public final void clear() {
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+				segment.hits = 0;
+				segment.misses = 0;
+				segment.evictions = 0;
+			}
+		}
+		singleFlight.reset();
+	}
+
+	/**
+	 * Get the number of entries in this cache.
+	 *
+	 * @return the number of entries.
+	 */
+	public final int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Get the number of segments of this cache.
+	 *
+	 * @return the number of segments.
+	 */
+	public final int getSegmentCount() {
+		return segments.length;
+	}
+
+	/**
+	 * Get the number of cache hits.
+	 *
+	 * @return the number of cache hits.
+	 */
+	public final long getCacheHits() {
+		long hits = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				hits += segment.hits;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Get the number of cache misses.
+	 *
+	 * @return the number of cache misses.
+	 */
+	public final long getCacheMisses() {
+		long misses = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				misses += segment.misses;
+			}
+		}
+		return misses;
+	}
+
+	@Override
+	public final CacheStats getCacheStats() {
+		long hits = 0, misses = 0, evictions = 0;
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				hits += segment.hits;
+				misses += segment.misses;
+				evictions += segment.evictions;
+				size += segment.size();
+			}
+		}
+		return new CacheStats(hits, misses, evictions, singleFlight.getLoadCount(), singleFlight.getTotalLoadTime(),
+				size);
+	}
+
+	@Override
+	public final synchronized int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	@Override
+	public final synchronized void setMaxCacheSize(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+
+		int segmentMaxSize;
+		if (maxCacheSize < 0) {
+			segmentMaxSize = -1;
+		} else {
+			// Round up, so that the sum of the segment sizes is at least the maximum cache size.
+			segmentMaxSize = (maxCacheSize + segments.length - 1) / segments.length;
+		}
+
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.setMaxSize(segmentMaxSize);
+			}
+		}
+	}
+
+	private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		private int maxSize;
+
+		// The hits, misses and evictions of this segment. Only accessed while holding the segment's monitor, so there
+		// is no need for an atomic type here, which would just be another point of contention.
+		private long hits, misses, evictions;
+
+		private Segment() {
+			super(16, 0.75f, true);
+		}
+
+		private void setMaxSize(int maxSize) {
+			this.maxSize = maxSize;
+			if (maxSize < 0) {
+				return;
+			}
+
+			int excess = size() - maxSize;
+			if (excess <= 0) {
+				return;
+			}
+			Iterator<K> it = keySet().iterator();
+			while (excess-- > 0) {
+				it.next();
+				it.remove();
+				evictions++;
+			}
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			if (maxSize < 0 || size() <= maxSize) {
+				return false;
+			}
+			evictions++;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * A source of monotonic time in nanoseconds. Only the difference between two readings is meaningful, the origin of
+ * the time is arbitrary.
+ *
+ * @see ExpirationCache
+ */
+public interface Ticker {
+
+	/**
+	 * A ticker based on {@link System#nanoTime()}.
+	 */
+	Ticker SYSTEM_TICKER = new Ticker() {
+		@Override
+		public long read() {
+			return System.nanoTime();
+		}
+	};
+
+	/**
+	 * Read the current time of this ticker in nanoseconds.
+	 *
+	 * @return the current time in nanoseconds.
+	 */
+	long read();
+}
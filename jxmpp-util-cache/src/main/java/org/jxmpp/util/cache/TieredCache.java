@@ -0,0 +1,184 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache consisting of two tiers. Values are put into both tiers, and looked up in the first tier before the second
+ * tier. A value found in the second tier is promoted to the first tier.
+ * <p>
+ * Typically the first tier is a small cache which references its values strongly, like {@link LruCache}, and the
+ * second tier is a large {@link ReferenceCache}. Since the values of the first tier are strongly reachable, they
+ * are never reclaimed from the second tier. But the values evicted from the first tier get a second chance in the
+ * second tier, until they are reclaimed by the garbage collector.
+ * </p>
+ *
+ * @param <K> the type of the keys of this cache.
+ * @param <V> the type of the values this cache caches.
+ */
+public class TieredCache<K, V> implements Cache<K, V> {
+
+	private final Cache<K, V> firstTier;
+
+	private final Cache<K, V> secondTier;
+
+	private final AtomicLong cacheHits = new AtomicLong();
+
+	private final AtomicLong cacheMisses = new AtomicLong();
+
+	private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+	/**
+	 * Create a new tiered cache.
+	 *
+	 * @param firstTier the first tier.
+	 * @param secondTier the second tier.
+	 */
+	public TieredCache(Cache<K, V> firstTier, Cache<K, V> secondTier) {
+		if (firstTier == null) {
+			throw new IllegalArgumentException("firstTier must not be null");
+		}
+		if (secondTier == null) {
+			throw new IllegalArgumentException("secondTier must not be null");
+		}
+		this.firstTier = firstTier;
+		this.secondTier = secondTier;
+	}
+
+	/**
+	 * Create a factory for tiered caches, whose first tier is created by the given factory, and whose second tier
+	 * is an unbounded {@link ReferenceCache} with the given reference strength.
+	 *
+	 * @param firstTierFactory the factory used to create the first tier.
+	 * @param strength the strength of the references to the values of the second tier.
+	 * @return a factory for tiered caches.
+	 */
+	public static CacheFactory newSecondChanceFactory(final CacheFactory firstTierFactory,
+			final ReferenceCache.Strength strength) {
+		if (firstTierFactory == null) {
+			throw new IllegalArgumentException("firstTierFactory must not be null");
+		}
+		if (strength == null) {
+			throw new IllegalArgumentException("strength must not be null");
+		}
+		return new CacheFactory() {
+			@Override
+			public <K, V> Cache<K, V> newCache(int maxSize) {
+				Cache<K, V> firstTier = firstTierFactory.newCache(maxSize);
+				Cache<K, V> secondTier = new ReferenceCache<>(-1, strength);
+				return new TieredCache<>(firstTier, secondTier);
+			}
+		};
+	}
+
+	/**
+	 * Get the first tier of this cache.
+	 *
+	 * @return the first tier.
+	 */
+	public final Cache<K, V> getFirstTier() {
+		return firstTier;
+	}
+
+	/**
+	 * Get the second tier of this cache.
+	 *
+	 * @return the second tier.
+	 */
+	public final Cache<K, V> getSecondTier() {
+		return secondTier;
+	}
+
+	@Override
+	public final V put(K key, V value) {
+		V previous = secondTier.put(key, value);
+		V firstTierPrevious = firstTier.put(key, value);
+		if (firstTierPrevious != null) {
+			return firstTierPrevious;
+		}
+		return previous;
+	}
+
+	/**
+	 * Invoke the given visitor with every entry of the second tier, followed by every entry of the first tier. Hence
+	 * entries which are in both tiers are visited twice.
+	 *
+	 * @param visitor the visitor.
+	 */
+	@Override
+	public final void forEachEntry(EntryVisitor<? super K, ? super V> visitor) {
+		secondTier.forEachEntry(visitor);
+		firstTier.forEachEntry(visitor);
+	}
+
+	@Override
+	public final V lookup(K key) {
+		V value = firstTier.lookup(key);
+		if (value == null) {
+			value = secondTier.lookup(key);
+			if (value != null) {
+				firstTier.put(key, value);
+			}
+		}
+
+		if (value == null) {
+			cacheMisses.incrementAndGet();
+		} else {
+			cacheHits.incrementAndGet();
+		}
+		return value;
+	}
+
+	@Override
+	public final <E extends Exception> V get(K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+		return singleFlight.get(this, key, loader);
+	}
+
+	/**
+	 * Get a snapshot of the statistics of this cache. The eviction count and the size are the ones of the second
+	 * tier, as entries evicted from the first tier are still cached by the second tier.
+	 *
+	 * @return the statistics of this cache.
+	 */
+	@Override
+	public final CacheStats getCacheStats() {
+		CacheStats secondTierStats = secondTier.getCacheStats();
+		return new CacheStats(cacheHits.get(), cacheMisses.get(), secondTierStats.getEvictionCount(),
+				singleFlight.getLoadCount(), singleFlight.getTotalLoadTime(), secondTierStats.getSize());
+	}
+
+	/**
+	 * Return the maximum size of the first tier.
+	 *
+	 * @return the maximum size of the first tier.
+	 */
+	@Override
+	public final int getMaxCacheSize() {
+		return firstTier.getMaxCacheSize();
+	}
+
+	/**
+	 * Set the maximum size of the first tier.
+	 *
+	 * @param size the new maximum size of the first tier.
+	 */
+	@Override
+	public final void setMaxCacheSize(int size) {
+		firstTier.setMaxCacheSize(size);
+	}
+}
@@ -0,0 +1,222 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * A hierarchical timer wheel. Nodes are put into a bucket of the wheel according to their expiration time, where
+ * every level of the wheel consists of 64 buckets, and the buckets of every level span 64 times the time of the
+ * buckets of the previous level. Scheduling and unlinking a node is O(1), as is advancing the wheel, amortized over
+ * the nodes that expire. Nodes of higher levels are cascaded down to the lower levels as time advances.
+ * <p>
+ * Times are in nanoseconds and must be non-negative. The buckets of the first level span roughly a second, the ones of
+ * the last level roughly 208 days. Nodes expiring beyond the range of the last level are cascaded down once they are
+ * within range.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @param <N> the type of the nodes.
+ */
+final class TimerWheel<N extends TimerWheel.Node> {
+
+	private static final int BUCKET_BITS = 6;
+
+	private static final int BUCKETS = 1 << BUCKET_BITS;
+
+	private static final int BUCKET_MASK = BUCKETS - 1;
+
+	/**
+	 * The shifts, i.e. the base 2 logarithms of the spans, of the buckets of every level.
+	 */
+	private static final int[] SHIFTS = { 30, 36, 42, 48, 54 };
+
+	private final Node[][] wheel;
+
+	private final ExpirationHandler<N> expirationHandler;
+
+	private long currentTime;
+
+	TimerWheel(long currentTime, ExpirationHandler<N> expirationHandler) {
+		this.currentTime = currentTime;
+		this.expirationHandler = expirationHandler;
+
+		wheel = new Node[SHIFTS.length][BUCKETS];
+		for (Node[] level : wheel) {
+			for (int i = 0; i < BUCKETS; i++) {
+				level[i] = newSentinel();
+			}
+		}
+	}
+
+	/**
+	 * Schedule the given node, which must not be already scheduled.
+	 *
+	 * @param node the node.
+	 */
+	void schedule(N node) {
+		link(findBucket(node.expirationTime), node);
+	}
+
+	/**
+	 * Advance the wheel to the given time. All nodes whose expiration time is before the given time are unlinked
+	 * and handed to the expiration handler.
+	 *
+	 * @param now the current time.
+	 */
+	void advance(long now) {
+		long previousTime = currentTime;
+		if (now <= previousTime) {
+			return;
+		}
+		currentTime = now;
+
+		for (int level = 0; level < SHIFTS.length; level++) {
+			long previousTicks = previousTime >>> SHIFTS[level];
+			long currentTicks = now >>> SHIFTS[level];
+			long delta = currentTicks - previousTicks;
+			if (delta <= 0) {
+				// If the ticks of this level did not change, then neither did the ones of the higher levels.
+				break;
+			}
+			expire(level, previousTicks, delta);
+		}
+	}
+
+	/**
+	 * Unlink all nodes from the wheel.
+	 */
+	void clear() {
+		for (Node[] level : wheel) {
+			for (Node sentinel : level) {
+				Node node = sentinel.next;
+				while (node != sentinel) {
+					Node next = node.next;
+					node.previous = null;
+					node.next = null;
+					node = next;
+				}
+				sentinel.previous = sentinel;
+				sentinel.next = sentinel;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void expire(int level, long previousTicks, long delta) {
+		Node[] buckets = wheel[level];
+		// Process the buckets of all ticks that passed, and the bucket of the current tick, which is entered now, so
+		// that its nodes are cascaded down to the lower levels.
+		int start = (int) (previousTicks & BUCKET_MASK);
+		int end = start + (int) Math.min(delta + 1, BUCKETS);
+
+		for (int i = start; i < end; i++) {
+			Node sentinel = buckets[i & BUCKET_MASK];
+			Node node = sentinel.next;
+			// Detach the bucket's nodes first, as nodes may be rescheduled into the same bucket.
+			sentinel.previous = sentinel;
+			sentinel.next = sentinel;
+
+			while (node != sentinel) {
+				Node next = node.next;
+				node.previous = null;
+				node.next = null;
+
+				if (node.expirationTime < currentTime) {
+					expirationHandler.expired((N) node);
+				} else {
+					link(findBucket(node.expirationTime), node);
+				}
+
+				node = next;
+			}
+		}
+	}
+
+	private Node findBucket(long expirationTime) {
+		// Nodes which are already expired are put into the current bucket of the first level, which will be processed
+		// on the next tick.
+		long time = Math.max(expirationTime, currentTime);
+		long delay = time - currentTime;
+
+		int level = 0;
+		while (level < SHIFTS.length - 1 && delay >= (1L << SHIFTS[level + 1])) {
+			level++;
+		}
+
+		int index = (int) ((time >>> SHIFTS[level]) & BUCKET_MASK);
+		return wheel[level][index];
+	}
+
+	private static void link(Node sentinel, Node node) {
+		node.previous = sentinel.previous;
+		node.next = sentinel;
+		sentinel.previous.next = node;
+		sentinel.previous = node;
+	}
+
+	private static Node newSentinel() {
+		Node sentinel = new Node();
+		sentinel.previous = sentinel;
+		sentinel.next = sentinel;
+		return sentinel;
+	}
+
+	/**
+	 * A node of the timer wheel. The links are intrusive, so that a node can be unlinked in O(1) without a lookup.
+	 */
+	static class Node {
+
+		long expirationTime;
+
+		private Node previous;
+
+		private Node next;
+
+		/**
+		 * Unlink this node from the wheel. Does nothing if the node is not scheduled.
+		 */
+		final void unlink() {
+			if (next == null) {
+				return;
+			}
+			next.previous = previous;
+			previous.next = next;
+			previous = null;
+			next = null;
+		}
+
+		final boolean isScheduled() {
+			return next != null;
+		}
+	}
+
+	/**
+	 * A handler for expired nodes.
+	 *
+	 * @param <N> the type of the nodes.
+	 */
+	interface ExpirationHandler<N> {
+
+		/**
+		 * Invoked with every node that expired when the wheel was advanced. The node is already unlinked.
+		 *
+		 * @param node the expired node.
+		 */
+		void expired(N node);
+	}
+}
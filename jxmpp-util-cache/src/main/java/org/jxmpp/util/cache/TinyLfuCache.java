@@ -0,0 +1,334 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-limited and thread-safe cache using the W-TinyLFU admission policy. Unlike {@link LruCache}, a burst of
+ * entries which are only used once, like the JIDs of a large MUC join, does not displace the frequently used
+ * entries of the cache.
+ * <p>
+ * New entries are first placed in a small LRU window, which takes 1% of the maximum cache size. Entries evicted
+ * from the window are candidates for the main region, which is a segmented LRU made of a probation and a protected
+ * segment. A candidate is only admitted into the main region if its estimated access frequency, as recorded by a
+ * count-min sketch, is higher than the one of the entry the main region would evict in turn. Entries in the
+ * probation segment are promoted to the protected segment, which takes 80% of the main region, when they are
+ * accessed again.
+ * </p>
+ *
+ * @param <K> the type of the keys of this cache.
+ * @param <V> the type of the values this cache caches.
+ */
+public class TinyLfuCache<K, V> implements Cache<K, V> {
+
+	/**
+	 * A factory creating {@link TinyLfuCache} instances.
+	 */
+	public static final CacheFactory FACTORY = new CacheFactory() {
+		@Override
+		public <K, V> Cache<K, V> newCache(int maxSize) {
+			return new TinyLfuCache<>(maxSize);
+		}
+	};
+
+	private static final int WINDOW_PERCENTAGE = 1;
+
+	private static final int PROTECTED_PERCENTAGE = 80;
+
+	private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final FrequencySketch sketch;
+
+	private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+	private int maxCacheSize;
+
+	private int maxWindowSize;
+
+	private int maxMainSize;
+
+	private int maxProtectedSize;
+
+	private long cacheHits;
+
+	private long cacheMisses;
+
+	private long cacheEvictions;
+
+	/**
+	 * Create a new W-TinyLFU cache with the given maximum size.
+	 *
+	 * @param maxSize the maximum number of objects the cache will hold. -1 means the cache has no max size.
+	 */
+	public TinyLfuCache(int maxSize) {
+		if (maxSize == 0) {
+			throw new IllegalArgumentException("Max cache size cannot be 0.");
+		}
+		sketch = new FrequencySketch(maxSize);
+		setMaxCacheSize(maxSize);
+	}
+
+	@Override
+	public final synchronized V put(K key, V value) {
+		sketch.increment(key);
+
+		if (window.containsKey(key)) {
+			return window.put(key, value);
+		}
+		if (probation.containsKey(key)) {
+			V previous = probation.remove(key);
+			promote(key, value);
+			return previous;
+		}
+		if (protectedSegment.containsKey(key)) {
+			return protectedSegment.put(key, value);
+		}
+
+		window.put(key, value);
+		evict();
+		return null;
+	}
+
+	@Override
+	public final synchronized V lookup(K key) {
+		sketch.increment(key);
+
+		V value = window.get(key);
+		if (value == null) {
+			value = protectedSegment.get(key);
+		}
+		if (value == null) {
+			value = probation.remove(key);
+			if (value != null) {
+				promote(key, value);
+			}
+		}
+
+		if (value == null) {
+			cacheMisses++;
+		} else {
+			cacheHits++;
+		}
+		return value;
+	}
+
+	@Override
+	public final <E extends Exception> V get(K key, CacheLoader<? super K, ? extends V, E> loader) throws E {
+		return singleFlight.get(this, key, loader);
+	}
+
+	@Override
+	public final synchronized Map<K, V> lookupAll(Collection<? extends K> keys) {
+		Map<K, V> result = new HashMap<>(keys.size());
+		for (K key : keys) {
+			V value = lookup(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public final synchronized void putAll(Map<? extends K, ? extends V> entries) {
+		for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Remove the entry with the given key from the cache.
+	 *
+	 * @param key the key of the entry to remove.
+	 * @return the removed value, or {@code null}.
+	 */
+	public final synchronized V remove(K key) {
+		V value = window.remove(key);
+		if (value == null) {
+			value = probation.remove(key);
+		}
+		if (value == null) {
+			value = protectedSegment.remove(key);
+		}
+		return value;
+	}
+
+	/**
+	 * Remove all entries from the cache and reset the cache hits and misses counters. The collected access
+	 * frequencies are also discarded.
+	 */
+	public final synchronized void clear() {
+		window.clear();
+		probation.clear();
+		protectedSegment.clear();
+		sketch.ensureCapacity(maxCacheSize);
+		cacheHits = 0;
+		cacheMisses = 0;
+		cacheEvictions = 0;
+		singleFlight.reset();
+	}
+
+	/**
+	 * Invoke the given visitor with every entry of this cache. The entries of the probation segment are visited
+	 * first, followed by the entries of the protected segment and the window, each in the order of their last use.
+	 *
+	 * @param visitor the visitor.
+	 */
+	@Override
+	public final synchronized void forEachEntry(EntryVisitor<? super K, ? super V> visitor) {
+		visitAll(probation, visitor);
+		visitAll(protectedSegment, visitor);
+		visitAll(window, visitor);
+	}
+
+	private static <K, V> void visitAll(Map<K, V> segment, EntryVisitor<? super K, ? super V> visitor) {
+		for (Map.Entry<K, V> entry : segment.entrySet()) {
+			visitor.visit(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Get the number of entries in this cache.
+	 *
+	 * @return the number of entries.
+	 */
+	public final synchronized int size() {
+		return window.size() + probation.size() + protectedSegment.size();
+	}
+
+	/**
+	 * Get the number of cache hits.
+	 *
+	 * @return the number of cache hits.
+	 */
+	public final synchronized long getCacheHits() {
+		return cacheHits;
+	}
+
+	/**
+	 * Get the number of cache misses.
+	 *
+	 * @return the number of cache misses.
+	 */
+	public final synchronized long getCacheMisses() {
+		return cacheMisses;
+	}
+
+	@Override
+	public final synchronized CacheStats getCacheStats() {
+		return new CacheStats(cacheHits, cacheMisses, cacheEvictions, singleFlight.getLoadCount(),
+				singleFlight.getTotalLoadTime(), size());
+	}
+
+	@Override
+	public final synchronized int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	@Override
+	public final synchronized void setMaxCacheSize(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+
+		if (maxCacheSize < 0) {
+			maxWindowSize = Integer.MAX_VALUE;
+			maxMainSize = Integer.MAX_VALUE;
+			maxProtectedSize = Integer.MAX_VALUE;
+			return;
+		}
+
+		maxWindowSize = Math.max(1, (int) ((long) maxCacheSize * WINDOW_PERCENTAGE / 100));
+		maxMainSize = maxCacheSize - maxWindowSize;
+		maxProtectedSize = (int) ((long) maxMainSize * PROTECTED_PERCENTAGE / 100);
+		sketch.ensureCapacity(maxCacheSize);
+
+		while (protectedSegment.size() > maxProtectedSize) {
+			demoteEldestProtected();
+		}
+		evict();
+	}
+
+	private void promote(K key, V value) {
+		protectedSegment.put(key, value);
+		if (protectedSegment.size() > maxProtectedSize) {
+			demoteEldestProtected();
+		}
+	}
+
+	private void demoteEldestProtected() {
+		Map.Entry<K, V> eldest = removeEldest(protectedSegment);
+		probation.put(eldest.getKey(), eldest.getValue());
+	}
+
+	private void evict() {
+		while (window.size() > maxWindowSize) {
+			Map.Entry<K, V> candidate = removeEldest(window);
+			admit(candidate.getKey(), candidate.getValue());
+		}
+
+		while (probation.size() + protectedSegment.size() > maxMainSize) {
+			if (probation.isEmpty()) {
+				removeEldest(protectedSegment);
+			} else {
+				removeEldest(probation);
+			}
+			cacheEvictions++;
+		}
+	}
+
+	private void admit(K candidate, V value) {
+		if (probation.size() + protectedSegment.size() < maxMainSize) {
+			probation.put(candidate, value);
+			return;
+		}
+		if (maxMainSize == 0) {
+			cacheEvictions++;
+			return;
+		}
+
+		Map<K, V> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+		K victim = victimSegment.keySet().iterator().next();
+		if (sketch.frequency(candidate) <= sketch.frequency(victim)) {
+			// The candidate is not used more often than the entry which would need to make room for it, reject the
+			// candidate.
+			cacheEvictions++;
+			return;
+		}
+
+		victimSegment.remove(victim);
+		cacheEvictions++;
+		probation.put(candidate, value);
+	}
+
+	private static <K, V> Map.Entry<K, V> removeEldest(Map<K, V> segment) {
+		Iterator<Map.Entry<K, V>> it = segment.entrySet().iterator();
+		Map.Entry<K, V> eldest = it.next();
+		// Keep a copy, as the entry may be reused by the map after it has been removed.
+		Map.Entry<K, V> copy = new AbstractMap.SimpleImmutableEntry<>(eldest.getKey(), eldest.getValue());
+		it.remove();
+		return copy;
+	}
+}
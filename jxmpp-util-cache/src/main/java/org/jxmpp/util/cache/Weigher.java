@@ -0,0 +1,37 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+/**
+ * Calculates the weight of cache entries, which is used to bound caches by their total weight instead of, or in
+ * addition to, their number of entries.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @see CharSequenceWeigher
+ */
+public interface Weigher<K, V> {
+
+	/**
+	 * Calculate the weight of the given entry. The weight of an entry must not change while it is cached.
+	 *
+	 * @param key the key of the entry.
+	 * @param value the value of the entry.
+	 * @return the non-negative weight of the entry.
+	 */
+	int weigh(K key, V value);
+}
@@ -0,0 +1,121 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class AdaptiveCacheSizerTest {
+
+	private static final CacheLoader<Integer, Integer, RuntimeException> LOADER = new CacheLoader<Integer, Integer, RuntimeException>() {
+		@Override
+		public Integer load(Integer key) {
+			return key;
+		}
+	};
+
+	private static void cycle(Cache<Integer, Integer> cache, int keys) {
+		for (int i = 0; i < 1000; i++) {
+			cache.get(i % keys, LOADER);
+		}
+	}
+
+	@Test
+	public void testGrowsWhileHitRatioClimbs() {
+		AdaptiveCacheSizer sizer = AdaptiveCacheSizer.builder().withCacheSizeBounds(5, 1000).build();
+		Cache<Integer, Integer> cache = sizer.newCache(10);
+
+		for (int round = 0; round < 10; round++) {
+			// Cycling over 11 keys never hits an LRU cache of size 10.
+			cycle(cache, 11);
+			sizer.adjust();
+		}
+
+		assertEquals(12, cache.getMaxCacheSize());
+	}
+
+	@Test
+	public void testShrinksToMinCacheSize() {
+		AdaptiveCacheSizer sizer = AdaptiveCacheSizer.builder().withCacheSizeBounds(10, 1000).build();
+		Cache<Integer, Integer> cache = sizer.newCache(100);
+
+		for (int round = 0; round < 20; round++) {
+			cycle(cache, 5);
+			sizer.adjust();
+		}
+
+		assertEquals(10, cache.getMaxCacheSize());
+	}
+
+	@Test
+	public void testRespectsMemoryBudget() {
+		AdaptiveCacheSizer sizer = AdaptiveCacheSizer.builder()
+				.withCacheSizeBounds(2, 1000)
+				.withMemoryBudget(40)
+				.build();
+		Cache<Integer, Integer> growingCache = sizer.newCache(20);
+		Cache<Integer, Integer> usedCache = sizer.newCache(20);
+
+		for (int round = 0; round < 10; round++) {
+			cycle(growingCache, 25);
+			cycle(usedCache, 20);
+			sizer.adjust();
+		}
+
+		// The used cache would lose as many hits as the growing cache would gain.
+		assertEquals(20, growingCache.getMaxCacheSize());
+		assertEquals(20, usedCache.getMaxCacheSize());
+	}
+
+	@Test
+	public void testRebalancesWithinMemoryBudget() {
+		AdaptiveCacheSizer sizer = AdaptiveCacheSizer.builder()
+				.withCacheSizeBounds(2, 1000)
+				.withMemoryBudget(40)
+				.build();
+		Cache<Integer, Integer> growingCache = sizer.newCache(20);
+		Cache<Integer, Integer> idleCache = sizer.newCache(20);
+
+		for (int round = 0; round < 10; round++) {
+			cycle(growingCache, 25);
+			cycle(idleCache, 2);
+			sizer.adjust();
+		}
+
+		assertEquals(25, growingCache.getMaxCacheSize());
+		assertEquals(2, idleCache.getMaxCacheSize());
+	}
+
+	@Test
+	public void testEnforcesMemoryBudget() {
+		AdaptiveCacheSizer sizer = AdaptiveCacheSizer.builder()
+				.withCacheSizeBounds(2, 1000)
+				.withMemoryBudget(100)
+				.withWeigher(CharSequenceWeigher.INSTANCE)
+				.build();
+		Cache<String, String> cache = sizer.newCache(100);
+		for (int i = 0; i < 100; i++) {
+			cache.put("key" + i, "value" + i);
+		}
+
+		sizer.adjust();
+
+		// The weight of every entry exceeds one, hence the cache was shrunk although it was not looked up.
+		assertEquals(75, cache.getMaxCacheSize());
+	}
+}
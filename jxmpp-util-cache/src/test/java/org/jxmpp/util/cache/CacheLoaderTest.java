@@ -0,0 +1,151 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class CacheLoaderTest {
+
+	@Test
+	public void testSingleFlight() throws InterruptedException {
+		final Cache<String, String> cache = new LruCache<>(10);
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch loadStarted = new CountDownLatch(1);
+		final CountDownLatch releaseLoad = new CountDownLatch(1);
+		final CacheLoader<String, String, InterruptedException> loader = new CacheLoader<String, String, InterruptedException>() {
+			@Override
+			public String load(String key) throws InterruptedException {
+				loads.incrementAndGet();
+				loadStarted.countDown();
+				releaseLoad.await();
+				return key + "-loaded";
+			}
+		};
+
+		final int threadCount = 8;
+		final List<String> results = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < threadCount; i++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						String result = cache.get("foo", loader);
+						synchronized (results) {
+							results.add(result);
+						}
+					} catch (InterruptedException e) {
+						throw new AssertionError(e);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		loadStarted.await();
+		// Give the other threads a chance to miss the key while the load is in progress.
+		Thread.sleep(100);
+		releaseLoad.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(1, loads.get());
+		assertEquals(threadCount, results.size());
+		for (String result : results) {
+			assertEquals("foo-loaded", result);
+		}
+		assertEquals(1, cache.getCacheStats().getLoadCount());
+	}
+
+	@Test
+	public void testSingleFlightAfterConcurrentFlightCompleted() {
+		final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		final AtomicInteger loads = new AtomicInteger();
+		final CacheLoader<String, String, RuntimeException> loader = new CacheLoader<String, String, RuntimeException>() {
+			@Override
+			public String load(String key) {
+				loads.incrementAndGet();
+				return key + "-loaded";
+			}
+		};
+		final LruCache<String, String> lruCache = new LruCache<>(10);
+		// A cache whose first lookup misses, while another flight loads the key and completes, before the lookup
+		// returns.
+		Cache<String, String> cache = new Cache<String, String>() {
+			private boolean firstLookup = true;
+
+			@Override
+			public String put(String key, String value) {
+				return lruCache.put(key, value);
+			}
+
+			@Override
+			public String lookup(String key) {
+				if (firstLookup) {
+					firstLookup = false;
+					singleFlight.get(this, key, loader);
+					return null;
+				}
+				return lruCache.lookup(key);
+			}
+
+			@Override
+			public int getMaxCacheSize() {
+				return lruCache.getMaxCacheSize();
+			}
+
+			@Override
+			public void setMaxCacheSize(int size) {
+				lruCache.setMaxCacheSize(size);
+			}
+		};
+
+		assertEquals("foo-loaded", singleFlight.get(cache, "foo", loader));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void testFailedLoadIsNotCached() {
+		Cache<String, String> cache = new TinyLfuCache<>(10);
+		CacheLoader<String, String, IOException> failingLoader = new CacheLoader<String, String, IOException>() {
+			@Override
+			public String load(String key) throws IOException {
+				throw new IOException("Could not load " + key);
+			}
+		};
+
+		try {
+			cache.get("foo", failingLoader);
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			// Expected.
+		}
+		assertNull(cache.lookup("foo"));
+	}
+}
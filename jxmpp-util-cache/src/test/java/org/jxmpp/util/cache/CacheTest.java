@@ -16,9 +16,15 @@
  */
 package org.jxmpp.util.cache;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Test;
 
 public class CacheTest {
@@ -44,4 +50,121 @@ public class CacheTest {
 		assertNotNull(object);
 	}
 
+	@Test
+	public void testCacheStats() {
+		LruCache<Integer, Object> cache = new LruCache<Integer, Object>(2);
+		cache.put(1, new Object());
+		cache.put(2, new Object());
+		cache.put(3, new Object());
+		cache.lookup(3);
+		cache.lookup(1);
+
+		CacheStats stats = cache.getCacheStats();
+		assertEquals(1, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+		assertEquals(1, stats.getEvictionCount());
+		assertEquals(2, stats.getSize());
+		assertEquals(0.5, stats.getHitRate(), 0);
+	}
+
+	@Test
+	public void testMaxCacheWeight() {
+		Weigher<String, String> lengthWeigher = new Weigher<String, String>() {
+			@Override
+			public int weigh(String key, String value) {
+				return value.length();
+			}
+		};
+		LruCache<String, String> cache = new LruCache<>(-1, 10, lengthWeigher);
+		cache.put("a", "1234");
+		cache.put("b", "1234");
+		assertEquals(8, cache.getCacheWeight());
+
+		// Exceeds the maximum weight, 'a' is evicted.
+		cache.put("c", "123");
+		assertNull(cache.lookup("a"));
+		assertNotNull(cache.lookup("b"));
+		assertEquals(7, cache.getCacheWeight());
+
+		// Replacing a value accounts for the weight of the replaced value.
+		cache.put("b", "12");
+		assertEquals(5, cache.getCacheWeight());
+
+		cache.remove("c");
+		assertEquals(2, cache.getCacheWeight());
+
+		cache.put("d", "12345678");
+		cache.setMaxCacheWeight(8);
+		assertNull(cache.lookup("b"));
+		assertEquals(8, cache.getCacheWeight());
+		assertEquals(2, cache.getCacheStats().getEvictionCount());
+	}
+
+	@Test
+	public void testOverweightEntryDoesNotFlushCache() {
+		Weigher<String, String> lengthWeigher = new Weigher<String, String>() {
+			@Override
+			public int weigh(String key, String value) {
+				return value.length();
+			}
+		};
+		LruCache<String, String> cache = new LruCache<>(-1, 10, lengthWeigher);
+		cache.put("a", "1234");
+		cache.put("b", "1234");
+
+		// Heavier than the maximum weight on its own, the entry is rejected instead of flushing the cache.
+		cache.put("c", "12345678901");
+		assertNull(cache.lookup("c"));
+		assertEquals("1234", cache.lookup("a"));
+		assertEquals("1234", cache.lookup("b"));
+		assertEquals(8, cache.getCacheWeight());
+		assertEquals(1, cache.getCacheStats().getEvictionCount());
+
+		// The previous mapping of the key is removed, as it would have been replaced.
+		cache.put("a", "12345678901");
+		assertNull(cache.lookup("a"));
+		assertEquals("1234", cache.lookup("b"));
+		assertEquals(4, cache.getCacheWeight());
+	}
+
+	@Test
+	public void testCharSequenceWeigher() {
+		LruCache<String, String> cache = new LruCache<>(-1, 2 * (CharSequenceWeigher.ENTRY_OVERHEAD + 4),
+				CharSequenceWeigher.INSTANCE);
+		cache.put("a", "b");
+		cache.put("c", "d");
+		assertEquals(2, cache.size());
+		cache.put("e", "f");
+		assertEquals(2, cache.size());
+		assertNull(cache.lookup("a"));
+	}
+
+	@Test
+	public void testLookupAllAndPutAll() {
+		List<Cache<Integer, String>> caches = Arrays.<Cache<Integer, String>>asList(
+				new LruCache<Integer, String>(10),
+				new StripedLruCache<Integer, String>(10, 4),
+				new TinyLfuCache<Integer, String>(10),
+				new ExpirationCache<Integer, String>(10, 60 * 1000),
+				new ReferenceCache<Integer, String>(10, ReferenceCache.Strength.SOFT));
+
+		Map<Integer, String> entries = new HashMap<>();
+		entries.put(1, "one");
+		entries.put(2, "two");
+		entries.put(3, "three");
+
+		for (Cache<Integer, String> cache : caches) {
+			cache.putAll(entries);
+			Map<Integer, String> result = cache.lookupAll(Arrays.asList(1, 3, 4));
+
+			Map<Integer, String> expected = new HashMap<>();
+			expected.put(1, "one");
+			expected.put(3, "three");
+			assertEquals(cache.getClass().getSimpleName(), expected, result);
+
+			CacheStats stats = cache.getCacheStats();
+			assertEquals(2, stats.getHitCount());
+			assertEquals(1, stats.getMissCount());
+		}
+	}
 }
@@ -16,8 +16,22 @@
  */
 package org.jxmpp.util.cache;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -43,4 +57,209 @@ public class ExpirationCacheTest {
 		assertNotNull(object);
 	}
 
+	@Test
+	public void testPurgeExpired() {
+		ManualTicker ticker = new ManualTicker();
+		ExpirationCache<Integer, Object> cache = new ExpirationCache<Integer, Object>(10, 10 * 60 * 1000, ticker);
+		cache.put(1, new Object(), 1000);
+		cache.put(2, new Object(), 1000);
+		cache.put(3, new Object());
+		assertEquals(3, cache.size());
+
+		ticker.advance(5, TimeUnit.SECONDS);
+		cache.purgeExpired();
+
+		// The expired entries are reclaimed without being looked up.
+		assertEquals(1, cache.size());
+		assertNotNull(cache.lookup(3));
+	}
+
+	@Test
+	public void testReplacedEntryDoesNotExpireNewValue() {
+		ManualTicker ticker = new ManualTicker();
+		ExpirationCache<Integer, Object> cache = new ExpirationCache<Integer, Object>(10, 10 * 60 * 1000, ticker);
+		cache.put(1, new Object(), 1000);
+		cache.put(1, new Object());
+
+		ticker.advance(5, TimeUnit.SECONDS);
+		cache.purgeExpired();
+
+		assertNotNull(cache.lookup(1));
+	}
+
+	@Test
+	public void testManualTicker() {
+		ManualTicker ticker = new ManualTicker(Long.MAX_VALUE - 1000);
+		ExpirationCache<Integer, Object> cache = new ExpirationCache<Integer, Object>(10, 500, ticker);
+		cache.put(1, new Object());
+
+		ticker.advance(500, TimeUnit.MILLISECONDS);
+		assertNotNull(cache.lookup(1));
+
+		// Also crosses the overflow of the ticker's reading.
+		ticker.advance(1, TimeUnit.MILLISECONDS);
+		assertNull(cache.lookup(1));
+	}
+
+	@Test
+	public void testExpirationReducesCacheWeight() {
+		ManualTicker ticker = new ManualTicker();
+		ExpirationCache<String, String> cache = new ExpirationCache<>(-1, 1000, CharSequenceWeigher.INSTANCE,
+				10 * 60 * 1000, ticker);
+		cache.put("foo", "bar", 1000);
+		assertEquals(CharSequenceWeigher.ENTRY_OVERHEAD + 12, cache.getCacheWeight());
+
+		ticker.advance(5, TimeUnit.SECONDS);
+		cache.purgeExpired();
+		assertEquals(0, cache.getCacheWeight());
+	}
+
+	@Test
+	public void testEvictedOverweightEntryDoesNotExpireNewerEntry() {
+		ManualTicker ticker = new ManualTicker();
+		ExpirationCache<String, String> cache = new ExpirationCache<>(-1, CharSequenceWeigher.ENTRY_OVERHEAD + 20,
+				CharSequenceWeigher.INSTANCE, 10 * 60 * 1000, ticker);
+		final List<RemovalCause> causes = new ArrayList<>();
+		cache.setRemovalListener(new RemovalListener<String, String>() {
+			@Override
+			public void onRemoval(String key, String value, RemovalCause cause) {
+				causes.add(cause);
+			}
+		});
+		cache.put("foo", "a value which is heavier than the maximum weight", 1000);
+		assertNull(cache.lookup("foo"));
+
+		cache.put("foo", "bar", 10 * 1000);
+		ticker.advance(2, TimeUnit.SECONDS);
+		cache.purgeExpired();
+		assertEquals("bar", cache.lookup("foo"));
+		assertFalse(causes.contains(RemovalCause.EXPIRED));
+	}
+
+	@Test
+	public void testViewsFilterExpiredEntries() {
+		ManualTicker ticker = new ManualTicker();
+		ExpirationCache<Integer, String> cache = new ExpirationCache<>(10, 10 * 60 * 1000, ticker);
+		cache.put(1, "one", 1000);
+		cache.put(2, "two");
+		cache.put(3, "three");
+
+		ticker.advance(2, TimeUnit.SECONDS);
+
+		assertEquals(2, cache.size());
+		assertFalse(cache.containsKey(1));
+		assertFalse(cache.containsValue("one"));
+		assertEquals(new HashSet<>(Arrays.asList(2, 3)), cache.keySet());
+		assertEquals(new HashSet<>(Arrays.asList("two", "three")), new HashSet<>(cache.values()));
+
+		Map<Integer, String> expected = new HashMap<>();
+		expected.put(2, "two");
+		expected.put(3, "three");
+		assertEquals(expected, cache);
+		assertEquals(expected.entrySet(), cache.entrySet());
+
+		final Map<Integer, String> visited = new HashMap<>();
+		cache.forEachEntry(new EntryVisitor<Integer, String>() {
+			@Override
+			public void visit(Integer key, String value) {
+				visited.put(key, value);
+			}
+		});
+		assertEquals(expected, visited);
+	}
+
+	@Test
+	public void testViewsAreLive() {
+		ExpirationCache<Integer, String> cache = new ExpirationCache<>(10, 10 * 60 * 1000);
+		Set<Integer> keySet = cache.keySet();
+		assertTrue(keySet.isEmpty());
+
+		cache.put(1, "one");
+		cache.put(2, "two");
+		assertEquals(2, keySet.size());
+
+		for (Iterator<Map.Entry<Integer, String>> it = cache.entrySet().iterator(); it.hasNext();) {
+			if (it.next().getKey() == 1) {
+				it.remove();
+			}
+		}
+		assertNull(cache.lookup(1));
+
+		cache.values().remove("two");
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	public void testRefreshAhead() {
+		ManualTicker ticker = new ManualTicker();
+		ExpirationCache<String, String> cache = new ExpirationCache<>(10, 1000, ticker);
+		final List<Runnable> reloads = new ArrayList<>();
+		final int[] loads = new int[1];
+		cache.setRefreshAhead(0.2, new CacheLoader<String, String, RuntimeException>() {
+			@Override
+			public String load(String key) {
+				loads[0]++;
+				if (loads[0] == 1) {
+					throw new IllegalStateException();
+				}
+				return key + "-reloaded";
+			}
+		}, new Executor() {
+			@Override
+			public void execute(Runnable reload) {
+				reloads.add(reload);
+			}
+		});
+
+		cache.put("a", "a");
+		ticker.advance(700, TimeUnit.MILLISECONDS);
+		assertEquals("a", cache.lookup("a"));
+		assertTrue(reloads.isEmpty());
+
+		// Within the last 20% of the expiration time, reads trigger a single reload.
+		ticker.advance(150, TimeUnit.MILLISECONDS);
+		assertEquals("a", cache.lookup("a"));
+		assertEquals("a", cache.lookup("a"));
+		assertEquals(1, reloads.size());
+
+		// The first reload fails, the current value is retained and the next read triggers another reload.
+		reloads.remove(0).run();
+		assertEquals("a", cache.lookup("a"));
+		assertEquals(1, reloads.size());
+
+		reloads.remove(0).run();
+		assertEquals("a-reloaded", cache.lookup("a"));
+
+		// The reloaded value expires with the expiration time of the value it replaced.
+		ticker.advance(900, TimeUnit.MILLISECONDS);
+		assertEquals("a-reloaded", cache.lookup("a"));
+		ticker.advance(200, TimeUnit.MILLISECONDS);
+		assertNull(cache.lookup("a"));
+	}
+
+	@Test
+	public void testRefreshAheadDiscardedIfReplaced() {
+		ManualTicker ticker = new ManualTicker();
+		ExpirationCache<String, String> cache = new ExpirationCache<>(10, 1000, ticker);
+		final List<Runnable> reloads = new ArrayList<>();
+		cache.setRefreshAhead(0.5, new CacheLoader<String, String, RuntimeException>() {
+			@Override
+			public String load(String key) {
+				return key + "-reloaded";
+			}
+		}, new Executor() {
+			@Override
+			public void execute(Runnable reload) {
+				reloads.add(reload);
+			}
+		});
+
+		cache.put("a", "a");
+		ticker.advance(600, TimeUnit.MILLISECONDS);
+		assertEquals("a", cache.lookup("a"));
+		cache.put("a", "b");
+
+		reloads.remove(0).run();
+		assertEquals("b", cache.lookup("a"));
+	}
 }
@@ -0,0 +1,105 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class FailureCacheTest {
+
+	@Test
+	public void testFailuresAreRethrownUntilExpired() throws IOException {
+		ManualTicker ticker = new ManualTicker();
+		FailureCache<String, IOException> failures = new FailureCache<>(10, 1000, ticker);
+		final AtomicInteger loads = new AtomicInteger();
+		CacheLoader<String, String, IOException> loader = failures.wrap(new CacheLoader<String, String, IOException>() {
+			@Override
+			public String load(String key) throws IOException {
+				loads.incrementAndGet();
+				if (key.startsWith("bad")) {
+					throw new IOException(key);
+				}
+				return key;
+			}
+		});
+		Cache<String, String> cache = new LruCache<>(10);
+
+		assertEquals("good", cache.get("good", loader));
+		assertEquals(1, loads.get());
+		assertEquals(0, failures.size());
+
+		IOException first = assertLoadFails(cache, loader, "bad");
+		assertEquals(2, loads.get());
+		IOException second = assertLoadFails(cache, loader, "bad");
+		assertSame(first, second);
+		assertEquals(2, loads.get());
+		assertEquals(1, failures.getCacheStats().getHitCount());
+
+		ticker.advance(2, TimeUnit.SECONDS);
+		assertNull(failures.lookup("bad"));
+		IOException third = assertLoadFails(cache, loader, "bad");
+		assertEquals(3, loads.get());
+		assertEquals("bad", third.getMessage());
+	}
+
+	@Test
+	public void testUncheckedExceptionsAreNotCached() {
+		FailureCache<String, IOException> failures = new FailureCache<>(10, 1000);
+		CacheLoader<String, String, IOException> loader = new CacheLoader<String, String, IOException>() {
+			@Override
+			public String load(String key) {
+				throw new IllegalStateException(key);
+			}
+		};
+		try {
+			failures.load("foo", loader);
+			fail();
+		} catch (IllegalStateException | IOException e) {
+			assertEquals(IllegalStateException.class, e.getClass());
+		}
+		assertEquals(0, failures.size());
+	}
+
+	@Test
+	public void testFailureCacheIsBounded() {
+		FailureCache<Integer, IOException> failures = new FailureCache<>(2, 1000);
+		for (int i = 0; i < 5; i++) {
+			failures.put(i, new IOException());
+		}
+		assertEquals(2, failures.size());
+		assertNull(failures.lookup(0));
+	}
+
+	private static IOException assertLoadFails(Cache<String, String> cache, CacheLoader<String, String, IOException> loader,
+			String key) {
+		try {
+			cache.get(key, loader);
+		} catch (IOException e) {
+			return e;
+		}
+		fail("Expected loading '" + key + "' to fail");
+		return null;
+	}
+}
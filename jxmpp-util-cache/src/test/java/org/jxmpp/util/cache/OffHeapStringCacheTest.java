@@ -0,0 +1,139 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class OffHeapStringCacheTest {
+
+	@Test
+	public void testPutLookupRemove() {
+		OffHeapStringCache cache = new OffHeapStringCache(10);
+		assertNull(cache.put("foo", "bar"));
+		assertEquals("bar", cache.lookup("foo"));
+		assertNull(cache.lookup("baz"));
+
+		assertEquals("bar", cache.put("foo", "bär"));
+		assertEquals("bär", cache.lookup("foo"));
+		assertEquals(1, cache.size());
+
+		assertEquals("bär", cache.remove("foo"));
+		assertNull(cache.lookup("foo"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testMaxCacheSize() {
+		OffHeapStringCache cache = new OffHeapStringCache(3);
+		for (int i = 0; i < 4; i++) {
+			cache.put("key" + i, "value" + i);
+		}
+
+		// Entries are evicted in the order they were put into the cache.
+		assertNull(cache.lookup("key0"));
+		for (int i = 1; i < 4; i++) {
+			assertEquals("value" + i, cache.lookup("key" + i));
+		}
+		assertEquals(3, cache.size());
+		assertEquals(1, cache.getCacheStats().getEvictionCount());
+	}
+
+	@Test
+	public void testArenaWrapsAround() {
+		// Every entry takes 12 header bytes, 4 key bytes and 8 value bytes, hence the arena holds four entries.
+		OffHeapStringCache cache = new OffHeapStringCache(100, 4 * 24 + 8);
+		for (int i = 0; i < 10; i++) {
+			cache.put("key" + i, "value-" + i + "!");
+		}
+
+		assertEquals(4, cache.size());
+		for (int i = 0; i < 6; i++) {
+			assertNull(cache.lookup("key" + i));
+		}
+		for (int i = 6; i < 10; i++) {
+			assertEquals("value-" + i + "!", cache.lookup("key" + i));
+		}
+	}
+
+	@Test
+	public void testForEachEntry() {
+		OffHeapStringCache cache = new OffHeapStringCache(100, 4 * 24 + 8);
+		for (int i = 0; i < 10; i++) {
+			cache.put("key" + i, "value-" + i + "!");
+		}
+		cache.put("key8", "value-X!");
+		cache.remove("key9");
+
+		final Map<String, String> entries = new HashMap<>();
+		cache.forEachEntry(new EntryVisitor<String, String>() {
+			@Override
+			public void visit(String key, String value) {
+				entries.put(key, value);
+			}
+		});
+
+		// Replaced and removed entries, which are still in the arena, are not visited.
+		Map<String, String> expected = new HashMap<>();
+		expected.put("key7", "value-7!");
+		expected.put("key8", "value-X!");
+		assertEquals(expected, entries);
+	}
+
+	@Test
+	public void testEntryLargerThanArenaIsNotCached() {
+		OffHeapStringCache cache = new OffHeapStringCache(10, 32);
+		cache.put("foo", "a value which does not fit into the arena");
+		assertNull(cache.lookup("foo"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testNeverReturnsStaleValues() {
+		OffHeapStringCache cache = new OffHeapStringCache(50, 2048);
+		Map<String, String> model = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 100000; i++) {
+			String key = "user" + random.nextInt(200) + "@example.org";
+			switch (random.nextInt(3)) {
+			case 0:
+				String value = key + "/" + random.nextInt(1000);
+				cache.put(key, value);
+				model.put(key, value);
+				break;
+			case 1:
+				cache.remove(key);
+				model.remove(key);
+				break;
+			default:
+				String cached = cache.lookup(key);
+				if (cached != null) {
+					assertEquals(model.get(key), cached);
+				}
+				break;
+			}
+			assertTrue(cache.size() <= 50);
+		}
+	}
+}
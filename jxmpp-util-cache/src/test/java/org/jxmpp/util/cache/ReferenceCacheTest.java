@@ -0,0 +1,77 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class ReferenceCacheTest {
+
+	@Test
+	public void testWeakValuesAreReclaimed() throws InterruptedException {
+		ReferenceCache<Integer, Object> cache = new ReferenceCache<>(-1, ReferenceCache.Strength.WEAK);
+		Object value = new Object();
+		cache.put(1, value);
+		cache.put(2, new Object());
+		assertSame(value, cache.lookup(1));
+
+		for (int i = 0; i < 100 && cache.getCacheStats().getEvictionCount() == 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertSame(value, cache.lookup(1));
+		assertNull(cache.lookup(2));
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getCacheStats().getEvictionCount());
+	}
+
+	@Test
+	public void testMaxCacheSize() {
+		ReferenceCache<Integer, String> cache = new ReferenceCache<>(2, ReferenceCache.Strength.SOFT);
+		cache.put(1, "one");
+		cache.put(2, "two");
+		cache.put(3, "three");
+
+		assertNull(cache.lookup(1));
+		assertNotNull(cache.lookup(2));
+		assertNotNull(cache.lookup(3));
+	}
+
+	@Test
+	public void testTieredCachePromotesSecondTierHits() {
+		LruCache<Integer, String> firstTier = new LruCache<>(1);
+		ReferenceCache<Integer, String> secondTier = new ReferenceCache<>(-1, ReferenceCache.Strength.SOFT);
+		TieredCache<Integer, String> cache = new TieredCache<>(firstTier, secondTier);
+		cache.put(1, "one");
+		cache.put(2, "two");
+
+		// '1' was evicted from the first tier, but is still in the second tier.
+		assertNull(firstTier.lookup(1));
+		assertEquals("one", cache.lookup(1));
+		assertEquals("one", firstTier.lookup(1));
+
+		CacheStats stats = cache.getCacheStats();
+		assertEquals(1, stats.getHitCount());
+		assertEquals(2, stats.getSize());
+		assertEquals(1, cache.getMaxCacheSize());
+	}
+}
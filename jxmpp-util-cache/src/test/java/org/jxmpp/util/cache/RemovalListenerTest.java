@@ -0,0 +1,140 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RemovalListenerTest {
+
+	@Test
+	public void testLruCacheRemovalCauses() {
+		RecordingRemovalListener listener = new RecordingRemovalListener();
+		LruCache<String, String> cache = new LruCache<>(2);
+		cache.setRemovalListener(listener);
+
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("a", "3");
+		cache.put("c", "4");
+		cache.remove("c");
+		cache.clear();
+
+		assertEquals("a=1 REPLACED", listener.removals.get(0));
+		assertEquals("b=2 SIZE", listener.removals.get(1));
+		assertEquals("c=4 EXPLICIT", listener.removals.get(2));
+		assertEquals("a=3 EXPLICIT", listener.removals.get(3));
+		assertEquals(4, listener.removals.size());
+	}
+
+	@Test
+	public void testExpirationCacheRemovalCauses() {
+		ManualTicker ticker = new ManualTicker();
+		RecordingRemovalListener listener = new RecordingRemovalListener();
+		ExpirationCache<String, String> cache = new ExpirationCache<>(2, 10 * 60 * 1000, ticker);
+		cache.setRemovalListener(listener);
+
+		cache.put("a", "1", 1000);
+		cache.put("b", "2");
+		cache.put("b", "3");
+		cache.put("c", "4");
+		assertEquals("b=2 REPLACED", listener.removals.get(0));
+		assertEquals("a=1 SIZE", listener.removals.get(1));
+
+		cache.put("d", "5", 1000);
+		ticker.advance(5, TimeUnit.SECONDS);
+		cache.purgeExpired();
+		assertEquals("b=3 SIZE", listener.removals.get(2));
+		assertEquals("d=5 EXPIRED", listener.removals.get(3));
+
+		cache.remove("c");
+		assertEquals("c=4 EXPLICIT", listener.removals.get(4));
+		assertEquals(5, listener.removals.size());
+	}
+
+	@Test
+	public void testExpirationCacheExpiredOnLookup() {
+		ManualTicker ticker = new ManualTicker();
+		RecordingRemovalListener listener = new RecordingRemovalListener();
+		ExpirationCache<String, String> cache = new ExpirationCache<>(10, 10 * 60 * 1000, ticker);
+		cache.setRemovalListener(listener);
+
+		cache.put("a", "1", 1000);
+		// Advance the ticker only slightly beyond the expiration, so that the timer wheel did not yet reclaim the
+		// entry and the lookup needs to.
+		ticker.advance(1001, TimeUnit.MILLISECONDS);
+		assertEquals(null, cache.lookup("a"));
+
+		assertEquals(1, listener.removals.size());
+		assertEquals("a=1 EXPIRED", listener.removals.get(0));
+	}
+
+	@Test
+	public void testExecutor() {
+		final List<Runnable> tasks = new ArrayList<>();
+		Executor executor = new Executor() {
+			@Override
+			public void execute(Runnable task) {
+				tasks.add(task);
+			}
+		};
+		RecordingRemovalListener listener = new RecordingRemovalListener();
+		LruCache<String, String> cache = new LruCache<>(1);
+		cache.setRemovalListener(listener, executor);
+
+		cache.put("a", "1");
+		cache.put("b", "2");
+
+		// The notification was handed to the executor, but not yet delivered.
+		assertEquals(1, tasks.size());
+		assertTrue(listener.removals.isEmpty());
+
+		tasks.get(0).run();
+		assertEquals(1, listener.removals.size());
+		assertEquals("a=1 SIZE", listener.removals.get(0));
+		assertTrue(RemovalCause.SIZE.wasEvicted());
+	}
+
+	@Test
+	public void testNoListener() {
+		RecordingRemovalListener listener = new RecordingRemovalListener();
+		LruCache<String, String> cache = new LruCache<>(1);
+		cache.setRemovalListener(listener);
+		cache.setRemovalListener(null);
+
+		cache.put("a", "1");
+		cache.put("b", "2");
+
+		assertTrue(listener.removals.isEmpty());
+	}
+
+	private static final class RecordingRemovalListener implements RemovalListener<String, String> {
+		private final List<String> removals = new ArrayList<>();
+
+		@Override
+		public void onRemoval(String key, String value, RemovalCause cause) {
+			removals.add(key + '=' + value + ' ' + cause);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class StripedLruCacheTest {
+
+	@Test
+	public void testMaxCacheSizeSingleSegment() {
+		StripedLruCache<Integer, Object> cache = new StripedLruCache<>(3, 1);
+		assertEquals(1, cache.getSegmentCount());
+
+		cache.put(1, new Object());
+		cache.put(2, new Object());
+		cache.put(3, new Object());
+		cache.put(4, new Object());
+
+		assertNotNull(cache.lookup(4));
+		assertNull(cache.lookup(1));
+
+		// '2' and '3' should still be in the Cache
+		assertNotNull(cache.lookup(2));
+		assertNotNull(cache.lookup(3));
+
+		assertEquals(3, cache.getCacheHits());
+		assertEquals(1, cache.getCacheMisses());
+	}
+
+	@Test
+	public void testMaxCacheSizeMultipleSegments() {
+		StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(64, 4);
+		assertEquals(4, cache.getSegmentCount());
+
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, i);
+		}
+		assertTrue(cache.size() <= 64);
+
+		cache.setMaxCacheSize(8);
+		assertEquals(8, cache.getMaxCacheSize());
+		assertTrue(cache.size() <= 8);
+
+		cache.put(1000, 1000);
+		assertEquals(Integer.valueOf(1000), cache.lookup(1000));
+	}
+
+	@Test
+	public void testSegmentCountDoesNotExceedMaxSize() {
+		StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(3);
+		assertEquals(2, cache.getSegmentCount());
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TickerTest {
+
+	@Test
+	public void testManualTicker() {
+		ManualTicker ticker = new ManualTicker();
+		assertEquals(0, ticker.read());
+		ticker.advance(2, TimeUnit.SECONDS);
+		assertEquals(TimeUnit.SECONDS.toNanos(2), ticker.read());
+	}
+
+	@Test
+	public void testCachedTicker() throws InterruptedException {
+		ManualTicker source = new ManualTicker();
+		CachedTicker ticker = new CachedTicker(source, 1, TimeUnit.MILLISECONDS);
+		try {
+			source.advance(1, TimeUnit.SECONDS);
+
+			long deadline = System.currentTimeMillis() + 5000;
+			while (ticker.read() != source.read() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(1);
+			}
+			assertEquals(source.read(), ticker.read());
+		} finally {
+			ticker.stop();
+		}
+	}
+
+	@Test
+	public void testSystemTickerIsMonotonic() {
+		long first = Ticker.SYSTEM_TICKER.read();
+		long second = Ticker.SYSTEM_TICKER.read();
+		assertTrue(second - first >= 0);
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TimerWheelTest {
+
+	private static final class TestNode extends TimerWheel.Node {
+		private TestNode(long expirationTimeMillis) {
+			this.expirationTime = TimeUnit.MILLISECONDS.toNanos(expirationTimeMillis);
+		}
+	}
+
+	private final List<TestNode> expired = new ArrayList<>();
+
+	private final TimerWheel<TestNode> timerWheel = new TimerWheel<>(0, new TimerWheel.ExpirationHandler<TestNode>() {
+		@Override
+		public void expired(TestNode node) {
+			expired.add(node);
+		}
+	});
+
+	@Test
+	public void testExpiresOnlyPastNodes() {
+		TestNode first = new TestNode(1500);
+		TestNode second = new TestNode(5000);
+		timerWheel.schedule(first);
+		timerWheel.schedule(second);
+
+		advanceMillis(1000);
+		assertTrue(expired.isEmpty());
+
+		advanceMillis(3000);
+		assertEquals(1, expired.size());
+		assertEquals(first, expired.get(0));
+		assertFalse(first.isScheduled());
+		assertTrue(second.isScheduled());
+
+		advanceMillis(6000);
+		assertEquals(2, expired.size());
+		assertEquals(second, expired.get(1));
+	}
+
+	@Test
+	public void testCascadesFromHigherLevels() {
+		// Expires in roughly two hours, which is beyond the first two levels of the wheel.
+		long expirationTime = 2 * 60 * 60 * 1000;
+		TestNode node = new TestNode(expirationTime);
+		timerWheel.schedule(node);
+
+		for (long now = 0; now < expirationTime; now += 10000) {
+			advanceMillis(now);
+			assertTrue(expired.isEmpty());
+		}
+
+		advanceMillis(expirationTime + 5000);
+		assertEquals(1, expired.size());
+	}
+
+	@Test
+	public void testUnlink() {
+		TestNode node = new TestNode(1500);
+		timerWheel.schedule(node);
+		node.unlink();
+		assertFalse(node.isScheduled());
+
+		advanceMillis(10000);
+		assertTrue(expired.isEmpty());
+	}
+
+	private void advanceMillis(long millis) {
+		timerWheel.advance(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+}
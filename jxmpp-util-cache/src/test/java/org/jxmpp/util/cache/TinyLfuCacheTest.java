@@ -0,0 +1,77 @@
+/**
+ *
+ * Copyright © 2026 Florian Schmaus
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jxmpp.util.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TinyLfuCacheTest {
+
+	@Test
+	public void testMaxCacheSize() {
+		TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, i);
+			assertTrue(cache.size() <= 100);
+		}
+
+		cache.setMaxCacheSize(10);
+		assertTrue(cache.size() <= 10);
+	}
+
+	@Test
+	public void testScanResistance() {
+		TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+
+		// Make the keys 0 to 49 hot.
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 50; i++) {
+				lookupOrPut(cache, i);
+			}
+		}
+
+		// Scans of one-hit wonders, each large enough to flush a LRU cache, interleaved with uses of the hot keys.
+		for (int scan = 0; scan < 50; scan++) {
+			for (int i = 0; i < 200; i++) {
+				lookupOrPut(cache, 1000 + scan * 200 + i);
+			}
+
+			for (int i = 0; i < 50; i++) {
+				assertNotNull("Hot key " + i + " was evicted by the scan", cache.lookup(i));
+			}
+		}
+	}
+
+	@Test
+	public void testReplaceValue() {
+		TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(10);
+		cache.put(1, "foo");
+		assertEquals("foo", cache.put(1, "bar"));
+		assertEquals("bar", cache.lookup(1));
+		assertEquals(1, cache.size());
+	}
+
+	private static void lookupOrPut(Cache<Integer, Integer> cache, int key) {
+		Integer value = cache.lookup(key);
+		if (value == null) {
+			cache.put(key, key);
+		}
+	}
+}